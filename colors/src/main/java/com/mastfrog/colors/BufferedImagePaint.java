@@ -34,15 +34,34 @@ import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * A paint which repeats a gradient image along the axis the gradient does not
+ * vary in - a horizontal gradient image is repeated downward, a vertical one
+ * rightward - anchored at device coordinate 0 along the gradient axis, and
+ * transparent beyond the image's extent in that direction.
+ * <p>
+ * Java2D asks a paint context for pixels in tiles of at most 32x32, and
+ * wraps each distinct raster it is handed in a new BufferedImage and surface;
+ * so the context returns the same scratch raster every time, refilling it
+ * by bulk copies from a tile that is computed once per paint (the image
+ * extended by one tile's length along its repeat axis, so that any request
+ * can be served by a single copy), and skips the copy entirely when the
+ * scratch already holds the requested pixels. Scratch rasters are handed
+ * back to the paint on dispose and reused by the next context.
+ * </p>
  *
  * @author Tim Boudreau
  */
 final class BufferedImagePaint implements Paint {
 
+    private static final int TILE = 32;
     private final BufferedImage img;
     private final boolean vertical;
+    private volatile Tile tile;
+    private final AtomicReference<Scratch> spare = new AtomicReference<>();
 
     BufferedImagePaint(BufferedImage img, boolean vertical) {
         this.img = img;
@@ -56,27 +75,111 @@ final class BufferedImagePaint implements Paint {
 
     @Override
     public PaintContext createContext(ColorModel cm, Rectangle deviceBounds, Rectangle2D userBounds, AffineTransform xform, RenderingHints hints) {
-        return new PC(cm, deviceBounds, userBounds, xform, hints);
+        return new PC(tile());
     }
 
-    class PC implements PaintContext {
+    private Tile tile() {
+        Tile result = tile;
+        if (result == null) {
+            // Racing threads may both compute it; they compute the same thing
+            tile = result = new Tile(img, vertical);
+        }
+        return result;
+    }
+
+    /**
+     * The source image, extended by TILE pixels along its repeat axis, plus
+     * whether every line along that axis is identical (as it is for the
+     * images Gradients creates), in which case the repeat position does not
+     * affect the pixels a request gets.
+     */
+    static final class Tile {
+
+        final WritableRaster raster;
+        final int length;
+        final int period;
+        final boolean uniform;
+
+        Tile(BufferedImage img, boolean vertical) {
+            Raster src = img.getRaster();
+            int w = img.getWidth();
+            int h = img.getHeight();
+            length = vertical ? h : w;
+            period = vertical ? w : h;
+            raster = img.getColorModel().createCompatibleWritableRaster(
+                    vertical ? w + TILE : w, vertical ? h : h + TILE);
+            Object line = null;
+            Object first = null;
+            boolean uni = true;
+            for (int i = 0; i < period + TILE; i++) {
+                int from = i % period;
+                if (vertical) {
+                    line = src.getDataElements(from, 0, 1, h, line);
+                    raster.setDataElements(i, 0, 1, h, line);
+                } else {
+                    line = src.getDataElements(0, from, w, 1, line);
+                    raster.setDataElements(0, i, w, 1, line);
+                }
+                if (i == 0) {
+                    first = vertical ? src.getDataElements(0, 0, 1, h, null)
+                            : src.getDataElements(0, 0, w, 1, null);
+                } else if (uni && i < period) {
+                    uni = sameElements(first, line);
+                }
+            }
+            uniform = uni;
+        }
+
+        private static boolean sameElements(Object a, Object b) {
+            // Data element arrays are primitive arrays of unknown type
+            return Arrays.deepEquals(new Object[]{a}, new Object[]{b});
+        }
+    }
+
+    /**
+     * A context's reusable output raster, with the transfer buffers used to
+     * fill it.
+     */
+    static final class Scratch {
+
+        final WritableRaster raster;
+        final Object buffer;
+        final Object zeros;
+
+        Scratch(ColorModel model, int w, int h) {
+            raster = model.createCompatibleWritableRaster(w, h);
+            // A new raster is empty, so its contents are a buffer of the
+            // right type and size for both purposes
+            buffer = raster.getDataElements(0, 0, w, h, null);
+            zeros = raster.getDataElements(0, 0, w, h, null);
+        }
+
+        boolean fits(int w, int h) {
+            return raster.getWidth() >= w && raster.getHeight() >= h;
+        }
+    }
+
+    final class PC implements PaintContext {
 
-        private final ColorModel cm;
-        private final Rectangle deviceBounds;
-        private final Rectangle2D userBounds;
-        private final AffineTransform xform;
-        private final RenderingHints hints;
+        private final Tile tile;
+        private Scratch scratch;
+        // The request the scratch raster currently holds pixels for
+        private int lastX = Integer.MIN_VALUE;
+        private int lastY = Integer.MIN_VALUE;
+        private int lastW;
+        private int lastH;
 
-        private PC(ColorModel cm, Rectangle deviceBounds, Rectangle2D userBounds, AffineTransform xform, RenderingHints hints) {
-            this.cm = cm;
-            this.deviceBounds = deviceBounds;
-            this.userBounds = userBounds;
-            this.xform = xform;
-            this.hints = hints;
+        private PC(Tile tile) {
+            this.tile = tile;
+            scratch = spare.getAndSet(null);
         }
 
         @Override
         public void dispose() {
+            if (scratch != null) {
+                spare.set(scratch);
+                scratch = null;
+            }
         }
 
         @Override
@@ -86,21 +189,79 @@ final class BufferedImagePaint implements Paint {
 
         @Override
         public Raster getRaster(int x, int y, int w, int h) {
-            // This works, but for the wrong reason - we
-            // are being called once for every scan line.
-            // Why???
-            Raster orig = img.getRaster();
-            WritableRaster r = getColorModel()
-                    .createCompatibleWritableRaster(w, h);
-            int filled = 0;
-            orig = orig.createTranslatedChild(-x, -y);
-            while (filled < (!vertical ? h : w)) {
-                int fx = !vertical ? 0 : x + filled;
-                int fy = !vertical ? y + filled : 0;
-                r.setRect(fx, fy, orig);
-                filled += !vertical ? orig.getHeight() : orig.getWidth();
+            Scratch s = scratch;
+            if (s == null || !s.fits(w, h)) {
+                s = scratch = new Scratch(img.getColorModel(),
+                        Math.max(w, s == null ? TILE : s.raster.getWidth()),
+                        Math.max(h, s == null ? TILE : s.raster.getHeight()));
+                lastX = lastY = Integer.MIN_VALUE;
+            }
+            // When lines along the repeat axis are identical, only the
+            // position along the gradient axis matters
+            int keyX = vertical ? (tile.uniform ? 0 : Math.floorMod(x, tile.period)) : x;
+            int keyY = vertical ? y : (tile.uniform ? 0 : Math.floorMod(y, tile.period));
+            if (keyX == lastX && keyY == lastY && w <= lastW && h <= lastH) {
+                return s.raster;
+            }
+            if (vertical) {
+                fillVertical(s, x, y, w, h);
+            } else {
+                fillHorizontal(s, x, y, w, h);
+            }
+            lastX = keyX;
+            lastY = keyY;
+            lastW = w;
+            lastH = h;
+            return s.raster;
+        }
+
+        private void fillHorizontal(Scratch s, int x, int y, int w, int h) {
+            int lo = Math.max(x, 0);
+            int hi = Math.min(x + w, tile.length);
+            if (hi <= lo) {
+                s.raster.setDataElements(0, 0, w, h, s.zeros);
+                return;
+            }
+            if (lo > x) {
+                s.raster.setDataElements(0, 0, lo - x, h, s.zeros);
+            }
+            if (hi < x + w) {
+                s.raster.setDataElements(hi - x, 0, x + w - hi, h, s.zeros);
+            }
+            int span = tile.period + TILE;
+            for (int row = 0; row < h;) {
+                int from = tile.uniform ? 0 : Math.floorMod(y + row, tile.period);
+                int rows = Math.min(h - row, span - from);
+                copy(s, lo, from, hi - lo, rows, lo - x, row);
+                row += rows;
             }
-            return r;
+        }
+
+        private void fillVertical(Scratch s, int x, int y, int w, int h) {
+            int lo = Math.max(y, 0);
+            int hi = Math.min(y + h, tile.length);
+            if (hi <= lo) {
+                s.raster.setDataElements(0, 0, w, h, s.zeros);
+                return;
+            }
+            if (lo > y) {
+                s.raster.setDataElements(0, 0, w, lo - y, s.zeros);
+            }
+            if (hi < y + h) {
+                s.raster.setDataElements(0, hi - y, w, y + h - hi, s.zeros);
+            }
+            int span = tile.period + TILE;
+            for (int col = 0; col < w;) {
+                int from = tile.uniform ? 0 : Math.floorMod(x + col, tile.period);
+                int cols = Math.min(w - col, span - from);
+                copy(s, from, lo, cols, hi - lo, col, lo - y);
+                col += cols;
+            }
+        }
+
+        private void copy(Scratch s, int srcX, int srcY, int w, int h, int destX, int destY) {
+            Object data = tile.raster.getDataElements(srcX, srcY, w, h, s.buffer);
+            s.raster.setDataElements(destX, destY, w, h, data);
         }
     }
 }
@@ -0,0 +1,135 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+/**
+ * A snapshot of the counters of the image cache of a {@link Gradients}, for
+ * tuning its memory budget.
+ *
+ * @author Tim Boudreau
+ */
+public final class CacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long recoveries;
+    private final int entries;
+    private final long bytes;
+    private final long maxBytes;
+
+    CacheStatistics(long hits, long misses, long evictions, long recoveries,
+            int entries, long bytes, long maxBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.recoveries = recoveries;
+        this.entries = entries;
+        this.bytes = bytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The number of requests satisfied from the cache, including those
+     * recovered from softly held evicted images.
+     *
+     * @return A count
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * The number of requests which required creating an image.
+     *
+     * @return A count
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * The number of images evicted from the cache's memory budget.
+     *
+     * @return A count
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * The number of evicted images which were requested again before being
+     * garbage collected, and were reinstated rather than recreated.
+     *
+     * @return A count
+     */
+    public long recoveries() {
+        return recoveries;
+    }
+
+    /**
+     * The number of images currently held within the memory budget.
+     *
+     * @return A count
+     */
+    public int entries() {
+        return entries;
+    }
+
+    /**
+     * The pixel memory of the images currently held within the budget.
+     *
+     * @return A number of bytes
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * The memory budget.
+     *
+     * @return A number of bytes
+     */
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * The fraction of requests which were hits.
+     *
+     * @return A ratio between 0 and 1
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", recoveries=" + recoveries
+                + ", entries=" + entries + ", bytes=" + bytes
+                + ", maxBytes=" + maxBytes + '}';
+    }
+}
@@ -0,0 +1,241 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe cache of gradient images, bounded by the memory occupied by
+ * their pixels rather than by their number.
+ * <p>
+ * Lookups are lock-free, stamping each entry with a logical clock. When an
+ * insertion takes the cache over budget, entries are sorted by last use and
+ * the least recently used evicted until it is back under three quarters of
+ * the budget, so the cost of sorting is amortized over many insertions.
+ * Evicted images are kept softly reachable, and reinstated if requested
+ * again before the garbage collector reclaims them.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+final class GradientImageCache {
+
+    static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    private final ConcurrentHashMap<Object, Entry> entries
+            = new ConcurrentHashMap<>(64);
+    private final ConcurrentHashMap<Object, SoftEntry> evicted
+            = new ConcurrentHashMap<>(64);
+    private final ReferenceQueue<BufferedImage> queue = new ReferenceQueue<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong recoveries = new AtomicLong();
+    private final long maxBytes;
+    private final long targetBytes;
+    private volatile Runnable onEviction;
+
+    GradientImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Bad cache size " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.targetBytes = (maxBytes / 4) * 3;
+    }
+
+    /**
+     * Set a callback run after entries have been evicted, so that callers
+     * which hold on to entries can release them rather than keeping evicted
+     * images strongly reachable.
+     *
+     * @param onEviction A callback
+     */
+    void onEviction(Runnable onEviction) {
+        this.onEviction = onEviction;
+    }
+
+    BufferedImage get(Object key, Supplier<BufferedImage> ifAbsent) {
+        return entry(key, ifAbsent).image;
+    }
+
+    /**
+     * Look up or create the entry for a key, returning a handle which callers
+     * that intern objects derived from the image can hold on to and
+     * {@link #touch(Entry) touch} to record further use without repeating the
+     * lookup.
+     *
+     * @param key The key
+     * @param ifAbsent Creates the image if it is not present
+     * @return An entry
+     */
+    Entry entry(Object key, Supplier<BufferedImage> ifAbsent) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastUsed = clock.incrementAndGet();
+            hits.incrementAndGet();
+            return entry;
+        }
+        expunge();
+        SoftEntry soft = evicted.remove(key);
+        if (soft != null) {
+            BufferedImage img = soft.get();
+            if (img != null) {
+                hits.incrementAndGet();
+                recoveries.incrementAndGet();
+                return insert(key, img);
+            }
+        }
+        misses.incrementAndGet();
+        return insert(key, ifAbsent.get());
+    }
+
+    /**
+     * Record a use of a previously returned entry, as a hit.
+     *
+     * @param entry An entry
+     * @return false if the entry has been evicted since it was obtained, in
+     * which case the caller should look it up again
+     */
+    boolean touch(Entry entry) {
+        if (entry.evicted) {
+            return false;
+        }
+        // This is the hot path for interned painters; stamping with the
+        // current clock value rather than advancing it still orders this
+        // entry after everything not used since the last lookup or insertion
+        entry.lastUsed = clock.get();
+        hits.incrementAndGet();
+        return true;
+    }
+
+    private Entry insert(Object key, BufferedImage img) {
+        Entry entry = new Entry(img, clock.incrementAndGet());
+        Entry existing = entries.putIfAbsent(key, entry);
+        if (existing != null) {
+            // Another thread created the same image concurrently
+            return existing;
+        }
+        if (bytes.addAndGet(entry.bytes) > maxBytes) {
+            evict();
+        }
+        return entry;
+    }
+
+    private void evict() {
+        boolean anyEvicted = false;
+        synchronized (this) {
+            if (bytes.get() <= maxBytes) {
+                return;
+            }
+            List<Map.Entry<Object, Entry>> all
+                    = new ArrayList<>(entries.entrySet());
+            all.sort((a, b) -> Long.compare(a.getValue().lastUsed,
+                    b.getValue().lastUsed));
+            for (Map.Entry<Object, Entry> e : all) {
+                if (bytes.get() <= targetBytes) {
+                    break;
+                }
+                Object key = e.getKey();
+                Entry entry = e.getValue();
+                if (entries.remove(key, entry)) {
+                    entry.evicted = true;
+                    bytes.addAndGet(-entry.bytes);
+                    evictions.incrementAndGet();
+                    evicted.put(key, new SoftEntry(key, entry.image, queue));
+                    anyEvicted = true;
+                }
+            }
+        }
+        Runnable listener = onEviction;
+        if (anyEvicted && listener != null) {
+            listener.run();
+        }
+    }
+
+    private void expunge() {
+        SoftEntry ref;
+        while ((ref = (SoftEntry) queue.poll()) != null) {
+            evicted.remove(ref.key, ref);
+        }
+    }
+
+    void clear() {
+        synchronized (this) {
+            for (Map.Entry<Object, Entry> e : entries.entrySet()) {
+                if (entries.remove(e.getKey(), e.getValue())) {
+                    e.getValue().evicted = true;
+                    bytes.addAndGet(-e.getValue().bytes);
+                }
+            }
+            evicted.clear();
+        }
+    }
+
+    CacheStatistics statistics() {
+        return new CacheStatistics(hits.get(), misses.get(), evictions.get(),
+                recoveries.get(), entries.size(), bytes.get(), maxBytes);
+    }
+
+    static long imageBytes(BufferedImage img) {
+        DataBuffer buf = img.getRaster().getDataBuffer();
+        return ((long) buf.getSize() * buf.getNumBanks()
+                * DataBuffer.getDataTypeSize(buf.getDataType())) / 8;
+    }
+
+    static final class Entry {
+
+        final BufferedImage image;
+        final long bytes;
+        // Not volatile; a stale stamp only makes eviction order approximate
+        long lastUsed;
+        volatile boolean evicted;
+
+        Entry(BufferedImage image, long lastUsed) {
+            this.image = image;
+            this.bytes = imageBytes(image);
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private static final class SoftEntry extends SoftReference<BufferedImage> {
+
+        final Object key;
+
+        SoftEntry(Object key, BufferedImage image,
+                ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.key = key;
+        }
+    }
+}
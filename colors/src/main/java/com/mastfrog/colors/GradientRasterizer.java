@@ -0,0 +1,434 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import com.mastfrog.colors.space.InterpolationSpace;
+import java.awt.Color;
+import java.awt.MultipleGradientPaint.CycleMethod;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Computes linear (horizontal, vertical or diagonal) and radial gradients with
+ * any number of stops directly into <code>int[]</code> ARGB pixel buffers,
+ * without a Graphics2D - so it works the same headless, and costs nothing to
+ * start up.
+ * <p>
+ * Colors are precomputed into a lookup table at construction, interpolated in
+ * whichever {@link InterpolationSpace} is requested, at a resolution of 256
+ * entries across the narrowest interval between stops; filling is then one
+ * table lookup per pixel, with a single color fill per row for vertical
+ * gradients and a single row copied down for horizontal ones, and radial
+ * gradients mirrored about their center where it falls on a pixel boundary
+ * or center. As with the JDK's gradient paints, each pixel is sampled at its
+ * integer (top left) coordinates. Rows are independent, so a
+ * {@link #parallel()} rasterizer splits large fills into bands of rows
+ * computed on the common fork-join pool.
+ * </p>
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class GradientRasterizer {
+
+    private static final int RESOLUTION = 256;
+    private static final int MAX_RAMP = 8192;
+    private static final int PARALLEL_THRESHOLD = 128 * 128;
+    private static final int BAND_PIXELS = 64 * 1024;
+    private static final double FIXED_ONE = 4294967296D;
+    private static final double FIXED_LIMIT = 1 << 30;
+    private static final long FIXED_BIAS = 1 << 12;
+    private final int[] ramp;
+    private final int scale;
+    private final CycleMethod cycle;
+    private final boolean parallel;
+
+    /**
+     * Create a two-color, non-cyclic rasterizer interpolating in sRGB, the
+     * equivalent of a GradientPaint.
+     *
+     * @param a The color at the start
+     * @param b The color at the end
+     */
+    public GradientRasterizer(Color a, Color b) {
+        this(new float[]{0, 1}, new Color[]{a, b}, InterpolationSpace.SRGB,
+                CycleMethod.NO_CYCLE);
+    }
+
+    /**
+     * Create a rasterizer for a gradient with multiple stops.
+     *
+     * @param fractions The stop positions, ascending, from 0 to 1
+     * @param colors The colors at each stop
+     * @param space The color space to interpolate in
+     * @param cycle What to do beyond the ends of the gradient
+     * @throws IllegalArgumentException if the arrays differ in length, there
+     * are fewer than two stops, or the fractions are not ascending within 0
+     * to 1
+     */
+    public GradientRasterizer(float[] fractions, Color[] colors,
+            InterpolationSpace space, CycleMethod cycle) {
+        if (fractions.length != colors.length) {
+            throw new IllegalArgumentException(fractions.length
+                    + " fractions but " + colors.length + " colors");
+        }
+        int[] argb = new int[colors.length];
+        double minInterval = 1;
+        for (int i = 0; i < colors.length; i++) {
+            argb[i] = colors[i].getRGB();
+            if (i > 0 && fractions[i] > fractions[i - 1]) {
+                minInterval = Math.min(minInterval, fractions[i] - fractions[i - 1]);
+            }
+        }
+        int size = (int) Math.min(MAX_RAMP, Math.ceil(RESOLUTION / minInterval)) + 1;
+        ramp = new int[size];
+        space.ramp(fractions, argb, ramp);
+        scale = size - 1;
+        this.cycle = cycle;
+        this.parallel = false;
+    }
+
+    private GradientRasterizer(GradientRasterizer orig, boolean parallel) {
+        this.ramp = orig.ramp;
+        this.scale = orig.scale;
+        this.cycle = orig.cycle;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Get a rasterizer for the same gradient which computes large fills in
+     * parallel bands of rows.
+     *
+     * @return A rasterizer
+     */
+    public GradientRasterizer parallel() {
+        return parallel ? this : new GradientRasterizer(this, true);
+    }
+
+    /**
+     * Get the color at a position along the gradient.
+     *
+     * @param t The position, where 0 is the first stop and 1 the last
+     * @return A packed ARGB color
+     */
+    public int colorAt(double t) {
+        switch (cycle) {
+            case REPEAT:
+                t -= Math.floor(t);
+                break;
+            case REFLECT:
+                t = Math.abs(t) % 2;
+                if (t > 1) {
+                    t = 2 - t;
+                }
+                break;
+            default:
+                if (t <= 0) {
+                    return ramp[0];
+                } else if (t >= 1) {
+                    return ramp[scale];
+                }
+        }
+        return ramp[(int) (t * scale)];
+    }
+
+    /**
+     * Fill pixels with a linear gradient running from one point to another,
+     * perpendicular to the line between them.
+     *
+     * @param x1 The x coordinate of the start of the gradient
+     * @param y1 The y coordinate of the start of the gradient
+     * @param x2 The x coordinate of the end of the gradient
+     * @param y2 The y coordinate of the end of the gradient
+     * @param x The x coordinate, in the gradient's coordinate space, of the
+     * first pixel to fill
+     * @param y The y coordinate of the first pixel to fill
+     * @param width The number of pixels to fill in each row
+     * @param height The number of rows to fill
+     * @param pixels The ARGB pixel array
+     * @param offset The index in the pixel array of the first pixel
+     * @param scanline The distance in the array between rows
+     */
+    public void linear(double x1, double y1, double x2, double y2, int x, int y,
+            int width, int height, int[] pixels, int offset, int scanline) {
+        checkBounds(width, height, pixels, offset, scanline);
+        linear(x1, y1, x2, y2, x, y, width, height, pixels, offset, scanline, parallel);
+    }
+
+    private void linear(double x1, double y1, double x2, double y2, int x, int y,
+            int width, int height, int[] pixels, int offset, int scanline, boolean par) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double lenSq = dx * dx + dy * dy;
+        // The change in position along the gradient per pixel
+        double ux = lenSq == 0 ? 0 : dx / lenSq;
+        double uy = lenSq == 0 ? 0 : dy / lenSq;
+        double t0 = (x - x1) * ux + (y - y1) * uy;
+        run(par, height, width, (from, to) -> {
+            if (uy == 0 && from < to) {
+                // Horizontal - every row is the same
+                int start = offset + from * scanline;
+                linearRow(t0, ux, pixels, start, width);
+                for (int row = from + 1; row < to; row++) {
+                    System.arraycopy(pixels, start, pixels, offset + row * scanline, width);
+                }
+                return;
+            }
+            for (int row = from; row < to; row++) {
+                int start = offset + row * scanline;
+                double t = t0 + row * uy;
+                if (ux == 0) {
+                    // Vertical - every row is one color
+                    int color = colorAt(t);
+                    for (int i = start; i < start + width; i++) {
+                        pixels[i] = color;
+                    }
+                } else {
+                    linearRow(t, ux, pixels, start, width);
+                }
+            }
+        });
+    }
+
+    private void linearRow(double t, double ux, int[] pixels, int start, int width) {
+        int[] ramp = this.ramp;
+        int last = scale;
+        double pos = t * last;
+        double step = ux * last;
+        if (cycle != CycleMethod.NO_CYCLE || Math.abs(pos) >= FIXED_LIMIT
+                || Math.abs(pos + width * step) >= FIXED_LIMIT) {
+            for (int i = 0; i < width; i++) {
+                pixels[start + i] = colorAt(t + i * ux);
+            }
+            return;
+        }
+        // Step through ramp indices in 32.32 fixed point and clamp -
+        // converting a double to an int for every pixel costs several
+        // times as much as the rest of the loop.  The bias absorbs the
+        // rounding error that otherwise leaves a position which is exactly
+        // on a ramp entry truncating to the one before it
+        long fixed = (long) (pos * FIXED_ONE) + FIXED_BIAS;
+        long fixedStep = (long) (step * FIXED_ONE);
+        for (int i = 0; i < width; i++) {
+            int index = (int) (fixed >> 32);
+            pixels[start + i] = ramp[index < 0 ? 0 : index > last ? last : index];
+            fixed += fixedStep;
+        }
+    }
+
+    /**
+     * Fill pixels with a radial gradient, from the first stop at the center
+     * to the last at the radius.
+     *
+     * @param cx The x coordinate of the center
+     * @param cy The y coordinate of the center
+     * @param radius The radius
+     * @param x The x coordinate, in the gradient's coordinate space, of the
+     * first pixel to fill
+     * @param y The y coordinate of the first pixel to fill
+     * @param width The number of pixels to fill in each row
+     * @param height The number of rows to fill
+     * @param pixels The ARGB pixel array
+     * @param offset The index in the pixel array of the first pixel
+     * @param scanline The distance in the array between rows
+     */
+    public void radial(double cx, double cy, double radius, int x, int y,
+            int width, int height, int[] pixels, int offset, int scanline) {
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("Bad radius " + radius);
+        }
+        checkBounds(width, height, pixels, offset, scanline);
+        radial(cx, cy, radius, x, y, width, height, pixels, offset, scanline, parallel);
+    }
+
+    private void radial(double cx, double cy, double radius, int x, int y,
+            int width, int height, int[] pixels, int offset, int scanline, boolean par) {
+        double inv = 1D / radius;
+        // The gradient is symmetric about its center, so where the center
+        // falls on a pixel or midway between two, the right half of each row
+        // mirrors the left, and rows below the center mirror those above
+        double mx = 2 * (cx - x);
+        double my = 2 * (cy - y);
+        int mirrorX = mx == Math.rint(mx) && mx < Integer.MAX_VALUE ? (int) mx : -1;
+        int mirrorY = my == Math.rint(my) && my < Integer.MAX_VALUE ? (int) my : -1;
+        run(par, height, width, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                int start = offset + row * scanline;
+                int source = mirrorY - row;
+                if (source >= from && source < row) {
+                    System.arraycopy(pixels, offset + source * scanline, pixels, start, width);
+                } else {
+                    radialRow(y + row - cy, x - cx, inv, mirrorX, pixels,
+                            start, width);
+                }
+            }
+        });
+    }
+
+    private void radialRow(double dy, double dx, double inv, int mirror,
+            int[] pixels, int start, int width) {
+        int half = mirror / 2;
+        if (cycle != CycleMethod.NO_CYCLE) {
+            double ry = dy * inv;
+            double rySq = ry * ry;
+            for (int i = 0; i < width; i++) {
+                if (i > half && i <= mirror) {
+                    pixels[start + i] = pixels[start + mirror - i];
+                } else {
+                    double rx = (dx + i) * inv;
+                    pixels[start + i] = colorAt(Math.sqrt(rx * rx + rySq));
+                }
+            }
+            return;
+        }
+        // Measure distance in ramp indices, and skip the square root
+        // entirely outside the circle
+        int[] ramp = this.ramp;
+        int last = scale;
+        double lastSq = (double) last * last;
+        double unit = inv * last;
+        double iy = dy * unit;
+        double iySq = iy * iy;
+        int outside = ramp[last];
+        for (int i = 0; i < width; i++) {
+            if (i > half && i <= mirror) {
+                pixels[start + i] = pixels[start + mirror - i];
+            } else {
+                double ix = (dx + i) * unit;
+                double distSq = ix * ix + iySq;
+                pixels[start + i] = distSq >= lastSq ? outside
+                        : ramp[(int) Math.sqrt(distSq)];
+            }
+        }
+    }
+
+    /**
+     * Fill an image with a linear gradient, with the image's top left pixel
+     * at 0,0 in the gradient's coordinate space.
+     *
+     * @param x1 The x coordinate of the start of the gradient
+     * @param y1 The y coordinate of the start of the gradient
+     * @param x2 The x coordinate of the end of the gradient
+     * @param y2 The y coordinate of the end of the gradient
+     * @param target The image
+     */
+    public void linear(double x1, double y1, double x2, double y2, BufferedImage target) {
+        fill(target, (y, h, pixels) -> linear(x1, y1, x2, y2, 0, y,
+                target.getWidth(), h, pixels, 0, target.getWidth(), false));
+    }
+
+    /**
+     * Fill an image with a radial gradient, with the image's top left pixel
+     * at 0,0 in the gradient's coordinate space.
+     *
+     * @param cx The x coordinate of the center
+     * @param cy The y coordinate of the center
+     * @param radius The radius
+     * @param target The image
+     */
+    public void radial(double cx, double cy, double radius, BufferedImage target) {
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("Bad radius " + radius);
+        }
+        fill(target, (y, h, pixels) -> radial(cx, cy, radius, 0, y,
+                target.getWidth(), h, pixels, 0, target.getWidth(), false));
+    }
+
+    private void fill(BufferedImage target, BandFiller filler) {
+        int w = target.getWidth();
+        int h = target.getHeight();
+        int type = target.getType();
+        // Write through the raster rather than into its DataBufferInt's
+        // array, which would permanently stop Java2D caching the image in
+        // video memory - these images exist to be blitted repeatedly
+        boolean direct = type == BufferedImage.TYPE_INT_ARGB
+                || type == BufferedImage.TYPE_INT_RGB;
+        int bandRows = Math.max(1, Math.min(h, BAND_PIXELS / Math.max(1, w)));
+        int bands = (h + bandRows - 1) / bandRows;
+        if (!parallel || bands == 1) {
+            int[] pixels = new int[w * bandRows];
+            for (int y = 0; y < h; y += bandRows) {
+                fillBand(target, direct, y, Math.min(bandRows, h - y), pixels, filler);
+            }
+            return;
+        }
+        // Bands are already spread across threads, so each is filled serially
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int y = band * bandRows;
+            int rows = Math.min(bandRows, h - y);
+            fillBand(target, direct, y, rows, new int[w * rows], filler);
+        });
+    }
+
+    private static void fillBand(BufferedImage target, boolean direct, int y,
+            int rows, int[] pixels, BandFiller filler) {
+        int w = target.getWidth();
+        filler.fill(y, rows, pixels);
+        if (direct) {
+            target.getRaster().setDataElements(0, y, w, rows, pixels);
+        } else {
+            target.setRGB(0, y, w, rows, pixels, 0, w);
+        }
+    }
+
+    private static void run(boolean par, int height, int width, RowRange rows) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (!par || parallelism < 2 || (long) width * height < PARALLEL_THRESHOLD) {
+            rows.rows(0, height);
+            return;
+        }
+        int bands = Math.min(height, parallelism * 4);
+        int perBand = (height + bands - 1) / bands;
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int from = band * perBand;
+            rows.rows(from, Math.min(height, from + perBand));
+        });
+    }
+
+    private static void checkBounds(int width, int height, int[] pixels, int offset, int scanline) {
+        if (width < 0 || height < 0 || offset < 0 || scanline < width) {
+            throw new IllegalArgumentException("Bad bounds " + width + "x"
+                    + height + " at " + offset + " scanline " + scanline);
+        }
+        if (width > 0 && height > 0
+                && offset + (long) (height - 1) * scanline + width > pixels.length) {
+            throw new IllegalArgumentException(width + "x" + height + " at "
+                    + offset + " with scanline " + scanline
+                    + " overruns array of " + pixels.length);
+        }
+    }
+
+    private interface RowRange {
+
+        void rows(int from, int to);
+    }
+
+    private interface BandFiller {
+
+        void fill(int y, int rows, int[] pixels);
+    }
+}
@@ -27,20 +27,15 @@ import static com.mastfrog.colors.GradientUtils.colorToString;
 import java.awt.Color;
 import java.awt.GradientPaint;
 import java.awt.Graphics2D;
-import java.awt.MultipleGradientPaint.CycleMethod;
+import java.awt.GraphicsDevice;
 import java.awt.Paint;
-import java.awt.RadialGradientPaint;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.Transparency;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -79,7 +74,12 @@ import java.util.function.Supplier;
  * </p>
  * <p>
  * Since gradients are cached (lru eviction), you create a Gradients instance to
- * use for as long as you need it.
+ * use for as long as you need it. The image cache is bounded by the memory its
+ * images occupy, and a Gradients may be used from any thread;
+ * {@link #cacheStatistics()} reports how well the budget is serving. Painters
+ * are interned too, so asking again for a gradient with exactly the same
+ * parameters from a renderer's paint method returns the same painter without
+ * allocating.
  * </p>
  *
  * @author Tim Boudreau
@@ -92,108 +92,141 @@ public class Gradients {
 
     Consumer<BufferedImage> onImageCreate; // for tests
 
-    private static final float[] ZERO_ONE = new float[]{0, 1};
+    private static final int PAINTER_SETS = 64;
 
-    private final Map<String, Map<LinearKey, BufferedImage>> gradientImageForKeyForDeviceId
-            = new HashMap<>(3);
-    private final Map<String, Map<RadialKey, BufferedImage>> radialImageForKeyForDeviceId
-            = new HashMap<>(3);
-    private final Map<DiagonalKey, DiagonalGradientPainter> diagonalGradients
-            = new HashMap<>(24);
-    private final Map<String, DiagonalKey> diagonalKeys = new HashMap<>(24);
+    private final GradientImageCache images;
+    private final PainterCache painters;
+    private final DiagonalGradientPainter[] diagonalGradients
+            = new DiagonalGradientPainter[MAX_CACHED + 1];
+    private int diagonalCount;
+    private volatile DeviceMemo lastDevice = new DeviceMemo(null, null);
+
+    /**
+     * Create a Gradients with an image cache of the default size, 32Mb.
+     */
+    public Gradients() {
+        this(GradientImageCache.DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Create a Gradients whose image cache holds images occupying at most
+     * the passed number of bytes (images evicted beyond that are held
+     * softly, and may be reused if requested again before they are garbage
+     * collected).
+     *
+     * @param maxCacheBytes The memory budget for cached gradient images
+     */
+    public Gradients(long maxCacheBytes) {
+        images = new GradientImageCache(maxCacheBytes);
+        painters = new PainterCache(PAINTER_SETS, images);
+    }
+
+    /**
+     * Get a snapshot of the hit, miss and eviction counters and memory use
+     * of the image cache.
+     *
+     * @return The statistics
+     */
+    public CacheStatistics cacheStatistics() {
+        return images.statistics();
+    }
+
+    /**
+     * Discard all cached gradient images.
+     */
+    public void clearCache() {
+        images.clear();
+        painters.clear();
+        synchronized (diagonalGradients) {
+            Arrays.fill(diagonalGradients, null);
+            diagonalCount = 0;
+        }
+    }
 
     private DiagonalGradientPainter nc(int x1, int y1, Color a, int x2, int y2, Color b, boolean cyclic) {
+        synchronized (diagonalGradients) {
+            return diagonal(x1, y1, a, x2, y2, b, cyclic);
+        }
+    }
+
+    private DiagonalGradientPainter diagonal(int x1, int y1, Color a, int x2, int y2, Color b, boolean cyclic) {
         // Pending:
         // Normalize cyclic to minimum > 0 positions, and reverse coords depending on slope to
         // be able to use the same instance for equivalent coordinates and colors
-        DiagonalKey key = new DiagonalKey(x1, x2, y1, y2, a, b, cyclic);
-        DiagonalKey realKey = diagonalKeys.get(key.toString());
-        if (realKey != null) {
-            key = realKey;
-            key.touch();
-            DiagonalGradientPainter p = diagonalGradients.get(key);
-            if (p != null) {
+        int rgbA = a.getRGB();
+        int rgbB = b.getRGB();
+        long hash = PainterCache.hash(cyclic ? 1 : 0, null, 1, 1, x1, y1, x2, y2, rgbA, rgbB);
+        for (int i = 0; i < diagonalCount; i++) {
+            DiagonalGradientPainter p = diagonalGradients[i];
+            if (p.hash == hash && p.matches(x1, y1, rgbA, x2, y2, rgbB, cyclic)) {
+                p.touch();
                 return p;
             }
-        } else {
-            diagonalKeys.put(key.toString(), key);
         }
-        DiagonalGradientPainter result = new DiagonalGradientPainter(x1, y1, a, x2, y2, b, cyclic, key);
-        diagonalGradients.put(key, result);
+        DiagonalGradientPainter result = new DiagonalGradientPainter(x1, y1, a, x2, y2, b, cyclic, hash);
+        diagonalGradients[diagonalCount++] = result;
         // GC our cache - the rasters belonging to GradientPaints are not small
-        if (diagonalGradients.size() > MAX_CACHED) {
-            List<DiagonalKey> l = new ArrayList<>(diagonalGradients.keySet());
-            Collections.sort(l);
-            Iterator<DiagonalKey> iter = l.iterator();
-            while (diagonalGradients.size() > TARGET_CACHED && iter.hasNext()) {
-                DiagonalKey curr = iter.next();
-                diagonalGradients.remove(curr);
-                diagonalKeys.remove(curr.toString());
+        if (diagonalCount > MAX_CACHED) {
+            while (diagonalCount > TARGET_CACHED) {
+                int oldest = 0;
+                for (int i = 1; i < diagonalCount; i++) {
+                    if (diagonalGradients[i].touched < diagonalGradients[oldest].touched) {
+                        oldest = i;
+                    }
+                }
+                diagonalGradients[oldest] = diagonalGradients[--diagonalCount];
+                diagonalGradients[diagonalCount] = null;
             }
         }
         return result;
     }
 
-    private Map<LinearKey, BufferedImage> gradientMap(Graphics2D g) {
-        String id = devAndTransformId(g);
-        Map<LinearKey, BufferedImage> result = gradientImageForKeyForDeviceId.get(id);
-        if (result == null) {
-            result = new HashMap<>(40);
-            gradientImageForKeyForDeviceId.put(id, result);
+    private GraphicsDevice device(Graphics2D g) {
+        // Looking up the device is surprisingly expensive, and a renderer
+        // typically requests many gradients from the same Graphics in a row;
+        // a Graphics's device never changes, so remember the last one
+        DeviceMemo memo = lastDevice;
+        if (memo.get() == g) {
+            return memo.device;
         }
+        GraphicsDevice result = g.getDeviceConfiguration().getDevice();
+        lastDevice = new DeviceMemo(g, result);
         return result;
     }
 
-    private String devAndTransformId(Graphics2D g) {
-        AffineTransform xform = g.getTransform();
+    private String devAndTransformId(GraphicsDevice dev, AffineTransform xform) {
         if (xform != null && xform.getScaleX() != 1D || xform.getScaleY() != 1D) {
             double scaleX = xform.getScaleX();
             double scaleY = xform.getScaleY();
-            return g.getDeviceConfiguration().getDevice().getIDstring() + ";" + scaleX + ":" + scaleY;
+            return dev.getIDstring() + ";" + scaleX + ":" + scaleY;
         } else {
-            return g.getDeviceConfiguration().getDevice().getIDstring();
+            return dev.getIDstring();
         }
     }
 
-    private Map<RadialKey, BufferedImage> radialMap(Graphics2D g) {
-        String id = devAndTransformId(g);
-        Map<RadialKey, BufferedImage> result = radialImageForKeyForDeviceId.get(id);
-        if (result == null) {
-            result = new HashMap<>(40);
-            radialImageForKeyForDeviceId.put(id, result);
-        }
-        return result;
+    private GradientImageCache.Entry imageForKey(GraphicsDevice dev, AffineTransform xform, Object key, Supplier<BufferedImage> ifAbsent) {
+        return images.entry(new ImageKey(devAndTransformId(dev, xform), key), ifAbsent);
     }
 
-    private BufferedImage imageForKey(Graphics2D g, RadialKey rk, Supplier<BufferedImage> ifAbsent) {
-        Map<RadialKey, BufferedImage> m = radialMap(g);
-        BufferedImage result = m.get(rk);
-        if (result == null) {
-            result = ifAbsent.get();
-            m.put(rk, result);
+    private AffineTransform invertTransform(AffineTransform xform) {
+        if (xform != null && xform.getScaleX() == 1D || xform.getScaleY() == 1D) {
+            return GradientUtils.NO_XFORM;
+        } else {
+            return AffineTransform.getScaleInstance(1D / xform.getScaleX(), 1D / xform.getScaleY());
         }
-        return result;
     }
 
-    private BufferedImage imageForKey(Graphics2D g, LinearKey gk, Supplier<BufferedImage> ifAbsent) {
-        Map<LinearKey, BufferedImage> m = gradientMap(g);
-        BufferedImage result = m.get(gk);
+    private GradientPainter solid(Color color) {
+        int rgb = color.getRGB();
+        long hash = PainterCache.hash(PainterCache.SOLID, null, 1, 1, 0, 0, 0, 0, rgb, rgb);
+        GradientPainter result = painters.get(hash, PainterCache.SOLID, null, 1, 1, 0, 0, 0, 0, rgb, rgb);
         if (result == null) {
-            result = ifAbsent.get();
-            m.put(gk, result);
+            result = painters.put(hash, PainterCache.SOLID, null, 1, 1, 0, 0, 0, 0, rgb, rgb,
+                    null, new ColorPainter(color));
         }
         return result;
     }
 
-    private AffineTransform invertTransform(Graphics2D g) {
-        AffineTransform xform = g.getTransform();
-        if (xform != null && xform.getScaleX() == 1D || xform.getScaleY() == 1D) {
-            return GradientUtils.NO_XFORM;
-        } else {
-            return AffineTransform.getScaleInstance(1D / xform.getScaleX(), 1D / xform.getScaleY());
-        }
-    }
-
     public RectangularGlow glow(Color dark, Color light, int size) {
         return new RectangularGlow(dark, light, this, size);
     }
@@ -224,13 +257,27 @@ public class Gradients {
      */
     public GradientPainter radial(Graphics2D g, int x, int y, Color a, Color b, int radius) {
         if (radius == 0 || a == b || a.equals(b)) {
-            return new ColorPainter(b);
+            return solid(b);
         }
-        RadialKey rk = new RadialKey(radius, a, b);
-        BufferedImage img = imageForKey(g, rk, () -> {
-            return createRadialGradientImage(g, x, y, a, b, radius);
-        });
-        return new RadialGradientPainter(img, x, y, b, invertTransform(g));
+        // Painters are interned by their exact parameters, so repeated calls
+        // with the same arguments allocate nothing
+        GraphicsDevice dev = device(g);
+        AffineTransform xform = g.getTransform();
+        double scaleX = xform.getScaleX();
+        double scaleY = xform.getScaleY();
+        int rgbA = a.getRGB();
+        int rgbB = b.getRGB();
+        long hash = PainterCache.hash(PainterCache.RADIAL, dev, scaleX, scaleY, x, y, radius, 0, rgbA, rgbB);
+        GradientPainter result = painters.get(hash, PainterCache.RADIAL, dev, scaleX, scaleY, x, y, radius, 0, rgbA, rgbB);
+        if (result == null) {
+            RadialKey rk = new RadialKey(radius, a, b);
+            GradientImageCache.Entry img = imageForKey(dev, xform, rk, () -> {
+                return createRadialGradientImage(g, x, y, a, b, radius);
+            });
+            result = painters.put(hash, PainterCache.RADIAL, dev, scaleX, scaleY, x, y, radius, 0, rgbA, rgbB,
+                    img, new RadialGradientPainter(img.image, x, y, b, invertTransform(xform)));
+        }
+        return result;
     }
 
     /**
@@ -249,18 +296,30 @@ public class Gradients {
      */
     public GradientPainter linear(Graphics2D g, int x1, int y1, Color top, int x2, int y2, Color bottom) {
         if (top == bottom || top.equals(bottom) || (x1 == x2 && y1 == y2)) {
-            return new ColorPainter(top);
+            return solid(top);
         }
-        LinearKey key = LinearKey.forGradientSpec(x1, y1, top, x2, y2, bottom);
-        if (key == null) {
+        if (!LinearKey.isCacheable(x1, y1, x2, y2)) {
             return nc(x1, y1, top, x2, y2, bottom, false);
         }
-        BufferedImage img = imageForKey(g, key, () -> {
-            return createLinearGradientImage(g, x1, y1, top, x2, y2, bottom);
-        });
-
-        return new LinearGradientPainter(img, Math.min(x1, x2), Math.min(y1, y2), key.isVertical(),
-                key.topColor(), key.bottomColor(), invertTransform(g));
+        GraphicsDevice dev = device(g);
+        AffineTransform xform = g.getTransform();
+        double scaleX = xform.getScaleX();
+        double scaleY = xform.getScaleY();
+        int rgbTop = top.getRGB();
+        int rgbBottom = bottom.getRGB();
+        long hash = PainterCache.hash(PainterCache.LINEAR, dev, scaleX, scaleY, x1, y1, x2, y2, rgbTop, rgbBottom);
+        GradientPainter result = painters.get(hash, PainterCache.LINEAR, dev, scaleX, scaleY, x1, y1, x2, y2, rgbTop, rgbBottom);
+        if (result == null) {
+            LinearKey key = LinearKey.forGradientSpec(x1, y1, top, x2, y2, bottom);
+            GradientImageCache.Entry img = imageForKey(dev, xform, key, () -> {
+                return createLinearGradientImage(g, x1, y1, top, x2, y2, bottom);
+            });
+            boolean reversed = key.isVertical() ? y2 < y1 : x2 < x1;
+            result = painters.put(hash, PainterCache.LINEAR, dev, scaleX, scaleY, x1, y1, x2, y2, rgbTop, rgbBottom,
+                    img, new LinearGradientPainter(img.image, Math.min(x1, x2), Math.min(y1, y2), key.isVertical(),
+                            reversed ? bottom : top, reversed ? top : bottom, invertTransform(xform)));
+        }
+        return result;
     }
 
     private BufferedImage createRadialGradientImage(Graphics2D g, int x, int y, Color a, Color b, int radius) {
@@ -272,14 +331,8 @@ public class Gradients {
 //            System.out.println("newradius " + radius);
 //        }
         int xpar = transparencyMode(a, b);
-        Color[] colors = new Color[]{a, b};
         BufferedImage img = g.getDeviceConfiguration().createCompatibleImage(radius * 2, radius * 2, xpar);
-        Graphics2D gg = img.createGraphics();
-        RadialGradientPaint rgp = new RadialGradientPaint(radius, radius, radius, ZERO_ONE, colors, CycleMethod.NO_CYCLE);
-        GradientUtils.prepareGraphics(gg);
-        gg.setPaint(rgp);
-        gg.fillRect(0, 0, radius * 2, radius * 2);
-        gg.dispose();
+        new GradientRasterizer(a, b).radial(radius, radius, radius, img);
         if (onImageCreate != null) {
             onImageCreate.accept(img);
         }
@@ -331,12 +384,7 @@ public class Gradients {
             int xpar = transparencyMode(top, bottom);
             BufferedImage img = g.getDeviceConfiguration()
                     .createCompatibleImage(w, h, xpar);
-            GradientPaint pt = new GradientPaint(nx1, ny1, nTop, nx2, ny2, nBottom);
-            Graphics2D gg = img.createGraphics();
-            GradientUtils.prepareGraphics(gg);
-            gg.setPaint(pt);
-            gg.fillRect(0, 0, w, h);
-            gg.dispose();
+            new GradientRasterizer(nTop, nBottom).linear(nx1, ny1, nx2, ny2, img);
             if (onImageCreate != null) {
                 onImageCreate.accept(img);
             }
@@ -354,9 +402,10 @@ public class Gradients {
         final Color bottom;
         private GradientPaint paint;
         private final boolean cyclic;
-        private final DiagonalKey key;
+        final long hash;
+        volatile long touched = System.nanoTime();
 
-        DiagonalGradientPainter(int x1, int y1, Color top, int x2, int y2, Color bottom, boolean cyclic, DiagonalKey key) {
+        DiagonalGradientPainter(int x1, int y1, Color top, int x2, int y2, Color bottom, boolean cyclic, long hash) {
             this.x1 = x1;
             this.y1 = y1;
             this.top = top;
@@ -364,7 +413,17 @@ public class Gradients {
             this.y2 = y2;
             this.bottom = bottom;
             this.cyclic = cyclic;
-            this.key = key;
+            this.hash = hash;
+        }
+
+        void touch() {
+            touched = System.nanoTime();
+        }
+
+        boolean matches(int x1, int y1, int top, int x2, int y2, int bottom, boolean cyclic) {
+            return this.x1 == x1 && this.y1 == y1 && this.x2 == x2 && this.y2 == y2
+                    && this.cyclic == cyclic && this.top.getRGB() == top
+                    && this.bottom.getRGB() == bottom;
         }
 
         @Override
@@ -391,7 +450,7 @@ public class Gradients {
             if (old != null) {
                 g.setPaint(old);
             }
-            key.touch();
+            touch();
         }
 
         @Override
@@ -403,7 +462,7 @@ public class Gradients {
             if (old != null) {
                 g.setPaint(old);
             }
-            key.touch();
+            touch();
         }
 
         @Override
@@ -415,7 +474,7 @@ public class Gradients {
             if (old != null) {
                 g.setPaint(old);
             }
-            key.touch();
+            touch();
         }
 
         @Override
@@ -462,6 +521,56 @@ public class Gradients {
         }
     }
 
+    /**
+     * The graphics context a device was last looked up for, held weakly so
+     * as not to keep its surface alive.
+     */
+    private static final class DeviceMemo extends WeakReference<Graphics2D> {
+
+        private final GraphicsDevice device;
+
+        DeviceMemo(Graphics2D g, GraphicsDevice device) {
+            super(g);
+            this.device = device;
+        }
+    }
+
+    /**
+     * Cache key combining a gradient key with the device and scale it was
+     * rendered for.
+     */
+    private static final class ImageKey {
+
+        private final String deviceId;
+        private final Object key;
+
+        ImageKey(String deviceId, Object key) {
+            this.deviceId = deviceId;
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return (deviceId.hashCode() * 31) + key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof ImageKey)) {
+                return false;
+            }
+            ImageKey other = (ImageKey) obj;
+            return deviceId.equals(other.deviceId) && key.equals(other.key);
+        }
+
+        @Override
+        public String toString() {
+            return deviceId + ":" + key;
+        }
+    }
+
     static class ColorPainter implements GradientPainter {
 
         private final Color color;
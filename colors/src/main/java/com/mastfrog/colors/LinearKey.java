@@ -100,10 +100,16 @@ final class LinearKey {
     }
 
     public static LinearKey forGradientSpec(int x1, int y1, Color top, int x2, int y2, Color bottom) {
-        return normalize(x1, y1, top, x2, y2, bottom, (cx1, cy1, a, cx2, cy2, b, norm) -> {
-            boolean vert = isVertical(x1, y1, x2, y2);
-            return norm ? new LinearKey(vert, distance(cx1, cy1, cx2, cy2), a, b) : null;
-        });
+        // Equivalent to normalizing and keying on the result, without the
+        // lambda - translation does not change the distance, so all that
+        // matters is whether the colors are reversed
+        boolean vert = isVertical(x1, y1, x2, y2);
+        if (!vert && !isHorizontal(x1, y1, x2, y2)) {
+            return null;
+        }
+        boolean reversed = vert ? y2 < y1 : x2 < x1;
+        return new LinearKey(vert, distance(x1, y1, x2, y2),
+                reversed ? bottom : top, reversed ? top : bottom);
     }
 
     public Color topColor() {
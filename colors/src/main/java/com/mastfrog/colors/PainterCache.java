@@ -0,0 +1,197 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interns gradient painters by their exact parameters, so that repeated
+ * requests for the same gradient at the same position return the same
+ * painter without allocating anything - no key objects, no strings, no
+ * boxing.
+ * <p>
+ * The table is a fixed size, four-way set associative array indexed by a
+ * 64-bit hash of the parameters; a hit is confirmed by comparing every
+ * parameter, so a hash collision costs a miss, never a wrong painter. A miss
+ * replaces the least recently used painter in its set. Painters backed by an
+ * image in the {@link GradientImageCache} hold that image's entry, and are
+ * purged from the table whenever the image cache evicts, so an evicted image
+ * is left only softly reachable and interning painters does not defeat the
+ * image cache's memory budget.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+final class PainterCache {
+
+    static final int SOLID = 1;
+    static final int LINEAR = 2;
+    static final int RADIAL = 3;
+    private static final int WAYS = 4;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private final AtomicReferenceArray<Entry> slots;
+    // Deliberately not atomic - lost updates under contention only make the
+    // choice of which painter in a set to replace slightly less exact
+    private long clock;
+    private final int setMask;
+    private final GradientImageCache images;
+
+    PainterCache(int sets, GradientImageCache images) {
+        if (sets <= 0 || Integer.bitCount(sets) != 1) {
+            throw new IllegalArgumentException("Set count must be a power of "
+                    + "two: " + sets);
+        }
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.images = images;
+        images.onEviction(this::purgeEvicted);
+    }
+
+    static long hash(int kind, Object device, double scaleX, double scaleY,
+            int a, int b, int c, int d, int rgb1, int rgb2) {
+        long h = ((long) kind << 32) ^ System.identityHashCode(device);
+        h = h * MULTIPLIER + Double.doubleToLongBits(scaleX);
+        h = h * MULTIPLIER + Double.doubleToLongBits(scaleY);
+        h = h * MULTIPLIER + (((long) a << 32) | (b & 0xFFFFFFFFL));
+        h = h * MULTIPLIER + (((long) c << 32) | (d & 0xFFFFFFFFL));
+        return mix(h * MULTIPLIER + (((long) rgb1 << 32) | (rgb2 & 0xFFFFFFFFL)));
+    }
+
+    private static long mix(long h) {
+        // Stafford's variant 13 of the MurmurHash3 finalizer
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private int base(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & setMask) * WAYS;
+    }
+
+    GradientPainter get(long hash, int kind, Object device, double scaleX,
+            double scaleY, int a, int b, int c, int d, int rgb1, int rgb2) {
+        int base = base(hash);
+        for (int i = 0; i < WAYS; i++) {
+            Entry e = slots.get(base + i);
+            if (e != null && e.hash == hash && e.matches(kind, device, scaleX,
+                    scaleY, a, b, c, d, rgb1, rgb2)) {
+                if (e.image != null && !images.touch(e.image)) {
+                    slots.compareAndSet(base + i, e, null);
+                    return null;
+                }
+                e.lastUsed = ++clock;
+                return e.painter;
+            }
+        }
+        return null;
+    }
+
+    GradientPainter put(long hash, int kind, Object device, double scaleX,
+            double scaleY, int a, int b, int c, int d, int rgb1, int rgb2,
+            GradientImageCache.Entry image, GradientPainter painter) {
+        int base = base(hash);
+        int victim = base;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < WAYS; i++) {
+            Entry e = slots.get(base + i);
+            if (e == null) {
+                victim = base + i;
+                break;
+            } else if (e.lastUsed < oldest) {
+                oldest = e.lastUsed;
+                victim = base + i;
+            }
+        }
+        // Racing threads may each replace a slot; the loser's painter is
+        // simply not interned
+        slots.set(victim, new Entry(hash, kind, device, scaleX, scaleY,
+                a, b, c, d, rgb1, rgb2, image, painter,
+                ++clock));
+        return painter;
+    }
+
+    /**
+     * Drop every painter whose image has been evicted from the image cache.
+     */
+    void purgeEvicted() {
+        for (int i = 0; i < slots.length(); i++) {
+            Entry e = slots.get(i);
+            if (e != null && e.image != null && e.image.evicted) {
+                slots.compareAndSet(i, e, null);
+            }
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private static final class Entry {
+
+        final long hash;
+        final int kind;
+        final Object device;
+        final double scaleX;
+        final double scaleY;
+        final int a;
+        final int b;
+        final int c;
+        final int d;
+        final int rgb1;
+        final int rgb2;
+        final GradientImageCache.Entry image;
+        final GradientPainter painter;
+        long lastUsed;
+
+        Entry(long hash, int kind, Object device, double scaleX, double scaleY,
+                int a, int b, int c, int d, int rgb1, int rgb2,
+                GradientImageCache.Entry image, GradientPainter painter,
+                long lastUsed) {
+            this.hash = hash;
+            this.kind = kind;
+            this.device = device;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+            this.rgb1 = rgb1;
+            this.rgb2 = rgb2;
+            this.image = image;
+            this.painter = painter;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean matches(int kind, Object device, double scaleX, double scaleY,
+                int a, int b, int c, int d, int rgb1, int rgb2) {
+            return this.kind == kind && this.device == device
+                    && this.scaleX == scaleX && this.scaleY == scaleY
+                    && this.a == a && this.b == b && this.c == c
+                    && this.d == d && this.rgb1 == rgb1 && this.rgb2 == rgb2;
+        }
+    }
+}
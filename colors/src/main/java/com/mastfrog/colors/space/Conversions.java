@@ -33,33 +33,120 @@ import static java.lang.Math.min;
  */
 final class Conversions {
 
-    public static void rgbToXyz(int r, int g, int b, double[] xyz) {
-        assert xyz.length >= 3;
-        double _r = ((double) r / 255D);
-        double _g = (g / 255D);
-        double _b = (b / 255D);
-
-        if (_r > 0.04045) {
-            _r = Math.pow(((_r + 0.055) / 1.055), 2.4D);
+    /**
+     * Linear light, 0-1, for each 8-bit sRGB value - which are also the
+     * thresholds at or above which a linear value encodes to each 8-bit value.
+     */
+    private static final double[] SRGB_TO_LINEAR = new double[256];
+    private static final int ENCODE_BUCKETS = 4096;
+    /**
+     * For evenly spaced linear values, the greatest 8-bit value whose
+     * threshold is at or below it - buckets are narrower than the smallest
+     * gap between thresholds, so at most a step or two of search remains.
+     */
+    private static final byte[] ENCODE_START = new byte[ENCODE_BUCKETS + 1];
+    private static final double EPSILON = 0.008856;
+    private static final double KAPPA = 7.787;
+    private static final double OFFSET = 16D / 116D;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            SRGB_TO_LINEAR[i] = srgbToLinear(i / 255D);
+        }
+        int k = 0;
+        for (int i = 0; i <= ENCODE_BUCKETS; i++) {
+            double linear = i / (double) ENCODE_BUCKETS;
+            while (k < 255 && SRGB_TO_LINEAR[k + 1] <= linear) {
+                k++;
+            }
+            ENCODE_START[i] = (byte) k;
+        }
+    }
 
-        } else {
-            _r /= 12.92;
+    /**
+     * Convert an sRGB component in the range 0-1 to linear light.
+     *
+     * @param c A gamma-encoded component
+     * @return A linear component
+     */
+    public static double srgbToLinear(double c) {
+        if (c > 0.04045) {
+            return Math.pow(((c + 0.055) / 1.055), 2.4D);
+        }
+        return c / 12.92;
+    }
 
+    /**
+     * Convert a linear light component in the range 0-1 to sRGB.
+     *
+     * @param c A linear component
+     * @return A gamma-encoded component
+     */
+    public static double linearToSrgb(double c) {
+        if (c > 0.0031308) {
+            return 1.055 * (Math.pow(c, (1D / 2.4D))) - 0.055;
         }
-        if (_g > 0.04045) {
-            _g = Math.pow(((_g + 0.055) / 1.055), 2.4D);
+        return 12.92 * c;
+    }
 
-        } else {
-            _g /= 12.92;
+    /**
+     * Convert an 8-bit sRGB component to linear light by table lookup.
+     *
+     * @param c A gamma-encoded component, 0-255
+     * @return A linear component, 0-1
+     */
+    static double srgbToLinear(int c) {
+        return SRGB_TO_LINEAR[c];
+    }
 
+    /**
+     * Convert linear light to an 8-bit sRGB component, truncating and
+     * clamping exactly as <code>(int) (linearToSrgb(c) * 255)</code> would,
+     * without the <code>Math.pow()</code> call - the result is found among
+     * the thresholds in the sRGB-to-linear table.
+     *
+     * @param c A linear component, nominally 0-1
+     * @return A gamma-encoded component, 0-255
+     */
+    static int linearToSrgbByte(double c) {
+        if (!(c > 0)) {
+            return 0;
+        } else if (c >= 1) {
+            return 255;
+        }
+        int result = ENCODE_START[(int) (c * ENCODE_BUCKETS)] & 0xFF;
+        while (result < 255 && c >= SRGB_TO_LINEAR[result + 1]) {
+            result++;
         }
-        if (_b > 0.04045) {
-            _b = Math.pow(((_b + 0.055) / 1.055), 2.4D);
+        return result;
+    }
 
-        } else {
-            _b /= 12.92;
+    /**
+     * Cube root of a positive value, by two Halley iterations from an
+     * estimate made by dividing the exponent bits by three. Relative error
+     * against <code>Math.cbrt()</code> is below 1e-14 for values from 1e-90
+     * to 1e90 (beyond which the iterations overflow or underflow), at roughly
+     * a third of its cost and a quarter of <code>Math.pow(x, 1D / 3D)</code>'s.
+     * L*a*b* only ever needs roots of values near 0.009 to 1.1.
+     *
+     * @param x A value
+     * @return Its cube root
+     */
+    static double cbrt(double x) {
+        double y = Double.longBitsToDouble(
+                Double.doubleToRawLongBits(x) / 3 + 0x2A9F7893782DA1CEL);
+        double y3 = y * y * y;
+        y = y * (y3 + 2 * x) / (2 * y3 + x);
+        y3 = y * y * y;
+        return y * (y3 + 2 * x) / (2 * y3 + x);
+    }
+
+    public static void rgbToXyz(int r, int g, int b, double[] xyz) {
+        assert xyz.length >= 3;
+        double _r = srgbToLinear(r);
+        double _g = srgbToLinear(g);
+        double _b = srgbToLinear(b);
 
-        }
         _r = _r * 100D;
         _g = _g * 100D;
         _b = _b * 100D;
@@ -78,27 +165,24 @@ final class Conversions {
         double workingX = x / illuminant.x(standard);
         double workingY = y / illuminant.y(standard);
         double workingZ = z / illuminant.z(standard);
-        if (workingX > 0.008856) {
-            workingX = Math.pow(workingX, (1D / 3D));
-        } else {
-            workingX = (7.787 * workingX) + (16D / 116D);
-        }
-        if (workingY > 0.008856) {
-            workingY = Math.pow(workingY, (1D / 3D));
-        } else {
-            workingY = (7.787 * workingY) + (16D / 116D);
-        }
-        if (workingZ > 0.008856) {
-            workingZ = Math.pow(workingZ, (1D / 3D));
-        } else {
-            workingZ = (7.787D * workingZ) + (16D / 116);
-        }
+        workingX = labF(workingX);
+        workingY = labF(workingY);
+        workingZ = labF(workingZ);
 
         lab[0] = (116D * workingY) - 16D;
         lab[1] = 500D * (workingX - workingY);
         lab[2] = 200D * (workingY - workingZ);
     }
 
+    private static double labF(double t) {
+        return t > EPSILON ? cbrt(t) : (KAPPA * t) + OFFSET;
+    }
+
+    private static double labFInverse(double t) {
+        double cube = t * t * t;
+        return cube > EPSILON ? cube : (t - OFFSET) / KAPPA;
+    }
+
     public static void rgbToLab(int r, int g, int b, double[] lab) {
         rgbToXyz(r, g, b, lab);
         xyzToLab(lab[0], lab[1], lab[2], lab);
@@ -108,6 +192,102 @@ final class Conversions {
         rgbToLab(rgb[0], rgb[1], rgb[2], lab);
     }
 
+    /**
+     * Convert packed RGB pixels to L*a*b* under the default illuminant and
+     * standard, writing L, a and b for each into consecutive elements of the
+     * output. Alpha is ignored. Nothing is allocated, and runs of the same
+     * pixel are converted once.
+     *
+     * @param argb The pixels
+     * @param offset The first pixel to convert
+     * @param count The number of pixels to convert
+     * @param labOut The output
+     * @param labOffset The index of the first L value in the output
+     */
+    static void rgbToLab(int[] argb, int offset, int count, float[] labOut, int labOffset) {
+        checkBulk(argb.length, offset, count, labOut.length, labOffset);
+        Illuminant ill = Illuminant.getDefault();
+        // Fold the 0-100 XYZ scale and the white point into the matrix
+        double wx = 100D / ill.x(Standard.CIE_1964);
+        double wy = 100D / ill.y(Standard.CIE_1964);
+        double wz = 100D / ill.z(Standard.CIE_1964);
+        double[] lin = SRGB_TO_LINEAR;
+        int prev = 0;
+        float l = 0;
+        float a = 0;
+        float b = 0;
+        for (int i = 0; i < count; i++) {
+            int px = argb[offset + i] & 0xFFFFFF;
+            if (i == 0 || px != prev) {
+                double r = lin[px >> 16];
+                double g = lin[(px >> 8) & 0xFF];
+                double bl = lin[px & 0xFF];
+                double fx = labF((r * 0.4124 + g * 0.3576 + bl * 0.1805) * wx);
+                double fy = labF((r * 0.2126 + g * 0.7152 + bl * 0.0722) * wy);
+                double fz = labF((r * 0.0193 + g * 0.1192 + bl * 0.9505) * wz);
+                l = (float) (116D * fy - 16D);
+                a = (float) (500D * (fx - fy));
+                b = (float) (200D * (fy - fz));
+                prev = px;
+            }
+            int at = labOffset + i * 3;
+            labOut[at] = l;
+            labOut[at + 1] = a;
+            labOut[at + 2] = b;
+        }
+    }
+
+    static void rgbToLab(int[] argb, float[] labOut) {
+        rgbToLab(argb, 0, argb.length, labOut, 0);
+    }
+
+    /**
+     * Convert consecutive L, a and b values under the default illuminant and
+     * standard to opaque packed RGB pixels, clamping colors outside the sRGB
+     * gamut. Nothing is allocated, and no <code>Math.pow()</code> is
+     * called - the inverse of the L*a*b* curve is a cube, and linear light is
+     * encoded to sRGB by table lookup.
+     *
+     * @param lab The L*a*b* values
+     * @param labOffset The index of the first L value
+     * @param count The number of colors to convert
+     * @param argbOut The output pixels
+     * @param offset The index of the first output pixel
+     */
+    static void labToRgb(float[] lab, int labOffset, int count, int[] argbOut, int offset) {
+        checkBulk(argbOut.length, offset, count, lab.length, labOffset);
+        Illuminant ill = Illuminant.getDefault();
+        double wx = ill.x(Standard.CIE_1964) / 100D;
+        double wy = ill.y(Standard.CIE_1964) / 100D;
+        double wz = ill.z(Standard.CIE_1964) / 100D;
+        for (int i = 0; i < count; i++) {
+            int at = labOffset + i * 3;
+            double fy = (lab[at] + 16D) / 116D;
+            double x = labFInverse(lab[at + 1] / 500D + fy) * wx;
+            double y = labFInverse(fy) * wy;
+            double z = labFInverse(fy - lab[at + 2] / 200D) * wz;
+            int r = linearToSrgbByte(x * 3.2406 + y * -1.5372 + z * -0.4986);
+            int g = linearToSrgbByte(x * -0.9689 + y * 1.8758 + z * 0.0415);
+            int b = linearToSrgbByte(x * 0.0557 + y * -0.2040 + z * 1.0570);
+            argbOut[offset + i] = 0xFF000000 | (r << 16) | (g << 8) | b;
+        }
+    }
+
+    static void labToRgb(float[] lab, int[] argbOut) {
+        labToRgb(lab, 0, argbOut.length, argbOut, 0);
+    }
+
+    private static void checkBulk(int pixelsLength, int offset, int count,
+            int labLength, int labOffset) {
+        if (offset < 0 || count < 0 || labOffset < 0
+                || (long) offset + count > pixelsLength
+                || (long) labOffset + count * 3L > labLength) {
+            throw new IllegalArgumentException("Cannot convert " + count
+                    + " pixels at " + offset + " of " + pixelsLength
+                    + " with L*a*b* at " + labOffset + " of " + labLength);
+        }
+    }
+
     public static void xyzToHsb(double[] xyz, float[] hsb) {
         assert xyz.length >= 3;
         xyzToHsb(xyz[0], xyz[1], xyz[2], hsb);
@@ -171,25 +351,9 @@ final class Conversions {
         double var_G = var_X * -0.9689 + var_Y * 1.8758 + var_Z * 0.0415;
         double var_B = var_X * 0.0557 + var_Y * -0.2040 + var_Z * 1.0570;
 
-        if (var_R > 0.0031308) {
-            var_R = 1.055 * (Math.pow(var_R, (1D / 2.4D))) - 0.055;
-        } else {
-            var_R = 12.92 * var_R;
-        }
-        if (var_G > 0.0031308) {
-            var_G = 1.055 * (Math.pow(var_G, (1D / 2.4D))) - 0.055;
-        } else {
-            var_G = 12.92 * var_G;
-        }
-        if (var_B > 0.0031308) {
-            var_B = 1.055 * (Math.pow(var_B, (1D / 2.4D))) - 0.055;
-        } else {
-            var_B = 12.92 * var_B;
-        }
-
-        comps[0] = (int) Math.max(0, Math.min(255, var_R * 255));
-        comps[1] = (int) Math.max(0, Math.min(255, var_G * 255));
-        comps[2] = (int) Math.max(0, Math.min(255, var_B * 255));
+        comps[0] = linearToSrgbByte(var_R);
+        comps[1] = linearToSrgbByte(var_G);
+        comps[2] = linearToSrgbByte(var_B);
     }
 
     public static void labToXyz(double[] lab, double[] xyz) {
@@ -205,22 +369,9 @@ final class Conversions {
         double var_X = a / 500D + var_Y;
         double var_Z = var_Y - b / 200D;
 
-        if (Math.pow(var_Y, 3D) > 0.008856) {
-            var_Y = Math.pow(var_Y, 3D);
-        } else {
-            var_Y = (var_Y - 16D / 116D) / 7.787;
-        }
-        if (Math.pow(var_X, 3D) > 0.008856) {
-            var_X = Math.pow(var_X, 3D);
-
-        } else {
-            var_X = (var_X - 16D / 116D) / 7.787;
-        }
-        if (Math.pow(var_Z, 3) > 0.008856) {
-            var_Z = Math.pow(var_Z, 3D);
-        } else {
-            var_Z = (var_Z - 16D / 116D) / 7.787;
-        }
+        var_Y = labFInverse(var_Y);
+        var_X = labFInverse(var_X);
+        var_Z = labFInverse(var_Z);
         xyz[0] = var_X * illuminant.x(standard);
         xyz[1] = var_Y * illuminant.y(standard);
         xyz[2] = var_Z * illuminant.z(standard);
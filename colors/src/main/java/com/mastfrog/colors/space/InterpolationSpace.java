@@ -0,0 +1,190 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors.space;
+
+/**
+ * The color spaces in which a gradient's colors can be interpolated between
+ * its stops. Alpha is always interpolated linearly, and colors at the stops
+ * themselves are reproduced exactly.
+ *
+ * @author Tim Boudreau
+ */
+public enum InterpolationSpace {
+
+    /**
+     * Interpolate the gamma-encoded sRGB components directly, as
+     * java.awt's gradient paints do by default, truncating the results as
+     * GradientPaint does. Cheapest, but mixes of saturated colors darken
+     * toward the middle.
+     */
+    SRGB,
+    /**
+     * Interpolate in linear light, as
+     * <code>MultipleGradientPaint.ColorSpaceType.LINEAR_RGB</code> does -
+     * physically correct blending, which looks lighter mid-way than sRGB.
+     */
+    LINEAR_RGB,
+    /**
+     * Interpolate in CIE L*a*b*, so perceived lightness changes evenly
+     * across the gradient.
+     */
+    LAB;
+
+    /**
+     * Interpolate between two colors.
+     *
+     * @param argb1 The starting color, as packed ARGB
+     * @param argb2 The ending color, as packed ARGB
+     * @param fraction The position between them, from 0 to 1
+     * @return A color, as packed ARGB
+     */
+    public int interpolate(int argb1, int argb2, double fraction) {
+        if (fraction <= 0) {
+            return argb1;
+        } else if (fraction >= 1) {
+            return argb2;
+        }
+        double[] a = new double[3];
+        double[] b = new double[3];
+        toSpace(argb1, a);
+        toSpace(argb2, b);
+        return mix(argb1, a, argb2, b, fraction, new int[3]);
+    }
+
+    /**
+     * Fill an array with colors sampled at even intervals from 0 to 1 along
+     * a gradient with the passed stops - the first element gets the color at
+     * 0, the last the color at 1. Each stop is converted into this space
+     * once, so this is far cheaper than repeated calls to
+     * <code>interpolate()</code>.
+     *
+     * @param fractions The stop positions, ascending, between 0 and 1
+     * @param argb The stop colors, as packed ARGB
+     * @param into The array to fill, at least two elements long
+     * @throws IllegalArgumentException if the arrays differ in length, there
+     * are fewer than two stops, or the fractions are not ascending within 0
+     * to 1
+     */
+    public void ramp(float[] fractions, int[] argb, int[] into) {
+        checkStops(fractions, argb);
+        if (into.length < 2) {
+            throw new IllegalArgumentException("Ramp too short: " + into.length);
+        }
+        double[][] converted = new double[argb.length][3];
+        for (int i = 0; i < argb.length; i++) {
+            toSpace(argb[i], converted[i]);
+        }
+        int[] scratch = new int[3];
+        int last = into.length - 1;
+        int seg = 0;
+        for (int k = 0; k <= last; k++) {
+            double t = k / (double) last;
+            while (seg < fractions.length - 2 && t > fractions[seg + 1]) {
+                seg++;
+            }
+            double lo = fractions[seg];
+            double hi = fractions[seg + 1];
+            if (t <= lo) {
+                into[k] = argb[seg];
+            } else if (t >= hi) {
+                into[k] = argb[seg + 1];
+            } else {
+                into[k] = mix(argb[seg], converted[seg], argb[seg + 1],
+                        converted[seg + 1], (t - lo) / (hi - lo), scratch);
+            }
+        }
+    }
+
+    static void checkStops(float[] fractions, int[] argb) {
+        if (fractions.length != argb.length) {
+            throw new IllegalArgumentException(fractions.length
+                    + " fractions but " + argb.length + " colors");
+        }
+        if (fractions.length < 2) {
+            throw new IllegalArgumentException("At least two stops needed");
+        }
+        float prev = 0;
+        for (int i = 0; i < fractions.length; i++) {
+            float f = fractions[i];
+            if (!(f >= prev && f <= 1)) {
+                throw new IllegalArgumentException("Fractions must ascend "
+                        + "between 0 and 1, but " + f + " at " + i);
+            }
+            prev = f;
+        }
+    }
+
+    private void toSpace(int argb, double[] into) {
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        switch (this) {
+            case SRGB:
+                into[0] = r;
+                into[1] = g;
+                into[2] = b;
+                break;
+            case LINEAR_RGB:
+                into[0] = Conversions.srgbToLinear(r / 255D);
+                into[1] = Conversions.srgbToLinear(g / 255D);
+                into[2] = Conversions.srgbToLinear(b / 255D);
+                break;
+            case LAB:
+                Conversions.rgbToLab(r, g, b, into);
+                break;
+            default:
+                throw new AssertionError(this);
+        }
+    }
+
+    private int mix(int argb1, double[] a, int argb2, double[] b, double f, int[] rgb) {
+        double c0 = a[0] + (b[0] - a[0]) * f;
+        double c1 = a[1] + (b[1] - a[1]) * f;
+        double c2 = a[2] + (b[2] - a[2]) * f;
+        switch (this) {
+            case SRGB:
+                rgb[0] = (int) c0;
+                rgb[1] = (int) c1;
+                rgb[2] = (int) c2;
+                break;
+            case LINEAR_RGB:
+                rgb[0] = toByte(Conversions.linearToSrgb(c0) * 255);
+                rgb[1] = toByte(Conversions.linearToSrgb(c1) * 255);
+                rgb[2] = toByte(Conversions.linearToSrgb(c2) * 255);
+                break;
+            case LAB:
+                Conversions.labToRgb(c0, c1, c2, rgb);
+                break;
+            default:
+                throw new AssertionError(this);
+        }
+        int alpha1 = argb1 >>> 24;
+        int alpha = (int) (alpha1 + ((argb2 >>> 24) - alpha1) * f);
+        return (alpha << 24) | (rgb[0] << 16) | (rgb[1] << 8) | rgb[2];
+    }
+
+    private static int toByte(double v) {
+        return (int) Math.max(0, Math.min(255, v + 0.5));
+    }
+}
@@ -124,6 +124,35 @@ public final class LabColor implements ColorRepresentation<LabColor, LabComponen
         this.standard = standard;
     }
 
+    /**
+     * Convert an array of packed RGB pixels, such as an image's, to L*a*b*
+     * under the default illuminant and standard in bulk, writing L, a and b
+     * for each pixel into consecutive elements of the output. Alpha is
+     * ignored. Far cheaper than creating a LabColor per pixel - nothing is
+     * allocated, and no <code>Math.pow()</code> calls are made.
+     *
+     * @param argb The pixels
+     * @param labOut An array at least three times the length of the pixels
+     * @throws IllegalArgumentException if the output is too short
+     */
+    public static void fromArgb(int[] argb, float[] labOut) {
+        rgbToLab(argb, labOut);
+    }
+
+    /**
+     * Convert consecutive L, a and b values under the default illuminant and
+     * standard back to opaque packed RGB pixels in bulk, clamping colors
+     * outside the sRGB gamut.
+     *
+     * @param lab The L*a*b* values, at least three times the length of the
+     * output
+     * @param argbOut The pixel array to fill
+     * @throws IllegalArgumentException if the input is too short
+     */
+    public static void toArgb(float[] lab, int[] argbOut) {
+        labToRgb(lab, argbOut);
+    }
+
     public double l() {
         return l;
     }
@@ -0,0 +1,125 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Fills a 3840x2160 rectangle with BufferedImagePaint over horizontal and
+ * vertical gradient images as Gradients creates them, with the equivalent
+ * GradientPaint for reference. Run with <code>-prof gc</code> to see the
+ * allocation per fill.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BufferedImagePaintBenchmark {
+
+    private static final int WIDTH = 3840;
+    private static final int HEIGHT = 2160;
+    private static final Color TOP = new Color(40, 80, 200);
+    private static final Color BOTTOM = new Color(220, 230, 255, 128);
+    private BufferedImage target;
+    private Graphics2D g;
+    private BufferedImagePaint horizontal;
+    private BufferedImagePaint vertical;
+    private GradientPaint horizontalGradient;
+    private GradientPaint verticalGradient;
+
+    @Setup
+    public void setup() {
+        target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        g = target.createGraphics();
+        Gradients gradients = new Gradients();
+        horizontal = new BufferedImagePaint(((LinearGradientPainter) gradients
+                .horizontal(g, 0, 0, TOP, WIDTH, BOTTOM)).img, false);
+        vertical = new BufferedImagePaint(((LinearGradientPainter) gradients
+                .vertical(g, 0, 0, TOP, HEIGHT, BOTTOM)).img, true);
+        horizontalGradient = new GradientPaint(0, 0, TOP, WIDTH, 0, BOTTOM);
+        verticalGradient = new GradientPaint(0, 0, TOP, 0, HEIGHT, BOTTOM);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage horizontalImagePaint() {
+        g.setPaint(horizontal);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage verticalImagePaint() {
+        g.setPaint(vertical);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage horizontalGradientPaint() {
+        g.setPaint(horizontalGradient);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage verticalGradientPaint() {
+        g.setPaint(verticalGradient);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        return target;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BufferedImagePaintBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
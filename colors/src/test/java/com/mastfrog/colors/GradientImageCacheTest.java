@@ -0,0 +1,253 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import static com.mastfrog.colors.ImageTestUtils.newImage;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class GradientImageCacheTest {
+
+    // 16x16 ARGB = 1024 bytes
+    private static final long IMG = 16 * 16 * 4;
+
+    @Test
+    public void testImageBytes() {
+        assertEquals(IMG, GradientImageCache.imageBytes(image()));
+        assertEquals(16 * 16 * 3, GradientImageCache.imageBytes(
+                new BufferedImage(16, 16, BufferedImage.TYPE_3BYTE_BGR)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GradientImageCache(0));
+    }
+
+    @Test
+    public void testBoundedByBytesInLruOrder() {
+        GradientImageCache cache = new GradientImageCache(IMG * 8);
+        List<BufferedImage> created = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            BufferedImage img = image();
+            created.add(img);
+            assertSame(img, cache.get(i, () -> img));
+        }
+        CacheStatistics stats = cache.statistics();
+        assertEquals(8, stats.entries());
+        assertEquals(IMG * 8, stats.bytes());
+        assertEquals(0, stats.evictions());
+        // Touch the two oldest so they survive eviction
+        assertSame(created.get(0), cache.get(0, GradientImageCacheTest::fail));
+        assertSame(created.get(1), cache.get(1, GradientImageCacheTest::fail));
+
+        BufferedImage ninth = image();
+        cache.get(8, () -> ninth);
+        stats = cache.statistics();
+        assertTrue(stats.bytes() <= IMG * 6, stats.toString());
+        assertEquals(6, stats.entries(), stats.toString());
+        assertEquals(3, stats.evictions(), stats.toString());
+        assertEquals(9, stats.misses());
+        assertEquals(2, stats.hits());
+        assertEquals(2D / 11D, stats.hitRate(), 0.0001);
+
+        // Recently used entries are still live
+        assertSame(created.get(0), cache.get(0, GradientImageCacheTest::fail));
+        assertSame(created.get(1), cache.get(1, GradientImageCacheTest::fail));
+        assertSame(ninth, cache.get(8, GradientImageCacheTest::fail));
+        // The least recently used were evicted to soft references, and
+        // are recovered rather than recreated while still reachable
+        assertSame(created.get(2), cache.get(2, GradientImageCacheTest::fail));
+        stats = cache.statistics();
+        assertEquals(1, stats.recoveries(), stats.toString());
+        assertEquals(6, stats.hits(), stats.toString());
+        assertEquals(9, stats.misses(), stats.toString());
+    }
+
+    @Test
+    public void testClear() {
+        GradientImageCache cache = new GradientImageCache(IMG * 4);
+        BufferedImage img = image();
+        cache.get("a", () -> img);
+        cache.clear();
+        CacheStatistics stats = cache.statistics();
+        assertEquals(0, stats.entries());
+        assertEquals(0, stats.bytes());
+        BufferedImage other = image();
+        assertSame(other, cache.get("a", () -> other));
+    }
+
+    @Test
+    public void testConcurrentGetsOfOneKey() throws Throwable {
+        GradientImageCache cache = new GradientImageCache(IMG * 64);
+        int threads = 6;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        BufferedImage[] results = new BufferedImage[threads * 100];
+        AtomicInteger created = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            int base = t * 100;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        results[base + i] = cache.get("k" + (i % 10), () -> {
+                            created.incrementAndGet();
+                            return image();
+                        });
+                    }
+                } catch (InterruptedException ex) {
+                    throw new AssertionError(ex);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        CacheStatistics stats = cache.statistics();
+        assertEquals(10, stats.entries(), stats.toString());
+        assertEquals(IMG * 10, stats.bytes(), stats.toString());
+        assertEquals(threads * 100, stats.hits() + stats.misses());
+        assertEquals(created.get(), stats.misses());
+        for (int i = 0; i < results.length; i++) {
+            assertSame(cache.get("k" + (i % 10), GradientImageCacheTest::fail),
+                    results[i], "Thread saw an image that lost a race at " + i);
+        }
+    }
+
+    @Test
+    public void testGradientsReportsStatistics() throws Throwable {
+        Gradients gradients = new Gradients(8L * 1024 * 1024);
+        newImage(60, 60, g -> {
+            GradientPainter a = gradients.linear(g, 0, 0, Color.RED, 0, 40, Color.BLUE);
+            GradientPainter b = gradients.linear(g, 10, 0, Color.RED, 10, 40, Color.BLUE);
+            GradientPainter c = gradients.radial(g, 20, 20, Color.WHITE, Color.BLACK, 20);
+            GradientPainter d = gradients.radial(g, 20, 20, Color.WHITE, Color.BLACK, 20);
+            assertNotSame(a, c);
+            assertSame(c.getClass(), d.getClass());
+        });
+        CacheStatistics stats = gradients.cacheStatistics();
+        assertEquals(2, stats.misses(), stats.toString());
+        assertEquals(2, stats.hits(), stats.toString());
+        assertEquals(2, stats.entries(), stats.toString());
+        assertTrue(stats.bytes() > 0, stats.toString());
+        assertEquals(8L * 1024 * 1024, stats.maxBytes());
+        gradients.clearCache();
+        assertEquals(0, gradients.cacheStatistics().bytes());
+    }
+
+    @Test
+    public void testInternedPaintersReleaseEvictedImages() throws Throwable {
+        GradientImageCache images = new GradientImageCache(IMG * 4);
+        PainterCache painters = new PainterCache(16, images);
+        List<GradientImageCache.Entry> entries = new ArrayList<>();
+        List<WeakReference<GradientPainter>> painterRefs = new ArrayList<>();
+        List<WeakReference<BufferedImage>> imageRefs = new ArrayList<>();
+        // Fill the image cache to three times its budget; nothing is looked
+        // up again, so nothing but eviction can release interned painters
+        for (int i = 0; i < 12; i++) {
+            entries.add(internPainter(painters, images, i, painterRefs,
+                    imageRefs));
+        }
+        assertTrue(images.statistics().evictions() >= 8,
+                images.statistics().toString());
+        boolean[] evicted = new boolean[entries.size()];
+        for (int i = 0; i < evicted.length; i++) {
+            evicted[i] = entries.get(i).evicted;
+        }
+        entries.clear();
+        // Evicted images are otherwise held softly; dropping those shows
+        // whether anything else, such as an interned painter, still does
+        images.clear();
+        for (int i = 0; i < 50 && anyReachable(imageRefs, evicted); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < evicted.length; i++) {
+            if (evicted[i]) {
+                assertNull(painterRefs.get(i).get(), "Painter " + i
+                        + " still reachable");
+                assertNull(imageRefs.get(i).get(), "Image " + i
+                        + " still reachable");
+                assertNull(painters.get(hash(i), PainterCache.LINEAR, null,
+                        1, 1, i, 0, 0, 0, 0, 0));
+            } else {
+                assertNotNull(painterRefs.get(i).get(), "Painter " + i
+                        + " for a live image was dropped");
+            }
+        }
+    }
+
+    private static boolean anyReachable(
+            List<WeakReference<BufferedImage>> refs, boolean[] which) {
+        for (int i = 0; i < which.length; i++) {
+            if (which[i] && refs.get(i).get() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long hash(int i) {
+        return PainterCache.hash(PainterCache.LINEAR, null, 1, 1, i, 0, 0, 0,
+                0, 0);
+    }
+
+    private static GradientImageCache.Entry internPainter(PainterCache painters,
+            GradientImageCache images, int i,
+            List<WeakReference<GradientPainter>> painterRefs,
+            List<WeakReference<BufferedImage>> imageRefs) {
+        GradientImageCache.Entry entry = images.entry(i,
+                GradientImageCacheTest::image);
+        BufferedImage img = entry.image;
+        GradientPainter painter = (g, bounds) -> g.drawImage(img, 0, 0, null);
+        painters.put(hash(i), PainterCache.LINEAR, null, 1, 1, i, 0, 0, 0, 0,
+                0, entry, painter);
+        painterRefs.add(new WeakReference<>(painter));
+        imageRefs.add(new WeakReference<>(img));
+        return entry;
+    }
+
+    private static BufferedImage image() {
+        return new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static BufferedImage fail() {
+        throw new AssertionError("Should not have created an image");
+    }
+}
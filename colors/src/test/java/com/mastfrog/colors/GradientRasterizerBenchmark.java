@@ -0,0 +1,140 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import com.mastfrog.colors.space.InterpolationSpace;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.MultipleGradientPaint.CycleMethod;
+import java.awt.RadialGradientPaint;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Fills a 1024x1024 image with diagonal and radial gradients using
+ * GradientRasterizer, serially and in parallel, against painting the
+ * equivalent GradientPaint and RadialGradientPaint into it the way Gradients
+ * used to create its cached images.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GradientRasterizerBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final Color A = new Color(40, 80, 200);
+    private static final Color B = new Color(220, 230, 255, 128);
+    private static final float[] STOPS = {0, 0.3F, 1};
+    private static final Color[] COLORS = {A, Color.ORANGE, B};
+    private BufferedImage target;
+    private GradientRasterizer twoStop;
+    private GradientRasterizer multiStop;
+    private GradientRasterizer multiStopParallel;
+
+    @Setup
+    public void setup() {
+        target = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+        twoStop = new GradientRasterizer(A, B);
+        multiStop = new GradientRasterizer(STOPS, COLORS, InterpolationSpace.LAB,
+                CycleMethod.NO_CYCLE);
+        multiStopParallel = multiStop.parallel();
+    }
+
+    @Benchmark
+    public BufferedImage diagonalRasterizer() {
+        twoStop.linear(0, 0, SIZE, SIZE, target);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage diagonalGradientPaint() {
+        Graphics2D g = target.createGraphics();
+        try {
+            GradientUtils.prepareGraphics(g);
+            g.setPaint(new GradientPaint(0, 0, A, SIZE, SIZE, B));
+            g.fillRect(0, 0, SIZE, SIZE);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage radialRasterizer() {
+        twoStop.radial(SIZE / 2, SIZE / 2, SIZE / 2, target);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage radialMultiStopRasterizer() {
+        multiStop.radial(SIZE / 2, SIZE / 2, SIZE / 2, target);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage radialMultiStopParallelRasterizer() {
+        multiStopParallel.radial(SIZE / 2, SIZE / 2, SIZE / 2, target);
+        return target;
+    }
+
+    @Benchmark
+    public BufferedImage radialGradientPaint() {
+        Graphics2D g = target.createGraphics();
+        try {
+            GradientUtils.prepareGraphics(g);
+            g.setPaint(new RadialGradientPaint(SIZE / 2, SIZE / 2, SIZE / 2,
+                    new float[]{0, 1}, new Color[]{A, B}, CycleMethod.NO_CYCLE));
+            g.fillRect(0, 0, SIZE, SIZE);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GradientRasterizerBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,191 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import com.mastfrog.colors.space.InterpolationSpace;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.MultipleGradientPaint.CycleMethod;
+import java.awt.image.BufferedImage;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class GradientRasterizerTest {
+
+    private static final float[] STOPS = {0, 0.25F, 1};
+    private static final Color[] COLORS = {Color.RED, Color.GREEN, Color.BLUE};
+
+    @Test
+    public void testDiagonalMatchesGradientPaint() {
+        Color a = new Color(20, 200, 90);
+        Color b = new Color(240, 10, 180);
+        BufferedImage expected = new BufferedImage(97, 61, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = expected.createGraphics();
+        g.setPaint(new GradientPaint(5, 3, a, 80, 50, b));
+        g.fillRect(0, 0, 97, 61);
+        g.dispose();
+        BufferedImage got = new BufferedImage(97, 61, BufferedImage.TYPE_INT_ARGB);
+        new GradientRasterizer(a, b).linear(5, 3, 80, 50, got);
+        for (int y = 0; y < 61; y++) {
+            for (int x = 0; x < 97; x++) {
+                assertEquals(Integer.toHexString(expected.getRGB(x, y)),
+                        Integer.toHexString(got.getRGB(x, y)), "At " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    public void testStopsAreExact() {
+        for (InterpolationSpace space : InterpolationSpace.values()) {
+            GradientRasterizer r = new GradientRasterizer(STOPS, COLORS, space,
+                    CycleMethod.NO_CYCLE);
+            assertEquals(Color.RED.getRGB(), r.colorAt(0), space.name());
+            assertEquals(Color.GREEN.getRGB(), r.colorAt(0.25), space.name());
+            assertEquals(Color.BLUE.getRGB(), r.colorAt(1), space.name());
+            assertEquals(Color.RED.getRGB(), r.colorAt(-3), space.name());
+            assertEquals(Color.BLUE.getRGB(), r.colorAt(7), space.name());
+        }
+    }
+
+    @Test
+    public void testInterpolationSpaces() {
+        int black = Color.BLACK.getRGB();
+        int white = Color.WHITE.getRGB();
+        assertEquals(127, InterpolationSpace.SRGB.interpolate(black, white, 0.5) & 0xFF);
+        // Half the light is much brighter than half the encoded value
+        assertEquals(188, InterpolationSpace.LINEAR_RGB.interpolate(black, white, 0.5) & 0xFF);
+        // L* of 50 is middle gray, a little under sRGB 119
+        int lab = InterpolationSpace.LAB.interpolate(black, white, 0.5);
+        assertTrue(Math.abs((lab & 0xFF) - 119) <= 1, Integer.toHexString(lab));
+        assertEquals(lab & 0xFF, (lab >> 8) & 0xFF);
+        assertEquals(lab & 0xFF, (lab >> 16) & 0xFF);
+        int clear = new Color(255, 255, 255, 0).getRGB();
+        for (InterpolationSpace space : InterpolationSpace.values()) {
+            assertEquals(127, space.interpolate(clear, white, 0.5) >>> 24, space.name());
+            assertEquals(black, space.interpolate(black, white, 0), space.name());
+            assertEquals(white, space.interpolate(black, white, 1), space.name());
+        }
+    }
+
+    @Test
+    public void testCycleMethods() {
+        GradientRasterizer repeat = new GradientRasterizer(STOPS, COLORS,
+                InterpolationSpace.SRGB, CycleMethod.REPEAT);
+        GradientRasterizer reflect = new GradientRasterizer(STOPS, COLORS,
+                InterpolationSpace.SRGB, CycleMethod.REFLECT);
+        for (double t = 0; t < 1; t += 0.0625) {
+            assertEquals(repeat.colorAt(t), repeat.colorAt(t + 3), "At " + t);
+            assertEquals(repeat.colorAt(t), repeat.colorAt(t - 2), "At " + t);
+            assertEquals(reflect.colorAt(t), reflect.colorAt(2 - t), "At " + t);
+            assertEquals(reflect.colorAt(t), reflect.colorAt(-t), "At " + t);
+        }
+        assertEquals(Color.GREEN.getRGB(), repeat.colorAt(1.25));
+        assertEquals(Color.GREEN.getRGB(), reflect.colorAt(1.75));
+    }
+
+    @Test
+    public void testHorizontalAndVerticalRows() {
+        GradientRasterizer r = new GradientRasterizer(STOPS, COLORS,
+                InterpolationSpace.LAB, CycleMethod.REFLECT);
+        int[] pixels = new int[40 * 30];
+        // A power-of-two length keeps the per-pixel step exact
+        r.linear(0, 0, 16, 0, 0, 0, 40, 30, pixels, 0, 40);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(r.colorAt(x / 16D), pixels[y * 40 + x]);
+            }
+        }
+        r.linear(0, 0, 0, 16, 0, 0, 40, 30, pixels, 0, 40);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(r.colorAt(y / 16D), pixels[y * 40 + x]);
+            }
+        }
+    }
+
+    @Test
+    public void testOffsetAndScanline() {
+        GradientRasterizer r = new GradientRasterizer(Color.BLACK, Color.WHITE);
+        int[] whole = new int[50 * 50];
+        r.radial(25, 25, 20, 0, 0, 50, 50, whole, 0, 50);
+        int[] part = new int[3 + 60 * 20];
+        r.radial(25, 25, 20, 10, 15, 30, 20, part, 3, 60);
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 30; x++) {
+                assertEquals(whole[(y + 15) * 50 + x + 10], part[3 + y * 60 + x]);
+            }
+        }
+        assertEquals(Color.BLACK.getRGB(), whole[25 * 50 + 25]);
+        assertEquals(Color.WHITE.getRGB(), whole[0]);
+    }
+
+    @Test
+    public void testParallelMatchesSerial() {
+        GradientRasterizer serial = new GradientRasterizer(STOPS, COLORS,
+                InterpolationSpace.LINEAR_RGB, CycleMethod.REPEAT);
+        GradientRasterizer parallel = serial.parallel();
+        int w = 517;
+        int h = 389;
+        int[] a = new int[w * h];
+        int[] b = new int[w * h];
+        serial.linear(10, 20, 130, 170, 0, 0, w, h, a, 0, w);
+        parallel.linear(10, 20, 130, 170, 0, 0, w, h, b, 0, w);
+        assertArrayEquals(a, b);
+        serial.radial(200, 100, 90, 0, 0, w, h, a, 0, w);
+        parallel.radial(200, 100, 90, 0, 0, w, h, b, 0, w);
+        assertArrayEquals(a, b);
+
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        parallel.radial(200, 100, 90, img);
+        assertArrayEquals(a, img.getRGB(0, 0, w, h, null, 0, w));
+        BufferedImage other = new BufferedImage(w, h, BufferedImage.TYPE_4BYTE_ABGR);
+        parallel.radial(200, 100, 90, other);
+        assertArrayEquals(a, other.getRGB(0, 0, w, h, null, 0, w));
+    }
+
+    @Test
+    public void testBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientRasterizer(
+                new float[]{0, 0.5F}, COLORS, InterpolationSpace.SRGB, CycleMethod.NO_CYCLE));
+        assertThrows(IllegalArgumentException.class, () -> new GradientRasterizer(
+                new float[]{0, 0.5F, 0.25F}, COLORS, InterpolationSpace.SRGB, CycleMethod.NO_CYCLE));
+        assertThrows(IllegalArgumentException.class, () -> new GradientRasterizer(
+                new float[]{0}, new Color[]{Color.RED}, InterpolationSpace.SRGB, CycleMethod.NO_CYCLE));
+        GradientRasterizer r = new GradientRasterizer(Color.RED, Color.BLUE);
+        assertThrows(IllegalArgumentException.class,
+                () -> r.radial(0, 0, 0, 0, 0, 2, 2, new int[4], 0, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> r.linear(0, 0, 1, 1, 0, 0, 2, 2, new int[3], 0, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> r.linear(0, 0, 1, 1, 0, 0, 3, 2, new int[9], 0, 2));
+    }
+}
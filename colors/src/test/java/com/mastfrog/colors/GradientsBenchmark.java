@@ -0,0 +1,120 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost, and especially the allocation, of looking up gradient
+ * painters the way a cell renderer does - the same gradient requested over
+ * and over, and the same gradient at a different row each time. Run with
+ * <code>-prof gc</code> and compare <code>gc.alloc.rate.norm</code>; repeated
+ * identical requests should allocate nothing.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GradientsBenchmark {
+
+    private static final Color TOP = new Color(40, 80, 200);
+    private static final Color BOTTOM = new Color(220, 230, 255, 128);
+    private BufferedImage target;
+    private Graphics2D g;
+    private Gradients gradients;
+    private int row;
+
+    @Setup
+    public void setup() {
+        target = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+        g = target.createGraphics();
+        gradients = new Gradients();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public GradientPainter repeatedVertical() {
+        return gradients.linear(g, 10, 20, TOP, 10, 44, BOTTOM);
+    }
+
+    @Benchmark
+    public GradientPainter repeatedHorizontal() {
+        return gradients.linear(g, 10, 20, BOTTOM, 200, 20, TOP);
+    }
+
+    @Benchmark
+    public GradientPainter repeatedRadial() {
+        return gradients.radial(g, 50, 50, TOP, BOTTOM, 30);
+    }
+
+    @Benchmark
+    public GradientPainter repeatedDiagonal() {
+        return gradients.linear(g, 10, 20, TOP, 40, 60, BOTTOM);
+    }
+
+    @Benchmark
+    public GradientPainter repeatedSolid() {
+        return gradients.linear(g, 10, 20, TOP, 10, 44, TOP);
+    }
+
+    @Benchmark
+    public GradientPainter verticalOnSuccessiveRows() {
+        // More rows than the painter table holds, so every call creates a
+        // painter over a cached image
+        int y = (row = (row + 24) % 24_000);
+        return gradients.linear(g, 10, y, TOP, 10, y + 24, BOTTOM);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GradientsBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -109,16 +109,9 @@ public class GradientsTest {
             GradientPainter rad = gradients.radial(g, 0, 0, COLOR_A, COLOR_B, 10);
             rad.fill(g, 10, 10, 20, 20);
         });
-        assertImages(expected, got, (a, b) -> {
-            if (a.getAlpha() <= 1 && b.getAlpha() <= 1) {
-                if (!a.equals(b)) {
-//                    System.out.println("SLIGHT DIFFERENCE: "
-//                            + colorToString(a) + " vs " + colorToString(b));
-                }
-                return true;
-            }
-            return a.equals(b);
-        });
+        // RadialGradientPaint samples its ramp through a square root lookup
+        // table, so it can land a step or two off the exact distance
+        assertImages(expected, got, GradientsTest::premultipliedClose);
     }
 
     @Test
@@ -163,7 +156,7 @@ public class GradientsTest {
             rad.fill(g, 410, 410, 20, 20);
         });
         got = sub(got, 400, 400, 80, 80);
-        assertImages(expected, got, 1);
+        assertImages(expected, got, GradientsTest::premultipliedClose);
     }
 
     @Test
@@ -413,4 +406,61 @@ public class GradientsTest {
                     .fill(g, 105, 105, 40, 40);
         });
     }
+
+    @Test
+    public void testPaintersAreInterned() throws Throwable {
+        newImage(100, 100, g -> {
+            GradientPainter vert = gradients.linear(g, 10, 10, COLOR_A, 10, 30, COLOR_B);
+            assertSame(vert, gradients.linear(g, 10, 10, COLOR_A, 10, 30, COLOR_B));
+            assertSame(vert, gradients.linear(g, 10, 10, new Color(COLOR_A.getRGB(), true),
+                    10, 30, new Color(COLOR_B.getRGB(), true)));
+            GradientPainter moved = gradients.linear(g, 10, 40, COLOR_A, 10, 60, COLOR_B);
+            assertNotSame(vert, moved);
+            // Same gradient elsewhere shares the image
+            assertSame(((LinearGradientPainter) vert).img, ((LinearGradientPainter) moved).img);
+
+            GradientPainter rad = gradients.radial(g, 50, 50, COLOR_A, COLOR_B, 20);
+            assertSame(rad, gradients.radial(g, 50, 50, COLOR_A, COLOR_B, 20));
+            assertNotSame(rad, gradients.radial(g, 50, 50, COLOR_A, Color.BLACK, 20));
+
+            GradientPainter solid = gradients.linear(g, 10, 10, COLOR_A, 10, 30, COLOR_A);
+            assertSame(solid, gradients.radial(g, 5, 5, Color.BLACK, COLOR_A, 0));
+
+            g.scale(2, 2);
+            assertNotSame(vert, gradients.linear(g, 10, 10, COLOR_A, 10, 30, COLOR_B));
+            g.scale(0.5, 0.5);
+            assertSame(vert, gradients.linear(g, 10, 10, COLOR_A, 10, 30, COLOR_B));
+
+            gradients.clearCache();
+            assertNotSame(vert, gradients.linear(g, 10, 10, COLOR_A, 10, 30, COLOR_B));
+        });
+    }
+
+    @Test
+    public void testInternedPainterDroppedWhenImageEvicted() throws Throwable {
+        // Room for two 12x200 ARGB images
+        Gradients small = new Gradients(2 * 12 * 200 * 4 + 100);
+        newImage(100, 100, g -> {
+            GradientPainter first = small.linear(g, 0, 0, COLOR_A, 0, 200, COLOR_B);
+            assertSame(first, small.linear(g, 0, 0, COLOR_A, 0, 200, COLOR_B));
+            small.linear(g, 0, 0, Color.BLACK, 0, 200, Color.WHITE);
+            small.linear(g, 0, 0, Color.RED, 0, 200, Color.WHITE);
+            assertEquals(2, small.cacheStatistics().evictions());
+            // The painter is not handed out again once its image no longer
+            // counts against the budget
+            GradientPainter again = small.linear(g, 0, 0, COLOR_A, 0, 200, COLOR_B);
+            assertNotSame(first, again);
+        });
+    }
+
+    private static boolean premultipliedClose(Color a, Color b) {
+        // Where alpha is low, one step of alpha swings the unpremultiplied
+        // components by several steps, so compare what actually composites
+        int aa = a.getAlpha();
+        int ba = b.getAlpha();
+        return Math.abs(aa - ba) <= 2
+                && Math.abs(a.getRed() * aa - b.getRed() * ba) <= 2 * 255
+                && Math.abs(a.getGreen() * aa - b.getGreen() * ba) <= 2 * 255
+                && Math.abs(a.getBlue() * aa - b.getBlue() * ba) <= 2 * 255;
+    }
 }
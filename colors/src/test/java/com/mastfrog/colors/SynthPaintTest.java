@@ -24,11 +24,14 @@
 package com.mastfrog.colors;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -80,4 +83,52 @@ public class SynthPaintTest {
 //        ImageTestUtils.enableVisualAssert();
         ImageTestUtils.assertImages(img, img2);
     }
+
+    @Test
+    public void testTilingMatchesSourcePixels() {
+        Random rnd = new Random(23);
+        for (boolean vertical : new boolean[]{false, true}) {
+            for (boolean uniform : new boolean[]{false, true}) {
+                BufferedImage src = vertical ? randomImage(rnd, 7, 90, uniform, true)
+                        : randomImage(rnd, 90, 7, uniform, false);
+                BufferedImagePaint paint = new BufferedImagePaint(src, vertical);
+                // Fill twice, so the second fill reuses the first's scratch raster
+                for (int pass = 0; pass < 2; pass++) {
+                    BufferedImage got = new BufferedImage(150, 130, BufferedImage.TYPE_INT_ARGB);
+                    Graphics2D g = got.createGraphics();
+                    g.setPaint(paint);
+                    g.fillRect(3, 5, 141, 117);
+                    g.dispose();
+                    for (int y = 0; y < got.getHeight(); y++) {
+                        for (int x = 0; x < got.getWidth(); x++) {
+                            int expect = 0;
+                            boolean inFill = x >= 3 && y >= 5 && x < 144 && y < 122;
+                            if (inFill && vertical && y < src.getHeight()) {
+                                expect = src.getRGB(x % src.getWidth(), y);
+                            } else if (inFill && !vertical && x < src.getWidth()) {
+                                expect = src.getRGB(x, y % src.getHeight());
+                            }
+                            assertEquals(expect, got.getRGB(x, y), "Pixel " + x + "," + y
+                                    + " vertical " + vertical + " uniform " + uniform
+                                    + " pass " + pass);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static BufferedImage randomImage(Random rnd, int w, int h, boolean uniform, boolean vertical) {
+        BufferedImage result = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                if (uniform && (vertical ? x > 0 : y > 0)) {
+                    result.setRGB(x, y, vertical ? result.getRGB(0, y) : result.getRGB(x, 0));
+                } else {
+                    result.setRGB(x, y, 0xFF000000 | rnd.nextInt());
+                }
+            }
+        }
+        return result;
+    }
 }
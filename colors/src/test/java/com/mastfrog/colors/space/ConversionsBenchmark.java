@@ -0,0 +1,196 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors.space;
+
+import static com.mastfrog.colors.space.ConversionsTest.referenceLabToRgb;
+import static com.mastfrog.colors.space.ConversionsTest.referenceRgbToLab;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Converts 64K random pixels to L*a*b* and back using the original
+ * Math.pow() based conversions, the table-driven per-color methods in
+ * Conversions, and the bulk array methods. Running main() first prints the
+ * largest difference of each from the original, over the whole RGB cube.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionsBenchmark {
+
+    private static final int PIXELS = 256 * 256;
+    private int[] argb;
+    private float[] lab;
+    private int[] out;
+    private final double[] scratch = new double[3];
+    private final int[] rgbScratch = new int[3];
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(PIXELS);
+        argb = new int[PIXELS];
+        for (int i = 0; i < PIXELS; i++) {
+            argb[i] = 0xFF000000 | rnd.nextInt(0x1000000);
+        }
+        lab = new float[PIXELS * 3];
+        out = new int[PIXELS];
+        LabColor.fromArgb(argb, lab);
+    }
+
+    @Benchmark
+    public float[] rgbToLabOriginal() {
+        for (int i = 0; i < PIXELS; i++) {
+            int px = argb[i];
+            referenceRgbToLab((px >> 16) & 0xFF, (px >> 8) & 0xFF, px & 0xFF, scratch);
+            store(i);
+        }
+        return lab;
+    }
+
+    @Benchmark
+    public float[] rgbToLabPerColor() {
+        for (int i = 0; i < PIXELS; i++) {
+            int px = argb[i];
+            Conversions.rgbToLab((px >> 16) & 0xFF, (px >> 8) & 0xFF, px & 0xFF, scratch);
+            store(i);
+        }
+        return lab;
+    }
+
+    @Benchmark
+    public float[] rgbToLabBulk() {
+        LabColor.fromArgb(argb, lab);
+        return lab;
+    }
+
+    @Benchmark
+    public int[] labToRgbOriginal() {
+        for (int i = 0; i < PIXELS; i++) {
+            referenceLabToRgb(lab[i * 3], lab[i * 3 + 1], lab[i * 3 + 2], rgbScratch);
+            out[i] = 0xFF000000 | (rgbScratch[0] << 16) | (rgbScratch[1] << 8) | rgbScratch[2];
+        }
+        return out;
+    }
+
+    @Benchmark
+    public int[] labToRgbPerColor() {
+        for (int i = 0; i < PIXELS; i++) {
+            Conversions.labToRgb(lab[i * 3], lab[i * 3 + 1], lab[i * 3 + 2], rgbScratch);
+            out[i] = 0xFF000000 | (rgbScratch[0] << 16) | (rgbScratch[1] << 8) | rgbScratch[2];
+        }
+        return out;
+    }
+
+    @Benchmark
+    public int[] labToRgbBulk() {
+        LabColor.toArgb(lab, out);
+        return out;
+    }
+
+    private void store(int i) {
+        lab[i * 3] = (float) scratch[0];
+        lab[i * 3 + 1] = (float) scratch[1];
+        lab[i * 3 + 2] = (float) scratch[2];
+    }
+
+    static void printAccuracy() {
+        int[] cube = new int[256 * 256 * 256];
+        for (int i = 0; i < cube.length; i++) {
+            cube[i] = 0xFF000000 | i;
+        }
+        float[] bulkLab = new float[cube.length * 3];
+        LabColor.fromArgb(cube, bulkLab);
+        int[] bulkRgb = new int[cube.length];
+        LabColor.toArgb(bulkLab, bulkRgb);
+        double[] expect = new double[3];
+        double[] got = new double[3];
+        int[] expectRgb = new int[3];
+        int[] gotRgb = new int[3];
+        double perColorLab = 0;
+        double bulkLabError = 0;
+        int perColorRgb = 0;
+        int bulkRgbError = 0;
+        long perColorRgbMismatches = 0;
+        for (int i = 0; i < cube.length; i++) {
+            int r = (i >> 16) & 0xFF;
+            int g = (i >> 8) & 0xFF;
+            int b = i & 0xFF;
+            referenceRgbToLab(r, g, b, expect);
+            Conversions.rgbToLab(r, g, b, got);
+            for (int j = 0; j < 3; j++) {
+                perColorLab = Math.max(perColorLab, Math.abs(expect[j] - got[j]));
+                bulkLabError = Math.max(bulkLabError, Math.abs(expect[j] - bulkLab[i * 3 + j]));
+            }
+            referenceLabToRgb(expect[0], expect[1], expect[2], expectRgb);
+            Conversions.labToRgb(expect[0], expect[1], expect[2], gotRgb);
+            // Bulk output started from float L*a*b*, so compare it to the
+            // original round trip
+            int bulk = bulkRgb[i];
+            int[] bulkComps = {(bulk >> 16) & 0xFF, (bulk >> 8) & 0xFF, bulk & 0xFF};
+            boolean mismatch = false;
+            for (int j = 0; j < 3; j++) {
+                int diff = Math.abs(expectRgb[j] - gotRgb[j]);
+                mismatch |= diff != 0;
+                perColorRgb = Math.max(perColorRgb, diff);
+                bulkRgbError = Math.max(bulkRgbError, Math.abs(expectRgb[j] - bulkComps[j]));
+            }
+            if (mismatch) {
+                perColorRgbMismatches++;
+            }
+        }
+        System.out.println("Largest difference from the original conversions over "
+                + cube.length + " colors:");
+        System.out.println("  rgbToLab per color: " + perColorLab);
+        System.out.println("  rgbToLab bulk (float): " + bulkLabError);
+        System.out.println("  labToRgb per color: " + perColorRgb + " in "
+                + perColorRgbMismatches + " colors");
+        System.out.println("  labToRgb bulk (float): " + bulkRgbError);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printAccuracy();
+        new Runner(new OptionsBuilder()
+                .include(ConversionsBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
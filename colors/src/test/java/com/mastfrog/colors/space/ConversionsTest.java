@@ -0,0 +1,186 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.colors.space;
+
+import static java.lang.Math.abs;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class ConversionsTest {
+
+    @Test
+    public void testLinearTableMatchesFormula() {
+        for (int i = 0; i < 256; i++) {
+            assertEquals(Conversions.srgbToLinear(i / 255D), Conversions.srgbToLinear(i));
+        }
+    }
+
+    @Test
+    public void testLinearToSrgbByteMatchesFormula() {
+        Random rnd = new Random(2401);
+        for (int i = 0; i < 1_000_000; i++) {
+            double c = rnd.nextDouble() * 1.2 - 0.1;
+            assertEquals(referenceEncode(c), Conversions.linearToSrgbByte(c), "At " + c);
+        }
+        for (int i = 0; i < 256; i++) {
+            // Exactly on a threshold, pow() may land a hair either side
+            double c = Conversions.srgbToLinear(i);
+            assertTrue(abs(referenceEncode(c) - Conversions.linearToSrgbByte(c)) <= 1);
+            assertEquals(i, Conversions.linearToSrgbByte(Math.nextUp(c)));
+        }
+        assertEquals(0, Conversions.linearToSrgbByte(Double.NaN));
+        assertEquals(255, Conversions.linearToSrgbByte(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testCubeRootErrorBound() {
+        for (double x = 1e-90; x < 1e90; x *= 1.37) {
+            double expect = Math.cbrt(x);
+            double err = abs(Conversions.cbrt(x) - expect) / expect;
+            assertTrue(err < 1e-14, "Error " + err + " for " + x);
+        }
+        Random rnd = new Random(27);
+        for (int i = 0; i < 1_000_000; i++) {
+            double x = 0.008856 + rnd.nextDouble() * 1.1;
+            double expect = Math.cbrt(x);
+            double err = abs(Conversions.cbrt(x) - expect) / expect;
+            assertTrue(err < 1e-14, "Error " + err + " for " + x);
+        }
+    }
+
+    @Test
+    public void testFastPathsMatchPowBasedConversions() {
+        double[] expect = new double[3];
+        double[] got = new double[3];
+        int[] expectRgb = new int[3];
+        int[] gotRgb = new int[3];
+        int[] pixels = new int[52 * 52 * 52];
+        int ix = 0;
+        double maxLabError = 0;
+        for (int r = 0; r < 256; r += 5) {
+            for (int g = 0; g < 256; g += 5) {
+                for (int b = 0; b < 256; b += 5) {
+                    referenceRgbToLab(r, g, b, expect);
+                    Conversions.rgbToLab(r, g, b, got);
+                    for (int i = 0; i < 3; i++) {
+                        maxLabError = Math.max(maxLabError, abs(expect[i] - got[i]));
+                    }
+                    referenceLabToRgb(expect[0], expect[1], expect[2], expectRgb);
+                    Conversions.labToRgb(expect[0], expect[1], expect[2], gotRgb);
+                    for (int i = 0; i < 3; i++) {
+                        assertTrue(abs(expectRgb[i] - gotRgb[i]) <= 1,
+                                r + "," + g + "," + b);
+                    }
+                    pixels[ix++] = 0x80000000 | (r << 16) | (g << 8) | b;
+                }
+            }
+        }
+        assertTrue(maxLabError < 1e-10, "L*a*b* error " + maxLabError);
+
+        float[] lab = new float[pixels.length * 3];
+        LabColor.fromArgb(pixels, lab);
+        int[] back = new int[pixels.length];
+        LabColor.toArgb(lab, back);
+        for (int i = 0; i < pixels.length; i++) {
+            int px = pixels[i];
+            referenceRgbToLab((px >> 16) & 0xFF, (px >> 8) & 0xFF, px & 0xFF, expect);
+            for (int j = 0; j < 3; j++) {
+                assertTrue(abs(expect[j] - lab[i * 3 + j]) < 1e-4,
+                        "L*a*b* differs for " + Integer.toHexString(px));
+            }
+            // The original conversions truncate, so a round trip can lose one
+            for (int shift = 0; shift <= 16; shift += 8) {
+                int diff = ((px >> shift) & 0xFF) - ((back[i] >> shift) & 0xFF);
+                assertTrue(diff == 0 || diff == 1, "Round trip of "
+                        + Integer.toHexString(px) + " got " + Integer.toHexString(back[i]));
+            }
+            assertEquals(0xFF, back[i] >>> 24);
+        }
+    }
+
+    @Test
+    public void testBulkBounds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LabColor.fromArgb(new int[4], new float[11]));
+        assertThrows(IllegalArgumentException.class,
+                () -> LabColor.toArgb(new float[11], new int[4]));
+        assertThrows(IllegalArgumentException.class,
+                () -> Conversions.rgbToLab(new int[4], 2, 3, new float[12], 0));
+        float[] lab = new float[9];
+        Conversions.rgbToLab(new int[]{0, 0xFFFFFF, 0xFF0000}, 1, 2, lab, 3);
+        assertEquals(0, lab[0]);
+        assertEquals(100, lab[3], 0.001);
+        assertEquals(53.24, lab[6], 0.01);
+    }
+
+    // The conversions as written before they were table driven
+    static void referenceRgbToLab(int r, int g, int b, double[] lab) {
+        double x = referenceDecode(r) * 100;
+        double y = referenceDecode(g) * 100;
+        double z = referenceDecode(b) * 100;
+        Illuminant ill = Illuminant.getDefault();
+        double wx = (x * 0.4124 + y * 0.3576 + z * 0.1805) / ill.x(Standard.CIE_1964);
+        double wy = (x * 0.2126 + y * 0.7152 + z * 0.0722) / ill.y(Standard.CIE_1964);
+        double wz = (x * 0.0193 + y * 0.1192 + z * 0.9505) / ill.z(Standard.CIE_1964);
+        wx = wx > 0.008856 ? Math.pow(wx, 1D / 3D) : 7.787 * wx + 16D / 116D;
+        wy = wy > 0.008856 ? Math.pow(wy, 1D / 3D) : 7.787 * wy + 16D / 116D;
+        wz = wz > 0.008856 ? Math.pow(wz, 1D / 3D) : 7.787 * wz + 16D / 116D;
+        lab[0] = 116D * wy - 16D;
+        lab[1] = 500D * (wx - wy);
+        lab[2] = 200D * (wy - wz);
+    }
+
+    static void referenceLabToRgb(double l, double a, double b, int[] rgb) {
+        double y = (l + 16D) / 116D;
+        double x = a / 500D + y;
+        double z = y - b / 200D;
+        y = Math.pow(y, 3D) > 0.008856 ? Math.pow(y, 3D) : (y - 16D / 116D) / 7.787;
+        x = Math.pow(x, 3D) > 0.008856 ? Math.pow(x, 3D) : (x - 16D / 116D) / 7.787;
+        z = Math.pow(z, 3D) > 0.008856 ? Math.pow(z, 3D) : (z - 16D / 116D) / 7.787;
+        Illuminant ill = Illuminant.getDefault();
+        x *= ill.x(Standard.CIE_1964) / 100;
+        y *= ill.y(Standard.CIE_1964) / 100;
+        z *= ill.z(Standard.CIE_1964) / 100;
+        rgb[0] = referenceEncode(x * 3.2406 + y * -1.5372 + z * -0.4986);
+        rgb[1] = referenceEncode(x * -0.9689 + y * 1.8758 + z * 0.0415);
+        rgb[2] = referenceEncode(x * 0.0557 + y * -0.2040 + z * 1.0570);
+    }
+
+    static double referenceDecode(int c) {
+        double v = c / 255D;
+        return v > 0.04045 ? Math.pow((v + 0.055) / 1.055, 2.4) : v / 12.92;
+    }
+
+    static int referenceEncode(double c) {
+        double v = c > 0.0031308 ? 1.055 * Math.pow(c, 1D / 2.4) - 0.055 : 12.92 * c;
+        return (int) Math.max(0, Math.min(255, v * 255));
+    }
+}
@@ -60,7 +60,23 @@ public final class ArrayPathIteratorDouble implements PathIterator {
 
     @Override
     public int getWindingRule() {
-        return windingRules == null ? WIND_EVEN_ODD : windingRules.nearestKey(0, true);
+        return windingRuleAt(windingRules, typeCursor);
+    }
+
+    /**
+     * Look up the winding rule in effect at a segment; the keys of the map
+     * are the segment offsets at which the rule changes, and the values are
+     * the rules.
+     */
+    static int windingRuleAt(IntMap<Integer> rules, int typeCursor) {
+        if (rules == null || rules.isEmpty()) {
+            return WIND_EVEN_ODD;
+        }
+        Integer result = rules.valueAt(0);
+        for (int i = 1; i < rules.size() && rules.key(i) <= typeCursor; i++) {
+            result = rules.valueAt(i);
+        }
+        return result == null ? WIND_EVEN_ODD : result;
     }
 
     @Override
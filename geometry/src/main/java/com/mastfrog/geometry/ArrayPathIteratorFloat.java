@@ -25,7 +25,6 @@ package com.mastfrog.geometry;
 
 import static com.mastfrog.geometry.util.GeometryUtils.arraySizeForType;
 import com.mastfrog.util.collections.IntMap;
-import com.mastfrog.util.search.Bias;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.PathIterator;
 import java.util.Arrays;
@@ -90,7 +89,7 @@ public final class ArrayPathIteratorFloat implements PathIterator {
 
     @Override
     public int getWindingRule() {
-        return rules.nearestKey(typeCursor, Bias.BACKWARD);
+        return ArrayPathIteratorDouble.windingRuleAt(rules, typeCursor);
     }
 
     @Override
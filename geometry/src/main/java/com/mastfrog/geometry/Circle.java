@@ -220,7 +220,9 @@ public final strictfp class Circle implements Shape, Sector {
     }
 
     /**
-     * Create a circle which entirely contains the passed rectangle.
+     * Create a circle which entirely contains the passed rectangle. For the
+     * smallest circle containing a set of points, see
+     * <code>BoundingShapes.minimumEnclosingCircle()</code>.
      *
      * @param rect
      * @return
@@ -742,7 +742,7 @@ public final strictfp class CornerAngle implements Sector, Comparable<CornerAngl
         }
         double ext = Math.abs(ca.extent());
         double angle = ca.trailingAngle();
-        int angleMult = (int) (angle * ENCODING_MULTIPLIER);
+        long angleMult = (long) (angle * ENCODING_MULTIPLIER);
         double extMult = ext * 0.001;
 
         // XXX could use the sign to encode whether
@@ -0,0 +1,421 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import static com.mastfrog.geometry.ShapeCodec.FLAG_DELTA;
+import static com.mastfrog.geometry.ShapeCodec.FLAG_DOUBLE;
+import static com.mastfrog.geometry.ShapeCodec.HEADER_LENGTH;
+import static com.mastfrog.geometry.ShapeCodec.WINDING_ENTRY_LENGTH;
+import static com.mastfrog.geometry.ShapeCodec.unzigzag;
+import com.mastfrog.util.collections.IntMap;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_LINETO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.nio.ByteBuffer;
+
+/**
+ * A shape backed by a record in the {@link ShapeCodec} binary format, whose
+ * path iterators read (and, if delta encoded, decode) coordinates from the
+ * underlying buffer one segment at a time, so the coordinate data is never
+ * copied onto the heap - useful with memory-mapped files. Bounds come from
+ * the record header. Instances are immutable and thread-safe, provided the
+ * buffer's contents are not changed.
+ *
+ * @author Tim Boudreau
+ */
+public final class EncodedShape implements Shape, EnhancedShape {
+
+    private final ByteBuffer buf;
+    private final int flags;
+    private final int typeCount;
+    private final int coordCount;
+    private final double minX, minY, maxX, maxY;
+    private final double quantum;
+    private final IntMap<Integer> windingRules;
+    private final int typesOffset;
+    private final int coordsOffset;
+
+    @SuppressWarnings("UnnecessaryBoxing")
+    EncodedShape(ByteBuffer buf) {
+        this.buf = buf;
+        flags = buf.get(5);
+        int ruleEntries = Short.toUnsignedInt(buf.getShort(6));
+        typeCount = buf.getInt(8);
+        coordCount = buf.getInt(12);
+        minX = buf.getDouble(20);
+        minY = buf.getDouble(28);
+        maxX = buf.getDouble(36);
+        maxY = buf.getDouble(44);
+        quantum = buf.getDouble(52);
+        if (ruleEntries == 1) {
+            windingRules = IntMap.singleton(buf.getInt(HEADER_LENGTH),
+                    Integer.valueOf(buf.get(HEADER_LENGTH + 4)));
+        } else {
+            windingRules = IntMap.create(ruleEntries);
+            for (int i = 0; i < ruleEntries; i++) {
+                int at = HEADER_LENGTH + (i * WINDING_ENTRY_LENGTH);
+                windingRules.put(buf.getInt(at), Integer.valueOf(buf.get(at + 4)));
+            }
+        }
+        typesOffset = HEADER_LENGTH + (ruleEntries * WINDING_ENTRY_LENGTH);
+        coordsOffset = typesOffset + typeCount;
+        int needed = 0;
+        for (int i = 0; i < typeCount; i++) {
+            int type = buf.get(typesOffset + i);
+            switch (type) {
+                case SEG_MOVETO:
+                case SEG_LINETO:
+                    needed += 2;
+                    break;
+                case SEG_QUADTO:
+                    needed += 4;
+                    break;
+                case SEG_CUBICTO:
+                    needed += 6;
+                    break;
+                case SEG_CLOSE:
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bad segment type "
+                            + type + " at " + i);
+            }
+        }
+        if (needed > coordCount) {
+            throw new IllegalArgumentException("Segments need " + needed
+                    + " coordinates but only " + coordCount + " are present");
+        }
+        if (!isDeltaEncoded() && coordsOffset
+                + ((long) coordCount * (isDoublePrecision() ? 8 : 4)) > buf.limit()) {
+            throw new IllegalArgumentException("Coordinate section runs past "
+                    + "the end of the record");
+        }
+    }
+
+    int flags() {
+        return flags;
+    }
+
+    /**
+     * Determine if the coordinates were written with double precision.
+     *
+     * @return true if double precision
+     */
+    public boolean isDoublePrecision() {
+        return (flags & FLAG_DOUBLE) != 0;
+    }
+
+    /**
+     * Determine if the coordinates are stored as quantized varint deltas.
+     *
+     * @return true if delta encoded
+     */
+    public boolean isDeltaEncoded() {
+        return (flags & FLAG_DELTA) != 0;
+    }
+
+    /**
+     * Get the number of path segments, including <code>SEG_CLOSE</code>s.
+     *
+     * @return The segment count
+     */
+    public int segmentCount() {
+        return typeCount;
+    }
+
+    @Override
+    public int pointCount() {
+        int result = 0;
+        for (int i = 0; i < typeCount; i++) {
+            if (buf.get(typesOffset + i) != SEG_CLOSE) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the total size of the record this shape reads from, in bytes.
+     *
+     * @return A byte count
+     */
+    public int encodedLength() {
+        return buf.limit();
+    }
+
+    /**
+     * Get a read-only view of the record this shape reads from, positioned
+     * at its start.
+     *
+     * @return A buffer
+     */
+    public ByteBuffer buffer() {
+        return buf.asReadOnlyBuffer();
+    }
+
+    /**
+     * Copy this shape onto the heap as a MinimalAggregateShapeDouble.
+     *
+     * @return A shape
+     */
+    public MinimalAggregateShapeDouble toDoubleShape() {
+        double[] data = new double[coordCount];
+        decode(data, null);
+        return new MinimalAggregateShapeDouble(types(), data, windingRules);
+    }
+
+    /**
+     * Copy this shape onto the heap as a MinimalAggregateShapeFloat.
+     *
+     * @return A shape
+     */
+    public MinimalAggregateShapeFloat toFloatShape() {
+        float[] data = new float[coordCount];
+        decode(null, data);
+        return new MinimalAggregateShapeFloat(types(), data, windingRules);
+    }
+
+    private byte[] types() {
+        byte[] result = new byte[typeCount];
+        ByteBuffer dup = buf.duplicate();
+        dup.position(typesOffset);
+        dup.get(result);
+        return result;
+    }
+
+    private void decode(double[] dbl, float[] flt) {
+        if (isDeltaEncoded()) {
+            int[] cursor = new int[]{coordsOffset};
+            long lastX = 0;
+            long lastY = 0;
+            for (int i = 0; i < coordCount; i++) {
+                long q;
+                if ((i & 1) == 0) {
+                    q = lastX += unzigzag(readVarLong(cursor));
+                } else {
+                    q = lastY += unzigzag(readVarLong(cursor));
+                }
+                if (dbl != null) {
+                    dbl[i] = q * quantum;
+                } else {
+                    flt[i] = (float) (q * quantum);
+                }
+            }
+        } else if (isDoublePrecision()) {
+            for (int i = 0; i < coordCount; i++) {
+                double v = buf.getDouble(coordsOffset + (i * 8));
+                if (dbl != null) {
+                    dbl[i] = v;
+                } else {
+                    flt[i] = (float) v;
+                }
+            }
+        } else {
+            for (int i = 0; i < coordCount; i++) {
+                float v = buf.getFloat(coordsOffset + (i * 4));
+                if (dbl != null) {
+                    dbl[i] = v;
+                } else {
+                    flt[i] = v;
+                }
+            }
+        }
+    }
+
+    private long readVarLong(int[] cursor) {
+        long result = 0;
+        int shift = 0;
+        int at = cursor[0];
+        for (;;) {
+            byte b = buf.get(at++);
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint at " + cursor[0]);
+            }
+        }
+        cursor[0] = at;
+        return result;
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        return getBounds2D().getBounds();
+    }
+
+    @Override
+    public Rectangle2D getBounds2D() {
+        return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    @Override
+    public boolean contains(double x, double y) {
+        if (x < minX || y < minY || x > maxX || y > maxY) {
+            return false;
+        }
+        return Path2D.contains(getPathIterator(null), x, y);
+    }
+
+    @Override
+    public boolean contains(Point2D p) {
+        return contains(p.getX(), p.getY());
+    }
+
+    @Override
+    public boolean intersects(double x, double y, double w, double h) {
+        if (x + w < minX || y + h < minY || x > maxX || y > maxY) {
+            return false;
+        }
+        return Path2D.intersects(getPathIterator(null), x, y, w, h);
+    }
+
+    @Override
+    public boolean intersects(Rectangle2D r) {
+        return intersects(r.getX(), r.getY(), r.getWidth(), r.getHeight());
+    }
+
+    @Override
+    public boolean contains(double x, double y, double w, double h) {
+        if (x < minX || y < minY || x + w > maxX || y + h > maxY) {
+            return false;
+        }
+        return Path2D.contains(getPathIterator(null), x, y, w, h);
+    }
+
+    @Override
+    public boolean contains(Rectangle2D r) {
+        return contains(r.getX(), r.getY(), r.getWidth(), r.getHeight());
+    }
+
+    @Override
+    public PathIterator getPathIterator(AffineTransform at) {
+        return new Iter(at);
+    }
+
+    @Override
+    public PathIterator getPathIterator(AffineTransform at, double flatness) {
+        return new FlatteningPathIterator(getPathIterator(at), flatness);
+    }
+
+    @Override
+    public String toString() {
+        return "EncodedShape(" + typeCount + " segments, " + coordCount
+                + (isDoublePrecision() ? " double" : " float")
+                + (isDeltaEncoded() ? " delta-encoded" : "")
+                + " coordinates, " + buf.limit() + " bytes)";
+    }
+
+    /**
+     * Reads one segment at a time from the buffer, in the style of
+     * ArrayPathIteratorDouble.
+     */
+    private final class Iter implements PathIterator {
+
+        private final AffineTransform xform;
+        private final double[] segment = new double[6];
+        private final int[] cursor = new int[1];
+        private int typeCursor;
+        private int coordCursor;
+        private long lastX;
+        private long lastY;
+        private int segmentType;
+
+        Iter(AffineTransform xform) {
+            this.xform = xform == null || xform.isIdentity() ? null : xform;
+            cursor[0] = coordsOffset;
+            load();
+        }
+
+        private void load() {
+            if (typeCursor >= typeCount) {
+                return;
+            }
+            segmentType = buf.get(typesOffset + typeCursor);
+            int count = segmentType == SEG_CLOSE ? 0
+                    : segmentType == SEG_QUADTO ? 4
+                            : segmentType == SEG_CUBICTO ? 6 : 2;
+            for (int i = 0; i < count; i++) {
+                int ix = coordCursor++;
+                if (isDeltaEncoded()) {
+                    long q;
+                    if ((ix & 1) == 0) {
+                        q = lastX += unzigzag(readVarLong(cursor));
+                    } else {
+                        q = lastY += unzigzag(readVarLong(cursor));
+                    }
+                    segment[i] = q * quantum;
+                } else if (isDoublePrecision()) {
+                    segment[i] = buf.getDouble(coordsOffset + (ix * 8));
+                } else {
+                    segment[i] = buf.getFloat(coordsOffset + (ix * 4));
+                }
+            }
+            if (xform != null && count > 0) {
+                xform.transform(segment, 0, segment, 0, count / 2);
+            }
+        }
+
+        @Override
+        public int getWindingRule() {
+            return ArrayPathIteratorDouble.windingRuleAt(windingRules, typeCursor);
+        }
+
+        @Override
+        public boolean isDone() {
+            return typeCursor >= typeCount;
+        }
+
+        @Override
+        public void next() {
+            typeCursor++;
+            load();
+        }
+
+        @Override
+        public int currentSegment(float[] coords) {
+            for (int i = 0; i < 6; i++) {
+                coords[i] = (float) segment[i];
+            }
+            return segmentType;
+        }
+
+        @Override
+        public int currentSegment(double[] coords) {
+            System.arraycopy(segment, 0, coords, 0, 6);
+            return segmentType;
+        }
+    }
+}
@@ -28,7 +28,7 @@ import com.mastfrog.function.DoublePetaConsumer;
 import com.mastfrog.function.DoubleQuadConsumer;
 import com.mastfrog.function.DoubleSextaConsumer;
 import com.mastfrog.function.DoubleTriConsumer;
-import com.mastfrog.geometry.path.PathElement;
+import com.mastfrog.geometry.path.PathCursor;
 import com.mastfrog.geometry.util.GeometryUtils;
 import java.awt.Shape;
 import java.awt.geom.Line2D;
@@ -37,7 +37,6 @@ import java.awt.geom.Rectangle2D;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.function.DoubleConsumer;
 
@@ -56,12 +55,10 @@ public interface EnhancedShape extends Intersectable, Shape {
      * @return
      */
     default Point2D point(int index) {
-        int cursor = 0;
-        for (PathElement pe : PathElement.iterable(this)) {
-            if (pe.kind().hasCoordinates()) {
-                if (cursor++ == index) {
-                    return pe.destinationPoint();
-                }
+        PathCursor cursor = PathCursor.of(this);
+        while (cursor.nextPoint()) {
+            if (cursor.pointIndex() == index) {
+                return new EqPointDouble(cursor.x(), cursor.y());
             }
         }
         return null;
@@ -74,10 +71,9 @@ public interface EnhancedShape extends Intersectable, Shape {
      */
     default int pointCount() {
         int result = 0;
-        for (PathElement pe : PathElement.iterable(this)) {
-            if (pe.kind().hasCoordinates()) {
-                result++;
-            }
+        PathCursor cursor = PathCursor.of(this);
+        while (cursor.nextPoint()) {
+            result++;
         }
         return result;
     }
@@ -93,11 +89,10 @@ public interface EnhancedShape extends Intersectable, Shape {
         double maxX = -Double.MAX_VALUE;
         double minY = Double.MAX_VALUE;
         double maxY = -Double.MAX_VALUE;
-        int count = pointCount();
-        for (int i = 0; i < count; i++) {
-            Point2D p = point(i);
-            double x = p.getX();
-            double y = p.getY();
+        PathCursor cursor = PathCursor.of(this);
+        while (cursor.nextPoint()) {
+            double x = cursor.x();
+            double y = cursor.y();
             minX = min(minX, x);
             maxX = max(maxX, x);
             minY = min(minY, y);
@@ -260,9 +255,9 @@ public interface EnhancedShape extends Intersectable, Shape {
      * @param consumer
      */
     default void visitPoints(DoubleBiConsumer consumer) {
-        for (int i = 0; i < pointCount(); i++) {
-            Point2D p = point(i);
-            consumer.accept(p.getX(), p.getY());
+        PathCursor cursor = PathCursor.of(this);
+        while (cursor.nextPoint()) {
+            consumer.accept(cursor.x(), cursor.y());
         }
     }
 
@@ -431,18 +426,8 @@ public interface EnhancedShape extends Intersectable, Shape {
      * @return The top-leftmost point
      */
     default Point2D topLeftPoint() {
-        List<? extends Point2D> pts = points();
-        if (pts.isEmpty()) {
-            return null;
-        }
-        Collections.sort(pts, (a, b) -> {
-            int result = Double.compare(a.getY(), b.getY());
-            if (result == 0) {
-                result = Double.compare(a.getX(), b.getX());
-            }
-            return result;
-        });
-        return pts.get(0);
+        int index = indexOfTopLeftmostPoint();
+        return index < 0 ? null : point(index);
     }
 
     /**
@@ -451,25 +436,20 @@ public interface EnhancedShape extends Intersectable, Shape {
      * @return The index of the top, leftmost point.
      */
     default int indexOfTopLeftmostPoint() {
-        List<? extends Point2D> pts = points();
-        if (pts.isEmpty()) {
-            return -1;
-        }
-        Point2D best = pts.get(0);
-        int bestIx = 0;
-        for (int i = 1; i < pts.size(); i++) {
-            Point2D p = pts.get(i);
-            if (p.getY() < best.getY()) {
-                best = p;
-                bestIx = i;
-            } else if (p.getY() + 0.0 == best.getY() + 0.0) {
-                if (p.getX() < best.getX()) {
-                    best = p;
-                    bestIx = i;
-                }
+        // Use visitPoints() rather than a cursor, since implementations may
+        // number their points differently than their path iterators do
+        double[] best = new double[]{Double.MAX_VALUE, Double.MAX_VALUE};
+        int[] indices = new int[]{-1, 0};
+        visitPoints((x, y) -> {
+            int ix = indices[1]++;
+            if (ix == 0 || y < best[1] || (y + 0.0 == best[1] + 0.0
+                    && x < best[0])) {
+                best[0] = x;
+                best[1] = y;
+                indices[0] = ix;
             }
-        }
-        return bestIx;
+        });
+        return indices[0];
     }
 
     /**
@@ -0,0 +1,99 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import com.mastfrog.function.DoubleBiConsumer;
+import java.awt.geom.Point2D;
+import java.util.List;
+
+/**
+ * Opt-in extension to EnhancedShape for shapes whose points are expensive to
+ * compute by walking the path - the default implementations of
+ * <code>point(int)</code> and <code>pointCount()</code> iterate the entire
+ * path on every call, which makes <code>size()</code> quadratic. Implementing
+ * this interface and caching a {@link PointIndex} makes all of those, plus
+ * <code>visitPoints()</code> (and the line and angle visitors that are built
+ * on it) and <code>cornerAngles()</code>, read from a single flattened array.
+ * <p>
+ * Implementations are responsible for caching the index, and for discarding
+ * it whenever the shape is mutated; a {@link PointIndexCache} does both, as
+ * {@link Polygon2D} uses one:
+ * </p>
+ * <pre>
+ * private final PointIndexCache index = new PointIndexCache(this);
+ *
+ * public PointIndex pointIndex() {
+ *     return index.get();
+ * }
+ *
+ * private void changed() {
+ *     index.invalidate();
+ * }
+ * </pre>
+ * <p>
+ * Shapes that already keep cheap direct implementations of some of these
+ * methods should keep overriding them; the index only replaces the ones that
+ * would otherwise walk the path.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public interface IndexedEnhancedShape extends EnhancedShape {
+
+    /**
+     * Get the (cached) point index for the current state of this shape.
+     *
+     * @return A point index
+     */
+    PointIndex pointIndex();
+
+    @Override
+    default Point2D point(int index) {
+        PointIndex idx = pointIndex();
+        if (index < 0 || index >= idx.pointCount()) {
+            return null;
+        }
+        return idx.point(index);
+    }
+
+    @Override
+    default int pointCount() {
+        return pointIndex().pointCount();
+    }
+
+    @Override
+    default DimensionDouble size() {
+        return pointIndex().size();
+    }
+
+    @Override
+    default void visitPoints(DoubleBiConsumer consumer) {
+        pointIndex().visitPoints(consumer);
+    }
+
+    @Override
+    default List<? extends CornerAngle> cornerAngles() {
+        return pointIndex().cornerAngles();
+    }
+}
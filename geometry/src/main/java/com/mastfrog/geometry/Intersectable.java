@@ -24,8 +24,8 @@
 package com.mastfrog.geometry;
 
 import com.mastfrog.function.DoubleQuadConsumer;
-import com.mastfrog.function.state.Int;
-import com.mastfrog.geometry.util.GeometryUtils;
+import com.mastfrog.geometry.util.LineSegments;
+import com.mastfrog.geometry.util.LineSegments.SegmentIntersectionVisitor;
 
 /**
  * Interface with default implementations for shapes which can count how many
@@ -46,18 +46,43 @@ public interface Intersectable {
         return intersectionCount(inter, true) > 0;
     }
 
+    /**
+     * Count the number of pairs of line segments, one from this shape and one
+     * from the passed one, which intersect; segments which share an endpoint
+     * exactly are not counted. For large shapes, this sorts the segments and
+     * sweeps across them, rather than testing every pair.
+     *
+     * @param other Another shape
+     * @param includeClose Whether to include the closing line of each shape
+     * @return The number of intersecting segment pairs, or -1 if the passed
+     * shape is this one
+     */
     default int intersectionCount(Intersectable other, boolean includeClose) {
         if (other == this) {
             return -1;
         }
-        Int result = Int.create();
-        visitLines((ax, ay, bx, by) -> {
-            other.visitLines((cx, cy, dx, dy) -> {
-                if (GeometryUtils.linesIntersect(ax, ay, bx, by, cx, cy, dx, dy, false)) {
-                    result.increment();
-                }
-            }, includeClose);
-        }, includeClose);
-        return result.get();
+        return LineSegments.of(this, includeClose)
+                .intersectionCount(LineSegments.of(other, includeClose));
+    }
+
+    /**
+     * Visit each pair of line segments, one from this shape and one from the
+     * passed one, which intersect, with the point at which they do, using the
+     * same test as <code>intersectionCount()</code>. Segment indices are the
+     * order in which each shape's <code>visitLines()</code> supplies them.
+     *
+     * @param other Another shape
+     * @param includeClose Whether to include the closing line of each shape
+     * @param visitor A visitor
+     * @return The number of intersecting segment pairs, or -1 if the passed
+     * shape is this one
+     */
+    default int visitIntersections(Intersectable other, boolean includeClose,
+            SegmentIntersectionVisitor visitor) {
+        if (other == this) {
+            return -1;
+        }
+        return LineSegments.of(this, includeClose)
+                .visitIntersections(LineSegments.of(other, includeClose), visitor);
     }
 }
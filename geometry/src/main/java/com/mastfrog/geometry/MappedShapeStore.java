@@ -0,0 +1,375 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A read-only, memory-mapped file of shapes in the {@link ShapeCodec} record
+ * format, for data sets too large to load onto the heap. Opening a store maps
+ * only its header and offset table, so it takes the same time for a file of
+ * a few kilobytes or many gigabytes; the records themselves are mapped in
+ * large overlapping windows the first time a shape in each window is asked
+ * for, and returned as {@link EncodedShape}s whose path iterators decode
+ * coordinates straight from the mapping.
+ * <p>
+ * The file layout is:
+ * </p>
+ * <pre>
+ * int magic ('MSST')
+ * int version
+ * int shapeCount
+ * int reserved
+ * double minX, minY, maxX, maxY  (union of all shapes' bounds)
+ * long[shapeCount] record offsets, from the start of the file
+ * ShapeCodec records
+ * </pre>
+ * <p>
+ * Instances are thread-safe. Closing a store closes its file channel, but
+ * Java offers no way to unmap a MappedByteBuffer explicitly, so shapes
+ * already obtained remain usable until they are garbage collected.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class MappedShapeStore implements Closeable, Iterable<EncodedShape> {
+
+    public static final int FORMAT_VERSION = 1;
+    static final int MAGIC = 0x4D535354;
+    static final int HEADER_LENGTH = 48;
+    static final long DEFAULT_WINDOW = 1L << 29;
+    private final FileChannel channel;
+    private final LongBuffer offsets;
+    private final int count;
+    private final long fileSize;
+    private final long window;
+    private final double minX, minY, maxX, maxY;
+    private final AtomicReferenceArray<ByteBuffer> windows;
+
+    private MappedShapeStore(FileChannel channel, long window) throws IOException {
+        this.channel = channel;
+        this.window = window;
+        fileSize = channel.size();
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                Math.min(fileSize, HEADER_LENGTH)).order(ByteOrder.BIG_ENDIAN);
+        if (header.limit() < HEADER_LENGTH) {
+            throw new IOException("Not a shape store - only " + fileSize
+                    + " bytes");
+        }
+        int magic = header.getInt(0);
+        if (magic != MAGIC) {
+            throw new IOException("Bad magic number 0x"
+                    + Integer.toHexString(magic));
+        }
+        int version = header.getInt(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported shape store version " + version);
+        }
+        count = header.getInt(8);
+        long tableEnd = HEADER_LENGTH + (count * 8L);
+        if (count < 0 || tableEnd > fileSize || tableEnd > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt shape count " + count
+                    + " for a file of " + fileSize + " bytes");
+        }
+        minX = header.getDouble(16);
+        minY = header.getDouble(24);
+        maxX = header.getDouble(32);
+        maxY = header.getDouble(40);
+        offsets = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH,
+                count * 8L).order(ByteOrder.BIG_ENDIAN).asLongBuffer();
+        windows = new AtomicReferenceArray<>((int) ((fileSize / window) + 1));
+    }
+
+    /**
+     * Open a store file.
+     *
+     * @param file The file
+     * @return A store
+     * @throws IOException If the file is not a shape store or cannot be read
+     */
+    public static MappedShapeStore open(Path file) throws IOException {
+        return open(file, DEFAULT_WINDOW);
+    }
+
+    static MappedShapeStore open(Path file, long window) throws IOException {
+        if (window <= 0 || window > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Bad window size " + window);
+        }
+        FileChannel channel = FileChannel.open(file, READ);
+        try {
+            return new MappedShapeStore(channel, window);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Write a collection of shapes to a store file, replacing any existing
+     * file. MinimalAggregateShapeDouble and MinimalAggregateShapeFloat are
+     * encoded directly from their arrays, and EncodedShapes already in the
+     * codec's format (such as those from another store) are copied
+     * byte-for-byte.
+     *
+     * @param file The file
+     * @param codec The codec to encode shapes with
+     * @param shapes The shapes
+     * @return The total number of bytes written
+     * @throws IOException If something goes wrong
+     */
+    public static long write(Path file, ShapeCodec codec,
+            Collection<? extends Shape> shapes) throws IOException {
+        int count = shapes.size();
+        if (count > (Integer.MAX_VALUE - HEADER_LENGTH) / 8) {
+            throw new IllegalArgumentException("Too many shapes: " + count);
+        }
+        long position = HEADER_LENGTH + (count * 8L);
+        ByteBuffer table = ByteBuffer.allocate(HEADER_LENGTH + (count * 8));
+        table.position(HEADER_LENGTH);
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        int written = 0;
+        try (FileChannel channel = FileChannel.open(file, CREATE, WRITE,
+                TRUNCATE_EXISTING)) {
+            channel.position(position);
+            for (Shape shape : shapes) {
+                if (written++ == count) {
+                    break;
+                }
+                ByteBuffer record = codec.encode(shape);
+                EncodedShape encoded = ShapeCodec.wrap(record.duplicate());
+                if (encoded.segmentCount() > 0) {
+                    Rectangle2D bounds = encoded.getBounds2D();
+                    minX = Math.min(minX, bounds.getMinX());
+                    minY = Math.min(minY, bounds.getMinY());
+                    maxX = Math.max(maxX, bounds.getMaxX());
+                    maxY = Math.max(maxY, bounds.getMaxY());
+                }
+                table.putLong(position);
+                while (record.hasRemaining()) {
+                    position += channel.write(record);
+                }
+            }
+            if (written != count) {
+                throw new IOException("Collection size changed while writing: "
+                        + count + " vs. " + written);
+            }
+            if (minX > maxX) {
+                minX = minY = maxX = maxY = 0;
+            }
+            table.putInt(0, MAGIC);
+            table.putInt(4, FORMAT_VERSION);
+            table.putInt(8, count);
+            table.putInt(12, 0);
+            table.putDouble(16, minX);
+            table.putDouble(24, minY);
+            table.putDouble(32, maxX);
+            table.putDouble(40, maxY);
+            table.rewind();
+            long at = 0;
+            while (table.hasRemaining()) {
+                at += channel.write(table, at);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Get the number of shapes in the store.
+     *
+     * @return The shape count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Determine if the store contains no shapes.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Get the size of the store file.
+     *
+     * @return A byte count
+     */
+    public long fileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Get the union of the bounds of all shapes in the store, as recorded in
+     * the file header, without touching any shape records.
+     *
+     * @return A rectangle
+     */
+    public Rectangle2D bounds() {
+        return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Get the file offset of a shape's record.
+     *
+     * @param index The shape index
+     * @return A file position
+     */
+    public long offset(int index) {
+        return offsets.get(checkIndex(index));
+    }
+
+    /**
+     * Get a shape, mapping the region of the file that contains it if
+     * necessary. The result reads its coordinates from the mapping; use
+     * <code>toDoubleShape()</code> or <code>toFloatShape()</code> on it to
+     * copy it onto the heap.
+     *
+     * @param index The shape index
+     * @return A shape
+     * @throws UncheckedIOException If mapping fails
+     */
+    public EncodedShape get(int index) {
+        long start = offset(index);
+        long end = index == count - 1 ? fileSize : offsets.get(index + 1);
+        if (start < HEADER_LENGTH || end < start || end > fileSize) {
+            throw new IllegalStateException("Corrupt offset table entry for "
+                    + index + ": " + start + " to " + end);
+        }
+        int windowIndex = (int) (start / window);
+        long windowStart = windowIndex * window;
+        try {
+            if (end - windowStart > window * 2) {
+                // Too large to fit in the overlap, so map it by itself
+                return ShapeCodec.map(channel, start);
+            }
+            ByteBuffer mapped = window(windowIndex, windowStart);
+            ByteBuffer dup = mapped.duplicate();
+            dup.position((int) (start - windowStart));
+            return ShapeCodec.wrap(dup);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Get the bounds of one shape from its record header.
+     *
+     * @param index The shape index
+     * @return A rectangle
+     */
+    public Rectangle2D bounds(int index) {
+        return get(index).getBounds2D();
+    }
+
+    /**
+     * Get a list view of the store, which maps records on demand.
+     *
+     * @return A list
+     */
+    public List<EncodedShape> asList() {
+        return new AbstractList<EncodedShape>() {
+            @Override
+            public EncodedShape get(int index) {
+                return MappedShapeStore.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<EncodedShape> iterator() {
+        return asList().iterator();
+    }
+
+    private ByteBuffer window(int windowIndex, long windowStart) throws IOException {
+        ByteBuffer result = windows.get(windowIndex);
+        if (result == null) {
+            // Windows overlap by one window length, so any record which
+            // starts in a window and is no longer than a window fits in it
+            long length = Math.min(window * 2, fileSize - windowStart);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                    windowStart, length);
+            if (!windows.compareAndSet(windowIndex, null, mapped)) {
+                result = windows.get(windowIndex);
+            } else {
+                result = mapped;
+            }
+        }
+        return result;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("No shape " + index
+                    + " of " + count);
+        }
+        return index;
+    }
+
+    /**
+     * Close the underlying file channel. Shapes already retrieved from the
+     * store remain readable; new ones cannot be mapped after closing.
+     *
+     * @throws IOException If something goes wrong
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "MappedShapeStore(" + count + " shapes, " + fileSize
+                + " bytes, bounds " + minX + ", " + minY + ", " + maxX
+                + ", " + maxY + ")";
+    }
+}
@@ -64,10 +64,8 @@ public final class MinimalAggregateShapeDouble implements Shape, EnhancedShape {
      * @param types The array of PathIterator constants provided by the
      * PathIterator
      * @param data The array of points provided by the PathIterator - minimally
-     * sanity checked that it is not impossibly short compared with the length
-     * of the types array (minimum is <code>(types.length-1) * 2</code> for a
-     * shape that contains a single CLOSE_PATH with no associated points; make
-     * SURE the data is correct or the surprise when Java2D tries to render it
+     * sanity checked that it is not shorter than the segment types require;
+     * make SURE the data is correct or the surprise when Java2D tries to render it
      * will be unpleasant - Graphics2D is not forgiving.
      * @param windingRule The winding rule
      */
@@ -81,25 +79,31 @@ public final class MinimalAggregateShapeDouble implements Shape, EnhancedShape {
      * @param types The array of PathIterator constants provided by the
      * PathIterator
      * @param data The array of points provided by the PathIterator - minimally
-     * sanity checked that it is not impossibly short compared with the length
-     * of the types array (minimum is <code>(types.length-1) * 2</code> for a
-     * shape that contains a single CLOSE_PATH with no associated points; make
-     * SURE the data is correct or the surprise when Java2D tries to render it
+     * sanity checked that it is not shorter than the segment types require;
+     * make SURE the data is correct or the surprise when Java2D tries to render it
      * will be unpleasant - Graphics2D is not forgiving.
      * @param windingRule The winding rule
      */
     @SuppressWarnings("UnnecessaryBoxing")
     public MinimalAggregateShapeDouble(byte[] types, double[] data, int windingRule) {
+        this(types, data, IntMap.singleton(0, Integer.valueOf(windingRule)));
+    }
+
+    MinimalAggregateShapeDouble(byte[] types, double[] data, IntMap<Integer> windingRules) {
         this.types = types;
         this.data = data;
-        im = IntMap.singleton(0, Integer.valueOf(windingRule));
-        if (data.length < (types.length - 1) * 2) {
+        im = windingRules;
+        int needed = 0;
+        for (int i = 0; i < types.length; i++) {
+            needed += arraySizeForType(types[i]);
+        }
+        if (data.length < needed) {
             throw new IllegalArgumentException("Data length " + data.length
-                    + " is less than that needed for " + (types.length - 1)
-                    + " points and a CLOSE_PATH");
+                    + " is less than the " + needed + " coordinates needed for "
+                    + types.length + " segments");
         }
         minX = minY = Double.MAX_VALUE;
-        maxX = maxY = Double.MIN_VALUE;
+        maxX = maxY = -Double.MAX_VALUE;
         for (int i = 0; i < data.length; i += 2) {
             minX = Math.min(minX, data[i]);
             minY = Math.min(minY, data[i + 1]);
@@ -125,7 +129,7 @@ public final class MinimalAggregateShapeDouble implements Shape, EnhancedShape {
      */
     public MinimalAggregateShapeDouble(AffineTransform xform, Shape... shapes) {
         minX = minY = Double.MAX_VALUE;
-        maxX = maxY = Double.MIN_VALUE;
+        maxX = maxY = -Double.MAX_VALUE;
         IntList il = IntList.create(shapes.length * 4);
         DoubleList fl = new DoubleList(shapes.length * 8);
         double[] scratch = new double[6];
@@ -161,6 +165,27 @@ public final class MinimalAggregateShapeDouble implements Shape, EnhancedShape {
         }
     }
 
+    /**
+     * The raw segment types array, for use by codecs; do not modify.
+     */
+    byte[] types() {
+        return types;
+    }
+
+    /**
+     * The raw coordinate array, for use by codecs; do not modify.
+     */
+    double[] data() {
+        return data;
+    }
+
+    /**
+     * The winding rules, keyed by the segment at which each takes effect.
+     */
+    IntMap<Integer> windingRules() {
+        return im;
+    }
+
     @Override
     public Rectangle getBounds() {
         return new Rectangle((int) Math.floor(minX),
@@ -68,16 +68,24 @@ public final class MinimalAggregateShapeFloat implements Shape, EnhancedShape {
 
     @SuppressWarnings("UnnecessaryBoxing")
     public MinimalAggregateShapeFloat(byte[] types, float[] data, int windingRule) {
+        this(types, data, IntMap.singleton(0, Integer.valueOf(windingRule)));
+    }
+
+    MinimalAggregateShapeFloat(byte[] types, float[] data, IntMap<Integer> windingRules) {
         this.types = types;
         this.data = data;
-        im = IntMap.singleton(0, Integer.valueOf(windingRule));
-        if (data.length < (types.length - 1) * 2) {
+        im = windingRules;
+        int needed = 0;
+        for (int i = 0; i < types.length; i++) {
+            needed += arraySizeForType(types[i]);
+        }
+        if (data.length < needed) {
             throw new IllegalArgumentException("Data length " + data.length
-                    + " is less than that needed for " + (types.length - 1)
-                    + " points and a CLOSE_PATH");
+                    + " is less than the " + needed + " coordinates needed for "
+                    + types.length + " segments");
         }
         minX = minY = Float.MAX_VALUE;
-        maxX = maxY = Float.MIN_VALUE;
+        maxX = maxY = -Float.MAX_VALUE;
         for (int i = 0; i < data.length; i += 2) {
             minX = Math.min(minX, data[i]);
             minY = Math.min(minY, data[i + 1]);
@@ -104,7 +112,7 @@ public final class MinimalAggregateShapeFloat implements Shape, EnhancedShape {
     @SuppressWarnings("unchecked")
     public MinimalAggregateShapeFloat(AffineTransform xform, Shape... shapes) {
         minX = minY = Float.MAX_VALUE;
-        maxX = maxY = Float.MIN_VALUE;
+        maxX = maxY = -Float.MAX_VALUE;
         IntList il = IntList.create(shapes.length * 4);
         FloatList fl = new FloatList(shapes.length * 6);
         float[] scratch = new float[6];
@@ -138,6 +146,27 @@ public final class MinimalAggregateShapeFloat implements Shape, EnhancedShape {
         }
     }
 
+    /**
+     * The raw segment types array, for use by codecs; do not modify.
+     */
+    byte[] types() {
+        return types;
+    }
+
+    /**
+     * The raw coordinate array, for use by codecs; do not modify.
+     */
+    float[] data() {
+        return data;
+    }
+
+    /**
+     * The winding rules, keyed by the segment at which each takes effect.
+     */
+    IntMap<Integer> windingRules() {
+        return im;
+    }
+
     @Override
     public Rectangle getBounds() {
         return new Rectangle((int) Math.floor(minX),
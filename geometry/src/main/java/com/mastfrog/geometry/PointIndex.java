@@ -0,0 +1,308 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import com.mastfrog.function.DoubleBiConsumer;
+import com.mastfrog.geometry.util.GeometryStrings;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A flattened, immutable snapshot of the destination points of a shape - one
+ * x/y pair per segment which has coordinates (i.e. everything but
+ * <code>SEG_CLOSE</code>), along with the segment type each point came from
+ * and the bounds of those points. Computed in a single pass over the shape's
+ * PathIterator, so that random access to points, point counts and sizes are
+ * O(1) rather than a walk of the path for each call.
+ * <p>
+ * A PointIndex does not track changes to the shape it was created from - see
+ * {@link IndexedEnhancedShape} and {@link PointIndexCache} for how shapes
+ * should cache and invalidate one.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class PointIndex {
+
+    private static final PointIndex EMPTY
+            = new PointIndex(new double[0], new byte[0], 0, 0, 0, 0);
+    private final double[] coords;
+    private final byte[] types;
+    private final double minX, minY, maxX, maxY;
+
+    private PointIndex(double[] coords, byte[] types, double minX, double minY,
+            double maxX, double maxY) {
+        this.coords = coords;
+        this.types = types;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Create an index over the untransformed path of a shape.
+     *
+     * @param shape A shape
+     * @return An index
+     */
+    public static PointIndex of(Shape shape) {
+        return of(shape.getPathIterator(null));
+    }
+
+    /**
+     * Create an index over the transformed path of a shape.
+     *
+     * @param shape A shape
+     * @param xform A transform, or null
+     * @return An index
+     */
+    public static PointIndex of(Shape shape, AffineTransform xform) {
+        return of(shape.getPathIterator(xform));
+    }
+
+    /**
+     * Create an index over the remaining segments of a path iterator.
+     *
+     * @param iter A path iterator
+     * @return An index
+     */
+    public static PointIndex of(PathIterator iter) {
+        double[] scratch = new double[6];
+        double[] coords = new double[32];
+        byte[] types = new byte[16];
+        int count = 0;
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        while (!iter.isDone()) {
+            int type = iter.currentSegment(scratch);
+            int offset;
+            switch (type) {
+                case SEG_CLOSE:
+                    iter.next();
+                    continue;
+                case SEG_QUADTO:
+                    offset = 2;
+                    break;
+                case SEG_CUBICTO:
+                    offset = 4;
+                    break;
+                default:
+                    offset = 0;
+            }
+            if (count == types.length) {
+                types = Arrays.copyOf(types, types.length * 2);
+                coords = Arrays.copyOf(coords, coords.length * 2);
+            }
+            double x = scratch[offset];
+            double y = scratch[offset + 1];
+            coords[count * 2] = x;
+            coords[(count * 2) + 1] = y;
+            types[count++] = (byte) type;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            iter.next();
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new PointIndex(Arrays.copyOf(coords, count * 2),
+                Arrays.copyOf(types, count), minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Get the number of points.
+     *
+     * @return The point count
+     */
+    public int pointCount() {
+        return types.length;
+    }
+
+    /**
+     * Get the x coordinate of a point.
+     *
+     * @param index The point index
+     * @return The x coordinate
+     */
+    public double x(int index) {
+        return coords[checkIndex(index) * 2];
+    }
+
+    /**
+     * Get the y coordinate of a point.
+     *
+     * @param index The point index
+     * @return The y coordinate
+     */
+    public double y(int index) {
+        return coords[(checkIndex(index) * 2) + 1];
+    }
+
+    /**
+     * Get the type of the path segment (one of the constants on PathIterator,
+     * never <code>SEG_CLOSE</code>) the point at the passed index is the
+     * destination point of.
+     *
+     * @param index The point index
+     * @return A segment type
+     */
+    public int segmentType(int index) {
+        return types[checkIndex(index)];
+    }
+
+    /**
+     * Get a point as a new Point2D.
+     *
+     * @param index The point index
+     * @return A point
+     */
+    public EqPointDouble point(int index) {
+        int off = checkIndex(index) * 2;
+        return new EqPointDouble(coords[off], coords[off + 1]);
+    }
+
+    /**
+     * Copy the coordinates of a point into a Point2D.
+     *
+     * @param <P> The point type
+     * @param index The point index
+     * @param into The point to update
+     * @return the point passed in
+     */
+    public <P extends Point2D> P point(int index, P into) {
+        int off = checkIndex(index) * 2;
+        into.setLocation(coords[off], coords[off + 1]);
+        return into;
+    }
+
+    /**
+     * Get a copy of the coordinate array, as x/y pairs.
+     *
+     * @return An array of coordinates
+     */
+    public double[] coordinates() {
+        return Arrays.copyOf(coords, coords.length);
+    }
+
+    /**
+     * Visit each point in order.
+     *
+     * @param consumer A consumer
+     */
+    public void visitPoints(DoubleBiConsumer consumer) {
+        for (int i = 0; i < coords.length; i += 2) {
+            consumer.accept(coords[i], coords[i + 1]);
+        }
+    }
+
+    /**
+     * Get the size of the bounding box of the points, with the same semantics
+     * as <code>EnhancedShape.size()</code>.
+     *
+     * @return A dimension
+     */
+    public DimensionDouble size() {
+        DimensionDouble result = new DimensionDouble();
+        if (minX < maxX) {
+            result.width = maxX - minX;
+        }
+        if (minY < maxY) {
+            result.height = maxY - minY;
+        }
+        return result;
+    }
+
+    /**
+     * Add the bounding box of the points to a rectangle, using the same
+     * semantics as <code>AbstractShape.addToBounds()</code>.
+     *
+     * @param <T> The rectangle type
+     * @param into A rectangle
+     * @return the rectangle
+     */
+    public <T extends Rectangle2D> T addToBounds(T into) {
+        if (types.length == 0) {
+            return into;
+        }
+        if (into.isEmpty()) {
+            into.setFrameFromDiagonal(minX, minY, maxX, maxY);
+        } else {
+            into.add(minX, minY);
+            into.add(maxX, maxY);
+        }
+        return into;
+    }
+
+    /**
+     * Compute the corner angles of the points, with the same semantics as the
+     * default implementation of <code>EnhancedShape.cornerAngles()</code>
+     * (each point from the second onward is the apex of one angle, with the
+     * last connecting back to the first point), without visiting any lines.
+     *
+     * @return A list of corner angles
+     */
+    public List<CornerAngle> cornerAngles() {
+        int count = types.length;
+        List<CornerAngle> result = new ArrayList<>(count + 1);
+        for (int i = 1; i < count; i++) {
+            int prev = (i - 1) * 2;
+            int curr = i * 2;
+            int next = i == count - 1 ? 0 : curr + 2;
+            result.add(new CornerAngle(coords[prev], coords[prev + 1],
+                    coords[curr], coords[curr + 1],
+                    coords[next], coords[next + 1]));
+        }
+        return result;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= types.length) {
+            throw new IndexOutOfBoundsException("No point " + index
+                    + " of " + types.length);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(coords.length * 6)
+                .append("PointIndex(");
+        return GeometryStrings.toStringCoordinates(sb, coords)
+                .append(')').toString();
+    }
+}
@@ -0,0 +1,98 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import java.awt.Shape;
+
+/**
+ * Holds the {@link PointIndex} for a mutable shape, so that implementations of
+ * {@link IndexedEnhancedShape} need not each write their own caching. The
+ * index is built on first use and rebuilt after the shape reports a change -
+ * either by calling <code>invalidate()</code> from its mutators, or, for
+ * shapes which keep a modification counter, by passing that counter to
+ * <code>get(int)</code>.
+ * <p>
+ * Not synchronized; as with the shapes that embed it, concurrent mutation is
+ * the caller's problem. Since indexes are immutable, a racing reader at worst
+ * builds one twice.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class PointIndexCache {
+
+    private final Shape shape;
+    private PointIndex index;
+    private int revision;
+
+    /**
+     * Create a cache for a shape.
+     *
+     * @param shape The shape whose points are indexed
+     */
+    public PointIndexCache(Shape shape) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Null shape");
+        }
+        this.shape = shape;
+    }
+
+    /**
+     * Get the index, building it if it has not been built since the last call
+     * to <code>invalidate()</code>.
+     *
+     * @return An index
+     */
+    public PointIndex get() {
+        PointIndex result = index;
+        if (result == null) {
+            index = result = PointIndex.of(shape);
+        }
+        return result;
+    }
+
+    /**
+     * Get the index, rebuilding it if the shape's modification counter has
+     * changed since it was built.
+     *
+     * @param revision The shape's current modification counter
+     * @return An index
+     */
+    public PointIndex get(int revision) {
+        PointIndex result = index;
+        if (result == null || revision != this.revision) {
+            result = PointIndex.of(shape);
+            this.revision = revision;
+            index = result;
+        }
+        return result;
+    }
+
+    /**
+     * Discard the index, so the next call to <code>get()</code> rebuilds it.
+     */
+    public void invalidate() {
+        index = null;
+    }
+}
@@ -27,6 +27,10 @@ import com.mastfrog.function.DoubleBiConsumer;
 import com.mastfrog.function.DoubleQuadConsumer;
 import com.mastfrog.function.DoubleSextaConsumer;
 import com.mastfrog.function.DoubleTriConsumer;
+import com.mastfrog.geometry.clip.ClipResult;
+import com.mastfrog.geometry.clip.PolygonClipper;
+import com.mastfrog.geometry.mesh.TriangleMesh;
+import com.mastfrog.geometry.mesh.Triangulator;
 import com.mastfrog.geometry.util.DoubleList;
 import com.mastfrog.geometry.util.GeometryStrings;
 import com.mastfrog.geometry.util.GeometryUtils;
@@ -62,6 +66,7 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import java.text.DecimalFormat;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Random;
 import java.util.function.DoubleConsumer;
 import javax.swing.JComponent;
@@ -74,9 +79,12 @@ import static javax.swing.WindowConstants.EXIT_ON_CLOSE;
  *
  * @author Tim Boudreau
  */
-public final class Polygon2D extends AbstractShape implements EnhancedShape, Intersectable {
+public final class Polygon2D extends AbstractShape implements IndexedEnhancedShape,
+        Intersectable, Tesselable {
 
     private double[] points;
+    private int revision;
+    private PointIndexCache index;
     private double minX, minY, maxX, maxY;
 
     public Polygon2D(double[] xpoints, double[] ypoints) {
@@ -88,8 +96,8 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         if (points.length > 0) {
             minX = Double.MAX_VALUE;
             minY = Double.MAX_VALUE;
-            maxX = Double.MIN_VALUE;
-            maxY = Double.MIN_VALUE;
+            maxX = -Double.MAX_VALUE;
+            maxY = -Double.MAX_VALUE;
             for (int i = 0; i < xpoints.length; i++) {
                 int arrOffset = i * 2;
                 points[arrOffset] = xpoints[i];
@@ -144,8 +152,8 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         double[] data = new double[6];
         minX = Double.MAX_VALUE;
         minY = Double.MAX_VALUE;
-        maxX = Double.MIN_VALUE;
-        maxY = Double.MIN_VALUE;
+        maxX = -Double.MAX_VALUE;
+        maxY = -Double.MAX_VALUE;
 
         while (!iter.isDone()) {
             int type = iter.currentSegment(data);
@@ -169,7 +177,7 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
             minX = min(minX, data[dataOffset]);
             minY = min(minY, data[dataOffset + 1]);
             maxX = max(maxX, data[dataOffset]);
-            maxY = max(maxY, data[dataOffset]);
+            maxY = max(maxY, data[dataOffset + 1]);
             iter.next();
         }
         points = pts.toDoubleArray();
@@ -192,6 +200,19 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
     private void changed() {
         calc = null;
         clockwise = null;
+        revision++;
+    }
+
+    /**
+     * Get a counter which is incremented whenever this polygon is modified
+     * through any of its methods, so that objects which cache data derived
+     * from it can tell when it is stale. Writes made directly to the array
+     * returned by <code>pointsArray()</code> are not counted.
+     *
+     * @return The revision
+     */
+    public int revision() {
+        return revision;
     }
 
     public Polygon2D copy() {
@@ -366,8 +387,8 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         points[points.length - 1] = point.getY();
         minX = Math.min(minX, point.getX());
         minY = Math.min(minY, point.getY());
-        maxX = Math.min(maxX, point.getX());
-        maxY = Math.min(maxY, point.getY());
+        maxX = Math.max(maxX, point.getX());
+        maxY = Math.max(maxY, point.getY());
         clockwise = null;
         changed();
     }
@@ -491,11 +512,11 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
                 throw new AssertionError("Odd number of coordinates: 1");
             case 2:
                 minX = maxX = points[0];
-                maxX = maxY = points[1];
+                minY = maxY = points[1];
                 break;
             default:
                 minX = minY = Double.MAX_VALUE;
-                maxX = maxY = Double.MIN_VALUE;
+                maxX = maxY = -Double.MAX_VALUE;
                 for (int i = 0; i < points.length; i += 2) {
                     double px = points[i];
                     double py = points[i + 1];
@@ -509,6 +530,21 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         changed();
     }
 
+    /**
+     * Get the point index, which serves <code>size()</code> and
+     * <code>cornerAngles()</code>; it is rebuilt after any change that
+     * increments the {@link #revision()}.
+     *
+     * @return A point index
+     */
+    @Override
+    public PointIndex pointIndex() {
+        if (index == null) {
+            index = new PointIndexCache(this);
+        }
+        return index.get(revision);
+    }
+
     @Override
     public int pointCount() {
         return points.length / 2;
@@ -614,18 +650,83 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         return result;
     }
 
+    /**
+     * Compute the union of this polygon and another shape without going
+     * through <code>java.awt.geom.Area</code>.
+     *
+     * @param other Another shape
+     * @return The result
+     */
+    public ClipResult union(Shape other) {
+        return PolygonClipper.union(this, other);
+    }
+
+    /**
+     * Compute the intersection of this polygon and another shape without
+     * going through <code>java.awt.geom.Area</code>.
+     *
+     * @param other Another shape
+     * @return The result
+     */
+    public ClipResult intersection(Shape other) {
+        return PolygonClipper.intersection(this, other);
+    }
+
+    /**
+     * Compute the area of this polygon not covered by another shape without
+     * going through <code>java.awt.geom.Area</code>.
+     *
+     * @param other Another shape
+     * @return The result
+     */
+    public ClipResult difference(Shape other) {
+        return PolygonClipper.difference(this, other);
+    }
+
+    /**
+     * Compute the area covered by exactly one of this polygon and another
+     * shape without going through <code>java.awt.geom.Area</code>.
+     *
+     * @param other Another shape
+     * @return The result
+     */
+    public ClipResult xor(Shape other) {
+        return PolygonClipper.xor(this, other);
+    }
+
+    /**
+     * Triangulate this polygon, treating it as a simple polygon; the vertices
+     * of the result are the points of this polygon, in order.
+     *
+     * @return A triangle mesh
+     */
+    public TriangleMesh triangulate() {
+        return Triangulator.triangulate(points);
+    }
+
+    @Override
+    public Triangle2D[] tesselate() {
+        return triangulate().toTriangles();
+    }
+
     private PolyCalc calc;
 
+    private PolyCalc calc() {
+        PolyCalc result = calc;
+        if (result == null) {
+            result = calc = new PolyCalc();
+        }
+        return result;
+    }
+
     @Override
     public boolean contains(double tx, double ty) {
-        if ((tx < minX && ty < minY) || (tx > maxX && ty > maxY)) {
-            return false;
-        }
         if (true) {
-            if (calc == null) {
-                calc = new PolyCalc();
+            PolyCalc c = calc();
+            if (!c.inBounds(tx, ty)) {
+                return false;
             }
-            return calc.pointInPolygon(tx, ty);
+            return c.pointInPolygon(tx, ty);
         }
         double testY = ty < minY ? maxY + 1 : minY - 1;
         int count = 0;
@@ -661,8 +762,136 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         return count % 2 == 1;
     }
 
+    /**
+     * Test which of an array of x/y coordinate pairs this polygon contains,
+     * with the same result as calling <code>contains(double, double)</code>
+     * for each.
+     *
+     * @param points Coordinate pairs
+     * @return A BitSet with the bit for the index of each contained point set
+     */
+    public BitSet containsPoints(double[] points) {
+        BitSet result = new BitSet(points.length / 2);
+        containsPoints(points, 0, points.length / 2, result);
+        return result;
+    }
+
+    /**
+     * Test which of an array of x/y coordinate pairs this polygon contains,
+     * with the same result as calling <code>contains(double, double)</code>
+     * for each.
+     *
+     * @param points Coordinate pairs
+     * @return A BitSet with the bit for the index of each contained point set
+     */
+    public BitSet containsPoints(float[] points) {
+        BitSet result = new BitSet(points.length / 2);
+        containsPoints(points, 0, points.length / 2, result);
+        return result;
+    }
+
+    /**
+     * Test which of a run of x/y coordinate pairs this polygon contains. Edge
+     * crossings are computed once for each distinct y coordinate in a run of
+     * points sharing it (as with points sampled row by row) and each point is
+     * then tested with a binary search, so no per-point work is proportional
+     * to the number of polygon edges.
+     *
+     * @param points Coordinate pairs
+     * @param offset The array offset of the first x coordinate
+     * @param count The number of points to test
+     * @param into A BitSet whose bits 0 to count - 1 are set or cleared for
+     * each point
+     * @return The number of contained points
+     */
+    public int containsPoints(double[] points, int offset, int count, BitSet into) {
+        return calc().containsPoints(points, null, offset, count, into, null, 0);
+    }
+
+    /**
+     * Test which of a run of x/y coordinate pairs this polygon contains. Edge
+     * crossings are computed once for each distinct y coordinate in a run of
+     * points sharing it (as with points sampled row by row) and each point is
+     * then tested with a binary search.
+     *
+     * @param points Coordinate pairs
+     * @param offset The array offset of the first x coordinate
+     * @param count The number of points to test
+     * @param into A BitSet whose bits 0 to count - 1 are set or cleared for
+     * each point
+     * @return The number of contained points
+     */
+    public int containsPoints(float[] points, int offset, int count, BitSet into) {
+        return calc().containsPoints(null, points, offset, count, into, null, 0);
+    }
+
+    /**
+     * Test which of a run of x/y coordinate pairs this polygon contains.
+     *
+     * @param points Coordinate pairs
+     * @param offset The array offset of the first x coordinate
+     * @param count The number of points to test
+     * @param into An array to write results to
+     * @param intoOffset The offset in the result array for the first point
+     * @return The number of contained points
+     */
+    public int containsPoints(double[] points, int offset, int count, boolean[] into, int intoOffset) {
+        return calc().containsPoints(points, null, offset, count, null, into, intoOffset);
+    }
+
+    /**
+     * Test which of a run of x/y coordinate pairs this polygon contains.
+     *
+     * @param points Coordinate pairs
+     * @param offset The array offset of the first x coordinate
+     * @param count The number of points to test
+     * @param into An array to write results to
+     * @param intoOffset The offset in the result array for the first point
+     * @return The number of contained points
+     */
+    public int containsPoints(float[] points, int offset, int count, boolean[] into, int intoOffset) {
+        return calc().containsPoints(null, points, offset, count, null, into, intoOffset);
+    }
+
+    /**
+     * Test a row of evenly spaced points sharing a y coordinate - such as
+     * the pixel centres of one raster row - computing the polygon's edge
+     * crossings for the row once and then walking them alongside the points.
+     *
+     * @param y The y coordinate of the row
+     * @param startX The x coordinate of the first point
+     * @param stepX The distance between points
+     * @param count The number of points
+     * @param into An array to write results to
+     * @param intoOffset The offset in the result array for the first point
+     * @return The number of contained points
+     */
+    public int containsRow(double y, double startX, double stepX, int count,
+            boolean[] into, int intoOffset) {
+        return calc().containsRow(y, startX, stepX, count, null, into, intoOffset);
+    }
+
+    /**
+     * Test a row of evenly spaced points sharing a y coordinate - such as
+     * the pixel centres of one raster row - computing the polygon's edge
+     * crossings for the row once and then walking them alongside the points.
+     *
+     * @param y The y coordinate of the row
+     * @param startX The x coordinate of the first point
+     * @param stepX The distance between points
+     * @param count The number of points
+     * @param into A BitSet to set or clear bits in
+     * @param bitOffset The bit for the first point
+     * @return The number of contained points
+     */
+    public int containsRow(double y, double startX, double stepX, int count,
+            BitSet into, int bitOffset) {
+        return calc().containsRow(y, startX, stepX, count, into, null, bitOffset);
+    }
+
     public Polygon2D reverse() {
         reversePointsInPlace(points);
+        changed();
         return this;
     }
 
@@ -895,6 +1124,12 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
         // http://alienryderflex.com/polygon/
         private final double[] constant;
         private final double[] multiple;
+        // Computed here rather than trusting the fields, which some
+        // mutations only ever grow
+        private double calcMinX = Double.MAX_VALUE;
+        private double calcMinY = Double.MAX_VALUE;
+        private double calcMaxX = -Double.MAX_VALUE;
+        private double calcMaxY = -Double.MAX_VALUE;
 
         PolyCalc() {
             int half = points.length / 2;
@@ -906,6 +1141,10 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
                 int jOff = j * 2;
                 double polyXi = points[iOff];
                 double polyYi = points[iOff + 1];
+                calcMinX = min(calcMinX, polyXi);
+                calcMinY = min(calcMinY, polyYi);
+                calcMaxX = max(calcMaxX, polyXi);
+                calcMaxY = max(calcMaxY, polyYi);
                 double polyXj = points[jOff];
                 double polyYj = points[jOff + 1];
                 if (polyYj == polyYi) {
@@ -938,5 +1177,116 @@ public final class Polygon2D extends AbstractShape implements EnhancedShape, Int
 
             return oddNodes;
         }
+
+        boolean inBounds(double x, double y) {
+            return x >= calcMinX && x <= calcMaxX && y >= calcMinY && y <= calcMaxY;
+        }
+
+        /**
+         * Collect the x coordinates at which the edges which pointInPolygon
+         * would consider for y cross it, sorted; a point on the scanline is
+         * inside if an odd number of them are less than its x coordinate.
+         */
+        int crossings(double y, double[] into) {
+            int count = 0;
+            if (y < calcMinY || y > calcMaxY) {
+                return 0;
+            }
+            int half = points.length / 2;
+            int j = half - 1;
+            for (int i = 0; i < half; i++) {
+                double polyYi = points[(i * 2) + 1];
+                double polyYj = points[(j * 2) + 1];
+                if ((polyYi < y && polyYj >= y
+                        || polyYj < y && polyYi >= y)) {
+                    into[count++] = y * multiple[i] + constant[i];
+                }
+                j = i;
+            }
+            if (count > 1) {
+                Arrays.sort(into, 0, count);
+            }
+            return count;
+        }
+
+        int containsPoints(double[] dbl, float[] flt, int offset, int count,
+                BitSet bits, boolean[] bools, int outOffset) {
+            double[] crossings = new double[points.length / 2];
+            int crossingCount = 0;
+            double lastY = Double.NaN;
+            int result = 0;
+            for (int i = 0; i < count; i++) {
+                int ix = offset + (i * 2);
+                double x = dbl != null ? dbl[ix] : flt[ix];
+                double y = dbl != null ? dbl[ix + 1] : flt[ix + 1];
+                if (y != lastY) {
+                    crossingCount = crossings(y, crossings);
+                    lastY = y;
+                }
+                boolean inside = x >= calcMinX && x <= calcMaxX
+                        && (crossingsBelow(crossings, crossingCount, x) & 1) == 1;
+                if (inside) {
+                    result++;
+                }
+                if (bits != null) {
+                    bits.set(outOffset + i, inside);
+                } else {
+                    bools[outOffset + i] = inside;
+                }
+            }
+            return result;
+        }
+
+        int containsRow(double y, double startX, double stepX, int count,
+                BitSet bits, boolean[] bools, int outOffset) {
+            double[] crossings = new double[points.length / 2];
+            int crossingCount = crossings(y, crossings);
+            if (crossingCount == 0) {
+                if (bits != null) {
+                    bits.clear(outOffset, outOffset + count);
+                } else {
+                    Arrays.fill(bools, outOffset, outOffset + count, false);
+                }
+                return 0;
+            }
+            int result = 0;
+            // For ascending rows, advance a cursor through the crossings
+            // rather than searching for each point
+            int below = 0;
+            for (int i = 0; i < count; i++) {
+                double x = startX + stepX * i;
+                if (stepX >= 0) {
+                    while (below < crossingCount && crossings[below] < x) {
+                        below++;
+                    }
+                } else {
+                    below = crossingsBelow(crossings, crossingCount, x);
+                }
+                boolean inside = (below & 1) == 1;
+                if (inside) {
+                    result++;
+                }
+                if (bits != null) {
+                    bits.set(outOffset + i, inside);
+                } else {
+                    bools[outOffset + i] = inside;
+                }
+            }
+            return result;
+        }
+
+        private int crossingsBelow(double[] crossings, int count, double x) {
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (crossings[mid] < x) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
     }
 }
@@ -23,6 +23,7 @@
  */
 package com.mastfrog.geometry;
 
+import com.mastfrog.function.DoubleBiConsumer;
 import com.mastfrog.function.DoubleQuadConsumer;
 import com.mastfrog.function.DoubleSextaConsumer;
 import com.mastfrog.geometry.util.GeometryStrings;
@@ -394,6 +395,15 @@ public final class Rhombus implements Shape, EnhancedShape {
         return 4;
     }
 
+    @Override
+    public void visitPoints(DoubleBiConsumer consumer) {
+        // In the order of point(int), which is not that of the path iterator
+        for (int i = 0; i < 4; i++) {
+            Point2D p = point(i);
+            consumer.accept(p.getX(), p.getY());
+        }
+    }
+
     @Override
     public void visitAdjoiningLines(DoubleSextaConsumer consumer) {
         Point2D.Double top, right, bottom, left;
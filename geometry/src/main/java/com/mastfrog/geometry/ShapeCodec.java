@@ -0,0 +1,492 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import com.mastfrog.util.collections.IntMap;
+import java.awt.Shape;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A compact, versioned binary format for shapes, written straight from the
+ * arrays of a MinimalAggregateShapeDouble or MinimalAggregateShapeFloat to a
+ * ByteBuffer or FileChannel, and read straight back - either into a new
+ * heap-based shape, or, with <code>wrap()</code> or <code>map()</code>, as an
+ * {@link EncodedShape} which reads its coordinates from the buffer on demand
+ * and never copies them onto the heap.
+ * <p>
+ * Coordinates are stored either raw, as big-endian floats or doubles, or, if
+ * <code>withDeltaEncoding()</code> is used, quantized to a multiple of a
+ * fixed quantum and stored as zigzag varint deltas from the previous x or y
+ * coordinate - lossy at the resolution of the quantum, but typically a
+ * quarter the size of raw doubles for drawings with nearby points.
+ * </p><p>
+ * Each record is self-describing, so the static read methods need no codec
+ * instance. Layout (all values big-endian):
+ * </p>
+ * <pre>
+ * int    magic 'MSHP'
+ * byte   format version (1)
+ * byte   flags: 1 = double precision, 2 = delta/varint coordinates
+ * short  number of winding rule entries, n (unsigned)
+ * int    segment count
+ * int    coordinate count
+ * int    length of the coordinate section in bytes
+ * double minX, minY, maxX, maxY
+ * double quantum (0 unless delta encoded)
+ * n x (int segment index, byte winding rule)
+ * byte[segment count] segment types
+ * coordinates
+ * </pre>
+ *
+ * @author Tim Boudreau
+ */
+public final class ShapeCodec {
+
+    public static final int FORMAT_VERSION = 1;
+    static final int MAGIC = 0x4D534850;
+    static final int FLAG_DOUBLE = 1;
+    static final int FLAG_DELTA = 2;
+    static final int HEADER_LENGTH = 60;
+    static final int WINDING_ENTRY_LENGTH = 5;
+    static final int MAX_WINDING_ENTRIES = 0xFFFF;
+    private static final ShapeCodec DOUBLE = new ShapeCodec(true, 0);
+    private static final ShapeCodec FLOAT = new ShapeCodec(false, 0);
+    private final boolean doublePrecision;
+    private final double quantum;
+
+    private ShapeCodec(boolean doublePrecision, double quantum) {
+        this.doublePrecision = doublePrecision;
+        this.quantum = quantum;
+    }
+
+    /**
+     * Get a codec which stores raw double-precision coordinates.
+     *
+     * @return A codec
+     */
+    public static ShapeCodec doublePrecision() {
+        return DOUBLE;
+    }
+
+    /**
+     * Get a codec which stores raw single-precision coordinates.
+     *
+     * @return A codec
+     */
+    public static ShapeCodec floatPrecision() {
+        return FLOAT;
+    }
+
+    /**
+     * Get a codec like this one which quantizes coordinates to multiples of
+     * the passed value and stores them as varint deltas. Shapes read back
+     * are of this codec's precision.
+     *
+     * @param quantum The resolution coordinates are rounded to, e.g.
+     * <code>1D / 1024</code>
+     * @return A codec
+     */
+    public ShapeCodec withDeltaEncoding(double quantum) {
+        if (!(quantum > 0) || Double.isInfinite(quantum)) {
+            throw new IllegalArgumentException("Quantum must be a positive "
+                    + "finite number but is " + quantum);
+        }
+        return new ShapeCodec(doublePrecision, quantum);
+    }
+
+    /**
+     * Get a codec like this one which stores raw coordinates.
+     *
+     * @return A codec
+     */
+    public ShapeCodec withoutDeltaEncoding() {
+        return doublePrecision ? DOUBLE : FLOAT;
+    }
+
+    public boolean isDoublePrecision() {
+        return doublePrecision;
+    }
+
+    public boolean isDeltaEncoded() {
+        return quantum > 0;
+    }
+
+    /**
+     * Write a shape at the buffer's current position, advancing it.
+     * MinimalAggregateShapeDouble and MinimalAggregateShapeFloat are written
+     * directly from their arrays, and an EncodedShape in this codec's format
+     * is copied byte-for-byte; anything else is first converted to a
+     * MinimalAggregateShapeDouble.
+     *
+     * @param shape A shape
+     * @param into A buffer
+     * @return The number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public int write(Shape shape, ByteBuffer into) {
+        if (shape instanceof MinimalAggregateShapeDouble) {
+            MinimalAggregateShapeDouble d = (MinimalAggregateShapeDouble) shape;
+            return write(d.types(), d.data(), null, d.windingRules(), into);
+        } else if (shape instanceof MinimalAggregateShapeFloat) {
+            MinimalAggregateShapeFloat f = (MinimalAggregateShapeFloat) shape;
+            return write(f.types(), null, f.data(), f.windingRules(), into);
+        } else if (shape instanceof EncodedShape && ((EncodedShape) shape).flags() == flags()) {
+            EncodedShape enc = (EncodedShape) shape;
+            into.put(enc.buffer());
+            return enc.encodedLength();
+        }
+        return write(new MinimalAggregateShapeDouble(shape), into);
+    }
+
+    /**
+     * Encode a shape into a new heap buffer, flipped for reading.
+     *
+     * @param shape A shape
+     * @return A buffer
+     */
+    public ByteBuffer encode(Shape shape) {
+        ByteBuffer result = ByteBuffer.allocate(maxEncodedLength(shape));
+        write(shape, result);
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Write a shape at the channel's current position.
+     *
+     * @param shape A shape
+     * @param channel A channel
+     * @return The number of bytes written
+     * @throws IOException If something goes wrong
+     */
+    public int write(Shape shape, FileChannel channel) throws IOException {
+        ByteBuffer buf = encode(shape);
+        int result = buf.remaining();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        return result;
+    }
+
+    /**
+     * Get an upper bound on the number of bytes <code>write()</code> will
+     * write for a shape - exact unless delta encoding is in use.
+     *
+     * @param shape A shape
+     * @return A byte count
+     */
+    public int maxEncodedLength(Shape shape) {
+        if (shape instanceof EncodedShape && ((EncodedShape) shape).flags() == flags()) {
+            return ((EncodedShape) shape).encodedLength();
+        }
+        byte[] types;
+        int coords;
+        IntMap<Integer> rules;
+        if (shape instanceof MinimalAggregateShapeDouble) {
+            MinimalAggregateShapeDouble d = (MinimalAggregateShapeDouble) shape;
+            types = d.types();
+            coords = d.data().length;
+            rules = d.windingRules();
+        } else if (shape instanceof MinimalAggregateShapeFloat) {
+            MinimalAggregateShapeFloat f = (MinimalAggregateShapeFloat) shape;
+            types = f.types();
+            coords = f.data().length;
+            rules = f.windingRules();
+        } else {
+            return maxEncodedLength(new MinimalAggregateShapeDouble(shape));
+        }
+        int perCoordinate = quantum > 0 ? 10 : doublePrecision ? 8 : 4;
+        return HEADER_LENGTH + (WINDING_ENTRY_LENGTH * Math.max(1, rules == null ? 0 : rules.size()))
+                + types.length + (coords * perCoordinate);
+    }
+
+    private int flags() {
+        return (doublePrecision ? FLAG_DOUBLE : 0) | (quantum > 0 ? FLAG_DELTA : 0);
+    }
+
+    private int write(byte[] types, double[] dbl, float[] flt, IntMap<Integer> rules, ByteBuffer into) {
+        int coordCount = dbl != null ? dbl.length : flt.length;
+        ByteBuffer buf = into.order() == ByteOrder.BIG_ENDIAN
+                ? into : into.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int start = buf.position();
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        // Bounds are of the coordinates as they will be decoded
+        for (int i = 0; i + 1 < coordCount; i += 2) {
+            double x = stored(dbl != null ? dbl[i] : flt[i]);
+            double y = stored(dbl != null ? dbl[i + 1] : flt[i + 1]);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        if (coordCount < 2) {
+            minX = minY = maxX = maxY = 0;
+        }
+        // Store only the points at which the winding rule changes
+        int ruleEntries = 0;
+        int[] ruleKeys = new int[rules == null ? 1 : Math.max(1, rules.size())];
+        byte[] ruleValues = new byte[ruleKeys.length];
+        if (rules == null || rules.isEmpty()) {
+            ruleEntries = 1;
+        } else {
+            for (int i = 0; i < rules.size(); i++) {
+                Integer rule = rules.valueAt(i);
+                byte value = (byte) (rule == null ? 0 : rule);
+                if (ruleEntries == 0 || ruleValues[ruleEntries - 1] != value) {
+                    ruleKeys[ruleEntries] = ruleEntries == 0 ? 0 : rules.key(i);
+                    ruleValues[ruleEntries++] = value;
+                }
+            }
+        }
+        if (ruleEntries > MAX_WINDING_ENTRIES) {
+            throw new IllegalArgumentException("Shape changes winding rule "
+                    + ruleEntries + " times; at most " + MAX_WINDING_ENTRIES
+                    + " can be encoded");
+        }
+        buf.putInt(MAGIC);
+        buf.put((byte) FORMAT_VERSION);
+        buf.put((byte) flags());
+        buf.putShort((short) ruleEntries);
+        buf.putInt(types.length);
+        buf.putInt(coordCount);
+        int bodyLengthPosition = buf.position();
+        buf.putInt(0);
+        buf.putDouble(minX);
+        buf.putDouble(minY);
+        buf.putDouble(maxX);
+        buf.putDouble(maxY);
+        buf.putDouble(quantum);
+        for (int i = 0; i < ruleEntries; i++) {
+            buf.putInt(ruleKeys[i]);
+            buf.put(ruleValues[i]);
+        }
+        buf.put(types);
+        int bodyStart = buf.position();
+        if (quantum > 0) {
+            long lastX = 0;
+            long lastY = 0;
+            for (int i = 0; i < coordCount; i++) {
+                long q = quantize(dbl != null ? dbl[i] : flt[i]);
+                if ((i & 1) == 0) {
+                    putVarLong(buf, zigzag(q - lastX));
+                    lastX = q;
+                } else {
+                    putVarLong(buf, zigzag(q - lastY));
+                    lastY = q;
+                }
+            }
+        } else if (doublePrecision) {
+            for (int i = 0; i < coordCount; i++) {
+                buf.putDouble(dbl != null ? dbl[i] : flt[i]);
+            }
+        } else {
+            for (int i = 0; i < coordCount; i++) {
+                buf.putFloat(dbl != null ? (float) dbl[i] : flt[i]);
+            }
+        }
+        int end = buf.position();
+        buf.putInt(bodyLengthPosition, end - bodyStart);
+        if (buf != into) {
+            into.position(end);
+        }
+        return end - start;
+    }
+
+    private long quantize(double value) {
+        return Math.round(value / quantum);
+    }
+
+    private double stored(double value) {
+        if (quantum > 0) {
+            return quantize(value) * quantum;
+        }
+        return doublePrecision ? value : (float) value;
+    }
+
+    /**
+     * Read a shape at the buffer's current position onto the heap, advancing
+     * it, as a MinimalAggregateShapeDouble or MinimalAggregateShapeFloat
+     * depending on the precision it was written with.
+     *
+     * @param buf A buffer
+     * @return A shape
+     */
+    public static Shape read(ByteBuffer buf) {
+        EncodedShape enc = wrap(buf);
+        return enc.isDoublePrecision() ? enc.toDoubleShape() : enc.toFloatShape();
+    }
+
+    /**
+     * Read a shape at the buffer's current position as a
+     * MinimalAggregateShapeDouble, advancing it.
+     *
+     * @param buf A buffer
+     * @return A shape
+     */
+    public static MinimalAggregateShapeDouble readDouble(ByteBuffer buf) {
+        return wrap(buf).toDoubleShape();
+    }
+
+    /**
+     * Read a shape at the buffer's current position as a
+     * MinimalAggregateShapeFloat, advancing it.
+     *
+     * @param buf A buffer
+     * @return A shape
+     */
+    public static MinimalAggregateShapeFloat readFloat(ByteBuffer buf) {
+        return wrap(buf).toFloatShape();
+    }
+
+    /**
+     * Read a shape at the channel's current position onto the heap.
+     *
+     * @param channel A channel
+     * @return A shape
+     * @throws IOException If something goes wrong
+     */
+    public static Shape read(FileChannel channel) throws IOException {
+        long position = channel.position();
+        int length = recordLength(channel, position);
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                throw new IOException("Truncated shape record at " + position);
+            }
+        }
+        buf.flip();
+        return read(buf);
+    }
+
+    /**
+     * Wrap the record at the buffer's current position as a shape, without
+     * copying its data, advancing the buffer past it. The shape reads from a
+     * slice of the buffer, so its contents must not be altered while it is
+     * in use.
+     *
+     * @param buf A buffer
+     * @return A shape
+     */
+    public static EncodedShape wrap(ByteBuffer buf) {
+        int start = buf.position();
+        int length = recordLength(buf, start);
+        if (length > buf.limit() - start) {
+            throw new IllegalArgumentException("Record of " + length
+                    + " bytes at " + start + " runs past the buffer limit "
+                    + buf.limit());
+        }
+        ByteBuffer slice = buf.duplicate();
+        slice.limit(start + length);
+        slice = slice.slice().order(ByteOrder.BIG_ENDIAN);
+        buf.position(start + length);
+        return new EncodedShape(slice);
+    }
+
+    /**
+     * Memory-map the record at a position in a file channel and wrap it as a
+     * shape whose coordinates are read from the mapping on demand.
+     *
+     * @param channel A channel
+     * @param position The file position of the record
+     * @return A shape
+     * @throws IOException If something goes wrong
+     */
+    public static EncodedShape map(FileChannel channel, long position) throws IOException {
+        int length = recordLength(channel, position);
+        return wrap(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+    }
+
+    private static int recordLength(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining()) {
+            if (channel.read(header, position + header.position()) < 0) {
+                throw new IOException("Truncated shape header at " + position);
+            }
+        }
+        return recordLength(header, 0);
+    }
+
+    /**
+     * Validate the fixed header at an absolute position in a buffer and
+     * compute the length of the whole record.
+     */
+    static int recordLength(ByteBuffer buf, int at) {
+        if (buf.limit() - at < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Not enough bytes for a shape "
+                    + "header at " + at + ": " + (buf.limit() - at));
+        }
+        ByteBuffer b = buf.order() == ByteOrder.BIG_ENDIAN
+                ? buf : buf.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int magic = b.getInt(at);
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Bad magic number 0x"
+                    + Integer.toHexString(magic) + " at " + at);
+        }
+        int version = b.get(at + 4);
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported shape format "
+                    + "version " + version + " at " + at);
+        }
+        int flags = b.get(at + 5);
+        if ((flags & ~(FLAG_DOUBLE | FLAG_DELTA)) != 0) {
+            throw new IllegalArgumentException("Unknown flags " + flags
+                    + " at " + at);
+        }
+        int ruleEntries = Short.toUnsignedInt(b.getShort(at + 6));
+        int typeCount = b.getInt(at + 8);
+        int coordCount = b.getInt(at + 12);
+        int bodyLength = b.getInt(at + 16);
+        if (ruleEntries < 1 || typeCount < 0 || coordCount < 0 || bodyLength < 0) {
+            throw new IllegalArgumentException("Corrupt shape header at " + at);
+        }
+        long result = HEADER_LENGTH + ((long) ruleEntries * WINDING_ENTRY_LENGTH)
+                + typeCount + bodyLength;
+        if (result > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Record too large: " + result);
+        }
+        return (int) result;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void putVarLong(ByteBuffer buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+}
@@ -0,0 +1,63 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.analysis;
+
+import com.mastfrog.geometry.LineVector;
+import com.mastfrog.geometry.Polygon2D;
+
+/**
+ * Receives diagnostics about corners whose interior side could not be
+ * determined reliably during analysis of a shape - typically points on
+ * self-intersecting or degenerate (zero-area, zero-length segment) subpaths,
+ * where neither the corner nor its inverse samples as lying inside the
+ * approximation of the shape. Such corners are still passed to the
+ * VectorVisitor, with a best guess at their orientation.
+ *
+ * @author Tim Boudreau
+ */
+@FunctionalInterface
+public interface AnalysisListener {
+
+    /**
+     * A listener which ignores everything.
+     */
+    AnalysisListener NONE = (pointIndex, vect, subpathIndex, interiorSamples,
+            exteriorSamples, approximate) -> {
+    };
+
+    /**
+     * Called when the interior side of a corner is ambiguous.
+     *
+     * @param pointIndex The absolute index of the apex point within the shape
+     * @param vect The vector, as it will be passed to the visitor
+     * @param subpathIndex The subpath index
+     * @param interiorSamples The number of points (out of 3) sampled within
+     * the corner which the approximation contained
+     * @param exteriorSamples The number of points (out of 3) sampled within
+     * the inverse of the corner which the approximation contained
+     * @param approximate The polygon approximating the subpath
+     */
+    void onAmbiguousCorner(int pointIndex, LineVector vect, int subpathIndex,
+            int interiorSamples, int exteriorSamples, Polygon2D approximate);
+}
@@ -27,42 +27,47 @@ import com.mastfrog.function.DoubleBiPredicate;
 import com.mastfrog.function.state.Bool;
 import com.mastfrog.function.state.Int;
 import com.mastfrog.function.state.IntWithChildren;
-import com.mastfrog.geometry.CornerAngle;
-import com.mastfrog.geometry.EqLine;
-import com.mastfrog.geometry.Intersectable;
+import com.mastfrog.geometry.Circle;
 import com.mastfrog.geometry.LineVector;
 import com.mastfrog.geometry.Polygon2D;
 import com.mastfrog.geometry.RotationDirection;
 import static com.mastfrog.geometry.RotationDirection.CLOCKWISE;
 import static com.mastfrog.geometry.RotationDirection.COUNTER_CLOCKWISE;
 import com.mastfrog.geometry.util.DoubleList;
-import com.mastfrog.geometry.util.GeometryStrings;
 import com.mastfrog.geometry.util.GeometryUtils;
-import com.mastfrog.util.collections.IntIntMap;
+import com.mastfrog.geometry.util.LineSegments;
 import com.mastfrog.util.collections.IntMap;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
-import java.awt.geom.Area;
 import java.awt.geom.PathIterator;
 import static java.awt.geom.PathIterator.SEG_CLOSE;
 import static java.awt.geom.PathIterator.SEG_CUBICTO;
 import static java.awt.geom.PathIterator.SEG_LINETO;
 import static java.awt.geom.PathIterator.SEG_MOVETO;
 import static java.awt.geom.PathIterator.SEG_QUADTO;
-import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
+ * Collects the straight-line corners of each subpath of a shape and passes
+ * them to a VectorVisitor, oriented so that each corner's angle faces the
+ * interior of the shape.
  *
  * @author Tim Boudreau
  */
 final class AnglesAnalyzer {
 
-    private List<Collector> collectors = new ArrayList<>(5);
+    private final List<Collector> collectors = new ArrayList<>(5);
+    private final AnalysisListener listener;
     private Collector currentCollector;
 
     AnglesAnalyzer() {
+        this(AnalysisListener.NONE);
+    }
+
+    AnglesAnalyzer(AnalysisListener listener) {
+        this.listener = listener == null ? AnalysisListener.NONE : listener;
         collectors.add(currentCollector = new Collector());
     }
 
@@ -183,7 +188,16 @@ final class AnglesAnalyzer {
         return collector.direction();
     }
 
-    private static final class Collector {
+    /**
+     * Collects the straight-line corners and the polygonal approximation of
+     * one subpath. Which side of each corner is the interior is decided from
+     * the orientation (signed area) of the approximation, computed in a
+     * single pass over it, and the direction each corner turns relative to
+     * the path - no Area is constructed. Only subpaths which self-intersect
+     * or have no area, and individual degenerate corners, fall back to
+     * sampling points around the corner against the approximation.
+     */
+    private final class Collector {
 
         private static final double TEST_DIST_1 = 1.5;
         private static final double TEST_DIST_2 = 0.5;
@@ -194,25 +208,14 @@ final class AnglesAnalyzer {
         private double prevX, prevY;
         private int state;
         private final IntMap<LineVector> vectors = IntMap.create(50);
-        private final IntMap<Intersectable> intersectors = IntMap.create(50);
         private final DoubleList points = new DoubleList(50);
-
-        Collector(Point2D p) {
-            this(p.getX(), p.getY());
-        }
-
-        Collector(double lastX, double lastY) {
-            this.prevX = lastX;
-            this.prevY = lastY;
-            state = 1;
-        }
-
-        Collector() {
-
-        }
+        private Polygon2D approx;
+        private double signedArea;
+        private boolean simple;
+        private RotationDirection dir;
 
         public boolean isEmpty() {
-            return state < 2 && vectors.isEmpty() && intersectors.isEmpty();
+            return state < 2 && vectors.isEmpty();
         }
 
         public Collector reset() {
@@ -220,205 +223,180 @@ final class AnglesAnalyzer {
             return this;
         }
 
-        public Collector fullReset() {
-            reset();
-            return this;
-        }
-
-        private Shape dissectApproximate() {
-            // More accurate but much more expensive:
-//            Path2D.Double pth = approx.toPath();
-//            return new Area(approximation().toPath());
-            return approximation();
-        }
-
         public RotationDirection visitAll(int subpathIndex, VectorVisitor v) {
             RotationDirection direction = direction();
-            DoubleBiPredicate contains = new Area(dissectApproximate())::contains;
             if (vectors.isEmpty()) {
                 return RotationDirection.NONE;
             }
-            LineVector last = vectors.valueAt(vectors.size() - 1);
-            Int prevPointIndex = Int.of(vectors.greatestKey());
-//            Int prevKey = Int.create(vectors.las);
-            vectors.forEachIndexed((ix, key, vect) -> {
-                // Test if the approximated shape contains
-                // points at the 1/4, mid or 3/4 angle from
-                // the center point - if not, then we have
-                // an exterior angle and need the inverse
-
-                int sam1 = vect.sample(TEST_DIST_1, contains);
-                int sam2 = vect.inverse().sample(TEST_DIST_1, contains);
-                // XXX for very small distances, may need to scale our
-                // test distances by the min length of the preceding vector
-                if (sam1 < 3 && sam2 < 3) {
-                    sam1 = vect.sample(TEST_DIST_2, contains);
-                    sam2 = vect.inverse().sample(TEST_DIST_2, contains);
-                }
-                if (sam1 < 3 && sam2 < 3) {
-                    sam1 = vect.sample(TEST_DIST_3, contains);
-                    sam2 = vect.inverse().sample(TEST_DIST_3, contains);
-                }
-                if (sam1 < 3 && sam2 < 3) {
-                    sam1 = vect.sample(TEST_DIST_4, contains);
-                    sam2 = vect.inverse().sample(TEST_DIST_4, contains);
-                }
-                if (sam1 < 3 && sam2 < 3) {
-                    System.err.println(key + ". corner " + sam1 + " / opp " + sam2
-                            + " ICCW " + vect.ccw() + " SUBPATH DIR " + direction
-                            + " angdir " + vect.corner().direction() + " " + vect
-                            + " problem sampling with " + sam1 + " / " + sam2
-                            + ". Approximate: "
-                            + GeometryStrings.toStringCoordinates(
-                                    approx.pointsArray())
-                    );
+            Polygon2D approximate = approximation();
+            DoubleBiPredicate contains = approximate::contains;
+            double[] mid = new double[2];
+            int size = vectors.size();
+            int prevPointIndex = vectors.greatestKey();
+            for (int ix = 0; ix < size; ix++) {
+                int key = vectors.key(ix);
+                LineVector vect = vectors.valueAt(ix);
+                int interior = interiorSide(vect, mid);
+                if (interior == 0) {
+                    interior = sampleInteriorSide(key, vect, subpathIndex,
+                            contains, approximate);
                 }
-                boolean invert = sam1 < sam2;
+                boolean invert = interior < 0;
                 if (invert) {
                     vect = vect.inverse();
                 }
-
-                int nextPointIndex = ix == vectors.size() - 1
+                int nextPointIndex = ix == size - 1
                         ? vectors.leastKey() : vectors.key(ix + 1);
 
-                v.visit(key, vect, subpathIndex, direction, approx,
-                        invert ? nextPointIndex : prevPointIndex.getAsInt(),
-                        invert ? prevPointIndex.getAsInt() : nextPointIndex
+                v.visit(key, vect, subpathIndex, direction, approximate,
+                        invert ? nextPointIndex : prevPointIndex,
+                        invert ? prevPointIndex : nextPointIndex
                 );
-                prevPointIndex.set(key);
-            });
+                prevPointIndex = key;
+            }
             return direction;
         }
 
-        RotationDirection dir;
+        /**
+         * Determine, from the subpath's orientation, whether the corner of a
+         * vector (1) or its inverse (-1) faces the interior, or 0 if that
+         * cannot be determined without sampling.
+         */
+        private int interiorSide(LineVector vect, double[] mid) {
+            if (!simple || signedArea == 0) {
+                return 0;
+            }
+            double ax = vect.apexX();
+            double ay = vect.apexY();
+            double ix = vect.trailingX() - ax;
+            double iy = vect.trailingY() - ay;
+            double ox = vect.leadingX() - ax;
+            double oy = vect.leadingY() - ay;
+            if ((ix == 0 && iy == 0) || (ox == 0 && oy == 0)) {
+                return 0;
+            }
+            if (cross(ox, oy, ix, iy) == 0 && (ox * ix) + (oy * iy) > 0) {
+                // A zero-degree spike - the interior could be either
+                return 0;
+            }
+            // Whatever the conventions of CornerAngle, the direction of the
+            // middle of the corner lies on one side of the lines or the other
+            Circle.positionOf(vect.corner().midAngle(), ax, ay, 1, mid, 0);
+            double dx = mid[0] - ax;
+            double dy = mid[1] - ay;
+            // With a positive signed area, the interior lies on the side of
+            // each edge where the cross product of the edge's direction and
+            // a vector to the point is positive, so the interior at a vertex
+            // is the sweep in that rotational sense from the outgoing edge
+            // to the reversed incoming one
+            boolean inCorner = signedArea > 0
+                    ? inSweep(dx, dy, ox, oy, ix, iy)
+                    : inSweep(dx, dy, ix, iy, ox, oy);
+            return inCorner ? 1 : -1;
+        }
+
+        private int sampleInteriorSide(int key, LineVector vect,
+                int subpathIndex, DoubleBiPredicate contains, Polygon2D approximate) {
+            // Test if the approximated shape contains points at the 1/4,
+            // mid or 3/4 angle from the apex - if not, then we have an
+            // exterior angle and need the inverse
+            LineVector inverse = vect.inverse();
+            int sam1 = vect.sample(TEST_DIST_1, contains);
+            int sam2 = inverse.sample(TEST_DIST_1, contains);
+            // XXX for very small distances, may need to scale our
+            // test distances by the min length of the preceding vector
+            if (sam1 < 3 && sam2 < 3) {
+                sam1 = vect.sample(TEST_DIST_2, contains);
+                sam2 = inverse.sample(TEST_DIST_2, contains);
+            }
+            if (sam1 < 3 && sam2 < 3) {
+                sam1 = vect.sample(TEST_DIST_3, contains);
+                sam2 = inverse.sample(TEST_DIST_3, contains);
+            }
+            if (sam1 < 3 && sam2 < 3) {
+                sam1 = vect.sample(TEST_DIST_4, contains);
+                sam2 = inverse.sample(TEST_DIST_4, contains);
+            }
+            int result = sam1 < sam2 ? -1 : 1;
+            if (sam1 < 3 && sam2 < 3) {
+                listener.onAmbiguousCorner(key, result < 0 ? inverse : vect,
+                        subpathIndex, sam1, sam2, approximate);
+            }
+            return result;
+        }
 
         public RotationDirection direction() {
             if (dir != null) {
                 return dir;
             }
-            Int cwCount = Int.create();
-            Int ccwCount = Int.create();
-            IntIntMap directionByVector = IntIntMap.create();
-            IntIntMap inters = intersectionCounts();
-            vectors.forEachIndexed((ix, key, vect) -> {
-                CornerAngle ang = vect.corner();
-                RotationDirection dir = ang.direction();
-                directionByVector.put(key, dir.ordinal());
-                int intersections = inters.getAsInt(key);
-                boolean oddIntersections = intersections % 2 != 0;
-                switch (dir) {
-                    case CLOCKWISE:
-                        if (oddIntersections) {
-                            ccwCount.increment();
-                        } else {
-                            cwCount.increment();
-                        }
-                        break;
-                    case COUNTER_CLOCKWISE:
-                        if (oddIntersections) {
-                            cwCount.increment();
-                        } else {
-                            ccwCount.increment();
-                        }
-                        break;
-                }
-            });
-            return dir = (cwCount.getAsInt() > ccwCount.getAsInt()
-                    ? RotationDirection.CLOCKWISE : RotationDirection.COUNTER_CLOCKWISE);
+            computeOrientation();
+            // In screen coordinates, where y increases downward, a positive
+            // area means the path runs clockwise as seen on screen
+            return dir = signedArea > 0 ? CLOCKWISE : COUNTER_CLOCKWISE;
         }
 
-        public int totalIntersections() {
-            Int result = Int.create();
-            vectors.forEachIndexed((ix, key, vect) -> {
-                EqLine first = vect.trailingLine();
-                intersectors.forEachIndexed((iix, ikey, ivect) -> {
-                    if (key == ikey) {
-                        return;
+        /**
+         * Computes the signed area of the approximation in one pass, skipping
+         * repeated points (curve approximations begin with the point the
+         * curve starts from), and determines whether it self-intersects.
+         */
+        private void computeOrientation() {
+            double[] pts = approximation().pointsArray();
+            double[] distinct = new double[pts.length];
+            int count = 0;
+            double area = 0;
+            for (int i = 0; i < pts.length; i += 2) {
+                double x = pts[i];
+                double y = pts[i + 1];
+                if (count > 0) {
+                    double px = distinct[count - 2];
+                    double py = distinct[count - 1];
+                    if (px == x && py == y) {
+                        continue;
                     }
-                    result.increment(ivect.intersectionCount(first, false));
-                });
-            });
-            return result.getAsInt();
-        }
-
-        private IntIntMap intersectionCounts;
-
-        public IntIntMap intersectionCounts() {
-            if (intersectionCounts != null) {
-                return intersectionCounts;
+                    area += (px * y) - (x * py);
+                }
+                distinct[count++] = x;
+                distinct[count++] = y;
             }
-            intersectionCounts = IntIntMap.create(vectors.size());
-            vectors.forEachKey((key) -> {
-                int ic = intersectionCount(key);
-                intersectionCounts.put(key, ic);
-            });
-            int sum = 0;
-            for (int i = 0; i < intersectionCounts.size(); i++) {
-                int val = intersectionCounts.valueAt(i);
-                intersectionCounts.setValueAt(i, val + sum);
-                sum += val;
+            if (count > 2 && distinct[0] == distinct[count - 2]
+                    && distinct[1] == distinct[count - 1]) {
+                // Explicit line back to the start point
+                area -= (distinct[count - 4] * distinct[1])
+                        - (distinct[0] * distinct[count - 3]);
+                count -= 2;
             }
-
-            return intersectionCounts;
-        }
-
-        public int intersectionCount(int pointIndex) {
-            LineVector lv = vectors.get(pointIndex);
-            if (lv == null) {
-                return 0;
+            if (count > 2) {
+                area += (distinct[count - 2] * distinct[1])
+                        - (distinct[0] * distinct[count - 1]);
             }
-            Int result = Int.create();
-            EqLine fl = lv.trailingLine();
-            intersectors.forEachIndexed((ix, key, isector) -> {
-                if (key == pointIndex) {
-                    return;
-                }
-                if (isector instanceof LineVector) {
-                    LineVector o = (LineVector) isector;
-                    if (fl.intersectsLine(o.leadingLine())) {
-                        result.increment();
-                    }
-                } else {
-                    result.increment(lv.intersectionCount(isector, false));
-                }
-            });
-            return result.getAsInt();
+            signedArea = area / 2;
+            simple = count >= 6 && !LineSegments.ofPolygon(
+                    Arrays.copyOf(distinct, count))
+                    .findPolygonSelfIntersection(null);
         }
 
-        private Polygon2D approx;
-
         private Polygon2D approximation() {
-            if (approx != null && approx.pointCount() != points.size() / 2) {
-                return approx;
+            if (approx == null || approx.pointCount() != points.size() / 2) {
+                approx = new Polygon2D(points.toDoubleArray());
             }
-            approx = new Polygon2D(points.toDoubleArray());
             return approx;
         }
 
         public void onQuadratic(int pointIndex, double x1, double y1, double x2, double y2) {
-            DoubleList l = new DoubleList(2 * GeometryUtils.curveApproximationPointCount());
             GeometryUtils.approximateQuadraticCurve(lastX, lastY, x1, y1, x2, y2, (x, y) -> {
                 points.add(x);
                 points.add(y);
-                l.add(x);
-                l.add(y);
             });
-            Polygon2D p = new Polygon2D(l.toDoubleArray());
-            intersectors.put(pointIndex, p);
             reset();
             accept(pointIndex, x2, y2, false);
         }
 
         public void onCubic(int pointIndex, double x1, double y1, double x2, double y2, double x3, double y3) {
-            DoubleList l = new DoubleList(2 * GeometryUtils.curveApproximationPointCount());
             GeometryUtils.approximateCubicCurve(lastX, lastY, x1, y1, x2, y2, x3, y3, (x, y) -> {
-                l.add(x);
-                l.add(y);
                 points.add(x);
                 points.add(y);
             });
-            Polygon2D p = new Polygon2D(l.toDoubleArray());
-            intersectors.put(pointIndex, p);
             reset();
             accept(pointIndex, x3, y3, false);
         }
@@ -448,8 +426,6 @@ final class AnglesAnalyzer {
                     LineVector vect = LineVector.of(prevX, prevY, lastX, lastY, x, y);
                     LineVector old = vectors.put(pointIndex, vect);
                     assert old == null : "Clobbering " + old + " at " + pointIndex + " with " + vect;
-                    Intersectable oi = intersectors.put(pointIndex, vect);
-                    assert oi == null : "Clobbering old intersector at " + pointIndex;
                     prevX = lastX;
                     prevY = lastY;
                     lastX = x;
@@ -460,4 +436,22 @@ final class AnglesAnalyzer {
             }
         }
     }
+
+    private static double cross(double ax, double ay, double bx, double by) {
+        return (ax * by) - (ay * bx);
+    }
+
+    /**
+     * Determine if the direction (dx, dy) lies within the sweep from
+     * (fromX, fromY) to (toX, toY) in the rotational sense in which cross
+     * products are positive.
+     */
+    private static boolean inSweep(double dx, double dy, double fromX,
+            double fromY, double toX, double toY) {
+        if (cross(fromX, fromY, toX, toY) > 0) {
+            return cross(fromX, fromY, dx, dy) > 0 && cross(dx, dy, toX, toY) > 0;
+        }
+        // Reflex (or straight) sweep - in it if not in the complementary one
+        return !(cross(toX, toY, dx, dy) >= 0 && cross(dx, dy, fromX, fromY) >= 0);
+    }
 }
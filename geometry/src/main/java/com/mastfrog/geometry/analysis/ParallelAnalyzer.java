@@ -0,0 +1,518 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.analysis;
+
+import com.mastfrog.geometry.RotationDirection;
+import java.awt.Shape;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Runs VectorVisitor analysis over many shapes in parallel on a
+ * ForkJoinPool, with a fresh analyzer and visitor per shape, so the
+ * visitors need not be thread-safe.
+ * <p>
+ * Shapes are pulled from the input lazily, and at most
+ * <code>maxInFlight</code> are submitted and not yet consumed at any time -
+ * until there is room, the calling thread analyzes shapes no pool thread has
+ * started yet, or blocks - so a very large or lazily produced input (say,
+ * the paths of an SVG being parsed) is never buffered in its entirety.
+ * Results are delivered either in input order on the calling thread, or in
+ * completion order on whatever thread analyzed each shape.
+ * </p><p>
+ * A run can be stopped by returning false from the result consumer, or by
+ * interrupting the calling thread; shapes not yet analyzed are then
+ * skipped. An exception thrown by a visitor stops the run and is rethrown
+ * from the method that started it.
+ * </p><p>
+ * Instances are immutable and thread-safe; the <code>with*()</code> methods
+ * return new instances.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class ParallelAnalyzer {
+
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final AnalysisListener listener;
+
+    private ParallelAnalyzer(ForkJoinPool pool, int maxInFlight, AnalysisListener listener) {
+        this.pool = pool;
+        this.maxInFlight = maxInFlight;
+        this.listener = listener;
+    }
+
+    /**
+     * Create an analyzer which uses the common pool, with up to four shapes
+     * per thread in flight.
+     *
+     * @return An analyzer
+     */
+    public static ParallelAnalyzer create() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return new ParallelAnalyzer(pool, defaultMaxInFlight(pool),
+                AnalysisListener.NONE);
+    }
+
+    /**
+     * Get an analyzer which runs on the passed pool, with up to four shapes
+     * per thread in flight.
+     *
+     * @param pool A pool
+     * @return A new analyzer
+     */
+    public ParallelAnalyzer withPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        return new ParallelAnalyzer(pool, defaultMaxInFlight(pool), listener);
+    }
+
+    /**
+     * Get an analyzer which allows at most the passed number of shapes to be
+     * submitted for analysis whose results have not yet been consumed.
+     *
+     * @param maxInFlight The limit, &gt; 0
+     * @return A new analyzer
+     */
+    public ParallelAnalyzer withMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight must be > 0: "
+                    + maxInFlight);
+        }
+        return new ParallelAnalyzer(pool, maxInFlight, listener);
+    }
+
+    /**
+     * Get an analyzer which reports ambiguous corners to the passed listener,
+     * which will be called from pool threads and must be thread-safe.
+     *
+     * @param listener A listener
+     * @return A new analyzer
+     */
+    public ParallelAnalyzer withListener(AnalysisListener listener) {
+        return new ParallelAnalyzer(pool, maxInFlight,
+                listener == null ? AnalysisListener.NONE : listener);
+    }
+
+    /**
+     * Get the maximum number of shapes in flight.
+     *
+     * @return The limit
+     */
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    private static int defaultMaxInFlight(ForkJoinPool pool) {
+        return Math.max(2, pool.getParallelism() * 4);
+    }
+
+    /**
+     * Analyze a list of shapes, returning the results in the same order.
+     *
+     * @param <T> The result type
+     * @param shapes The shapes
+     * @param factory Creates a visitor for each shape
+     * @return A list of results
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public <T> List<T> analyze(List<? extends Shape> shapes,
+            VisitorFactory<T> factory) throws InterruptedException {
+        List<T> result = new ArrayList<>(shapes.size());
+        analyzeOrdered(shapes.iterator(), factory, (index, shape, res) -> {
+            result.add(res);
+            return true;
+        });
+        return result;
+    }
+
+    /**
+     * Analyze a stream of shapes, passing results to the consumer on the
+     * calling thread, in the order of the stream.
+     *
+     * @param <T> The result type
+     * @param shapes The shapes
+     * @param factory Creates a visitor for each shape
+     * @param consumer Receives results, and returns false to stop
+     * @return The number of results passed to the consumer
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public <T> int analyzeOrdered(Stream<? extends Shape> shapes,
+            VisitorFactory<T> factory, ResultConsumer<? super T> consumer)
+            throws InterruptedException {
+        return analyzeOrdered(shapes.iterator(), factory, consumer);
+    }
+
+    /**
+     * Analyze shapes, passing results to the consumer on the calling thread,
+     * in the order of the iterator.
+     *
+     * @param <T> The result type
+     * @param shapes The shapes
+     * @param factory Creates a visitor for each shape
+     * @param consumer Receives results, and returns false to stop
+     * @return The number of results passed to the consumer
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public <T> int analyzeOrdered(Iterator<? extends Shape> shapes,
+            VisitorFactory<T> factory, ResultConsumer<? super T> consumer)
+            throws InterruptedException {
+        AtomicBoolean stopped = new AtomicBoolean();
+        ArrayDeque<AnalysisTask<T>> window = new ArrayDeque<>(maxInFlight);
+        int index = 0;
+        int delivered = 0;
+        try {
+            for (;;) {
+                while (window.size() < maxInFlight && shapes.hasNext()) {
+                    AnalysisTask<T> task = new AnalysisTask<>(index++,
+                            shapes.next(), factory, listener, stopped, null);
+                    pool.execute(task);
+                    window.add(task);
+                }
+                AnalysisTask<T> head = window.poll();
+                if (head == null) {
+                    break;
+                } else if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                // Rather than block, run the head task here if no pool
+                // thread has started it
+                T result = head.claim() ? head.analyze() : await(head);
+                delivered++;
+                if (!consumer.accept(head.index, head.shape, result)) {
+                    break;
+                }
+            }
+        } finally {
+            stopped.set(true);
+            for (AnalysisTask<T> task : window) {
+                task.cancel(false);
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Analyze a stream of shapes, passing results to the consumer on pool
+     * threads (or the calling thread, which runs tasks rather than blocking
+     * when it can) as each completes; the consumer must be thread-safe. This
+     * method returns once every result has been consumed.
+     *
+     * @param <T> The result type
+     * @param shapes The shapes
+     * @param factory Creates a visitor for each shape
+     * @param consumer Receives results, and returns false to stop
+     * @return The number of results passed to the consumer
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public <T> int analyzeConcurrently(Stream<? extends Shape> shapes,
+            VisitorFactory<T> factory, ResultConsumer<? super T> consumer)
+            throws InterruptedException {
+        return analyzeConcurrently(shapes.iterator(), factory, consumer);
+    }
+
+    /**
+     * Analyze shapes, passing results to the consumer on pool threads (or
+     * the calling thread, which runs tasks rather than blocking when it can)
+     * as each completes; the consumer must be thread-safe. This method returns
+     * once every result has been consumed.
+     *
+     * @param <T> The result type
+     * @param shapes The shapes
+     * @param factory Creates a visitor for each shape
+     * @param consumer Receives results, and returns false to stop
+     * @return The number of results passed to the consumer
+     * @throws InterruptedException If the calling thread is interrupted
+     */
+    public <T> int analyzeConcurrently(Iterator<? extends Shape> shapes,
+            VisitorFactory<T> factory, ResultConsumer<? super T> consumer)
+            throws InterruptedException {
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Semaphore permits = new Semaphore(maxInFlight);
+        Completion<T> completion = new Completion<>(consumer, permits,
+                stopped, failure);
+        // Refill in batches of half the window, rather than waking up to
+        // submit one task each time one completes
+        int batch = Math.max(1, maxInFlight / 2);
+        // The most recent submissions - anything older has completed
+        ArrayDeque<AnalysisTask<T>> recent = new ArrayDeque<>(maxInFlight);
+        int index = 0;
+        // Permits taken by this thread for tasks not yet handed to the pool
+        int held = 0;
+        try {
+            while (!stopped.get() && shapes.hasNext()) {
+                while (!permits.tryAcquire(batch)) {
+                    // Rather than block, run the newest task no pool thread
+                    // has started here, if there is one
+                    AnalysisTask<T> unstarted = null;
+                    while (!recent.isEmpty() && unstarted == null) {
+                        AnalysisTask<T> t = recent.pollLast();
+                        if (t.claim()) {
+                            unstarted = t;
+                        }
+                    }
+                    if (unstarted == null) {
+                        permits.acquire(batch);
+                        break;
+                    }
+                    unstarted.analyze();
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+                held = batch;
+                while (held > 0 && !stopped.get() && shapes.hasNext()) {
+                    AnalysisTask<T> task = new AnalysisTask<>(index++,
+                            shapes.next(), factory, listener, stopped, completion);
+                    // A task the pool rejects never runs, so its permit
+                    // stays with this thread until it is handed over
+                    pool.execute(task);
+                    held--;
+                    if (recent.size() == maxInFlight) {
+                        recent.pollFirst();
+                    }
+                    recent.add(task);
+                }
+                permits.release(held);
+                held = 0;
+            }
+            // All permits are free once everything submitted has finished
+            permits.acquire(maxInFlight);
+        } catch (InterruptedException | RuntimeException | Error ex) {
+            // Skip what has not started, but wait for what has, so no
+            // consumer call happens after this method exits
+            stopped.set(true);
+            permits.release(held);
+            permits.acquireUninterruptibly(maxInFlight);
+            throw ex;
+        }
+        rethrow(failure.get());
+        return completion.delivered.get();
+    }
+
+    private static <T> T await(AnalysisTask<T> task) throws InterruptedException {
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            rethrow(ex.getCause());
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void rethrow(Throwable t) {
+        if (t == null) {
+            return;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new IllegalStateException(t);
+    }
+
+    /**
+     * Creates a visitor to analyze one shape.
+     *
+     * @param <T> The result type
+     */
+    @FunctionalInterface
+    public interface VisitorFactory<T> {
+
+        /**
+         * Create a visitor for a shape.
+         *
+         * @param index The index of the shape in the input
+         * @param shape The shape
+         * @return A visitor
+         */
+        ResultVisitor<T> newVisitor(int index, Shape shape);
+    }
+
+    /**
+     * A VectorVisitor which produces a result once a shape has been visited.
+     *
+     * @param <T> The result type
+     */
+    public interface ResultVisitor<T> extends VectorVisitor {
+
+        /**
+         * Get the result of visiting a shape, called after all visit calls.
+         *
+         * @param direction The rotation direction of the last subpath
+         * @return A result
+         */
+        T result(RotationDirection direction);
+    }
+
+    /**
+     * Receives analysis results.
+     *
+     * @param <T> The result type
+     */
+    @FunctionalInterface
+    public interface ResultConsumer<T> {
+
+        /**
+         * Accept a result.
+         *
+         * @param index The index of the shape in the input
+         * @param shape The shape
+         * @param result The result
+         * @return false to stop analyzing further shapes
+         */
+        boolean accept(int index, Shape shape, T result);
+    }
+
+    private static final class Completion<T> {
+
+        private final ResultConsumer<? super T> consumer;
+        private final Semaphore permits;
+        private final AtomicBoolean stopped;
+        private final AtomicReference<Throwable> failure;
+        private final AtomicInteger delivered = new AtomicInteger();
+
+        Completion(ResultConsumer<? super T> consumer, Semaphore permits,
+                AtomicBoolean stopped, AtomicReference<Throwable> failure) {
+            this.consumer = consumer;
+            this.permits = permits;
+            this.stopped = stopped;
+            this.failure = failure;
+        }
+
+        void complete(int index, Shape shape, T result) {
+            try {
+                if (!stopped.get()) {
+                    delivered.incrementAndGet();
+                    if (!consumer.accept(index, shape, result)) {
+                        stopped.set(true);
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                stopped.set(true);
+                failure.compareAndSet(null, e);
+            } finally {
+                permits.release();
+            }
+        }
+
+        void skipped() {
+            permits.release();
+        }
+
+        void failed(Throwable t) {
+            stopped.set(true);
+            failure.compareAndSet(null, t);
+            permits.release();
+        }
+    }
+
+    private static final class AnalysisTask<T> extends ForkJoinTask<T> {
+
+        private final int index;
+        private final Shape shape;
+        private final VisitorFactory<T> factory;
+        private final AnalysisListener listener;
+        private final AtomicBoolean stopped;
+        private final Completion<T> completion;
+        private T result;
+
+        AnalysisTask(int index, Shape shape, VisitorFactory<T> factory,
+                AnalysisListener listener, AtomicBoolean stopped,
+                Completion<T> completion) {
+            this.index = index;
+            this.shape = shape;
+            this.factory = factory;
+            this.listener = listener;
+            this.stopped = stopped;
+            this.completion = completion;
+        }
+
+        @Override
+        public T getRawResult() {
+            return result;
+        }
+
+        @Override
+        protected void setRawResult(T value) {
+            result = value;
+        }
+
+        /**
+         * Claim the task, so that only one of a pool thread and the thread
+         * which submitted it runs the analysis.
+         */
+        boolean claim() {
+            return compareAndSetForkJoinTaskTag((short) 0, (short) 1);
+        }
+
+        @Override
+        protected boolean exec() {
+            if (claim()) {
+                result = analyze();
+            }
+            return true;
+        }
+
+        T analyze() {
+            if (stopped.get()) {
+                if (completion != null) {
+                    completion.skipped();
+                    return null;
+                }
+                throw new CancellationException();
+            }
+            T res;
+            try {
+                ResultVisitor<T> visitor = factory.newVisitor(index, shape);
+                RotationDirection dir = visitor.analyze(shape, null, listener);
+                res = visitor.result(dir);
+            } catch (RuntimeException | Error e) {
+                if (completion != null) {
+                    completion.failed(e);
+                    return null;
+                }
+                throw e;
+            }
+            if (completion != null) {
+                completion.complete(index, shape, res);
+            }
+            return res;
+        }
+    }
+}
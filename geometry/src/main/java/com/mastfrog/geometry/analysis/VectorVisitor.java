@@ -50,7 +50,9 @@ public interface VectorVisitor {
      * @param subpathIndex The index of this subpath within the shape, if it
      * contains multiple paths, in the order encountered in its PathIterator
      * @param subpathRotationDirection The overall rotation direction of this
-     * sub-path - the majority of angles turn clockwise or counterclockwise?
+     * sub-path as seen on screen (y increasing downward), from the sign of the
+     * area of its approximation (for a self-intersecting sub-path, the net
+     * direction)
      * @param approximate A polygon which *approximates* the entire shape, for
      * hit-testing and similar - reliably implements contains(x,y) which some
      * shapes don't, but contains minimal detail for cubic and quadratic curves.
@@ -63,14 +65,39 @@ public interface VectorVisitor {
     }
 
     default RotationDirection analyze(Shape shape, AffineTransform xform) {
-        AnglesAnalyzer ana = new AnglesAnalyzer();
+        return analyze(shape, xform, AnalysisListener.NONE);
+    }
+
+    /**
+     * Analyze a shape, passing diagnostics about corners whose orientation
+     * is ambiguous to the passed listener.
+     *
+     * @param shape A shape
+     * @param xform A transform, or null
+     * @param listener A listener
+     * @return The rotation direction of the last subpath
+     */
+    default RotationDirection analyze(Shape shape, AffineTransform xform, AnalysisListener listener) {
+        AnglesAnalyzer ana = new AnglesAnalyzer(listener);
         RotationDirection result = ana.analyzeShape(shape, xform);
         ana.visitAll(this);
         return result;
     }
 
     default RotationDirection analyze(PathIterator iter) {
-        AnglesAnalyzer ana = new AnglesAnalyzer();
+        return analyze(iter, AnalysisListener.NONE);
+    }
+
+    /**
+     * Analyze a path, passing diagnostics about corners whose orientation
+     * is ambiguous to the passed listener.
+     *
+     * @param iter A path iterator
+     * @param listener A listener
+     * @return The rotation direction of the last subpath
+     */
+    default RotationDirection analyze(PathIterator iter, AnalysisListener listener) {
+        AnglesAnalyzer ana = new AnglesAnalyzer(listener);
         RotationDirection result = ana.analyze(iter);
         ana.visitAll(this);
         return result;
@@ -0,0 +1,638 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.bounds;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.util.DoubleList;
+import com.mastfrog.geometry.util.GeometryUtils;
+import java.awt.Shape;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tight bounding shapes for sets of points - convex hull, minimum enclosing
+ * circle and minimum-area oriented bounding box - computed directly over
+ * primitive coordinate arrays of interleaved x/y pairs, for culling and
+ * collision broad-phase tests where an axis-aligned rectangle, or
+ * <code>Circle.containing(Rectangle2D)</code>, is too loose.
+ * <p>
+ * The convex hull uses Andrew's monotone chain algorithm, in O(n log n),
+ * after discarding points which obviously cannot be on the hull; the
+ * enclosing circle uses Welzl's algorithm over the hull vertices in random
+ * order, in expected linear time; the oriented box is found by rotating
+ * calipers around the hull, in linear time. Shapes are flattened, so results for curved
+ * shapes are accurate to within the flatness used.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class BoundingShapes {
+
+    private BoundingShapes() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Compute the convex hull of a set of points.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @return The coordinates of the hull's vertices, in counter-clockwise
+     * order in a y-up coordinate system (clockwise on screen), starting with
+     * the point with the least x coordinate; collinear and duplicate points
+     * are omitted, and the first point is not repeated
+     */
+    public static double[] convexHull(double[] coords) {
+        checkCoordinates(coords);
+        return convexHull(coords, 0, coords.length / 2);
+    }
+
+    /**
+     * Compute the convex hull of a range of points in an array.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @param offset The array offset of the x coordinate of the first point
+     * @param pointCount The number of points
+     * @return The coordinates of the hull's vertices, as with
+     * <code>convexHull(double[])</code>
+     */
+    public static double[] convexHull(double[] coords, int offset,
+            int pointCount) {
+        checkRange(coords, offset, pointCount);
+        double[] candidates = new double[pointCount * 2];
+        int count = discardInterior(coords, offset, pointCount, candidates);
+        sortPoints(candidates, count);
+        double[] hull = new double[(count * 4) + 4];
+        int size = monotoneChain(candidates, count, hull);
+        return Arrays.copyOf(hull, size * 2);
+    }
+
+    /**
+     * Akl-Toussaint heuristic: copy only the points which are not strictly
+     * inside the quadrilateral formed by the leftmost, lowest, rightmost
+     * and highest points, which typically leaves few enough that sorting
+     * them costs far less than sorting everything.
+     */
+    static int discardInterior(double[] coords, int offset, int pointCount,
+            double[] into) {
+        if (pointCount < 8) {
+            System.arraycopy(coords, offset, into, 0, pointCount * 2);
+            return pointCount;
+        }
+        int left = offset;
+        int bottom = offset;
+        int right = offset;
+        int top = offset;
+        int end = offset + (pointCount * 2);
+        for (int i = offset + 2; i < end; i += 2) {
+            if (coords[i] < coords[left]) {
+                left = i;
+            }
+            if (coords[i] > coords[right]) {
+                right = i;
+            }
+            if (coords[i + 1] < coords[bottom + 1]) {
+                bottom = i;
+            }
+            if (coords[i + 1] > coords[top + 1]) {
+                top = i;
+            }
+        }
+        double lx = coords[left];
+        double ly = coords[left + 1];
+        double bx = coords[bottom];
+        double by = coords[bottom + 1];
+        double rx = coords[right];
+        double ry = coords[right + 1];
+        double tx = coords[top];
+        double ty = coords[top + 1];
+        int count = 0;
+        for (int i = offset; i < end; i += 2) {
+            double x = coords[i];
+            double y = coords[i + 1];
+            if (cross(lx, ly, bx, by, x, y) > 0
+                    && cross(bx, by, rx, ry, x, y) > 0
+                    && cross(rx, ry, tx, ty, x, y) > 0
+                    && cross(tx, ty, lx, ly, x, y) > 0) {
+                continue;
+            }
+            into[count * 2] = x;
+            into[count * 2 + 1] = y;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Compute the convex hull of the points in a list.
+     *
+     * @param coords A list of interleaved x/y coordinates
+     * @return The coordinates of the hull's vertices, as with
+     * <code>convexHull(double[])</code>
+     */
+    public static double[] convexHull(DoubleList coords) {
+        return convexHull(toArray(coords));
+    }
+
+    /**
+     * Compute the convex hull of a shape, flattening curves to within
+     * <code>GeometryUtils.DEFAULT_FLATNESS</code>.
+     *
+     * @param shape A shape
+     * @return A polygon
+     */
+    public static Polygon2D convexHull(Shape shape) {
+        return convexHull(shape, GeometryUtils.DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Compute the convex hull of a shape.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return A polygon
+     */
+    public static Polygon2D convexHull(Shape shape, double flatness) {
+        return new Polygon2D(convexHull(points(shape, flatness)));
+    }
+
+    /**
+     * Compute the smallest circle containing a set of points.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @return A circle
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static Circle minimumEnclosingCircle(double[] coords) {
+        checkCoordinates(coords);
+        return minimumEnclosingCircle(coords, 0, coords.length / 2);
+    }
+
+    /**
+     * Compute the smallest circle containing a range of points in an array.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @param offset The array offset of the x coordinate of the first point
+     * @param pointCount The number of points
+     * @return A circle
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static Circle minimumEnclosingCircle(double[] coords, int offset,
+            int pointCount) {
+        checkRange(coords, offset, pointCount);
+        if (pointCount == 0) {
+            throw new IllegalArgumentException("No points");
+        }
+        // Only hull vertices can lie on the circle, and computing the hull
+        // first is cheaper than shuffling every point
+        double[] hull = convexHull(coords, offset, pointCount);
+        double[] circle = new double[3];
+        welzl(hull, hull.length / 2, circle);
+        return new Circle(circle[0], circle[1], circle[2]);
+    }
+
+    /**
+     * Compute the smallest circle containing the points in a list.
+     *
+     * @param coords A list of interleaved x/y coordinates
+     * @return A circle
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static Circle minimumEnclosingCircle(DoubleList coords) {
+        return minimumEnclosingCircle(toArray(coords));
+    }
+
+    /**
+     * Compute the smallest circle containing a shape, flattening curves to
+     * within <code>GeometryUtils.DEFAULT_FLATNESS</code>.
+     *
+     * @param shape A shape
+     * @return A circle
+     * @throws IllegalArgumentException if the shape is empty
+     */
+    public static Circle minimumEnclosingCircle(Shape shape) {
+        return minimumEnclosingCircle(shape, GeometryUtils.DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Compute the smallest circle containing a shape.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return A circle
+     * @throws IllegalArgumentException if the shape is empty
+     */
+    public static Circle minimumEnclosingCircle(Shape shape, double flatness) {
+        return minimumEnclosingCircle(points(shape, flatness));
+    }
+
+    /**
+     * Compute the minimum-area rectangle, at any rotation, containing a set
+     * of points.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @return The coordinates of the rectangle's four corners, in the same
+     * winding order as the convex hull; for collinear points the rectangle
+     * has zero width
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static double[] orientedBoundingBox(double[] coords) {
+        checkCoordinates(coords);
+        return orientedBoundingBox(coords, 0, coords.length / 2);
+    }
+
+    /**
+     * Compute the minimum-area rectangle, at any rotation, containing a
+     * range of points in an array.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @param offset The array offset of the x coordinate of the first point
+     * @param pointCount The number of points
+     * @return The coordinates of the rectangle's four corners
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static double[] orientedBoundingBox(double[] coords, int offset,
+            int pointCount) {
+        if (pointCount == 0) {
+            throw new IllegalArgumentException("No points");
+        }
+        double[] hull = convexHull(coords, offset, pointCount);
+        double[] result = new double[8];
+        rotatingCalipers(hull, hull.length / 2, result);
+        return result;
+    }
+
+    /**
+     * Compute the minimum-area rectangle, at any rotation, containing the
+     * points in a list.
+     *
+     * @param coords A list of interleaved x/y coordinates
+     * @return The coordinates of the rectangle's four corners
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static double[] orientedBoundingBox(DoubleList coords) {
+        return orientedBoundingBox(toArray(coords));
+    }
+
+    /**
+     * Compute the minimum-area rectangle, at any rotation, containing a
+     * shape, flattening curves to within
+     * <code>GeometryUtils.DEFAULT_FLATNESS</code>. A <code>Rhombus</code>
+     * cannot represent a rotated rectangle, so the result is a polygon.
+     *
+     * @param shape A shape
+     * @return A four-point polygon
+     * @throws IllegalArgumentException if the shape is empty
+     */
+    public static Polygon2D orientedBoundingBox(Shape shape) {
+        return orientedBoundingBox(shape, GeometryUtils.DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Compute the minimum-area rectangle, at any rotation, containing a
+     * shape.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return A four-point polygon
+     * @throws IllegalArgumentException if the shape is empty
+     */
+    public static Polygon2D orientedBoundingBox(Shape shape, double flatness) {
+        return new Polygon2D(orientedBoundingBox(points(shape, flatness)));
+    }
+
+    private static void checkCoordinates(double[] coords) {
+        if (coords == null) {
+            throw new IllegalArgumentException("Null coordinates");
+        }
+        if (coords.length % 2 != 0) {
+            throw new IllegalArgumentException("Odd number of coordinates: "
+                    + coords.length);
+        }
+    }
+
+    private static void checkRange(double[] coords, int offset,
+            int pointCount) {
+        if (coords == null) {
+            throw new IllegalArgumentException("Null coordinates");
+        }
+        if (offset < 0 || pointCount < 0
+                || offset + (pointCount * 2L) > coords.length) {
+            throw new IllegalArgumentException("Range " + offset + " with "
+                    + pointCount + " points outside array of "
+                    + coords.length);
+        }
+    }
+
+    private static double[] toArray(DoubleList coords) {
+        if (coords == null) {
+            throw new IllegalArgumentException("Null coordinates");
+        }
+        return coords.toDoubleArray();
+    }
+
+    private static double[] points(Shape shape, double flatness) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Null shape");
+        }
+        DoubleList result = new DoubleList(64);
+        double[] c = new double[6];
+        // Some shapes ignore the flatness argument to getPathIterator() and
+        // return curves, so flatten explicitly
+        PathIterator it = new FlatteningPathIterator(
+                shape.getPathIterator(null), flatness);
+        while (!it.isDone()) {
+            int type = it.currentSegment(c);
+            if (type == PathIterator.SEG_MOVETO
+                    || type == PathIterator.SEG_LINETO) {
+                result.add(c[0]);
+                result.add(c[1]);
+            }
+            it.next();
+        }
+        return result.toDoubleArray();
+    }
+
+    private static double cross(double ox, double oy, double ax, double ay,
+            double bx, double by) {
+        return ((ax - ox) * (by - oy)) - ((ay - oy) * (bx - ox));
+    }
+
+    /**
+     * Andrew's monotone chain over points sorted by x then y, writing the
+     * hull into the passed array, which must have room for twice pointCount
+     * plus one points, and returning the number of hull points.
+     */
+    static int monotoneChain(double[] pts, int pointCount, double[] hull) {
+        if (pointCount == 0) {
+            return 0;
+        }
+        int size = 0;
+        // Lower hull, left to right
+        for (int i = 0; i < pointCount; i++) {
+            double x = pts[i * 2];
+            double y = pts[i * 2 + 1];
+            while (size >= 2 && cross(hull[size * 2 - 4], hull[size * 2 - 3],
+                    hull[size * 2 - 2], hull[size * 2 - 1], x, y) <= 0) {
+                size--;
+            }
+            hull[size * 2] = x;
+            hull[size * 2 + 1] = y;
+            size++;
+        }
+        // Upper hull, right to left, never popping into the lower hull
+        int lower = size + 1;
+        for (int i = pointCount - 2; i >= 0; i--) {
+            double x = pts[i * 2];
+            double y = pts[i * 2 + 1];
+            while (size >= lower && cross(hull[size * 2 - 4],
+                    hull[size * 2 - 3], hull[size * 2 - 2], hull[size * 2 - 1],
+                    x, y) <= 0) {
+                size--;
+            }
+            hull[size * 2] = x;
+            hull[size * 2 + 1] = y;
+            size++;
+        }
+        // The last point pushed is the first point again; if all points
+        // were identical, a single point remains either way
+        size = Math.max(1, size - 1);
+        if (size == 2 && hull[0] == hull[2] && hull[1] == hull[3]) {
+            size = 1;
+        }
+        return size;
+    }
+
+    /**
+     * Sort interleaved points by x, then y. Heapsort, since it is in-place,
+     * never quadratic and needs no boxing.
+     */
+    static void sortPoints(double[] pts, int pointCount) {
+        for (int i = (pointCount / 2) - 1; i >= 0; i--) {
+            siftDown(pts, i, pointCount);
+        }
+        for (int end = pointCount - 1; end > 0; end--) {
+            swap(pts, 0, end);
+            siftDown(pts, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] pts, int root, int size) {
+        for (;;) {
+            int child = (root * 2) + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && less(pts, child, child + 1)) {
+                child++;
+            }
+            if (!less(pts, root, child)) {
+                return;
+            }
+            swap(pts, root, child);
+            root = child;
+        }
+    }
+
+    private static boolean less(double[] pts, int a, int b) {
+        double ax = pts[a * 2];
+        double bx = pts[b * 2];
+        return ax < bx || (ax == bx && pts[a * 2 + 1] < pts[b * 2 + 1]);
+    }
+
+    private static void swap(double[] pts, int a, int b) {
+        double x = pts[a * 2];
+        double y = pts[a * 2 + 1];
+        pts[a * 2] = pts[b * 2];
+        pts[a * 2 + 1] = pts[b * 2 + 1];
+        pts[b * 2] = x;
+        pts[b * 2 + 1] = y;
+    }
+
+    /**
+     * Iterative Welzl: shuffle the points, then grow the circle, restarting
+     * with each point outside it on the boundary. Shuffles the passed array,
+     * writing center x, center y and radius into the result.
+     */
+    static void welzl(double[] pts, int pointCount, double[] circle) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = pointCount - 1; i > 0; i--) {
+            swap(pts, i, rnd.nextInt(i + 1));
+        }
+        circle[0] = pts[0];
+        circle[1] = pts[1];
+        circle[2] = 0;
+        for (int i = 1; i < pointCount; i++) {
+            double px = pts[i * 2];
+            double py = pts[i * 2 + 1];
+            if (inside(circle, px, py)) {
+                continue;
+            }
+            circle[0] = px;
+            circle[1] = py;
+            circle[2] = 0;
+            for (int j = 0; j < i; j++) {
+                double qx = pts[j * 2];
+                double qy = pts[j * 2 + 1];
+                if (inside(circle, qx, qy)) {
+                    continue;
+                }
+                diametric(px, py, qx, qy, circle);
+                for (int k = 0; k < j; k++) {
+                    double rx = pts[k * 2];
+                    double ry = pts[k * 2 + 1];
+                    if (!inside(circle, rx, ry)) {
+                        circumscribed(px, py, qx, qy, rx, ry, circle);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean inside(double[] circle, double x, double y) {
+        double dx = x - circle[0];
+        double dy = y - circle[1];
+        double r = circle[2];
+        // Relative tolerance, so boundary points from the circle's own
+        // construction are not re-added due to rounding
+        double limit = r + (Math.max(r, Math.max(Math.abs(circle[0]),
+                Math.abs(circle[1]))) * 1E-12);
+        return (dx * dx) + (dy * dy) <= limit * limit;
+    }
+
+    private static void diametric(double ax, double ay, double bx, double by,
+            double[] circle) {
+        circle[0] = (ax + bx) / 2;
+        circle[1] = (ay + by) / 2;
+        circle[2] = Math.hypot(ax - bx, ay - by) / 2;
+    }
+
+    private static void circumscribed(double ax, double ay, double bx,
+            double by, double cx, double cy, double[] circle) {
+        double bxa = bx - ax;
+        double bya = by - ay;
+        double cxa = cx - ax;
+        double cya = cy - ay;
+        double d = 2 * ((bxa * cya) - (bya * cxa));
+        if (d == 0) {
+            // Collinear - the two farthest apart span the circle
+            double ab = Math.hypot(bxa, bya);
+            double ac = Math.hypot(cxa, cya);
+            double bc = Math.hypot(cx - bx, cy - by);
+            if (ab >= ac && ab >= bc) {
+                diametric(ax, ay, bx, by, circle);
+            } else if (ac >= bc) {
+                diametric(ax, ay, cx, cy, circle);
+            } else {
+                diametric(bx, by, cx, cy, circle);
+            }
+            return;
+        }
+        double b2 = (bxa * bxa) + (bya * bya);
+        double c2 = (cxa * cxa) + (cya * cya);
+        double ux = ((cya * b2) - (bya * c2)) / d;
+        double uy = ((bxa * c2) - (cxa * b2)) / d;
+        circle[0] = ax + ux;
+        circle[1] = ay + uy;
+        circle[2] = Math.hypot(ux, uy);
+    }
+
+    /**
+     * Rotating calipers over a counter-clockwise convex hull: for each hull
+     * edge, the rectangle flush with that edge is bounded by the farthest
+     * point along the edge, the farthest from it, and the farthest back
+     * along it, and each of those advances monotonically as the edge does.
+     */
+    static void rotatingCalipers(double[] hull, int size, double[] into) {
+        if (size == 1) {
+            for (int i = 0; i < 8; i += 2) {
+                into[i] = hull[0];
+                into[i + 1] = hull[1];
+            }
+            return;
+        }
+        double best = Double.MAX_VALUE;
+        int a = 0;
+        int b = 0;
+        int c = 0;
+        for (int i = 0; i < size; i++) {
+            double ox = hull[i * 2];
+            double oy = hull[i * 2 + 1];
+            int next = (i + 1) % size;
+            double ux = hull[next * 2] - ox;
+            double uy = hull[next * 2 + 1] - oy;
+            double len = Math.hypot(ux, uy);
+            ux /= len;
+            uy /= len;
+            double vx = -uy;
+            double vy = ux;
+            a = Math.max(a, i);
+            while (step(hull, size, a, ux, uy) > 0) {
+                a++;
+            }
+            b = Math.max(b, a);
+            while (step(hull, size, b, vx, vy) > 0) {
+                b++;
+            }
+            c = Math.max(c, b);
+            while (step(hull, size, c, ux, uy) < 0) {
+                c++;
+            }
+            double maxU = project(hull, size, a, ox, oy, ux, uy);
+            double maxV = project(hull, size, b, ox, oy, vx, vy);
+            double minU = project(hull, size, c, ox, oy, ux, uy);
+            double area = (maxU - minU) * maxV;
+            if (area < best) {
+                best = area;
+                into[0] = ox + (ux * minU);
+                into[1] = oy + (uy * minU);
+                into[2] = ox + (ux * maxU);
+                into[3] = oy + (uy * maxU);
+                into[4] = into[2] + (vx * maxV);
+                into[5] = into[3] + (vy * maxV);
+                into[6] = into[0] + (vx * maxV);
+                into[7] = into[1] + (vy * maxV);
+            }
+        }
+    }
+
+    private static double step(double[] hull, int size, int from, double dx,
+            double dy) {
+        int p = from % size;
+        int q = (from + 1) % size;
+        return ((hull[q * 2] - hull[p * 2]) * dx)
+                + ((hull[q * 2 + 1] - hull[p * 2 + 1]) * dy);
+    }
+
+    private static double project(double[] hull, int size, int index,
+            double ox, double oy, double dx, double dy) {
+        int p = index % size;
+        return ((hull[p * 2] - ox) * dx) + ((hull[p * 2 + 1] - oy) * dy);
+    }
+}
@@ -0,0 +1,569 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import com.mastfrog.util.sort.Sort;
+import static java.awt.geom.PathIterator.WIND_NON_ZERO;
+import java.util.Arrays;
+
+/**
+ * The general case of polygon boolean operations, for any number of
+ * contours, with self-intersections, holes and either winding rule.
+ * <p>
+ * All edges of both operands are split at every point where they cross or
+ * touch another edge (found by sweeping a vertical line across the edges
+ * sorted by their least x coordinate), yielding a planar arrangement in which
+ * edges only meet at their endpoints; coincident edges are merged. Each
+ * resulting edge is then classified by testing a point just to either side of
+ * its midpoint against both operands under their own winding rules: if the
+ * operation's result differs between the two sides, the edge is part of the
+ * result's boundary, and is directed so the result's interior is on its left.
+ * Finally the directed edges are linked into contours, taking the sharpest
+ * left turn at vertices where several meet, so contours which touch at a
+ * point are kept separate.
+ * </p><p>
+ * Coordinates are snapped to a grid around 2<sup>-36</sup> of the magnitude
+ * of the coordinates, so that nearly coincident points computed from
+ * different pairs of edges become the same point. The result has outer
+ * contours with positive signed area (interior on the left in a y-up
+ * coordinate system) and holes with negative signed area, and no contours
+ * cross, so it is correct under either winding rule.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+final class BooleanEngine {
+
+    private static final double PARALLEL_TOLERANCE = 1.0E-12;
+    private static final double COLLINEAR_TOLERANCE = 1.0E-9;
+    private final double grid;
+    private final double[] seg;
+    private final int edgeCount;
+    // Split points, as (edge, t, x, y)
+    private int[] splitEdges = new int[16];
+    private double[] splitTs = new double[16];
+    private double[] splitXs = new double[16];
+    private double[] splitYs = new double[16];
+    private int splitCount;
+
+    private BooleanEngine(double grid, double[] seg, int edgeCount) {
+        this.grid = grid;
+        this.seg = seg;
+        this.edgeCount = edgeCount;
+    }
+
+    static Contours compute(BooleanOperation op, Contours a, Contours b) {
+        double scale = 0;
+        for (Contours c : new Contours[]{a, b}) {
+            if (!c.isEmpty()) {
+                scale = Math.max(scale, Math.max(
+                        Math.max(Math.abs(c.minX), Math.abs(c.maxX)),
+                        Math.max(Math.abs(c.minY), Math.abs(c.maxY))));
+                scale = Math.max(scale, Math.max(c.maxX - c.minX,
+                        c.maxY - c.minY));
+            }
+        }
+        if (scale == 0) {
+            return new Contours(WIND_NON_ZERO, 0);
+        }
+        double grid = Math.scalb(1.0, Math.getExponent(scale) - 36);
+        a = a.copy();
+        a.snap(grid);
+        b = b.copy();
+        b.snap(grid);
+        int na = a.edgeCount();
+        int n = na + b.edgeCount();
+        double[] seg = new double[n * 4];
+        fillEdges(a, seg, 0);
+        fillEdges(b, seg, na);
+        BooleanEngine engine = new BooleanEngine(grid, seg, n);
+        engine.findSplits();
+        return engine.assemble(op, new WindingIndex(a), new WindingIndex(b));
+    }
+
+    private static void fillEdges(Contours contours, double[] seg, int firstEdge) {
+        int cursor = firstEdge * 4;
+        for (int c = 0; c < contours.contourCount; c++) {
+            int start = contours.start(c);
+            int end = contours.end(c);
+            double[] pts = contours.coords;
+            for (int i = start; i < end; i += 2) {
+                int next = i + 2 == end ? start : i + 2;
+                seg[cursor++] = pts[i];
+                seg[cursor++] = pts[i + 1];
+                seg[cursor++] = pts[next];
+                seg[cursor++] = pts[next + 1];
+            }
+        }
+    }
+
+    private void findSplits() {
+        double[] keys = new double[edgeCount];
+        int[] order = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            keys[i] = Math.min(seg[i * 4], seg[i * 4 + 2]);
+            order[i] = i;
+        }
+        Sort.multiSort(keys, edgeCount, (x, y) -> {
+            int hold = order[x];
+            order[x] = order[y];
+            order[y] = hold;
+        });
+        double margin = grid * 4;
+        int[] active = new int[16];
+        int activeCount = 0;
+        for (int k = 0; k < edgeCount; k++) {
+            int e = order[k];
+            double minX = keys[k];
+            double minY = Math.min(seg[e * 4 + 1], seg[e * 4 + 3]) - margin;
+            double maxY = Math.max(seg[e * 4 + 1], seg[e * 4 + 3]) + margin;
+            int w = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int other = active[i];
+                if (Math.max(seg[other * 4], seg[other * 4 + 2]) + margin < minX) {
+                    continue;
+                }
+                active[w++] = other;
+                if (Math.max(seg[other * 4 + 1], seg[other * 4 + 3]) >= minY
+                        && Math.min(seg[other * 4 + 1], seg[other * 4 + 3]) <= maxY) {
+                    intersect(e, other);
+                }
+            }
+            activeCount = w;
+            if (activeCount == active.length) {
+                active = Arrays.copyOf(active, active.length * 2);
+            }
+            active[activeCount++] = e;
+        }
+    }
+
+    private void intersect(int i, int j) {
+        double px = seg[i * 4];
+        double py = seg[i * 4 + 1];
+        double rx = seg[i * 4 + 2] - px;
+        double ry = seg[i * 4 + 3] - py;
+        double qx = seg[j * 4];
+        double qy = seg[j * 4 + 1];
+        double sx = seg[j * 4 + 2] - qx;
+        double sy = seg[j * 4 + 3] - qy;
+        double lenR = Math.sqrt(rx * rx + ry * ry);
+        double lenS = Math.sqrt(sx * sx + sy * sy);
+        if (lenR == 0 || lenS == 0) {
+            return;
+        }
+        double denom = rx * sy - ry * sx;
+        double qpx = qx - px;
+        double qpy = qy - py;
+        if (Math.abs(denom) <= PARALLEL_TOLERANCE * lenR * lenS) {
+            if (Math.abs(qpx * ry - qpy * rx) > grid * lenR) {
+                // Parallel but not collinear
+                return;
+            }
+            // Collinear - split each at the other's endpoints within it
+            addIfInterior(i, qx, qy);
+            addIfInterior(i, qx + sx, qy + sy);
+            addIfInterior(j, px, py);
+            addIfInterior(j, px + rx, py + ry);
+            return;
+        }
+        double t = (qpx * sy - qpy * sx) / denom;
+        double u = (qpx * ry - qpy * rx) / denom;
+        double tTol = grid / lenR;
+        double uTol = grid / lenS;
+        if (t < -tTol || t > 1 + tTol || u < -uTol || u > 1 + uTol) {
+            return;
+        }
+        // Prefer an existing endpoint if the intersection is at one, so
+        // both edges are split at exactly the same point
+        double x;
+        double y;
+        if (t <= tTol) {
+            x = px;
+            y = py;
+        } else if (t >= 1 - tTol) {
+            x = px + rx;
+            y = py + ry;
+        } else if (u <= uTol) {
+            x = qx;
+            y = qy;
+        } else if (u >= 1 - uTol) {
+            x = qx + sx;
+            y = qy + sy;
+        } else {
+            x = snap(px + t * rx);
+            y = snap(py + t * ry);
+        }
+        addIfInterior(i, x, y);
+        addIfInterior(j, x, y);
+    }
+
+    private double snap(double val) {
+        return Math.rint(val / grid) * grid;
+    }
+
+    private void addIfInterior(int edge, double x, double y) {
+        double x1 = seg[edge * 4];
+        double y1 = seg[edge * 4 + 1];
+        double x2 = seg[edge * 4 + 2];
+        double y2 = seg[edge * 4 + 3];
+        if ((x == x1 && y == y1) || (x == x2 && y == y2)) {
+            return;
+        }
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double len2 = dx * dx + dy * dy;
+        double t = ((x - x1) * dx + (y - y1) * dy) / len2;
+        if (t <= 0 || t >= 1) {
+            return;
+        }
+        if (splitCount == splitEdges.length) {
+            int newSize = splitCount * 2;
+            splitEdges = Arrays.copyOf(splitEdges, newSize);
+            splitTs = Arrays.copyOf(splitTs, newSize);
+            splitXs = Arrays.copyOf(splitXs, newSize);
+            splitYs = Arrays.copyOf(splitYs, newSize);
+        }
+        splitEdges[splitCount] = edge;
+        splitTs[splitCount] = t;
+        splitXs[splitCount] = x;
+        splitYs[splitCount++] = y;
+    }
+
+    private Contours assemble(BooleanOperation op, WindingIndex wa,
+            WindingIndex wb) {
+        // Group split points by edge, then order each group along its edge
+        int[] splitStarts = new int[edgeCount + 1];
+        for (int i = 0; i < splitCount; i++) {
+            splitStarts[splitEdges[i] + 1]++;
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            splitStarts[i + 1] += splitStarts[i];
+        }
+        int[] splitOrder = new int[splitCount];
+        int[] fill = new int[edgeCount];
+        for (int i = 0; i < splitCount; i++) {
+            int e = splitEdges[i];
+            splitOrder[splitStarts[e] + fill[e]++] = i;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            for (int i = splitStarts[e] + 1; i < splitStarts[e + 1]; i++) {
+                int item = splitOrder[i];
+                int j = i - 1;
+                while (j >= splitStarts[e] && splitTs[splitOrder[j]] > splitTs[item]) {
+                    splitOrder[j + 1] = splitOrder[j];
+                    j--;
+                }
+                splitOrder[j + 1] = item;
+            }
+        }
+        VertexTable vertices = new VertexTable(edgeCount * 2 + splitCount);
+        LongSet seen = new LongSet(edgeCount + splitCount);
+        int[] result = new int[Math.max(8, (edgeCount + splitCount) * 2)];
+        int resultCount = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            int prev = vertices.id(seg[e * 4], seg[e * 4 + 1]);
+            for (int i = splitStarts[e]; i <= splitStarts[e + 1]; i++) {
+                int next = i == splitStarts[e + 1]
+                        ? vertices.id(seg[e * 4 + 2], seg[e * 4 + 3])
+                        : vertices.id(splitXs[splitOrder[i]], splitYs[splitOrder[i]]);
+                if (next == prev) {
+                    continue;
+                }
+                long key = prev < next ? ((long) prev << 32) | next
+                        : ((long) next << 32) | prev;
+                if (seen.add(key)) {
+                    int dir = classify(op, wa, wb, vertices, prev, next);
+                    if (dir != 0) {
+                        if (resultCount + 2 > result.length) {
+                            result = Arrays.copyOf(result, result.length * 2);
+                        }
+                        result[resultCount++] = dir > 0 ? prev : next;
+                        result[resultCount++] = dir > 0 ? next : prev;
+                    }
+                }
+                prev = next;
+            }
+        }
+        return link(vertices, result, resultCount / 2);
+    }
+
+    /**
+     * Returns 1 if the edge from v1 to v2 is a boundary of the result with
+     * the result's interior on its left, -1 if it is a boundary with the
+     * interior on its right, and 0 if it is not part of the boundary.
+     */
+    private int classify(BooleanOperation op, WindingIndex wa, WindingIndex wb,
+            VertexTable vertices, int v1, int v2) {
+        double x1 = vertices.x(v1);
+        double y1 = vertices.y(v1);
+        double dx = vertices.x(v2) - x1;
+        double dy = vertices.y(v2) - y1;
+        double len = Math.sqrt(dx * dx + dy * dy);
+        double offset = Math.min(len * 0.25, grid * 64);
+        double nx = -dy / len * offset;
+        double ny = dx / len * offset;
+        double mx = x1 + dx / 2;
+        double my = y1 + dy / 2;
+        boolean left = op.apply(wa.contains(mx + nx, my + ny),
+                wb.contains(mx + nx, my + ny));
+        boolean right = op.apply(wa.contains(mx - nx, my - ny),
+                wb.contains(mx - nx, my - ny));
+        return left == right ? 0 : left ? 1 : -1;
+    }
+
+    private Contours link(VertexTable vertices, int[] edges, int count) {
+        int vertexCount = vertices.size();
+        int[] outStarts = new int[vertexCount + 1];
+        for (int i = 0; i < count; i++) {
+            outStarts[edges[i * 2] + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            outStarts[i + 1] += outStarts[i];
+        }
+        int[] out = new int[count];
+        int[] fill = new int[vertexCount];
+        double[] angles = new double[count];
+        for (int i = 0; i < count; i++) {
+            int from = edges[i * 2];
+            int to = edges[i * 2 + 1];
+            out[outStarts[from] + fill[from]++] = i;
+            angles[i] = Math.atan2(vertices.y(to) - vertices.y(from),
+                    vertices.x(to) - vertices.x(from));
+        }
+        boolean[] used = new boolean[count];
+        Contours result = new Contours(WIND_NON_ZERO, count * 2);
+        for (int first = 0; first < count; first++) {
+            if (used[first]) {
+                continue;
+            }
+            result.beginContour();
+            int e = first;
+            for (;;) {
+                used[e] = true;
+                int from = edges[e * 2];
+                result.add(vertices.x(from), vertices.y(from));
+                int v = edges[e * 2 + 1];
+                double back = angles[e] + Math.PI;
+                int best = -1;
+                double bestTurn = Double.MAX_VALUE;
+                for (int i = outStarts[v]; i < outStarts[v + 1]; i++) {
+                    int candidate = out[i];
+                    double turn = back - angles[candidate];
+                    while (turn <= 0) {
+                        turn += Math.PI * 2;
+                    }
+                    while (turn > Math.PI * 2) {
+                        turn -= Math.PI * 2;
+                    }
+                    if (turn < bestTurn) {
+                        bestTurn = turn;
+                        best = candidate;
+                    }
+                }
+                if (best < 0 || used[best]) {
+                    break;
+                }
+                e = best;
+            }
+            removeCollinear(result);
+            result.endContour();
+        }
+        return result;
+    }
+
+    /**
+     * Remove points of the pending contour which lie on a straight line
+     * between their neighbors, such as where an edge was split.
+     */
+    private static void removeCollinear(Contours contours) {
+        int from = contours.pendingStart;
+        double[] pts = contours.coords;
+        int count = (contours.size - from) / 2;
+        if (count < 3) {
+            return;
+        }
+        boolean[] remove = new boolean[count];
+        int removed = 0;
+        for (int i = 0; i < count; i++) {
+            int prev = from + ((i + count - 1) % count) * 2;
+            int curr = from + i * 2;
+            int next = from + ((i + 1) % count) * 2;
+            double ax = pts[curr] - pts[prev];
+            double ay = pts[curr + 1] - pts[prev + 1];
+            double bx = pts[next] - pts[curr];
+            double by = pts[next + 1] - pts[curr + 1];
+            double cross = ax * by - ay * bx;
+            double dot = ax * bx + ay * by;
+            if (dot > 0 && Math.abs(cross) <= COLLINEAR_TOLERANCE
+                    * Math.sqrt((ax * ax + ay * ay) * (bx * bx + by * by))) {
+                remove[i] = true;
+                removed++;
+            }
+        }
+        if (removed == 0) {
+            return;
+        }
+        int w = from;
+        for (int i = 0; i < count; i++) {
+            if (!remove[i]) {
+                pts[w++] = pts[from + i * 2];
+                pts[w++] = pts[from + i * 2 + 1];
+            }
+        }
+        contours.size = w;
+    }
+
+    /**
+     * Assigns ids to distinct points, using open addressing.
+     */
+    static final class VertexTable {
+
+        private double[] xs;
+        private double[] ys;
+        private int[] table;
+        private int size;
+
+        VertexTable(int expected) {
+            int cap = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            table = new int[cap];
+            Arrays.fill(table, -1);
+            xs = new double[Math.max(16, expected)];
+            ys = new double[xs.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        double x(int id) {
+            return xs[id];
+        }
+
+        double y(int id) {
+            return ys[id];
+        }
+
+        int id(double x, double y) {
+            // Normalize -0.0
+            x += 0.0;
+            y += 0.0;
+            int mask = table.length - 1;
+            int slot = hash(x, y) & mask;
+            for (;;) {
+                int id = table[slot];
+                if (id < 0) {
+                    break;
+                }
+                if (xs[id] == x && ys[id] == y) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            table[slot] = size;
+            int result = size++;
+            if (size * 2 > table.length) {
+                rehash();
+            }
+            return result;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = hash(xs[id], ys[id]) & mask;
+                while (table[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = id;
+            }
+        }
+
+        private static int hash(double x, double y) {
+            long bits = Double.doubleToLongBits(x) * 31
+                    + Double.doubleToLongBits(y);
+            bits ^= bits >>> 33;
+            bits *= 0xff51afd7ed558ccdL;
+            bits ^= bits >>> 33;
+            return (int) bits;
+        }
+    }
+
+    /**
+     * A set of non-negative longs, using open addressing.
+     */
+    static final class LongSet {
+
+        private long[] table;
+        private int size;
+
+        LongSet(int expected) {
+            int cap = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            table = new long[cap];
+            Arrays.fill(table, -1);
+        }
+
+        boolean add(long value) {
+            int mask = table.length - 1;
+            int slot = hash(value) & mask;
+            while (table[slot] >= 0) {
+                if (table[slot] == value) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = value;
+            if (++size * 2 > table.length) {
+                long[] old = table;
+                table = new long[old.length * 2];
+                Arrays.fill(table, -1);
+                mask = table.length - 1;
+                for (long v : old) {
+                    if (v >= 0) {
+                        int s = hash(v) & mask;
+                        while (table[s] >= 0) {
+                            s = (s + 1) & mask;
+                        }
+                        table[s] = v;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static int hash(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            return (int) value;
+        }
+    }
+}
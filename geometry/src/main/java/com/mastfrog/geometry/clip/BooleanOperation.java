@@ -0,0 +1,72 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+/**
+ * Boolean operations which can be performed on pairs of polygons by
+ * {@link PolygonClipper}.
+ *
+ * @author Tim Boudreau
+ */
+public enum BooleanOperation {
+    /**
+     * Area covered by either polygon.
+     */
+    UNION,
+    /**
+     * Area covered by both polygons.
+     */
+    INTERSECTION,
+    /**
+     * Area covered by the first polygon but not the second.
+     */
+    DIFFERENCE,
+    /**
+     * Area covered by exactly one of the polygons.
+     */
+    XOR;
+
+    /**
+     * Determine whether a point is in the result of this operation, given
+     * whether it is in each of the operands.
+     *
+     * @param inA Whether the point is inside the first polygon
+     * @param inB Whether the point is inside the second polygon
+     * @return Whether the point is inside the result
+     */
+    public boolean apply(boolean inA, boolean inB) {
+        switch (this) {
+            case UNION:
+                return inA || inB;
+            case INTERSECTION:
+                return inA && inB;
+            case DIFFERENCE:
+                return inA && !inB;
+            case XOR:
+                return inA != inB;
+            default:
+                throw new AssertionError(this);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.Polygon2D;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_LINETO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.WIND_NON_ZERO;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * The result of a polygon boolean operation - a set of closed polygonal
+ * contours, some of which may be holes. Outer contours have positive signed
+ * area (their interior is on the left of each edge in a y-up coordinate
+ * system) and holes negative; no two contours cross, so the result fills
+ * identically under either winding rule. Immutable.
+ *
+ * @author Tim Boudreau
+ */
+public final class ClipResult {
+
+    private static final ClipResult EMPTY = new ClipResult(new double[0],
+            new int[]{0}, 0);
+    private final double[] coords;
+    private final int[] starts;
+    private final int contourCount;
+
+    private ClipResult(double[] coords, int[] starts, int contourCount) {
+        this.coords = coords;
+        this.starts = starts;
+        this.contourCount = contourCount;
+    }
+
+    static ClipResult of(Contours contours) {
+        if (contours.isEmpty()) {
+            return EMPTY;
+        }
+        return new ClipResult(Arrays.copyOf(contours.coords, contours.size),
+                Arrays.copyOf(contours.starts, contours.contourCount + 1),
+                contours.contourCount);
+    }
+
+    /**
+     * Determine if the result covers no area.
+     *
+     * @return true if there are no contours
+     */
+    public boolean isEmpty() {
+        return contourCount == 0;
+    }
+
+    /**
+     * Get the number of contours, including holes.
+     *
+     * @return The contour count
+     */
+    public int contourCount() {
+        return contourCount;
+    }
+
+    /**
+     * Get the total number of points in all contours.
+     *
+     * @return The point count
+     */
+    public int pointCount() {
+        return coords.length / 2;
+    }
+
+    /**
+     * Get the number of points in one contour.
+     *
+     * @param contour The contour index
+     * @return The point count
+     */
+    public int pointCount(int contour) {
+        checkContour(contour);
+        return (starts[contour + 1] - starts[contour]) / 2;
+    }
+
+    /**
+     * Get one contour as a polygon.
+     *
+     * @param contour The contour index
+     * @return A new polygon
+     */
+    public Polygon2D contour(int contour) {
+        checkContour(contour);
+        return new Polygon2D(Arrays.copyOfRange(coords, starts[contour],
+                starts[contour + 1]));
+    }
+
+    /**
+     * Get the coordinates of one contour, as x/y pairs, without repeating
+     * the first point at the end.
+     *
+     * @param contour The contour index
+     * @return A new array
+     */
+    public double[] coordinates(int contour) {
+        checkContour(contour);
+        return Arrays.copyOfRange(coords, starts[contour],
+                starts[contour + 1]);
+    }
+
+    /**
+     * Determine if a contour is a hole in some other contour.
+     *
+     * @param contour The contour index
+     * @return true if it is a hole
+     */
+    public boolean isHole(int contour) {
+        checkContour(contour);
+        return Contours.signedArea2(coords, starts[contour],
+                starts[contour + 1]) < 0;
+    }
+
+    /**
+     * Get the area covered by the result - the area of its outer contours
+     * less that of its holes.
+     *
+     * @return The area
+     */
+    public double area() {
+        double result = 0;
+        for (int i = 0; i < contourCount; i++) {
+            result += Contours.signedArea2(coords, starts[i], starts[i + 1]);
+        }
+        return result / 2;
+    }
+
+    /**
+     * Get the bounding box of all contours.
+     *
+     * @return A rectangle, empty if the result is
+     */
+    public Rectangle2D.Double bounds() {
+        Rectangle2D.Double result = new Rectangle2D.Double();
+        if (coords.length == 0) {
+            return result;
+        }
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < coords.length; i += 2) {
+            minX = Math.min(minX, coords[i]);
+            minY = Math.min(minY, coords[i + 1]);
+            maxX = Math.max(maxX, coords[i]);
+            maxY = Math.max(maxY, coords[i + 1]);
+        }
+        result.setFrameFromDiagonal(minX, minY, maxX, maxY);
+        return result;
+    }
+
+    /**
+     * Get the result as a single shape, with one closed subpath per contour
+     * and the non-zero winding rule.
+     *
+     * @return A shape
+     */
+    public MinimalAggregateShapeDouble toShape() {
+        byte[] types = new byte[pointCount() + contourCount];
+        int cursor = 0;
+        for (int i = 0; i < contourCount; i++) {
+            int count = pointCount(i);
+            types[cursor++] = SEG_MOVETO;
+            for (int j = 1; j < count; j++) {
+                types[cursor++] = SEG_LINETO;
+            }
+            types[cursor++] = SEG_CLOSE;
+        }
+        return new MinimalAggregateShapeDouble(types, coords.clone(),
+                WIND_NON_ZERO);
+    }
+
+    private void checkContour(int contour) {
+        if (contour < 0 || contour >= contourCount) {
+            throw new IndexOutOfBoundsException("No contour " + contour
+                    + " of " + contourCount);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClipResult(" + contourCount + " contours, "
+                + pointCount() + " points, area " + area() + ")";
+    }
+}
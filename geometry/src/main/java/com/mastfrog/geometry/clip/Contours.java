@@ -0,0 +1,266 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.path.PathCursor;
+import com.mastfrog.geometry.util.DoubleList;
+import com.mastfrog.geometry.util.GeometryUtils;
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+import java.util.Arrays;
+
+/**
+ * A set of closed polygonal contours, packed into one coordinate array, with
+ * the winding rule that determines their interior. Contours are implicitly
+ * closed - the first point is not repeated at the end - and contours of fewer
+ * than three points are discarded.
+ *
+ * @author Tim Boudreau
+ */
+final class Contours {
+
+    final int windingRule;
+    double[] coords;
+    int size;
+    int[] starts;
+    int contourCount;
+    int pendingStart = -1;
+    double minX = Double.MAX_VALUE;
+    double minY = Double.MAX_VALUE;
+    double maxX = -Double.MAX_VALUE;
+    double maxY = -Double.MAX_VALUE;
+
+    Contours(int windingRule, int capacity) {
+        this.windingRule = windingRule;
+        coords = new double[Math.max(8, capacity)];
+        starts = new int[4];
+    }
+
+    static Contours of(Shape shape, double flatness) {
+        if (shape instanceof Polygon2D) {
+            double[] pts = ((Polygon2D) shape).pointsArray();
+            Contours result = new Contours(PathIterator.WIND_EVEN_ODD,
+                    pts.length);
+            result.beginContour();
+            for (int i = 0; i < pts.length; i += 2) {
+                result.add(pts[i], pts[i + 1]);
+            }
+            result.endContour();
+            return result;
+        }
+        PathCursor cursor = PathCursor.of(shape);
+        Contours result = null;
+        DoubleList curve = null;
+        boolean open = false;
+        while (cursor.next()) {
+            if (result == null) {
+                result = new Contours(shape.getPathIterator(null)
+                        .getWindingRule(), 64);
+            }
+            int type = cursor.type();
+            if (type == SEG_CLOSE || type == SEG_MOVETO) {
+                if (open) {
+                    result.endContour();
+                    open = false;
+                }
+                if (type == SEG_CLOSE) {
+                    continue;
+                }
+            }
+            if (!open) {
+                result.beginContour();
+                open = true;
+                if (type != SEG_MOVETO) {
+                    // Segment after a close with no move - starts from the
+                    // start of the previous subpath
+                    result.add(cursor.startX(), cursor.startY());
+                }
+            }
+            switch (type) {
+                case SEG_QUADTO:
+                case SEG_CUBICTO:
+                    if (curve == null) {
+                        curve = new DoubleList(32);
+                    }
+                    int before = curve.size();
+                    if (type == SEG_QUADTO) {
+                        GeometryUtils.flattenQuadraticCurve(cursor.startX(),
+                                cursor.startY(), cursor.controlX(0),
+                                cursor.controlY(0), cursor.x(), cursor.y(),
+                                flatness, curve);
+                    } else {
+                        GeometryUtils.flattenCubicCurve(cursor.startX(),
+                                cursor.startY(), cursor.controlX(0),
+                                cursor.controlY(0), cursor.controlX(1),
+                                cursor.controlY(1), cursor.x(), cursor.y(),
+                                flatness, curve);
+                    }
+                    for (int i = before; i < curve.size(); i += 2) {
+                        result.add(curve.getDouble(i), curve.getDouble(i + 1));
+                    }
+                    break;
+                default:
+                    result.add(cursor.x(), cursor.y());
+            }
+        }
+        if (result == null) {
+            return new Contours(PathIterator.WIND_NON_ZERO, 0);
+        }
+        if (open) {
+            result.endContour();
+        }
+        return result;
+    }
+
+    void beginContour() {
+        pendingStart = size;
+    }
+
+    void add(double x, double y) {
+        if (size > pendingStart && coords[size - 2] == x
+                && coords[size - 1] == y) {
+            return;
+        }
+        if (size + 2 > coords.length) {
+            coords = Arrays.copyOf(coords, coords.length * 2);
+        }
+        coords[size++] = x;
+        coords[size++] = y;
+    }
+
+    void endContour() {
+        // Drop an explicit return to the start point
+        while (size - pendingStart > 2 && coords[size - 2] == coords[pendingStart]
+                && coords[size - 1] == coords[pendingStart + 1]) {
+            size -= 2;
+        }
+        if (size - pendingStart < 6) {
+            size = pendingStart;
+            pendingStart = -1;
+            return;
+        }
+        if (contourCount + 2 > starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+        }
+        starts[contourCount++] = pendingStart;
+        starts[contourCount] = size;
+        for (int i = pendingStart; i < size; i += 2) {
+            minX = Math.min(minX, coords[i]);
+            minY = Math.min(minY, coords[i + 1]);
+            maxX = Math.max(maxX, coords[i]);
+            maxY = Math.max(maxY, coords[i + 1]);
+        }
+        pendingStart = -1;
+    }
+
+    void addContour(double[] pts, int from, int to, boolean reversed) {
+        beginContour();
+        if (reversed) {
+            for (int i = to - 2; i >= from; i -= 2) {
+                add(pts[i], pts[i + 1]);
+            }
+        } else {
+            for (int i = from; i < to; i += 2) {
+                add(pts[i], pts[i + 1]);
+            }
+        }
+        endContour();
+    }
+
+    boolean isEmpty() {
+        return contourCount == 0;
+    }
+
+    /**
+     * Get the offset of the first coordinate of a contour.
+     */
+    int start(int contour) {
+        return starts[contour];
+    }
+
+    /**
+     * Get the offset after the last coordinate of a contour.
+     */
+    int end(int contour) {
+        return starts[contour + 1];
+    }
+
+    int edgeCount() {
+        return size / 2;
+    }
+
+    boolean boundsIntersect(Contours other) {
+        return !isEmpty() && !other.isEmpty()
+                && minX <= other.maxX && other.minX <= maxX
+                && minY <= other.maxY && other.minY <= maxY;
+    }
+
+    /**
+     * Twice the signed area of a contour, positive when its interior is to
+     * the left of its edges in a y-up coordinate system.
+     */
+    double signedArea2(int contour) {
+        return signedArea2(coords, start(contour), end(contour));
+    }
+
+    static double signedArea2(double[] pts, int from, int to) {
+        double result = 0;
+        double px = pts[to - 2];
+        double py = pts[to - 1];
+        for (int i = from; i < to; i += 2) {
+            result += (px * pts[i + 1]) - (pts[i] * py);
+            px = pts[i];
+            py = pts[i + 1];
+        }
+        return result;
+    }
+
+    /**
+     * Snap all coordinates to a grid, so that nearly-coincident points become
+     * exactly coincident.
+     */
+    void snap(double grid) {
+        for (int i = 0; i < size; i++) {
+            coords[i] = Math.rint(coords[i] / grid) * grid;
+        }
+    }
+
+    Contours copy() {
+        Contours result = new Contours(windingRule, size);
+        result.coords = Arrays.copyOf(coords, Math.max(8, size));
+        result.size = size;
+        result.starts = Arrays.copyOf(starts, starts.length);
+        result.contourCount = contourCount;
+        result.minX = minX;
+        result.minY = minY;
+        result.maxX = maxX;
+        result.maxY = maxY;
+        return result;
+    }
+}
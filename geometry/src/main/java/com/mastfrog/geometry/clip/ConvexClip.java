@@ -0,0 +1,323 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import static com.mastfrog.geometry.clip.BooleanOperation.INTERSECTION;
+import static java.awt.geom.PathIterator.WIND_NON_ZERO;
+import java.util.Arrays;
+
+/**
+ * Fast paths for operations on two convex, single-contour polygons: disjoint
+ * bounds and containment are resolved without computing intersections, and
+ * intersections are computed by Sutherland-Hodgman clipping, with a
+ * specialization for axis-aligned rectangles. Anything else falls through to
+ * {@link BooleanEngine}.
+ *
+ * @author Tim Boudreau
+ */
+final class ConvexClip {
+
+    private static final double TOLERANCE = 1.0E-12;
+
+    private ConvexClip() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Attempt to compute the result without the general engine.
+     *
+     * @return The result, or null if no fast path applies
+     */
+    static Contours tryFastPath(BooleanOperation op, Contours a, Contours b) {
+        if (op == INTERSECTION && !a.boundsIntersect(b)) {
+            return new Contours(WIND_NON_ZERO, 0);
+        }
+        if (a.contourCount != 1 || b.contourCount != 1) {
+            return null;
+        }
+        double[] pa = oriented(a);
+        double[] pb = oriented(b);
+        if (pa == null || pb == null) {
+            return null;
+        }
+        Contours result = new Contours(WIND_NON_ZERO, pa.length + pb.length);
+        if (!a.boundsIntersect(b)) {
+            switch (op) {
+                case DIFFERENCE:
+                    result.addContour(pa, 0, pa.length, false);
+                    break;
+                case UNION:
+                case XOR:
+                    result.addContour(pa, 0, pa.length, false);
+                    result.addContour(pb, 0, pb.length, false);
+                    break;
+                default:
+                    break;
+            }
+            return result;
+        }
+        boolean aInB = containsAll(pb, pa);
+        boolean bInA = containsAll(pa, pb);
+        if (aInB && bInA) {
+            // Equal
+            if (op == BooleanOperation.UNION || op == INTERSECTION) {
+                result.addContour(pa, 0, pa.length, false);
+            }
+            return result;
+        } else if (aInB) {
+            switch (op) {
+                case INTERSECTION:
+                    result.addContour(pa, 0, pa.length, false);
+                    break;
+                case UNION:
+                    result.addContour(pb, 0, pb.length, false);
+                    break;
+                case XOR:
+                    result.addContour(pb, 0, pb.length, false);
+                    result.addContour(pa, 0, pa.length, true);
+                    break;
+                default:
+                    break;
+            }
+            return result;
+        } else if (bInA) {
+            switch (op) {
+                case INTERSECTION:
+                    result.addContour(pb, 0, pb.length, false);
+                    break;
+                case UNION:
+                    result.addContour(pa, 0, pa.length, false);
+                    break;
+                default:
+                    result.addContour(pa, 0, pa.length, false);
+                    result.addContour(pb, 0, pb.length, true);
+                    break;
+            }
+            return result;
+        }
+        if (op != INTERSECTION) {
+            return null;
+        }
+        double[] clipped = isAxisRectangle(pb) ? clipToRectangle(pa, pb)
+                : isAxisRectangle(pa) ? clipToRectangle(pb, pa)
+                : clip(pa, pb);
+        if (clipped.length >= 6
+                && Contours.signedArea2(clipped, 0, clipped.length) > 0) {
+            result.addContour(clipped, 0, clipped.length, false);
+        }
+        return result;
+    }
+
+    /**
+     * If the contour is convex, get a copy of its points with its interior
+     * on the left (positive signed area); otherwise null.
+     */
+    static double[] oriented(Contours contours) {
+        int start = contours.start(0);
+        int end = contours.end(0);
+        double[] pts = contours.coords;
+        double area = Contours.signedArea2(pts, start, end);
+        if (area == 0 || !isConvex(pts, start, end, area > 0)) {
+            return null;
+        }
+        double[] result = new double[end - start];
+        if (area > 0) {
+            System.arraycopy(pts, start, result, 0, result.length);
+        } else {
+            for (int i = start, w = result.length - 2; i < end; i += 2, w -= 2) {
+                result[w] = pts[i];
+                result[w + 1] = pts[i + 1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determine if a contour is convex, given its orientation: every turn
+     * must be in the same direction (collinear points are allowed), and the
+     * turns must sum to one full rotation, which rules out star polygons.
+     */
+    static boolean isConvex(double[] pts, int start, int end,
+            boolean positive) {
+        int count = (end - start) / 2;
+        double totalTurn = 0;
+        for (int i = 0; i < count; i++) {
+            int prev = start + ((i + count - 1) % count) * 2;
+            int curr = start + i * 2;
+            int next = start + ((i + 1) % count) * 2;
+            double ax = pts[curr] - pts[prev];
+            double ay = pts[curr + 1] - pts[prev + 1];
+            double bx = pts[next] - pts[curr];
+            double by = pts[next + 1] - pts[curr + 1];
+            double cross = ax * by - ay * bx;
+            if (positive ? cross < 0 : cross > 0) {
+                return false;
+            }
+            totalTurn += Math.atan2(cross, ax * bx + ay * by);
+        }
+        return Math.abs(Math.abs(totalTurn) - Math.PI * 2) < 0.0001;
+    }
+
+    /**
+     * Determine if every point of the inner polygon is inside or on the
+     * boundary of the positively oriented convex outer polygon.
+     */
+    static boolean containsAll(double[] outer, double[] inner) {
+        int count = outer.length;
+        for (int i = 0; i < count; i += 2) {
+            int next = (i + 2) % count;
+            double ex = outer[next] - outer[i];
+            double ey = outer[next + 1] - outer[i + 1];
+            double tol = TOLERANCE * (Math.abs(ex) + Math.abs(ey));
+            for (int j = 0; j < inner.length; j += 2) {
+                double cross = ex * (inner[j + 1] - outer[i + 1])
+                        - ey * (inner[j] - outer[i]);
+                if (cross < -tol * (1 + Math.abs(inner[j]) + Math.abs(inner[j + 1]))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static boolean isAxisRectangle(double[] pts) {
+        if (pts.length != 8) {
+            return false;
+        }
+        for (int i = 0; i < 8; i += 2) {
+            int next = (i + 2) % 8;
+            if (pts[i] != pts[next] && pts[i + 1] != pts[next + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sutherland-Hodgman clipping of a polygon against a positively oriented
+     * convex polygon.
+     */
+    static double[] clip(double[] subject, double[] clip) {
+        double[] input = Arrays.copyOf(subject,
+                subject.length + clip.length + 4);
+        int inputSize = subject.length;
+        double[] output = new double[input.length];
+        for (int c = 0; c < clip.length && inputSize > 0; c += 2) {
+            int next = (c + 2) % clip.length;
+            double cx = clip[c];
+            double cy = clip[c + 1];
+            double ex = clip[next] - cx;
+            double ey = clip[next + 1] - cy;
+            int outputSize = 0;
+            double sx = input[inputSize - 2];
+            double sy = input[inputSize - 1];
+            double sSide = ex * (sy - cy) - ey * (sx - cx);
+            for (int i = 0; i < inputSize; i += 2) {
+                double px = input[i];
+                double py = input[i + 1];
+                double pSide = ex * (py - cy) - ey * (px - cx);
+                if (output.length < outputSize + 4) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                if ((pSide >= 0) != (sSide >= 0)) {
+                    double t = sSide / (sSide - pSide);
+                    output[outputSize++] = sx + (px - sx) * t;
+                    output[outputSize++] = sy + (py - sy) * t;
+                }
+                if (pSide >= 0) {
+                    output[outputSize++] = px;
+                    output[outputSize++] = py;
+                }
+                sx = px;
+                sy = py;
+                sSide = pSide;
+            }
+            double[] hold = input;
+            input = output;
+            output = hold.length >= input.length ? hold
+                    : new double[input.length];
+            inputSize = outputSize;
+        }
+        return Arrays.copyOf(input, inputSize);
+    }
+
+    /**
+     * Sutherland-Hodgman clipping of a polygon against an axis-aligned
+     * rectangle, which needs only comparisons to decide which side of each
+     * clip edge a point is on.
+     */
+    static double[] clipToRectangle(double[] subject, double[] rect) {
+        double minX = Math.min(Math.min(rect[0], rect[2]), rect[4]);
+        double maxX = Math.max(Math.max(rect[0], rect[2]), rect[4]);
+        double minY = Math.min(Math.min(rect[1], rect[3]), rect[5]);
+        double maxY = Math.max(Math.max(rect[1], rect[3]), rect[5]);
+        double[] input = Arrays.copyOf(subject, subject.length + 12);
+        int inputSize = subject.length;
+        double[] output = new double[input.length];
+        for (int edge = 0; edge < 4 && inputSize > 0; edge++) {
+            boolean vertical = edge < 2;
+            double bound = edge == 0 ? minX : edge == 1 ? maxX
+                    : edge == 2 ? minY : maxY;
+            boolean keepGreater = edge == 0 || edge == 2;
+            int outputSize = 0;
+            double sx = input[inputSize - 2];
+            double sy = input[inputSize - 1];
+            double sv = vertical ? sx : sy;
+            boolean sIn = keepGreater ? sv >= bound : sv <= bound;
+            for (int i = 0; i < inputSize; i += 2) {
+                double px = input[i];
+                double py = input[i + 1];
+                double pv = vertical ? px : py;
+                boolean pIn = keepGreater ? pv >= bound : pv <= bound;
+                if (output.length < outputSize + 4) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                if (pIn != sIn) {
+                    double t = (bound - sv) / (pv - sv);
+                    if (vertical) {
+                        output[outputSize++] = bound;
+                        output[outputSize++] = sy + (py - sy) * t;
+                    } else {
+                        output[outputSize++] = sx + (px - sx) * t;
+                        output[outputSize++] = bound;
+                    }
+                }
+                if (pIn) {
+                    output[outputSize++] = px;
+                    output[outputSize++] = py;
+                }
+                sx = px;
+                sy = py;
+                sv = pv;
+                sIn = pIn;
+            }
+            double[] hold = input;
+            input = output;
+            output = hold.length >= input.length ? hold
+                    : new double[input.length];
+            inputSize = outputSize;
+        }
+        return Arrays.copyOf(input, inputSize);
+    }
+}
@@ -0,0 +1,167 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import com.mastfrog.geometry.util.GeometryUtils;
+import java.awt.Shape;
+
+/**
+ * Boolean operations - union, intersection, difference and exclusive-or - on
+ * polygons, computed directly from their coordinates rather than by way of
+ * <code>java.awt.geom.Area</code>.
+ * <p>
+ * Operands may be any shape: <code>Polygon2D</code>'s points are used
+ * directly (under the even-odd rule, as its own containment test does), and
+ * other shapes, such as <code>MinimalAggregateShapeDouble</code>, are read
+ * with their own winding rule, each subpath being one contour, and curves
+ * flattened to within the passed flatness. Operands may have any number of
+ * contours, holes and self-intersections.
+ * </p><p>
+ * When both operands are single convex contours, the result is computed
+ * without the general engine where possible: disjoint and nested polygons
+ * are resolved by bounds and containment tests, and intersections by
+ * Sutherland-Hodgman clipping - with comparisons alone when either is an
+ * axis-aligned rectangle.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class PolygonClipper {
+
+    private PolygonClipper() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Compute the union of two shapes.
+     *
+     * @param a A shape
+     * @param b Another shape
+     * @return The result
+     */
+    public static ClipResult union(Shape a, Shape b) {
+        return apply(BooleanOperation.UNION, a, b);
+    }
+
+    /**
+     * Compute the intersection of two shapes.
+     *
+     * @param a A shape
+     * @param b Another shape
+     * @return The result
+     */
+    public static ClipResult intersection(Shape a, Shape b) {
+        return apply(BooleanOperation.INTERSECTION, a, b);
+    }
+
+    /**
+     * Compute the area of the first shape not covered by the second.
+     *
+     * @param a A shape
+     * @param b The shape to subtract from it
+     * @return The result
+     */
+    public static ClipResult difference(Shape a, Shape b) {
+        return apply(BooleanOperation.DIFFERENCE, a, b);
+    }
+
+    /**
+     * Compute the area covered by exactly one of two shapes.
+     *
+     * @param a A shape
+     * @param b Another shape
+     * @return The result
+     */
+    public static ClipResult xor(Shape a, Shape b) {
+        return apply(BooleanOperation.XOR, a, b);
+    }
+
+    /**
+     * Resolve a single shape into non-crossing contours - outer contours
+     * and holes, as returned by the boolean operations - applying its
+     * winding rule and splitting it wherever it intersects itself.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return The result
+     */
+    public static ClipResult normalize(Shape shape, double flatness) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Null shape");
+        }
+        if (!(flatness > 0)) {
+            throw new IllegalArgumentException("Flatness must be > 0: "
+                    + flatness);
+        }
+        Contours contours = Contours.of(shape, flatness);
+        if (contours.isEmpty()) {
+            return ClipResult.of(contours);
+        }
+        return ClipResult.of(BooleanEngine.compute(BooleanOperation.UNION,
+                contours, new Contours(contours.windingRule, 0)));
+    }
+
+    /**
+     * Apply a boolean operation to two shapes, flattening any curves to
+     * within <code>GeometryUtils.DEFAULT_FLATNESS</code>.
+     *
+     * @param op The operation
+     * @param a A shape
+     * @param b Another shape
+     * @return The result
+     */
+    public static ClipResult apply(BooleanOperation op, Shape a, Shape b) {
+        return apply(op, a, b, GeometryUtils.DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Apply a boolean operation to two shapes.
+     *
+     * @param op The operation
+     * @param a A shape
+     * @param b Another shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return The result
+     */
+    public static ClipResult apply(BooleanOperation op, Shape a, Shape b,
+            double flatness) {
+        if (op == null || a == null || b == null) {
+            throw new IllegalArgumentException("Null argument: " + op
+                    + ", " + a + ", " + b);
+        }
+        if (!(flatness > 0)) {
+            throw new IllegalArgumentException("Flatness must be > 0: "
+                    + flatness);
+        }
+        Contours ca = Contours.of(a, flatness);
+        Contours cb = Contours.of(b, flatness);
+        Contours result = ConvexClip.tryFastPath(op, ca, cb);
+        if (result == null) {
+            result = BooleanEngine.compute(op, ca, cb);
+        }
+        return ClipResult.of(result);
+    }
+}
@@ -0,0 +1,131 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import static java.awt.geom.PathIterator.WIND_EVEN_ODD;
+
+/**
+ * Computes winding numbers of points against a set of contours by casting a
+ * ray in the positive x direction, testing only the edges in the horizontal
+ * band the point falls in rather than every edge.
+ *
+ * @author Tim Boudreau
+ */
+final class WindingIndex {
+
+    private static final int EDGES_PER_BAND = 4;
+    private final double[] edges;
+    private final boolean evenOdd;
+    private final double minY;
+    private final double maxY;
+    private final double bandHeight;
+    private final int bands;
+    private final int[] bandStarts;
+    private final int[] bandEdges;
+
+    WindingIndex(Contours contours) {
+        evenOdd = contours.windingRule == WIND_EVEN_ODD;
+        int count = contours.edgeCount();
+        edges = new double[count * 4];
+        int cursor = 0;
+        for (int c = 0; c < contours.contourCount; c++) {
+            int start = contours.start(c);
+            int end = contours.end(c);
+            for (int i = start; i < end; i += 2) {
+                int next = i + 2 == end ? start : i + 2;
+                edges[cursor++] = contours.coords[i];
+                edges[cursor++] = contours.coords[i + 1];
+                edges[cursor++] = contours.coords[next];
+                edges[cursor++] = contours.coords[next + 1];
+            }
+        }
+        minY = contours.minY;
+        maxY = contours.maxY;
+        int bandCount = Math.max(1, count / EDGES_PER_BAND);
+        if (!(maxY > minY)) {
+            bandCount = 1;
+        }
+        bands = bandCount;
+        bandHeight = bandCount == 1 ? 1 : (maxY - minY) / bandCount;
+        bandStarts = new int[bandCount + 1];
+        for (int e = 0; e < count; e++) {
+            int from = band(Math.min(edges[e * 4 + 1], edges[e * 4 + 3]));
+            int to = band(Math.max(edges[e * 4 + 1], edges[e * 4 + 3]));
+            for (int b = from; b <= to; b++) {
+                bandStarts[b + 1]++;
+            }
+        }
+        for (int b = 0; b < bandCount; b++) {
+            bandStarts[b + 1] += bandStarts[b];
+        }
+        bandEdges = new int[bandStarts[bandCount]];
+        int[] fill = new int[bandCount];
+        for (int e = 0; e < count; e++) {
+            int from = band(Math.min(edges[e * 4 + 1], edges[e * 4 + 3]));
+            int to = band(Math.max(edges[e * 4 + 1], edges[e * 4 + 3]));
+            for (int b = from; b <= to; b++) {
+                bandEdges[bandStarts[b] + fill[b]++] = e;
+            }
+        }
+    }
+
+    private int band(double y) {
+        if (bands == 1) {
+            return 0;
+        }
+        int result = (int) ((y - minY) / bandHeight);
+        return Math.max(0, Math.min(bands - 1, result));
+    }
+
+    /**
+     * Get the winding number of a point - the number of edges crossing a ray
+     * from it in the positive x direction, counting edges going down the y
+     * axis as positive and edges going up as negative.
+     */
+    int winding(double x, double y) {
+        if (y < minY || y > maxY) {
+            return 0;
+        }
+        int b = band(y);
+        int result = 0;
+        for (int i = bandStarts[b]; i < bandStarts[b + 1]; i++) {
+            int off = bandEdges[i] * 4;
+            double y1 = edges[off + 1];
+            double y2 = edges[off + 3];
+            if ((y1 <= y) != (y2 <= y)) {
+                double x1 = edges[off];
+                double ex = x1 + ((y - y1) / (y2 - y1)) * (edges[off + 2] - x1);
+                if (ex > x) {
+                    result += y2 > y1 ? 1 : -1;
+                }
+            }
+        }
+        return result;
+    }
+
+    boolean contains(double x, double y) {
+        int w = winding(x, y);
+        return evenOdd ? (w & 1) != 0 : w != 0;
+    }
+}
@@ -0,0 +1,474 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.index;
+
+import com.mastfrog.geometry.CornerAngle;
+import static com.mastfrog.geometry.CornerAngle.ENCODING_MULTIPLIER;
+import com.mastfrog.geometry.PointIndex;
+import com.mastfrog.util.sort.Sort;
+import java.awt.Shape;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds shapes whose corners are alike, for locating duplicate and
+ * near-duplicate outlines (say, the same glyph repeated across a large
+ * drawing) without comparing every pair of shapes.
+ * <p>
+ * The <i>signature</i> of a shape is the sorted array of the corner angles
+ * at each of its vertices, each encoded with
+ * <code>CornerAngle.encodeNormalized()</code>, so the integer part of
+ * each value orders corners by their trailing angle and the fractional part
+ * holds the extent. Signatures do not depend on the position, size or
+ * winding direction of a shape, but do depend on its rotation - and since a
+ * corner is ordered by the lesser of the angles of its two sides, a corner
+ * with one side just above 0&deg; does not match the same corner rotated so
+ * that side is just below 360&deg;.
+ * </p><p>
+ * The signatures of all shapes are packed into one array, and every corner
+ * of every shape is also held in a single sorted array alongside the index of
+ * the shape it belongs to; a query binary-searches that array for the range of
+ * angles within tolerance of each of its corners, tallying hits per shape, and
+ * only shapes with enough hits have their signatures compared with the query.
+ * </p><p>
+ * Shapes are identified by their position in the collection the index was
+ * created from. Instances are immutable and safe to query from multiple
+ * threads.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class CornerSignatureIndex {
+
+    private final int[] starts;
+    private final double[] signatures;
+    private final double[] sorted;
+    private final int[] owners;
+
+    private CornerSignatureIndex(int[] starts, double[] signatures,
+            double[] sorted, int[] owners) {
+        this.starts = starts;
+        this.signatures = signatures;
+        this.sorted = sorted;
+        this.owners = owners;
+    }
+
+    /**
+     * Create an index over a collection of shapes.
+     *
+     * @param shapes The shapes
+     * @return An index
+     */
+    public static CornerSignatureIndex create(Collection<? extends Shape> shapes) {
+        int[] starts = new int[shapes.size() + 1];
+        double[] signatures = new double[Math.max(16, shapes.size() * 8)];
+        int shapeIndex = 0;
+        int total = 0;
+        for (Shape shape : shapes) {
+            double[] sig = signature(shape);
+            if (total + sig.length > signatures.length) {
+                signatures = Arrays.copyOf(signatures,
+                        Math.max(signatures.length * 2, total + sig.length));
+            }
+            System.arraycopy(sig, 0, signatures, total, sig.length);
+            total += sig.length;
+            starts[++shapeIndex] = total;
+        }
+        if (shapeIndex != shapes.size()) {
+            throw new IllegalArgumentException("Collection changed size "
+                    + "while indexing: " + shapes.size() + " vs " + shapeIndex);
+        }
+        signatures = Arrays.copyOf(signatures, total);
+        double[] sorted = Arrays.copyOf(signatures, total);
+        int[] owners = new int[total];
+        for (int i = 0; i < shapeIndex; i++) {
+            Arrays.fill(owners, starts[i], starts[i + 1], i);
+        }
+        Sort.multiSort(sorted, total, (a, b) -> {
+            int hold = owners[a];
+            owners[a] = owners[b];
+            owners[b] = hold;
+        });
+        return new CornerSignatureIndex(starts, signatures, sorted, owners);
+    }
+
+    /**
+     * Compute the signature of a shape - the sorted, encoded values of the
+     * corner angles at every vertex of each of its subpaths. Subpaths with
+     * fewer than three distinct vertices have no corners, and the control
+     * points of curves are ignored.
+     *
+     * @param shape A shape
+     * @return An array of encoded corner angles, in ascending order
+     */
+    public static double[] signature(Shape shape) {
+        PointIndex points = PointIndex.of(shape);
+        int count = points.pointCount();
+        double[] result = new double[count];
+        int cornerCount = 0;
+        for (int start = 0, end; start < count; start = end) {
+            end = start + 1;
+            while (end < count && points.segmentType(end) != SEG_MOVETO) {
+                end++;
+            }
+            // An explicit line back to the start is not a separate vertex
+            int last = end;
+            while (last - start > 1 && points.x(last - 1) == points.x(start)
+                    && points.y(last - 1) == points.y(start)) {
+                last--;
+            }
+            int length = last - start;
+            if (length < 3) {
+                continue;
+            }
+            for (int i = 0; i < length; i++) {
+                int prev = start + ((i + length - 1) % length);
+                int apex = start + i;
+                int next = start + ((i + 1) % length);
+                result[cornerCount++] = new CornerAngle(
+                        points.x(prev), points.y(prev),
+                        points.x(apex), points.y(apex),
+                        points.x(next), points.y(next)).encodeNormalized();
+            }
+        }
+        result = Arrays.copyOf(result, cornerCount);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Get the angle, in degrees, of an encoded corner, to within one unit of
+     * <code>1 / CornerAngle.ENCODING_MULTIPLIER</code>.
+     *
+     * @param encoded A value from a signature
+     * @return An angle
+     */
+    public static double encodedAngle(double encoded) {
+        return Math.floor(encoded) / ENCODING_MULTIPLIER;
+    }
+
+    /**
+     * Get the absolute extent, in degrees, of an encoded corner.
+     *
+     * @param encoded A value from a signature
+     * @return An extent
+     */
+    public static double encodedExtent(double encoded) {
+        return (encoded - Math.floor(encoded)) * 1000;
+    }
+
+    /**
+     * Get the number of shapes in this index.
+     *
+     * @return The shape count
+     */
+    public int size() {
+        return starts.length - 1;
+    }
+
+    /**
+     * Get the total number of corners of all shapes in this index.
+     *
+     * @return The corner count
+     */
+    public int cornerCount() {
+        return signatures.length;
+    }
+
+    /**
+     * Get the number of corners of one shape.
+     *
+     * @param shape The index of a shape
+     * @return The corner count
+     */
+    public int cornerCount(int shape) {
+        checkShape(shape);
+        return starts[shape + 1] - starts[shape];
+    }
+
+    /**
+     * Get a copy of the signature of one shape.
+     *
+     * @param shape The index of a shape
+     * @return An array of encoded corner angles, in ascending order
+     */
+    public double[] signature(int shape) {
+        checkShape(shape);
+        return Arrays.copyOfRange(signatures, starts[shape], starts[shape + 1]);
+    }
+
+    /**
+     * Find the shapes whose corners all match those of the passed shape,
+     * within tolerance.
+     *
+     * @param shape A shape
+     * @param angleTolerance The maximum difference, in degrees, between the
+     * angles of two corners for them to match
+     * @param extentTolerance The maximum difference, in degrees, between the
+     * extents of two corners for them to match
+     * @return The indices of matching shapes, in ascending order
+     */
+    public int[] similar(Shape shape, double angleTolerance,
+            double extentTolerance) {
+        return similar(signature(shape), angleTolerance, extentTolerance, 1);
+    }
+
+    /**
+     * Find the shapes whose corners all match those of a shape in this index,
+     * within tolerance; the result includes the shape itself.
+     *
+     * @param shape The index of a shape
+     * @param angleTolerance The maximum difference, in degrees, between the
+     * angles of two corners for them to match
+     * @param extentTolerance The maximum difference, in degrees, between the
+     * extents of two corners for them to match
+     * @return The indices of matching shapes, in ascending order
+     */
+    public int[] similar(int shape, double angleTolerance,
+            double extentTolerance) {
+        checkShape(shape);
+        checkTolerances(angleTolerance, extentTolerance);
+        return similar(signatures, starts[shape], starts[shape + 1],
+                angleTolerance, extentTolerance, 1, new int[size()]);
+    }
+
+    /**
+     * Find the shapes for which at least the passed fraction of corners can
+     * be paired one-to-one with the corners of the passed signature, within
+     * tolerance. The fraction is of whichever of the two corner counts is
+     * larger, so a fraction of 1 finds only shapes with the same number of
+     * corners, all of which match. Pairing is greedy, in angle order, so in
+     * rare cases with overlapping tolerances a pairing may be missed.
+     *
+     * @param signature A signature, as returned by <code>signature()</code>
+     * @param angleTolerance The maximum difference, in degrees, between the
+     * angles of two corners for them to match
+     * @param extentTolerance The maximum difference, in degrees, between the
+     * extents of two corners for them to match
+     * @param minMatchFraction The fraction of corners which must match,
+     * greater than zero and at most 1
+     * @return The indices of matching shapes, in ascending order
+     */
+    public int[] similar(double[] signature, double angleTolerance,
+            double extentTolerance, double minMatchFraction) {
+        if (!(minMatchFraction > 0 && minMatchFraction <= 1)) {
+            throw new IllegalArgumentException("Match fraction must be "
+                    + "> 0 and <= 1 but is " + minMatchFraction);
+        }
+        checkTolerances(angleTolerance, extentTolerance);
+        return similar(signature, 0, signature.length, angleTolerance,
+                extentTolerance, minMatchFraction, new int[size()]);
+    }
+
+    /**
+     * Partition the shapes in this index into groups whose corners all match,
+     * within tolerance. Matching is treated as transitive, so with a coarse
+     * tolerance a group may contain shapes which do not match each other
+     * directly.
+     *
+     * @param angleTolerance The maximum difference, in degrees, between the
+     * angles of two corners for them to match
+     * @param extentTolerance The maximum difference, in degrees, between the
+     * extents of two corners for them to match
+     * @return Every group of two or more matching shapes, each sorted
+     * ascending, ordered by their first member
+     */
+    public List<int[]> duplicateGroups(double angleTolerance,
+            double extentTolerance) {
+        checkTolerances(angleTolerance, extentTolerance);
+        int count = size();
+        int[] parents = new int[count];
+        for (int i = 0; i < count; i++) {
+            parents[i] = i;
+        }
+        int[] votes = new int[count];
+        for (int i = 0; i < count; i++) {
+            int[] matches = similar(signatures, starts[i], starts[i + 1],
+                    angleTolerance, extentTolerance, 1, votes);
+            for (int match : matches) {
+                int a = find(parents, i);
+                int b = find(parents, match);
+                if (a != b) {
+                    parents[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+        int[] sizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            sizes[find(parents, i)]++;
+        }
+        int[][] groups = new int[count][];
+        int[] fill = new int[count];
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int root = find(parents, i);
+            if (sizes[root] < 2) {
+                continue;
+            }
+            if (groups[root] == null) {
+                groups[root] = new int[sizes[root]];
+                result.add(groups[root]);
+            }
+            groups[root][fill[root]++] = i;
+        }
+        return result;
+    }
+
+    private static int find(int[] parents, int item) {
+        while (parents[item] != item) {
+            parents[item] = parents[parents[item]];
+            item = parents[item];
+        }
+        return item;
+    }
+
+    private int[] similar(double[] query, int from, int to,
+            double angleTolerance, double extentTolerance,
+            double minMatchFraction, int[] votes) {
+        int queryCount = to - from;
+        int shapeCount = size();
+        if (queryCount == 0) {
+            int[] result = new int[shapeCount];
+            int count = 0;
+            for (int i = 0; i < shapeCount; i++) {
+                if (starts[i] == starts[i + 1]) {
+                    result[count++] = i;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+        // Tally, for each shape, how many query corners have at least one
+        // corner of that shape within tolerance; lastVoter ensures a query
+        // corner votes once per shape
+        int[] lastVoter = new int[shapeCount];
+        Arrays.fill(lastVoter, -1);
+        int[] touched = new int[Math.min(shapeCount, 64)];
+        int touchedCount = 0;
+        double tol = angleTolerance * ENCODING_MULTIPLIER;
+        for (int q = from; q < to; q++) {
+            double key = Math.floor(query[q]);
+            double extent = encodedExtent(query[q]);
+            double hi = Math.floor(key + tol) + 1;
+            for (int i = lowerBound(sorted, Math.floor(key - tol));
+                    i < sorted.length && sorted[i] < hi; i++) {
+                int owner = owners[i];
+                if (lastVoter[owner] == q
+                        || Math.abs(encodedExtent(sorted[i]) - extent)
+                        > extentTolerance) {
+                    continue;
+                }
+                lastVoter[owner] = q;
+                if (votes[owner]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touched.length * 2);
+                    }
+                    touched[touchedCount++] = owner;
+                }
+            }
+        }
+        int[] result = new int[touchedCount];
+        int count = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int shape = touched[i];
+            int shapeCorners = starts[shape + 1] - starts[shape];
+            int required = (int) Math.ceil(minMatchFraction
+                    * Math.max(queryCount, shapeCorners) - 0.000001);
+            if (votes[shape] >= required && shapeCorners >= required
+                    && matchCount(query, from, to, signatures, starts[shape],
+                            starts[shape + 1], tol, extentTolerance)
+                    >= required) {
+                result[count++] = shape;
+            }
+            votes[shape] = 0;
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Greedily pair corners of two sorted signatures, walking both in angle
+     * order.
+     */
+    static int matchCount(double[] a, int aFrom, int aTo, double[] b,
+            int bFrom, int bTo, double tol, double extentTolerance) {
+        int result = 0;
+        int i = aFrom;
+        int j = bFrom;
+        while (i < aTo && j < bTo) {
+            double ka = Math.floor(a[i]);
+            double kb = Math.floor(b[j]);
+            if (Math.abs(ka - kb) <= tol && Math.abs(encodedExtent(a[i])
+                    - encodedExtent(b[j])) <= extentTolerance) {
+                result++;
+                i++;
+                j++;
+            } else if (ka <= kb) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private static int lowerBound(double[] values, double key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static void checkTolerances(double angleTolerance,
+            double extentTolerance) {
+        // Written so NaN fails too
+        if (!(angleTolerance >= 0) || !(extentTolerance >= 0)) {
+            throw new IllegalArgumentException("Tolerances must be >= 0 "
+                    + "but are " + angleTolerance + ", " + extentTolerance);
+        }
+    }
+
+    private void checkShape(int shape) {
+        if (shape < 0 || shape >= size()) {
+            throw new IndexOutOfBoundsException("No shape " + shape
+                    + " of " + size());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CornerSignatureIndex(" + size() + " shapes, "
+                + signatures.length + " corners)";
+    }
+}
@@ -0,0 +1,121 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.index;
+
+import com.mastfrog.geometry.Circle;
+import java.awt.Shape;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.Line2D;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+
+/**
+ * Computes the distance from a point to a shape, for nearest-neighbor
+ * queries; must return zero for points the shape contains, and must never
+ * return less than the distance from the point to the shape's bounding box.
+ *
+ * @author Tim Boudreau
+ */
+@FunctionalInterface
+public interface ShapeDistance {
+
+    /**
+     * Flatness used when flattening curves to compute distance to their
+     * outline.
+     */
+    static final double DEFAULT_FLATNESS = 0.25;
+
+    /**
+     * The default distance function: zero for contained points; for circles,
+     * the distance to the circumference; for anything else, the distance to
+     * the nearest segment of the flattened outline.
+     */
+    static final ShapeDistance DEFAULT = ShapeDistance::outlineDistance;
+
+    /**
+     * Get the distance from the point to the shape.
+     *
+     * @param shape A shape
+     * @param x An x coordinate
+     * @param y A y coordinate
+     * @return A distance &gt;= 0
+     */
+    double distance(Shape shape, double x, double y);
+
+    /**
+     * Compute the distance from a point to the outline of a shape, or zero if
+     * the shape contains the point.
+     *
+     * @param shape A shape
+     * @param x An x coordinate
+     * @param y A y coordinate
+     * @return A distance
+     */
+    static double outlineDistance(Shape shape, double x, double y) {
+        if (shape.contains(x, y)) {
+            return 0;
+        }
+        if (shape instanceof Circle) {
+            Circle circ = (Circle) shape;
+            return Math.max(0, circ.distanceToCenter(x, y) - circ.radius());
+        }
+        // Some shapes ignore the flatness argument to getPathIterator() and
+        // return curves, so flatten explicitly
+        PathIterator it = new FlatteningPathIterator(
+                shape.getPathIterator(null), DEFAULT_FLATNESS);
+        double[] data = new double[6];
+        double best = Double.MAX_VALUE;
+        double startX = 0;
+        double startY = 0;
+        double lastX = 0;
+        double lastY = 0;
+        boolean any = false;
+        while (!it.isDone()) {
+            int type = it.currentSegment(data);
+            switch (type) {
+                case SEG_MOVETO:
+                    startX = lastX = data[0];
+                    startY = lastY = data[1];
+                    if (!any) {
+                        best = Math.min(best, Line2D.ptSegDistSq(lastX, lastY, lastX, lastY, x, y));
+                        any = true;
+                    }
+                    break;
+                case SEG_CLOSE:
+                    best = Math.min(best, Line2D.ptSegDistSq(lastX, lastY, startX, startY, x, y));
+                    lastX = startX;
+                    lastY = startY;
+                    break;
+                default:
+                    // flattening path iterators only return lines
+                    best = Math.min(best, Line2D.ptSegDistSq(lastX, lastY, data[0], data[1], x, y));
+                    lastX = data[0];
+                    lastY = data[1];
+            }
+            it.next();
+        }
+        return any ? Math.sqrt(best) : Double.MAX_VALUE;
+    }
+}
@@ -0,0 +1,785 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.index;
+
+import com.mastfrog.util.sort.Sort;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * An R-tree over a collection of shapes, for answering "which shapes contain
+ * or intersect this point or rectangle" and "which shapes are nearest to this
+ * point" without a linear scan. Trees created from a collection with
+ * <code>create()</code> are bulk-loaded using sort-tile-recursive packing,
+ * so nodes are full and siblings barely overlap; shapes can also be added and
+ * removed incrementally.
+ * <p>
+ * Each node stores the bounding boxes of its children in a single packed
+ * array. The bounds of a shape are captured when it is added; if a shape is
+ * mutated after that, call <code>update()</code> so the index sees its new
+ * bounds. Shapes are matched for removal by identity. Query results are in no
+ * particular order, except for <code>nearest()</code>, which returns them
+ * nearest-first. Not thread-safe.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class ShapeIndex<S extends Shape> implements Iterable<S> {
+
+    public static final int DEFAULT_NODE_CAPACITY = 16;
+    private final int maxEntries;
+    private final int minEntries;
+    private Node root;
+    private int size;
+
+    /**
+     * Create an empty index with the default node capacity.
+     */
+    public ShapeIndex() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Create an empty index.
+     *
+     * @param nodeCapacity The maximum number of children per node, &gt;= 4
+     */
+    public ShapeIndex(int nodeCapacity) {
+        if (nodeCapacity < 4) {
+            throw new IllegalArgumentException("Node capacity must be at "
+                    + "least 4 but is " + nodeCapacity);
+        }
+        this.maxEntries = nodeCapacity;
+        this.minEntries = Math.max(2, (nodeCapacity * 2) / 5);
+        this.root = new Node(true, nodeCapacity);
+    }
+
+    /**
+     * Create an index bulk-loaded from a collection of shapes with the default
+     * node capacity.
+     *
+     * @param <S> The shape type
+     * @param shapes The shapes
+     * @return An index
+     */
+    public static <S extends Shape> ShapeIndex<S> create(Collection<? extends S> shapes) {
+        return create(DEFAULT_NODE_CAPACITY, shapes);
+    }
+
+    /**
+     * Create an index bulk-loaded from a collection of shapes.
+     *
+     * @param <S> The shape type
+     * @param nodeCapacity The maximum number of children per node, &gt;= 4
+     * @param shapes The shapes
+     * @return An index
+     */
+    public static <S extends Shape> ShapeIndex<S> create(int nodeCapacity, Collection<? extends S> shapes) {
+        ShapeIndex<S> result = new ShapeIndex<>(nodeCapacity);
+        int count = shapes.size();
+        if (count == 0) {
+            return result;
+        }
+        Object[] items = new Object[count];
+        double[] bounds = new double[count * 4];
+        int ix = 0;
+        for (S shape : shapes) {
+            items[ix] = shape;
+            boundsOf(shape, bounds, ix * 4);
+            ix++;
+        }
+        result.root = pack(items, bounds, count, nodeCapacity);
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Get the number of shapes in this index.
+     *
+     * @return The size
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all shapes.
+     */
+    public void clear() {
+        root = new Node(true, maxEntries);
+        size = 0;
+    }
+
+    /**
+     * Get the bounding box of all shapes in this index.
+     *
+     * @return A rectangle, empty if there are no shapes
+     */
+    public Rectangle2D bounds() {
+        if (size == 0) {
+            return new Rectangle2D.Double();
+        }
+        double[] b = new double[4];
+        root.computeBounds(b, 0);
+        return new Rectangle2D.Double(b[0], b[1], b[2] - b[0], b[3] - b[1]);
+    }
+
+    /**
+     * Add a shape.
+     *
+     * @param shape A shape
+     */
+    public void add(S shape) {
+        double[] b = new double[4];
+        boundsOf(shape, b, 0);
+        insert(shape, b[0], b[1], b[2], b[3], 0);
+        size++;
+    }
+
+    /**
+     * Remove a shape (matched by identity).
+     *
+     * @param shape A shape
+     * @return true if it was present
+     */
+    public boolean remove(S shape) {
+        double[] b = new double[4];
+        boundsOf(shape, b, 0);
+        List<Object> orphans = new ArrayList<>();
+        // Try the shape's current bounds first; if it was mutated since it
+        // was added, fall back to searching the entire tree
+        boolean removed = remove(root, shape, b, true, orphans)
+                || remove(root, shape, b, false, orphans);
+        if (removed) {
+            size--;
+            while (!root.leaf && root.count == 1) {
+                root = (Node) root.children[0];
+            }
+            for (Object orphan : orphans) {
+                reinsert(orphan);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Update the position of a shape whose bounds may have changed since it
+     * was added, adding it if not present.
+     *
+     * @param shape A shape
+     */
+    public void update(S shape) {
+        remove(shape);
+        add(shape);
+    }
+
+    /**
+     * Get the shapes which contain a point.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return A list of shapes
+     */
+    public List<S> containing(double x, double y) {
+        List<S> result = new ArrayList<>();
+        visitContaining(x, y, result::add);
+        return result;
+    }
+
+    /**
+     * Visit the shapes which contain a point.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param consumer A consumer
+     * @return The number of shapes visited
+     */
+    public int visitContaining(double x, double y, Consumer<? super S> consumer) {
+        return size == 0 ? 0 : visitContaining(root, x, y, consumer);
+    }
+
+    /**
+     * Get the shapes which intersect a rectangle.
+     *
+     * @param rect A rectangle
+     * @return A list of shapes
+     */
+    public List<S> intersecting(Rectangle2D rect) {
+        List<S> result = new ArrayList<>();
+        visitIntersecting(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight(), result::add);
+        return result;
+    }
+
+    /**
+     * Visit the shapes which intersect a rectangle, as determined by
+     * <code>Shape.intersects()</code>.
+     *
+     * @param x The rectangle x
+     * @param y The rectangle y
+     * @param w The rectangle width
+     * @param h The rectangle height
+     * @param consumer A consumer
+     * @return The number of shapes visited
+     */
+    public int visitIntersecting(double x, double y, double w, double h, Consumer<? super S> consumer) {
+        return size == 0 ? 0 : visitIntersecting(root, x, y, x + w, y + h, consumer);
+    }
+
+    /**
+     * Get the shapes whose bounding boxes intersect a rectangle, without
+     * testing the shapes themselves.
+     *
+     * @param rect A rectangle
+     * @return A list of shapes
+     */
+    public List<S> boundsIntersecting(Rectangle2D rect) {
+        List<S> result = new ArrayList<>();
+        if (size > 0) {
+            visitBoundsIntersecting(root, rect.getMinX(), rect.getMinY(),
+                    rect.getMaxX(), rect.getMaxY(), result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Get up to <code>k</code> shapes nearest to a point, nearest first,
+     * using the default distance function.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param k The maximum number of shapes
+     * @return A list of shapes
+     */
+    public List<S> nearest(double x, double y, int k) {
+        return nearest(x, y, k, Double.MAX_VALUE, ShapeDistance.DEFAULT);
+    }
+
+    /**
+     * Get up to <code>k</code> shapes nearest to a point, nearest first.
+     * Nodes are visited in order of the distance from the point to their
+     * bounding boxes, so only the shapes whose bounding boxes are nearer than
+     * the k'th-nearest shape are measured with the distance function.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param k The maximum number of shapes
+     * @param maxDistance Ignore shapes further away than this
+     * @param distance The distance function
+     * @return A list of shapes
+     */
+    @SuppressWarnings("unchecked")
+    public List<S> nearest(double x, double y, int k, double maxDistance, ShapeDistance distance) {
+        List<S> result = new ArrayList<>(Math.min(k, size));
+        if (size == 0 || k <= 0) {
+            return result;
+        }
+        PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+        queue.add(new QueueEntry(root, 0, false));
+        while (!queue.isEmpty() && result.size() < k) {
+            QueueEntry e = queue.poll();
+            if (e.distance > maxDistance) {
+                break;
+            }
+            if (e.exact) {
+                result.add((S) e.item);
+                continue;
+            }
+            if (e.item instanceof Node) {
+                Node n = (Node) e.item;
+                for (int i = 0; i < n.count; i++) {
+                    double d = boxDistance(n.bounds, i * 4, x, y);
+                    if (d <= maxDistance) {
+                        queue.add(new QueueEntry(n.children[i], d, false));
+                    }
+                }
+            } else {
+                // A shape whose box distance came up - measure it exactly
+                // and requeue it; anything still ahead of it in the queue is
+                // at least as near
+                double d = Math.max(e.distance, distance.distance((Shape) e.item, x, y));
+                queue.add(new QueueEntry(e.item, d, true));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<S> iterator() {
+        List<S> all = new ArrayList<>(size);
+        if (size > 0) {
+            collect(root, all);
+        }
+        Iterator<S> it = all.iterator();
+        return new Iterator<S>() {
+            S last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public S next() {
+                return last = it.next();
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException("next() not called, or "
+                            + "remove() already called");
+                }
+                ShapeIndex.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Get the height of the tree, for diagnostic purposes.
+     *
+     * @return The height, 1 for a tree containing only a leaf
+     */
+    public int height() {
+        int result = 1;
+        Node n = root;
+        while (!n.leaf) {
+            n = (Node) n.children[0];
+            result++;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ShapeIndex(" + size + " shapes, height " + height() + ")";
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(Node node, List<S> into) {
+        for (int i = 0; i < node.count; i++) {
+            if (node.leaf) {
+                into.add((S) node.children[i]);
+            } else {
+                collect((Node) node.children[i], into);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int visitContaining(Node node, double x, double y, Consumer<? super S> consumer) {
+        int result = 0;
+        double[] b = node.bounds;
+        for (int i = 0; i < node.count; i++) {
+            int off = i * 4;
+            if (x < b[off] || y < b[off + 1] || x > b[off + 2] || y > b[off + 3]) {
+                continue;
+            }
+            if (node.leaf) {
+                S shape = (S) node.children[i];
+                if (shape.contains(x, y)) {
+                    consumer.accept(shape);
+                    result++;
+                }
+            } else {
+                result += visitContaining((Node) node.children[i], x, y, consumer);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int visitIntersecting(Node node, double minX, double minY, double maxX, double maxY, Consumer<? super S> consumer) {
+        int result = 0;
+        double[] b = node.bounds;
+        for (int i = 0; i < node.count; i++) {
+            int off = i * 4;
+            if (maxX < b[off] || maxY < b[off + 1] || minX > b[off + 2] || minY > b[off + 3]) {
+                continue;
+            }
+            if (node.leaf) {
+                S shape = (S) node.children[i];
+                if (shape.intersects(minX, minY, maxX - minX, maxY - minY)) {
+                    consumer.accept(shape);
+                    result++;
+                }
+            } else {
+                result += visitIntersecting((Node) node.children[i], minX, minY, maxX, maxY, consumer);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visitBoundsIntersecting(Node node, double minX, double minY, double maxX, double maxY, Consumer<? super S> consumer) {
+        double[] b = node.bounds;
+        for (int i = 0; i < node.count; i++) {
+            int off = i * 4;
+            if (maxX < b[off] || maxY < b[off + 1] || minX > b[off + 2] || minY > b[off + 3]) {
+                continue;
+            }
+            if (node.leaf) {
+                consumer.accept((S) node.children[i]);
+            } else {
+                visitBoundsIntersecting((Node) node.children[i], minX, minY, maxX, maxY, consumer);
+            }
+        }
+    }
+
+    private static double boxDistance(double[] b, int off, double x, double y) {
+        double dx = Math.max(0, Math.max(b[off] - x, x - b[off + 2]));
+        double dy = Math.max(0, Math.max(b[off + 1] - y, y - b[off + 3]));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static void boundsOf(Shape shape, double[] into, int at) {
+        Rectangle2D r = shape.getBounds2D();
+        into[at] = r.getMinX();
+        into[at + 1] = r.getMinY();
+        into[at + 2] = r.getMaxX();
+        into[at + 3] = r.getMaxY();
+    }
+
+    private void reinsert(Object orphan) {
+        double[] b = new double[4];
+        if (orphan instanceof Node) {
+            Node n = (Node) orphan;
+            n.computeBounds(b, 0);
+            insert(n, b[0], b[1], b[2], b[3], nodeHeight(n));
+        } else {
+            boundsOf((Shape) orphan, b, 0);
+            insert(orphan, b[0], b[1], b[2], b[3], 0);
+        }
+    }
+
+    private static int nodeHeight(Node n) {
+        int result = 0;
+        while (!n.leaf) {
+            n = (Node) n.children[0];
+            result++;
+        }
+        // height of the level the node's children belong at
+        return result + 1;
+    }
+
+    /**
+     * Insert an item at the level where nodes hold items of the passed
+     * height (0 for shapes, 1 for leaf nodes and so forth).
+     */
+    private void insert(Object item, double minX, double minY, double maxX, double maxY, int level) {
+        Node split = insert(root, item, minX, minY, maxX, maxY, height() - 1 - level);
+        if (split != null) {
+            Node newRoot = new Node(false, maxEntries);
+            double[] b = new double[4];
+            root.computeBounds(b, 0);
+            newRoot.add(root, b[0], b[1], b[2], b[3]);
+            split.computeBounds(b, 0);
+            newRoot.add(split, b[0], b[1], b[2], b[3]);
+            root = newRoot;
+        }
+    }
+
+    private Node insert(Node node, Object item, double minX, double minY, double maxX, double maxY, int depth) {
+        if (depth == 0) {
+            node.add(item, minX, minY, maxX, maxY);
+            return node.count > maxEntries ? split(node) : null;
+        }
+        int best = chooseSubtree(node, minX, minY, maxX, maxY);
+        Node child = (Node) node.children[best];
+        Node split = insert(child, item, minX, minY, maxX, maxY, depth - 1);
+        child.computeBounds(node.bounds, best * 4);
+        if (split != null) {
+            double[] b = new double[4];
+            split.computeBounds(b, 0);
+            node.add(split, b[0], b[1], b[2], b[3]);
+            return node.count > maxEntries ? split(node) : null;
+        }
+        return null;
+    }
+
+    private static int chooseSubtree(Node node, double minX, double minY, double maxX, double maxY) {
+        int best = 0;
+        double bestEnlargement = Double.MAX_VALUE;
+        double bestArea = Double.MAX_VALUE;
+        double[] b = node.bounds;
+        for (int i = 0; i < node.count; i++) {
+            int off = i * 4;
+            double area = (b[off + 2] - b[off]) * (b[off + 3] - b[off + 1]);
+            double enlarged = (Math.max(maxX, b[off + 2]) - Math.min(minX, b[off]))
+                    * (Math.max(maxY, b[off + 3]) - Math.min(minY, b[off + 1]));
+            double enlargement = enlarged - area;
+            if (enlargement < bestEnlargement || (enlargement == bestEnlargement && area < bestArea)) {
+                best = i;
+                bestEnlargement = enlargement;
+                bestArea = area;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quadratic split: moves roughly half the entries of an overfull node
+     * into a new sibling, which is returned.
+     */
+    private Node split(Node node) {
+        int count = node.count;
+        Object[] items = node.children.clone();
+        double[] b = node.bounds.clone();
+        // Pick the pair of seeds which would waste the most area together
+        int seedA = 0;
+        int seedB = 1;
+        double worst = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                double waste = unionArea(b, i * 4, b, j * 4) - area(b, i * 4) - area(b, j * 4);
+                if (waste > worst) {
+                    worst = waste;
+                    seedA = i;
+                    seedB = j;
+                }
+            }
+        }
+        Node sibling = new Node(node.leaf, maxEntries);
+        node.count = 0;
+        node.add(items[seedA], b[seedA * 4], b[seedA * 4 + 1], b[seedA * 4 + 2], b[seedA * 4 + 3]);
+        sibling.add(items[seedB], b[seedB * 4], b[seedB * 4 + 1], b[seedB * 4 + 2], b[seedB * 4 + 3]);
+        double[] aBounds = new double[4];
+        double[] bBounds = new double[4];
+        System.arraycopy(b, seedA * 4, aBounds, 0, 4);
+        System.arraycopy(b, seedB * 4, bBounds, 0, 4);
+        int remaining = count - 2;
+        for (int i = 0; i < count; i++) {
+            if (i == seedA || i == seedB) {
+                continue;
+            }
+            int off = i * 4;
+            Node target;
+            if (node.count + remaining == minEntries) {
+                target = node;
+            } else if (sibling.count + remaining == minEntries) {
+                target = sibling;
+            } else {
+                double growA = unionArea(aBounds, 0, b, off) - area(aBounds, 0);
+                double growB = unionArea(bBounds, 0, b, off) - area(bBounds, 0);
+                target = growA < growB || (growA == growB && node.count <= sibling.count) ? node : sibling;
+            }
+            double[] tb = target == node ? aBounds : bBounds;
+            tb[0] = Math.min(tb[0], b[off]);
+            tb[1] = Math.min(tb[1], b[off + 1]);
+            tb[2] = Math.max(tb[2], b[off + 2]);
+            tb[3] = Math.max(tb[3], b[off + 3]);
+            target.add(items[i], b[off], b[off + 1], b[off + 2], b[off + 3]);
+            remaining--;
+        }
+        for (int i = node.count; i < node.children.length; i++) {
+            node.children[i] = null;
+        }
+        return sibling;
+    }
+
+    private static double area(double[] b, int off) {
+        return (b[off + 2] - b[off]) * (b[off + 3] - b[off + 1]);
+    }
+
+    private static double unionArea(double[] a, int aOff, double[] b, int bOff) {
+        return (Math.max(a[aOff + 2], b[bOff + 2]) - Math.min(a[aOff], b[bOff]))
+                * (Math.max(a[aOff + 3], b[bOff + 3]) - Math.min(a[aOff + 1], b[bOff + 1]));
+    }
+
+    private boolean remove(Node node, Object shape, double[] b, boolean useBounds, List<Object> orphans) {
+        double[] nb = node.bounds;
+        for (int i = 0; i < node.count; i++) {
+            int off = i * 4;
+            if (node.leaf) {
+                if (node.children[i] == shape) {
+                    node.removeAt(i);
+                    return true;
+                }
+                continue;
+            }
+            if (useBounds && (b[0] < nb[off] || b[1] < nb[off + 1]
+                    || b[2] > nb[off + 2] || b[3] > nb[off + 3])) {
+                continue;
+            }
+            Node child = (Node) node.children[i];
+            if (remove(child, shape, b, useBounds, orphans)) {
+                if (child.count < minEntries) {
+                    // Condense: dissolve the underfull child and reinsert
+                    // its contents
+                    for (int j = 0; j < child.count; j++) {
+                        orphans.add(child.children[j]);
+                    }
+                    node.removeAt(i);
+                } else {
+                    child.computeBounds(node.bounds, off);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sort-tile-recursive packing of a set of items into a tree, bottom up.
+     */
+    private static Node pack(Object[] items, double[] bounds, int count, int capacity) {
+        boolean leaf = true;
+        while (count > capacity) {
+            int nodeCount = (count + capacity - 1) / capacity;
+            int slices = (int) Math.ceil(Math.sqrt(nodeCount));
+            int sliceSize = slices * capacity;
+            sortByCenter(items, bounds, 0, count, 0);
+            Object[] nodes = new Object[nodeCount];
+            double[] nodeBounds = new double[nodeCount * 4];
+            int nodeIx = 0;
+            for (int sliceStart = 0; sliceStart < count; sliceStart += sliceSize) {
+                int sliceEnd = Math.min(count, sliceStart + sliceSize);
+                sortByCenter(items, bounds, sliceStart, sliceEnd, 1);
+                for (int start = sliceStart; start < sliceEnd; start += capacity) {
+                    int end = Math.min(sliceEnd, start + capacity);
+                    Node n = new Node(leaf, capacity);
+                    for (int i = start; i < end; i++) {
+                        n.add(items[i], bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+                    }
+                    n.computeBounds(nodeBounds, nodeIx * 4);
+                    nodes[nodeIx++] = n;
+                }
+            }
+            items = nodes;
+            bounds = nodeBounds;
+            count = nodeIx;
+            leaf = false;
+        }
+        Node result = new Node(leaf, capacity);
+        for (int i = 0; i < count; i++) {
+            result.add(items[i], bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+        }
+        return result;
+    }
+
+    private static void sortByCenter(Object[] items, double[] bounds, int start, int end, int axis) {
+        double[] keys = new double[end];
+        for (int i = start; i < end; i++) {
+            keys[i] = bounds[i * 4 + axis] + bounds[i * 4 + 2 + axis];
+        }
+        Sort.multiSort(keys, start, end, (a, b) -> {
+            Object hold = items[a];
+            items[a] = items[b];
+            items[b] = hold;
+            int aOff = a * 4;
+            int bOff = b * 4;
+            for (int i = 0; i < 4; i++) {
+                double h = bounds[aOff + i];
+                bounds[aOff + i] = bounds[bOff + i];
+                bounds[bOff + i] = h;
+            }
+        });
+    }
+
+    static final class Node {
+
+        final boolean leaf;
+        final Object[] children;
+        final double[] bounds;
+        int count;
+
+        Node(boolean leaf, int capacity) {
+            this.leaf = leaf;
+            // one extra slot so a node can overflow before being split
+            children = new Object[capacity + 1];
+            bounds = new double[(capacity + 1) * 4];
+        }
+
+        void add(Object child, double minX, double minY, double maxX, double maxY) {
+            int off = count * 4;
+            children[count++] = child;
+            bounds[off] = minX;
+            bounds[off + 1] = minY;
+            bounds[off + 2] = maxX;
+            bounds[off + 3] = maxY;
+        }
+
+        void removeAt(int index) {
+            int last = count - 1;
+            if (index != last) {
+                children[index] = children[last];
+                System.arraycopy(bounds, last * 4, bounds, index * 4, 4);
+            }
+            children[last] = null;
+            count--;
+        }
+
+        void computeBounds(double[] into, int at) {
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                int off = i * 4;
+                minX = Math.min(minX, bounds[off]);
+                minY = Math.min(minY, bounds[off + 1]);
+                maxX = Math.max(maxX, bounds[off + 2]);
+                maxY = Math.max(maxY, bounds[off + 3]);
+            }
+            into[at] = minX;
+            into[at + 1] = minY;
+            into[at + 2] = maxX;
+            into[at + 3] = maxY;
+        }
+    }
+
+    private static final class QueueEntry implements Comparable<QueueEntry> {
+
+        final Object item;
+        final double distance;
+        final boolean exact;
+
+        QueueEntry(Object item, double distance, boolean exact) {
+            this.item = item;
+            this.distance = distance;
+            this.exact = exact;
+        }
+
+        @Override
+        public int compareTo(QueueEntry o) {
+            int result = Double.compare(distance, o.distance);
+            if (result == 0 && exact != o.exact) {
+                // prefer completed results over unmeasured ones at equal
+                // distance
+                result = exact ? -1 : 1;
+            }
+            return result;
+        }
+    }
+}
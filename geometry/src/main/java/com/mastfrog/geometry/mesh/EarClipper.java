@@ -0,0 +1,661 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import java.util.Arrays;
+
+/**
+ * Ear-clipping triangulation over a doubly-linked ring of vertices stored in
+ * parallel int arrays. Holes are first joined to the outer contour by a pair
+ * of coincident bridge edges to the nearest visible outer vertex, leaving a
+ * single ring. For rings of more than 80 points, candidate vertices which
+ * could invalidate an ear are found through a z-order (Morton code) index of
+ * the ring.
+ * <p>
+ * When no ear can be found - which happens only with degenerate or
+ * self-intersecting input - collinear and duplicate points are filtered, then
+ * local self-intersections are cut off, and finally the ring is split along
+ * a valid diagonal and each half triangulated separately; so bad input
+ * produces a plausible mesh rather than an exception.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+final class EarClipper {
+
+    private static final int HASH_THRESHOLD = 80;
+    // Nodes of the vertex ring
+    private double[] xs;
+    private double[] ys;
+    private int[] vertex;
+    private int[] prev;
+    private int[] next;
+    private int[] z;
+    private int[] prevZ;
+    private int[] nextZ;
+    private boolean[] steiner;
+    private int nodeCount;
+    // Output
+    private TriangleSink sink;
+    private int base;
+    // Z-order hashing, if used
+    private double minX;
+    private double minY;
+    private double invSize;
+
+    EarClipper(int capacity) {
+        capacity = Math.max(8, capacity);
+        xs = new double[capacity];
+        ys = new double[capacity];
+        vertex = new int[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+        z = new int[capacity];
+        prevZ = new int[capacity];
+        nextZ = new int[capacity];
+        steiner = new boolean[capacity];
+    }
+
+    void triangulate(double[] data, int[] holeStarts, int vertexBase,
+            TriangleSink sink) {
+        this.sink = sink;
+        base = vertexBase;
+        nodeCount = 0;
+        int outerEnd = holeStarts.length > 0 ? holeStarts[0] * 2
+                : data.length;
+        int outer = linkedList(data, 0, outerEnd, true);
+        if (outer < 0 || next[outer] == prev[outer]) {
+            return;
+        }
+        if (holeStarts.length > 0) {
+            outer = eliminateHoles(data, holeStarts, outer);
+        }
+        invSize = 0;
+        if (data.length > HASH_THRESHOLD * 2) {
+            double nx = data[0];
+            double ny = data[1];
+            double xx = nx;
+            double xy = ny;
+            for (int i = 2; i < outerEnd; i += 2) {
+                nx = Math.min(nx, data[i]);
+                ny = Math.min(ny, data[i + 1]);
+                xx = Math.max(xx, data[i]);
+                xy = Math.max(xy, data[i + 1]);
+            }
+            minX = nx;
+            minY = ny;
+            double size = Math.max(xx - nx, xy - ny);
+            invSize = size != 0 ? 32767 / size : 0;
+        }
+        earcutLinked(outer, 0);
+    }
+    private int linkedList(double[] data, int start, int end,
+            boolean clockwise) {
+        int last = -1;
+        if (clockwise == (signedArea(data, start, end) > 0)) {
+            for (int i = start; i < end; i += 2) {
+                last = insertNode(i / 2, data[i], data[i + 1], last);
+            }
+        } else {
+            for (int i = end - 2; i >= start; i -= 2) {
+                last = insertNode(i / 2, data[i], data[i + 1], last);
+            }
+        }
+        if (last >= 0 && equal(last, next[last])) {
+            removeNode(last);
+            last = next[last];
+        }
+        return last;
+    }
+
+    private static double signedArea(double[] data, int start, int end) {
+        double sum = 0;
+        for (int i = start, j = end - 2; i < end; j = i, i += 2) {
+            sum += (data[j] - data[i]) * (data[i + 1] + data[j + 1]);
+        }
+        return sum;
+    }
+
+    private int filterPoints(int start, int end) {
+        if (start < 0) {
+            return start;
+        }
+        if (end < 0) {
+            end = start;
+        }
+        int p = start;
+        boolean again;
+        do {
+            again = false;
+            if (!steiner[p] && (equal(p, next[p])
+                    || area(prev[p], p, next[p]) == 0)) {
+                removeNode(p);
+                p = end = prev[p];
+                if (p == next[p]) {
+                    break;
+                }
+                again = true;
+            } else {
+                p = next[p];
+            }
+        } while (again || p != end);
+        return end;
+    }
+
+    private void earcutLinked(int ear, int pass) {
+        if (ear < 0) {
+            return;
+        }
+        if (pass == 0 && invSize != 0) {
+            indexCurve(ear);
+        }
+        int stop = ear;
+        while (prev[ear] != next[ear]) {
+            int p = prev[ear];
+            int n = next[ear];
+            if (invSize != 0 ? isEarHashed(ear) : isEar(ear)) {
+                emit(vertex[p], vertex[ear], vertex[n]);
+                removeNode(ear);
+                ear = next[n];
+                stop = next[n];
+                continue;
+            }
+            ear = n;
+            if (ear == stop) {
+                switch (pass) {
+                    case 0:
+                        earcutLinked(filterPoints(ear, -1), 1);
+                        break;
+                    case 1:
+                        ear = cureLocalIntersections(filterPoints(ear, -1));
+                        earcutLinked(ear, 2);
+                        break;
+                    default:
+                        splitEarcut(ear);
+                }
+                break;
+            }
+        }
+    }
+
+    private boolean isEar(int ear) {
+        int a = prev[ear];
+        int c = next[ear];
+        if (area(a, ear, c) >= 0) {
+            return false;
+        }
+        double ax = xs[a], ay = ys[a], bx = xs[ear], by = ys[ear],
+                cx = xs[c], cy = ys[c];
+        double x0 = Math.min(ax, Math.min(bx, cx));
+        double y0 = Math.min(ay, Math.min(by, cy));
+        double x1 = Math.max(ax, Math.max(bx, cx));
+        double y1 = Math.max(ay, Math.max(by, cy));
+        int p = next[c];
+        while (p != a) {
+            if (xs[p] >= x0 && xs[p] <= x1 && ys[p] >= y0 && ys[p] <= y1
+                    && pointInTriangle(ax, ay, bx, by, cx, cy, xs[p], ys[p])
+                    && area(prev[p], p, next[p]) >= 0) {
+                return false;
+            }
+            p = next[p];
+        }
+        return true;
+    }
+
+    private boolean isEarHashed(int ear) {
+        int a = prev[ear];
+        int c = next[ear];
+        if (area(a, ear, c) >= 0) {
+            return false;
+        }
+        double ax = xs[a], ay = ys[a], bx = xs[ear], by = ys[ear],
+                cx = xs[c], cy = ys[c];
+        double x0 = Math.min(ax, Math.min(bx, cx));
+        double y0 = Math.min(ay, Math.min(by, cy));
+        double x1 = Math.max(ax, Math.max(bx, cx));
+        double y1 = Math.max(ay, Math.max(by, cy));
+        int minZ = zOrder(x0, y0);
+        int maxZ = zOrder(x1, y1);
+        int p = prevZ[ear];
+        int n = nextZ[ear];
+        // Look in both directions along the z-order curve at once
+        while (p >= 0 && z[p] >= minZ && n >= 0 && z[n] <= maxZ) {
+            if (blocks(p, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1)) {
+                return false;
+            }
+            p = prevZ[p];
+            if (blocks(n, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1)) {
+                return false;
+            }
+            n = nextZ[n];
+        }
+        while (p >= 0 && z[p] >= minZ) {
+            if (blocks(p, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1)) {
+                return false;
+            }
+            p = prevZ[p];
+        }
+        while (n >= 0 && z[n] <= maxZ) {
+            if (blocks(n, a, c, ax, ay, bx, by, cx, cy, x0, y0, x1, y1)) {
+                return false;
+            }
+            n = nextZ[n];
+        }
+        return true;
+    }
+
+    private boolean blocks(int p, int a, int c, double ax, double ay,
+            double bx, double by, double cx, double cy, double x0, double y0,
+            double x1, double y1) {
+        return p != a && p != c && xs[p] >= x0 && xs[p] <= x1
+                && ys[p] >= y0 && ys[p] <= y1
+                && pointInTriangle(ax, ay, bx, by, cx, cy, xs[p], ys[p])
+                && area(prev[p], p, next[p]) >= 0;
+    }
+
+    private int cureLocalIntersections(int start) {
+        int p = start;
+        do {
+            int a = prev[p];
+            int b = next[next[p]];
+            if (!equal(a, b) && intersects(a, p, next[p], b)
+                    && locallyInside(a, b) && locallyInside(b, a)) {
+                emit(vertex[a], vertex[p], vertex[b]);
+                removeNode(p);
+                removeNode(next[p]);
+                p = start = b;
+            }
+            p = next[p];
+        } while (p != start);
+        return filterPoints(p, -1);
+    }
+
+    private void splitEarcut(int start) {
+        int a = start;
+        do {
+            int b = next[next[a]];
+            while (b != prev[a]) {
+                if (vertex[a] != vertex[b] && isValidDiagonal(a, b)) {
+                    int c = splitPolygon(a, b);
+                    a = filterPoints(a, next[a]);
+                    c = filterPoints(c, next[c]);
+                    earcutLinked(a, 0);
+                    earcutLinked(c, 0);
+                    return;
+                }
+                b = next[b];
+            }
+            a = next[a];
+        } while (a != start);
+    }
+
+    private int eliminateHoles(double[] data, int[] holeStarts, int outer) {
+        int[] queue = new int[holeStarts.length];
+        int queueSize = 0;
+        for (int i = 0; i < holeStarts.length; i++) {
+            int start = holeStarts[i] * 2;
+            int end = i < holeStarts.length - 1 ? holeStarts[i + 1] * 2
+                    : data.length;
+            int list = linkedList(data, start, end, false);
+            if (list < 0) {
+                continue;
+            }
+            if (list == next[list]) {
+                steiner[list] = true;
+            }
+            queue[queueSize++] = leftmost(list);
+        }
+        // Holes are few; insertion sort them left to right
+        for (int i = 1; i < queueSize; i++) {
+            int node = queue[i];
+            int j = i - 1;
+            while (j >= 0 && xs[queue[j]] > xs[node]) {
+                queue[j + 1] = queue[j];
+                j--;
+            }
+            queue[j + 1] = node;
+        }
+        for (int i = 0; i < queueSize; i++) {
+            outer = eliminateHole(queue[i], outer);
+        }
+        return outer;
+    }
+
+    private int eliminateHole(int hole, int outer) {
+        int bridge = findHoleBridge(hole, outer);
+        if (bridge < 0) {
+            return outer;
+        }
+        int bridgeReverse = splitPolygon(bridge, hole);
+        filterPoints(bridgeReverse, next[bridgeReverse]);
+        return filterPoints(bridge, next[bridge]);
+    }
+
+    private int findHoleBridge(int hole, int outer) {
+        int p = outer;
+        double hx = xs[hole];
+        double hy = ys[hole];
+        double qx = Double.NEGATIVE_INFINITY;
+        int m = -1;
+        // Find the segment nearest to the left of the hole's leftmost point
+        // along a horizontal ray, and the endpoint of it furthest left
+        do {
+            int n = next[p];
+            if (hy <= ys[p] && hy >= ys[n] && ys[n] != ys[p]) {
+                double x = xs[p] + (hy - ys[p]) * (xs[n] - xs[p])
+                        / (ys[n] - ys[p]);
+                if (x <= hx && x > qx) {
+                    qx = x;
+                    m = xs[p] < xs[n] ? p : n;
+                    if (x == hx) {
+                        // The hole touches the outer segment
+                        return m;
+                    }
+                }
+            }
+            p = n;
+        } while (p != outer);
+        if (m < 0) {
+            return -1;
+        }
+        // Look for points inside the triangle of the hole point, the
+        // intersection and the endpoint; if there are any, the one with
+        // the smallest angle to the ray is the connection point
+        int stop = m;
+        double mx = xs[m];
+        double my = ys[m];
+        double tanMin = Double.POSITIVE_INFINITY;
+        p = m;
+        do {
+            if (hx >= xs[p] && xs[p] >= mx && hx != xs[p]
+                    && pointInTriangle(hy < my ? hx : qx, hy, mx, my,
+                            hy < my ? qx : hx, hy, xs[p], ys[p])) {
+                double tan = Math.abs(hy - ys[p]) / (hx - xs[p]);
+                if (locallyInside(p, hole) && (tan < tanMin
+                        || (tan == tanMin && (xs[p] > xs[m]
+                        || (xs[p] == xs[m] && sectorContainsSector(m, p)))))) {
+                    m = p;
+                    tanMin = tan;
+                }
+            }
+            p = next[p];
+        } while (p != stop);
+        return m;
+    }
+
+    private boolean sectorContainsSector(int m, int p) {
+        return area(prev[m], m, prev[p]) < 0 && area(next[p], m, next[m]) < 0;
+    }
+
+    private void indexCurve(int start) {
+        int p = start;
+        do {
+            if (z[p] == 0) {
+                z[p] = zOrder(xs[p], ys[p]);
+            }
+            prevZ[p] = prev[p];
+            nextZ[p] = next[p];
+            p = next[p];
+        } while (p != start);
+        nextZ[prevZ[p]] = -1;
+        prevZ[p] = -1;
+        sortLinked(p);
+    }
+
+    /**
+     * Merge sort of the z-order list, which needs no extra storage.
+     */
+    private void sortLinked(int list) {
+        int inSize = 1;
+        int numMerges;
+        do {
+            int p = list;
+            list = -1;
+            int tail = -1;
+            numMerges = 0;
+            while (p >= 0) {
+                numMerges++;
+                int q = p;
+                int pSize = 0;
+                for (int i = 0; i < inSize; i++) {
+                    pSize++;
+                    q = nextZ[q];
+                    if (q < 0) {
+                        break;
+                    }
+                }
+                int qSize = inSize;
+                while (pSize > 0 || (qSize > 0 && q >= 0)) {
+                    int e;
+                    if (pSize != 0 && (qSize == 0 || q < 0 || z[p] <= z[q])) {
+                        e = p;
+                        p = nextZ[p];
+                        pSize--;
+                    } else {
+                        e = q;
+                        q = nextZ[q];
+                        qSize--;
+                    }
+                    if (tail >= 0) {
+                        nextZ[tail] = e;
+                    } else {
+                        list = e;
+                    }
+                    prevZ[e] = tail;
+                    tail = e;
+                }
+                p = q;
+            }
+            nextZ[tail] = -1;
+            inSize *= 2;
+        } while (numMerges > 1);
+    }
+
+    private int zOrder(double px, double py) {
+        int x = (int) ((px - minX) * invSize);
+        int y = (int) ((py - minY) * invSize);
+        x = (x | (x << 8)) & 0x00FF00FF;
+        x = (x | (x << 4)) & 0x0F0F0F0F;
+        x = (x | (x << 2)) & 0x33333333;
+        x = (x | (x << 1)) & 0x55555555;
+        y = (y | (y << 8)) & 0x00FF00FF;
+        y = (y | (y << 4)) & 0x0F0F0F0F;
+        y = (y | (y << 2)) & 0x33333333;
+        y = (y | (y << 1)) & 0x55555555;
+        return x | (y << 1);
+    }
+
+    private int leftmost(int start) {
+        int p = start;
+        int result = start;
+        do {
+            if (xs[p] < xs[result]
+                    || (xs[p] == xs[result] && ys[p] < ys[result])) {
+                result = p;
+            }
+            p = next[p];
+        } while (p != start);
+        return result;
+    }
+
+    private static boolean pointInTriangle(double ax, double ay, double bx,
+            double by, double cx, double cy, double px, double py) {
+        return (cx - px) * (ay - py) >= (ax - px) * (cy - py)
+                && (ax - px) * (by - py) >= (bx - px) * (ay - py)
+                && (bx - px) * (cy - py) >= (cx - px) * (by - py);
+    }
+
+    private boolean isValidDiagonal(int a, int b) {
+        return vertex[next[a]] != vertex[b] && vertex[prev[a]] != vertex[b]
+                && !intersectsPolygon(a, b)
+                && ((locallyInside(a, b) && locallyInside(b, a)
+                && middleInside(a, b)
+                && (area(prev[a], a, prev[b]) != 0 || area(a, prev[b], b) != 0))
+                || (equal(a, b) && area(prev[a], a, next[a]) > 0
+                && area(prev[b], b, next[b]) > 0));
+    }
+
+    private double area(int p, int q, int r) {
+        return (ys[q] - ys[p]) * (xs[r] - xs[q])
+                - (xs[q] - xs[p]) * (ys[r] - ys[q]);
+    }
+
+    private boolean equal(int a, int b) {
+        return xs[a] == xs[b] && ys[a] == ys[b];
+    }
+
+    private boolean intersects(int p1, int q1, int p2, int q2) {
+        int o1 = sign(area(p1, q1, p2));
+        int o2 = sign(area(p1, q1, q2));
+        int o3 = sign(area(p2, q2, p1));
+        int o4 = sign(area(p2, q2, q1));
+        if (o1 != o2 && o3 != o4) {
+            return true;
+        }
+        return (o1 == 0 && onSegment(p1, p2, q1))
+                || (o2 == 0 && onSegment(p1, q2, q1))
+                || (o3 == 0 && onSegment(p2, p1, q2))
+                || (o4 == 0 && onSegment(p2, q1, q2));
+    }
+
+    private boolean onSegment(int p, int q, int r) {
+        return xs[q] <= Math.max(xs[p], xs[r]) && xs[q] >= Math.min(xs[p], xs[r])
+                && ys[q] <= Math.max(ys[p], ys[r])
+                && ys[q] >= Math.min(ys[p], ys[r]);
+    }
+
+    private static int sign(double val) {
+        return val > 0 ? 1 : val < 0 ? -1 : 0;
+    }
+
+    private boolean intersectsPolygon(int a, int b) {
+        int p = a;
+        do {
+            int n = next[p];
+            if (vertex[p] != vertex[a] && vertex[n] != vertex[a]
+                    && vertex[p] != vertex[b] && vertex[n] != vertex[b]
+                    && intersects(p, n, a, b)) {
+                return true;
+            }
+            p = n;
+        } while (p != a);
+        return false;
+    }
+
+    private boolean locallyInside(int a, int b) {
+        return area(prev[a], a, next[a]) < 0
+                ? area(a, b, next[a]) >= 0 && area(a, prev[a], b) >= 0
+                : area(a, b, prev[a]) < 0 || area(a, next[a], b) < 0;
+    }
+
+    private boolean middleInside(int a, int b) {
+        int p = a;
+        boolean inside = false;
+        double px = (xs[a] + xs[b]) / 2;
+        double py = (ys[a] + ys[b]) / 2;
+        do {
+            int n = next[p];
+            if (((ys[p] > py) != (ys[n] > py)) && ys[n] != ys[p]
+                    && (px < (xs[n] - xs[p]) * (py - ys[p])
+                    / (ys[n] - ys[p]) + xs[p])) {
+                inside = !inside;
+            }
+            p = n;
+        } while (p != a);
+        return inside;
+    }
+
+    /**
+     * Link two vertices with a bridge; if they belong to the same ring, it
+     * splits into two, otherwise the rings are merged into one.
+     */
+    private int splitPolygon(int a, int b) {
+        int a2 = newNode(vertex[a], xs[a], ys[a]);
+        int b2 = newNode(vertex[b], xs[b], ys[b]);
+        int an = next[a];
+        int bp = prev[b];
+        next[a] = b;
+        prev[b] = a;
+        next[a2] = an;
+        prev[an] = a2;
+        next[b2] = a2;
+        prev[a2] = b2;
+        next[bp] = b2;
+        prev[b2] = bp;
+        return b2;
+    }
+
+    private int insertNode(int index, double x, double y, int last) {
+        int p = newNode(index, x, y);
+        if (last < 0) {
+            prev[p] = p;
+            next[p] = p;
+        } else {
+            next[p] = next[last];
+            prev[p] = last;
+            prev[next[last]] = p;
+            next[last] = p;
+        }
+        return p;
+    }
+
+    private void removeNode(int p) {
+        prev[next[p]] = prev[p];
+        next[prev[p]] = next[p];
+        if (prevZ[p] >= 0) {
+            nextZ[prevZ[p]] = nextZ[p];
+        }
+        if (nextZ[p] >= 0) {
+            prevZ[nextZ[p]] = prevZ[p];
+        }
+    }
+
+    private int newNode(int index, double x, double y) {
+        if (nodeCount == xs.length) {
+            int cap = xs.length * 2;
+            xs = Arrays.copyOf(xs, cap);
+            ys = Arrays.copyOf(ys, cap);
+            vertex = Arrays.copyOf(vertex, cap);
+            prev = Arrays.copyOf(prev, cap);
+            next = Arrays.copyOf(next, cap);
+            z = Arrays.copyOf(z, cap);
+            prevZ = Arrays.copyOf(prevZ, cap);
+            nextZ = Arrays.copyOf(nextZ, cap);
+            steiner = Arrays.copyOf(steiner, cap);
+        }
+        int n = nodeCount++;
+        xs[n] = x;
+        ys[n] = y;
+        vertex[n] = index;
+        z[n] = 0;
+        prevZ[n] = -1;
+        nextZ[n] = -1;
+        steiner[n] = false;
+        return n;
+    }
+
+    private void emit(int a, int b, int c) {
+        sink.add(a + base, b + base, c + base);
+    }
+}
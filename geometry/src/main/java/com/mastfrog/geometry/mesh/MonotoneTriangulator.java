@@ -0,0 +1,609 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Triangulation by decomposition into y-monotone pieces, each of which is
+ * then triangulated in linear time with a stack - O(n log n) for any simple
+ * polygon with holes, whatever its shape, where ear clipping can degrade to
+ * O(n<sup>2</sup>) on long, jagged outlines.
+ * <p>
+ * A sweep from top to bottom, keeping the edges it crosses in a balanced
+ * tree, adds a diagonal at each vertex where the outline turns back on
+ * itself (a <i>split</i> vertex pointing up into the interior, or a
+ * <i>merge</i> vertex pointing down); the outline plus diagonals is then
+ * walked as a planar graph to find the monotone faces. Points with equal y
+ * coordinates are ordered by x, which tilts horizontal edges symbolically.
+ * </p><p>
+ * This only works for input which really is a simple polygon with holes
+ * inside it; rather than produce a bad mesh, it returns false when it finds
+ * evidence to the contrary - an edge missing from the sweep, a face which is
+ * not monotone, or triangles whose area does not add up - and the caller
+ * falls back to ear clipping, which is tolerant of such input.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+final class MonotoneTriangulator {
+
+    private static final int QUERY = -1;
+    private static final byte LEFT = 1;
+    private static final byte RIGHT = 2;
+    private final int pointCount;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] next;
+    private final int[] prev;
+    private final boolean[] live;
+    private final int[] rank;
+    private final int[] helper;
+    private final boolean[] merge;
+    private int[] diagonals = new int[16];
+    private int diagonalSize;
+    private double queryX;
+    private double queryY;
+
+    MonotoneTriangulator(double[] data) {
+        pointCount = data.length / 2;
+        xs = new double[pointCount];
+        ys = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xs[i] = data[i * 2];
+            ys[i] = data[(i * 2) + 1];
+        }
+        next = new int[pointCount];
+        prev = new int[pointCount];
+        live = new boolean[pointCount];
+        rank = new int[pointCount];
+        helper = new int[pointCount];
+        merge = new boolean[pointCount];
+    }
+
+    /**
+     * Triangulate, adding triangles to the sink.
+     *
+     * @param holeStarts The first point index of each hole
+     * @param base The value to add to each vertex index emitted
+     * @param sink The output
+     * @return false if the input was found not to be a simple polygon with
+     * holes, in which case the sink may contain some triangles and should be
+     * rolled back
+     */
+    boolean triangulate(int[] holeStarts, int base, TriangleSink sink) {
+        double expectedArea = link(holeStarts);
+        if (expectedArea <= 0) {
+            return false;
+        }
+        int[] order = sweepOrder();
+        if (!sweep(order)) {
+            return false;
+        }
+        int mark = sink.size();
+        if (!triangulateFaces(order, base, sink)) {
+            return false;
+        }
+        double area = 0;
+        for (int i = mark; i < sink.size(); i += 3) {
+            area += Math.abs(cross(sink.get(i) - base, sink.get(i + 1) - base,
+                    sink.get(i + 2) - base));
+        }
+        area /= 2;
+        return Math.abs(area - expectedArea) <= expectedArea * 1E-9;
+    }
+
+    /**
+     * Link each contour into a ring, dropping repeated points, with the outer
+     * contour counter-clockwise and holes clockwise (interior always on the
+     * left of each edge, in y-up coordinates).
+     *
+     * @return The area of the outer contour less that of the holes
+     */
+    private double link(int[] holeStarts) {
+        double result = 0;
+        for (int c = 0; c <= holeStarts.length; c++) {
+            int start = c == 0 ? 0 : holeStarts[c - 1];
+            int end = c == holeStarts.length ? pointCount : holeStarts[c];
+            int first = -1;
+            int last = -1;
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                if (last >= 0 && xs[i] == xs[last] && ys[i] == ys[last]) {
+                    continue;
+                }
+                live[i] = true;
+                if (first < 0) {
+                    first = i;
+                } else {
+                    next[last] = i;
+                    prev[i] = last;
+                }
+                last = i;
+                count++;
+            }
+            while (count > 1 && xs[last] == xs[first]
+                    && ys[last] == ys[first]) {
+                live[last] = false;
+                last = prev[last];
+                count--;
+            }
+            if (count < 3) {
+                kill(start, end);
+                continue;
+            }
+            next[last] = first;
+            prev[first] = last;
+            double area2 = 0;
+            int p = first;
+            do {
+                int n = next[p];
+                area2 += (xs[p] * ys[n]) - (xs[n] * ys[p]);
+                p = n;
+            } while (p != first);
+            if (area2 == 0) {
+                kill(start, end);
+                continue;
+            }
+            boolean hole = c > 0;
+            if ((area2 > 0) == hole) {
+                p = first;
+                do {
+                    int n = next[p];
+                    next[p] = prev[p];
+                    prev[p] = n;
+                    p = n;
+                } while (p != first);
+            }
+            result += hole ? -Math.abs(area2) / 2 : Math.abs(area2) / 2;
+        }
+        return result;
+    }
+
+    private void kill(int start, int end) {
+        for (int i = start; i < end; i++) {
+            live[i] = false;
+        }
+    }
+
+    private int[] sweepOrder() {
+        int count = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (live[i]) {
+                count++;
+            }
+        }
+        int[] order = new int[count];
+        int cursor = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (live[i]) {
+                order[cursor++] = i;
+            }
+        }
+        sort(order, 0, count, new int[count], (a, b) -> {
+            if (a == b) {
+                return 0;
+            }
+            return above(a, b) ? -1 : 1;
+        });
+        for (int i = 0; i < count; i++) {
+            rank[order[i]] = i;
+        }
+        return order;
+    }
+
+    private boolean above(int a, int b) {
+        return ys[a] > ys[b] || (ys[a] == ys[b]
+                && (xs[a] < xs[b] || (xs[a] == xs[b] && a < b)));
+    }
+
+    /**
+     * The sweep; the status tree holds the edges, identified by the index of
+     * their first vertex, which have the interior to their right, ordered
+     * left to right where the sweep line crosses them.
+     */
+    private boolean sweep(int[] order) {
+        TreeSet<Integer> status = new TreeSet<>(this::compareEdges);
+        for (int i = 0; i < order.length; i++) {
+            int v = order[i];
+            int p = prev[v];
+            int n = next[v];
+            boolean prevBelow = rank[p] > rank[v];
+            boolean nextBelow = rank[n] > rank[v];
+            boolean convex = cross(p, v, n) > 0;
+            if (prevBelow && nextBelow) {
+                if (!convex) {
+                    // Split vertex
+                    int left = leftOf(status, v);
+                    if (left < 0) {
+                        return false;
+                    }
+                    diagonal(v, helper[left]);
+                    helper[left] = v;
+                }
+                // Split or start vertex
+                if (!status.add(v)) {
+                    return false;
+                }
+                helper[v] = v;
+            } else if (!prevBelow && !nextBelow) {
+                // End or merge vertex
+                if (!status.remove(p)) {
+                    return false;
+                }
+                if (merge[helper[p]]) {
+                    diagonal(v, helper[p]);
+                }
+                if (!convex) {
+                    merge[v] = true;
+                    int left = leftOf(status, v);
+                    if (left < 0) {
+                        return false;
+                    }
+                    if (merge[helper[left]]) {
+                        diagonal(v, helper[left]);
+                    }
+                    helper[left] = v;
+                }
+            } else if (!prevBelow) {
+                // Regular vertex with the interior to its right
+                if (!status.remove(p)) {
+                    return false;
+                }
+                if (merge[helper[p]]) {
+                    diagonal(v, helper[p]);
+                }
+                if (!status.add(v)) {
+                    return false;
+                }
+                helper[v] = v;
+            } else {
+                // Regular vertex with the interior to its left
+                int left = leftOf(status, v);
+                if (left < 0) {
+                    return false;
+                }
+                if (merge[helper[left]]) {
+                    diagonal(v, helper[left]);
+                }
+                helper[left] = v;
+            }
+        }
+        return status.isEmpty();
+    }
+
+    private int leftOf(TreeSet<Integer> status, int v) {
+        queryX = xs[v];
+        queryY = ys[v];
+        Integer result = status.floor(QUERY);
+        return result == null ? -1 : result;
+    }
+
+    private int compareEdges(Integer a, Integer b) {
+        int ea = a;
+        int eb = b;
+        if (ea == eb) {
+            return 0;
+        } else if (ea == QUERY) {
+            return -compareToQuery(eb);
+        } else if (eb == QUERY) {
+            return compareToQuery(ea);
+        }
+        // Test whichever edge starts lower against the other
+        int ua = upper(ea);
+        int ub = upper(eb);
+        if (rank[ua] < rank[ub]) {
+            double o = orient(ea, ub);
+            if (o == 0) {
+                o = orient(ea, lower(eb));
+            }
+            if (o == 0) {
+                return Integer.compare(ea, eb);
+            }
+            return o < 0 ? 1 : -1;
+        } else {
+            double o = orient(eb, ua);
+            if (o == 0) {
+                o = orient(eb, lower(ea));
+            }
+            if (o == 0) {
+                return Integer.compare(ea, eb);
+            }
+            return o < 0 ? -1 : 1;
+        }
+    }
+
+    private int compareToQuery(int edge) {
+        int u = upper(edge);
+        int l = lower(edge);
+        double o = (xs[l] - xs[u]) * (queryY - ys[u])
+                - (ys[l] - ys[u]) * (queryX - xs[u]);
+        return o < 0 ? 1 : -1;
+    }
+
+    private int upper(int edge) {
+        int n = next[edge];
+        return rank[edge] < rank[n] ? edge : n;
+    }
+
+    private int lower(int edge) {
+        int n = next[edge];
+        return rank[edge] < rank[n] ? n : edge;
+    }
+
+    /**
+     * Negative if the point is left of the edge, looking down it.
+     */
+    private double orient(int edge, int point) {
+        int u = upper(edge);
+        int l = lower(edge);
+        return (xs[l] - xs[u]) * (ys[point] - ys[u])
+                - (ys[l] - ys[u]) * (xs[point] - xs[u]);
+    }
+
+    /**
+     * Twice the signed area of a triangle, positive if counter-clockwise in
+     * y-up coordinates.
+     */
+    private double cross(int a, int b, int c) {
+        return (xs[b] - xs[a]) * (ys[c] - ys[b])
+                - (ys[b] - ys[a]) * (xs[c] - xs[b]);
+    }
+
+    private void diagonal(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        if (diagonalSize + 2 > diagonals.length) {
+            diagonals = Arrays.copyOf(diagonals,
+                    diagonals.length * 2);
+        }
+        diagonals[diagonalSize++] = a;
+        diagonals[diagonalSize++] = b;
+    }
+
+    /**
+     * Walk the outline plus diagonals as a planar graph, triangulating each
+     * face found.
+     */
+    private boolean triangulateFaces(int[] order, int base,
+            TriangleSink sink) {
+        int edgeCount = order.length + diagonalSize;
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int e = 0;
+        for (int v : order) {
+            from[e] = v;
+            to[e++] = next[v];
+        }
+        for (int i = 0; i < diagonalSize; i += 2) {
+            from[e] = diagonals[i];
+            to[e++] = diagonals[i + 1];
+            from[e] = diagonals[i + 1];
+            to[e++] = diagonals[i];
+        }
+        // Group half-edges by origin, sorted by angle around it
+        int[] outStart = new int[pointCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            outStart[from[i] + 1]++;
+        }
+        for (int i = 0; i < pointCount; i++) {
+            outStart[i + 1] += outStart[i];
+        }
+        int[] fill = outStart.clone();
+        int[] out = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            out[fill[from[i]]++] = i;
+        }
+        double[] angles = new double[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            angles[i] = Math.atan2(ys[to[i]] - ys[from[i]],
+                    xs[to[i]] - xs[from[i]]);
+        }
+        int[] scratch = new int[edgeCount];
+        IntBinaryOperator byAngle = (a, b) -> Double.compare(angles[a],
+                angles[b]);
+        for (int i = 0; i < pointCount; i++) {
+            if (outStart[i + 1] - outStart[i] > 1) {
+                sort(out, outStart[i], outStart[i + 1], scratch, byAngle);
+            }
+        }
+        boolean[] used = new boolean[edgeCount];
+        int[] face = new int[16];
+        int[] sorted = new int[16];
+        byte[] chains = new byte[16];
+        int[] stack = new int[16];
+        for (int i = 0; i < edgeCount; i++) {
+            if (used[i]) {
+                continue;
+            }
+            int len = 0;
+            int he = i;
+            do {
+                if (used[he]) {
+                    return false;
+                }
+                used[he] = true;
+                if (len == face.length) {
+                    face = Arrays.copyOf(face, len * 2);
+                }
+                face[len++] = from[he];
+                he = nextInFace(he, from, to, out, outStart, angles);
+            } while (he != i);
+            if (len < 3) {
+                return false;
+            }
+            if (sorted.length < len) {
+                sorted = new int[face.length];
+                chains = new byte[face.length];
+                stack = new int[face.length];
+            }
+            if (!triangulateMonotone(face, len, sorted, chains, stack, base,
+                    sink)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the next half-edge of the face to the left of a half-edge - the
+     * first edge out of its destination clockwise from the way back.
+     */
+    private int nextInFace(int he, int[] from, int[] to, int[] out,
+            int[] outStart, double[] angles) {
+        int v = to[he];
+        int u = from[he];
+        double back = Math.atan2(ys[u] - ys[v], xs[u] - xs[v]);
+        int lo = outStart[v];
+        int hi = outStart[v + 1] - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (angles[out[mid]] < back) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return out[found < 0 ? outStart[v + 1] - 1 : found];
+    }
+
+    private boolean triangulateMonotone(int[] face, int len, int[] sorted,
+            byte[] chains, int[] stack, int base, TriangleSink sink) {
+        int top = 0;
+        int bottom = 0;
+        for (int i = 1; i < len; i++) {
+            if (rank[face[i]] < rank[face[top]]) {
+                top = i;
+            }
+            if (rank[face[i]] > rank[face[bottom]]) {
+                bottom = i;
+            }
+        }
+        // Merge the chain running forward (down the left side of a
+        // counter-clockwise face) with the one running backward
+        sorted[0] = face[top];
+        chains[0] = LEFT;
+        int li = (top + 1) % len;
+        int ri = (top + len - 1) % len;
+        int lastLeft = rank[face[top]];
+        int lastRight = lastLeft;
+        boolean leftDone = false;
+        for (int k = 1; k < len; k++) {
+            boolean takeLeft = !leftDone && (ri == bottom
+                    || rank[face[li]] < rank[face[ri]]);
+            if (takeLeft) {
+                int v = face[li];
+                if (rank[v] <= lastLeft) {
+                    return false;
+                }
+                lastLeft = rank[v];
+                sorted[k] = v;
+                chains[k] = LEFT;
+                leftDone = li == bottom;
+                li = (li + 1) % len;
+            } else {
+                if (ri == bottom) {
+                    return false;
+                }
+                int v = face[ri];
+                if (rank[v] <= lastRight) {
+                    return false;
+                }
+                lastRight = rank[v];
+                sorted[k] = v;
+                chains[k] = RIGHT;
+                ri = (ri + len - 1) % len;
+            }
+        }
+        int sp = 0;
+        stack[sp++] = sorted[0];
+        stack[sp++] = sorted[1];
+        for (int j = 2; j < len - 1; j++) {
+            int u = sorted[j];
+            if (chains[j] != chains[j - 1]) {
+                for (int i = 0; i < sp - 1; i++) {
+                    emit(u, stack[i], stack[i + 1], base, sink);
+                }
+                sp = 0;
+                stack[sp++] = sorted[j - 1];
+                stack[sp++] = u;
+            } else {
+                int last = stack[--sp];
+                while (sp > 0) {
+                    double c = cross(u, last, stack[sp - 1]);
+                    if (chains[j] == LEFT ? c >= 0 : c <= 0) {
+                        break;
+                    }
+                    emit(u, last, stack[sp - 1], base, sink);
+                    last = stack[--sp];
+                }
+                stack[sp++] = last;
+                stack[sp++] = u;
+            }
+        }
+        int u = sorted[len - 1];
+        for (int i = 0; i < sp - 1; i++) {
+            emit(u, stack[i], stack[i + 1], base, sink);
+        }
+        return true;
+    }
+
+    private void emit(int a, int b, int c, int base, TriangleSink sink) {
+        if (cross(a, b, c) != 0) {
+            sink.add(a + base, b + base, c + base);
+        }
+    }
+
+    /**
+     * Stable merge sort of a range of ints with a comparator.
+     */
+    static void sort(int[] items, int from, int to, int[] scratch,
+            IntBinaryOperator cmp) {
+        for (int width = 1; width < to - from; width *= 2) {
+            for (int lo = from; lo < to - width; lo += width * 2) {
+                int mid = lo + width;
+                int hi = Math.min(mid + width, to);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    scratch[k++] = cmp.applyAsInt(items[j], items[i]) < 0
+                            ? items[j++] : items[i++];
+                }
+                while (i < mid) {
+                    scratch[k++] = items[i++];
+                }
+                while (j < hi) {
+                    scratch[k++] = items[j++];
+                }
+                System.arraycopy(scratch, lo, items, lo, hi - lo);
+            }
+        }
+    }
+}
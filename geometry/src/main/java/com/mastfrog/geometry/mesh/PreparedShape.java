@@ -0,0 +1,345 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.PieWedge;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.clip.PolygonClipper;
+import com.mastfrog.geometry.util.GeometryUtils;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Wraps a shape which will be tested for containment of many points, such as
+ * a hit-test region or a mask, and answers <code>contains(x, y)</code> from a
+ * structure built once on first use, rather than by walking the outline of
+ * the shape on every call.
+ * <p>
+ * For a general shape, the structure is a triangulation of the shape
+ * (honoring its winding rule), bucketed into a uniform grid; a query examines
+ * a handful of triangles, and points within grid cells wholly covered by one
+ * triangle are answered by a single array lookup. Points on the boundary are
+ * considered inside. A <code>Circle</code> is tested directly, and a
+ * <code>PieWedge</code> with an exact sector test, since both are already
+ * constant-time.
+ * </p><p>
+ * <b>Invalidation:</b> a wrapped <code>Polygon2D</code>, <code>Circle</code>
+ * or <code>PieWedge</code> is checked for changes on each query and the
+ * structure rebuilt as needed (writes made directly into the array returned
+ * by <code>Polygon2D.pointsArray()</code> cannot be detected);
+ * <code>MinimalAggregateShapeDouble</code> is immutable. Any other mutable
+ * shape, such as a <code>Path2D</code>, requires a call to
+ * <code>invalidate()</code> after it is altered. All other <code>Shape</code>
+ * methods delegate to the wrapped shape.
+ * </p><p>
+ * Queries may be made from multiple threads so long as the wrapped shape is
+ * not being modified concurrently.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class PreparedShape implements Shape {
+
+    private final Shape shape;
+    private final double flatness;
+    private ContainmentTest test;
+
+    private PreparedShape(Shape shape, double flatness) {
+        this.shape = shape;
+        this.flatness = flatness;
+    }
+
+    /**
+     * Prepare a shape, flattening any curves to within
+     * <code>GeometryUtils.DEFAULT_FLATNESS</code>.
+     *
+     * @param shape A shape
+     * @return A prepared shape
+     */
+    public static PreparedShape of(Shape shape) {
+        return of(shape, GeometryUtils.DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Prepare a shape.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return A prepared shape
+     */
+    public static PreparedShape of(Shape shape, double flatness) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Null shape");
+        }
+        if (!(flatness > 0)) {
+            throw new IllegalArgumentException("Bad flatness " + flatness);
+        }
+        if (shape instanceof PreparedShape) {
+            PreparedShape ps = (PreparedShape) shape;
+            if (ps.flatness == flatness) {
+                return ps;
+            }
+            shape = ps.shape;
+        }
+        return new PreparedShape(shape, flatness);
+    }
+
+    /**
+     * Get the wrapped shape.
+     *
+     * @return The shape
+     */
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * Discard the acceleration structure, so it is rebuilt on the next query;
+     * call this after altering a wrapped shape whose changes cannot be
+     * detected.
+     */
+    public void invalidate() {
+        test = null;
+    }
+
+    private ContainmentTest test() {
+        ContainmentTest result = test;
+        if (result == null || !result.isCurrent()) {
+            test = result = createTest();
+        }
+        return result;
+    }
+
+    private ContainmentTest createTest() {
+        if (shape instanceof Circle) {
+            return new CircleTest((Circle) shape);
+        } else if (shape instanceof PieWedge) {
+            return new WedgeTest((PieWedge) shape);
+        }
+        TriangleSink sink = new TriangleSink(64);
+        int revision = shape instanceof Polygon2D
+                ? ((Polygon2D) shape).revision() : 0;
+        double[] vertices = Triangulator.triangulate(
+                PolygonClipper.normalize(shape, flatness), sink);
+        TriangleGrid grid = new TriangleGrid(vertices, sink.toArray());
+        if (shape instanceof Polygon2D) {
+            return new PolygonTest((Polygon2D) shape, revision, grid);
+        }
+        return new GridTest(grid);
+    }
+
+    @Override
+    public boolean contains(double x, double y) {
+        return test().contains(x, y);
+    }
+
+    @Override
+    public boolean contains(Point2D p) {
+        return contains(p.getX(), p.getY());
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        return shape.getBounds();
+    }
+
+    @Override
+    public Rectangle2D getBounds2D() {
+        return shape.getBounds2D();
+    }
+
+    @Override
+    public boolean intersects(double x, double y, double w, double h) {
+        return shape.intersects(x, y, w, h);
+    }
+
+    @Override
+    public boolean intersects(Rectangle2D r) {
+        return shape.intersects(r);
+    }
+
+    @Override
+    public boolean contains(double x, double y, double w, double h) {
+        return shape.contains(x, y, w, h);
+    }
+
+    @Override
+    public boolean contains(Rectangle2D r) {
+        return shape.contains(r);
+    }
+
+    @Override
+    public PathIterator getPathIterator(AffineTransform at) {
+        return shape.getPathIterator(at);
+    }
+
+    @Override
+    public PathIterator getPathIterator(AffineTransform at, double flatness) {
+        return shape.getPathIterator(at, flatness);
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedShape(" + shape + ")";
+    }
+
+    interface ContainmentTest {
+
+        boolean contains(double x, double y);
+
+        boolean isCurrent();
+    }
+
+    static final class CircleTest implements ContainmentTest {
+
+        private final Circle circle;
+
+        CircleTest(Circle circle) {
+            this.circle = circle;
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return circle.contains(x, y);
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return true;
+        }
+    }
+
+    static final class WedgeTest implements ContainmentTest {
+
+        private final PieWedge wedge;
+        private final double cx;
+        private final double cy;
+        private final double radius;
+        private final double angle;
+        private final double extent;
+        private final double radiusSquared;
+        private final double sx;
+        private final double sy;
+        private final double ex;
+        private final double ey;
+        private final double sign;
+
+        WedgeTest(PieWedge wedge) {
+            this.wedge = wedge;
+            cx = wedge.getCenterX();
+            cy = wedge.getCenterY();
+            radius = wedge.radius();
+            angle = wedge.angle();
+            extent = wedge.extent();
+            radiusSquared = radius * radius;
+            // Unit vectors along the starting and ending edges, and the
+            // orientation of the sweep from one to the other through the
+            // middle of the arc, which is independent of the y-down
+            // coordinate system and the direction angles increase in
+            double[] pts = new double[6];
+            Circle.positionOf(angle, 0, 0, 1, pts, 0);
+            Circle.positionOf(angle + extent, 0, 0, 1, pts, 2);
+            Circle.positionOf(angle + (extent / 2), 0, 0, 1, pts, 4);
+            sx = pts[0];
+            sy = pts[1];
+            ex = pts[2];
+            ey = pts[3];
+            double mx = pts[4];
+            double my = pts[5];
+            double turn = (sx * my) - (sy * mx);
+            if (turn == 0) {
+                turn = (mx * ey) - (my * ex);
+            }
+            sign = turn < 0 ? -1 : 1;
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            if (extent <= 0) {
+                return false;
+            }
+            double px = x - cx;
+            double py = y - cy;
+            if ((px * px) + (py * py) > radiusSquared) {
+                return false;
+            }
+            if (extent >= 360) {
+                return true;
+            }
+            boolean afterStart = sign * ((sx * py) - (sy * px)) >= 0;
+            boolean beforeEnd = sign * ((px * ey) - (py * ex)) >= 0;
+            return extent <= 180 ? afterStart && beforeEnd
+                    : afterStart || beforeEnd;
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return wedge.getCenterX() == cx && wedge.getCenterY() == cy
+                    && wedge.radius() == radius && wedge.angle() == angle
+                    && wedge.extent() == extent;
+        }
+    }
+
+    static class GridTest implements ContainmentTest {
+
+        private final TriangleGrid grid;
+
+        GridTest(TriangleGrid grid) {
+            this.grid = grid;
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return grid.contains(x, y);
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return true;
+        }
+    }
+
+    static final class PolygonTest extends GridTest {
+
+        private final Polygon2D polygon;
+        private final int revision;
+
+        PolygonTest(Polygon2D polygon, int revision, TriangleGrid grid) {
+            super(grid);
+            this.polygon = polygon;
+            this.revision = revision;
+        }
+
+        @Override
+        public boolean isCurrent() {
+            return polygon.revision() == revision;
+        }
+    }
+}
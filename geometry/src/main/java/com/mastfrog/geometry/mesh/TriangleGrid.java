@@ -0,0 +1,245 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import static com.mastfrog.geometry.mesh.TriangleMesh.triangleContains;
+
+/**
+ * A uniform grid over a set of triangles, each cell listing the triangles
+ * which overlap it, so a containment test examines only the few triangles
+ * near the point. Cells lying wholly within a single triangle are flagged
+ * as full, and answer without any test at all.
+ *
+ * @author Tim Boudreau
+ */
+final class TriangleGrid {
+
+    private static final int MAX_CELLS = 1 << 18;
+    private static final int MAX_DIMENSION = 1024;
+    private final double[] vertices;
+    private final int[] indices;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final int cols;
+    private final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int[] cellStarts;
+    private final int[] cellTriangles;
+    private final boolean[] full;
+
+    TriangleGrid(double[] vertices, int[] indices) {
+        this.vertices = vertices;
+        this.indices = indices;
+        double nx = Double.MAX_VALUE;
+        double ny = Double.MAX_VALUE;
+        double xx = -Double.MAX_VALUE;
+        double xy = -Double.MAX_VALUE;
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i] * 2;
+            nx = Math.min(nx, vertices[v]);
+            ny = Math.min(ny, vertices[v + 1]);
+            xx = Math.max(xx, vertices[v]);
+            xy = Math.max(xy, vertices[v + 1]);
+        }
+        minX = nx;
+        minY = ny;
+        maxX = xx;
+        maxY = xy;
+        int triangles = indices.length / 3;
+        double w = maxX - minX;
+        double h = maxY - minY;
+        if (triangles == 0 || !(w > 0) || !(h > 0)) {
+            cols = rows = 1;
+        } else {
+            int target = Math.min(MAX_CELLS, triangles * 2);
+            cols = clamp((int) Math.round(Math.sqrt(target * w / h)));
+            rows = clamp((int) Math.round((double) target / cols));
+        }
+        cellWidth = triangles == 0 ? 1 : Math.max(w / cols, Double.MIN_NORMAL);
+        cellHeight = triangles == 0 ? 1 : Math.max(h / rows, Double.MIN_NORMAL);
+        int cells = cols * rows;
+        cellStarts = new int[cells + 1];
+        full = new boolean[cells];
+        // Count, then fill
+        double[] span = new double[2];
+        for (int t = 0; t < indices.length; t += 3) {
+            int r0 = row(triangleMinY(t));
+            int r1 = row(triangleMaxY(t));
+            for (int r = r0; r <= r1; r++) {
+                if (span(t, r, span)) {
+                    int c1 = col(span[1]);
+                    for (int c = col(span[0]); c <= c1; c++) {
+                        cellStarts[(r * cols) + c + 1]++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < cells; i++) {
+            cellStarts[i + 1] += cellStarts[i];
+        }
+        int[] fill = new int[cells];
+        System.arraycopy(cellStarts, 0, fill, 0, cells);
+        cellTriangles = new int[cellStarts[cells]];
+        for (int t = 0; t < indices.length; t += 3) {
+            int r0 = row(triangleMinY(t));
+            int r1 = row(triangleMaxY(t));
+            for (int r = r0; r <= r1; r++) {
+                if (span(t, r, span)) {
+                    int c1 = col(span[1]);
+                    for (int c = col(span[0]); c <= c1; c++) {
+                        int cell = (r * cols) + c;
+                        cellTriangles[fill[cell]++] = t;
+                        if (!full[cell]) {
+                            full[cell] = coversCell(t, r, c);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int clamp(int val) {
+        return Math.max(1, Math.min(MAX_DIMENSION, val));
+    }
+
+    int cellCount() {
+        return cols * rows;
+    }
+
+    int entryCount() {
+        return cellTriangles.length;
+    }
+
+    boolean contains(double x, double y) {
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+            return false;
+        }
+        int cell = (row(y) * cols) + col(x);
+        if (full[cell]) {
+            return true;
+        }
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+            int t = cellTriangles[i];
+            int a = indices[t] * 2;
+            int b = indices[t + 1] * 2;
+            int c = indices[t + 2] * 2;
+            if (triangleContains(vertices[a], vertices[a + 1], vertices[b],
+                    vertices[b + 1], vertices[c], vertices[c + 1], x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int col(double x) {
+        return Math.max(0, Math.min(cols - 1, (int) ((x - minX) / cellWidth)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / cellHeight)));
+    }
+
+    private double triangleMinY(int t) {
+        return Math.min(vertices[(indices[t] * 2) + 1],
+                Math.min(vertices[(indices[t + 1] * 2) + 1],
+                        vertices[(indices[t + 2] * 2) + 1]));
+    }
+
+    private double triangleMaxY(int t) {
+        return Math.max(vertices[(indices[t] * 2) + 1],
+                Math.max(vertices[(indices[t + 1] * 2) + 1],
+                        vertices[(indices[t + 2] * 2) + 1]));
+    }
+
+    /**
+     * Compute the horizontal extent of a triangle within a row, padded
+     * slightly so rounding in the cell computation cannot lose a sliver.
+     */
+    private boolean span(int t, int row, double[] into) {
+        double pad = cellHeight * 1E-9;
+        double lo = Math.max(minY + (row * cellHeight) - pad, triangleMinY(t));
+        double hi = Math.min(minY + ((row + 1) * cellHeight) + pad,
+                triangleMaxY(t));
+        if (lo > hi) {
+            return false;
+        }
+        into[0] = Double.MAX_VALUE;
+        into[1] = -Double.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            int p = indices[t + i] * 2;
+            int q = indices[t + ((i + 1) % 3)] * 2;
+            double px = vertices[p];
+            double py = vertices[p + 1];
+            double qx = vertices[q];
+            double qy = vertices[q + 1];
+            if (py >= lo && py <= hi) {
+                include(px, into);
+            }
+            if (py != qy) {
+                // The crossings of the edge with the top and bottom of the
+                // band cover the extent of the triangle between them
+                double ey0 = Math.min(py, qy);
+                double ey1 = Math.max(py, qy);
+                if (lo >= ey0 && lo <= ey1) {
+                    include(px + (lo - py) * (qx - px) / (qy - py), into);
+                }
+                if (hi >= ey0 && hi <= ey1) {
+                    include(px + (hi - py) * (qx - px) / (qy - py), into);
+                }
+            }
+        }
+        if (into[0] > into[1]) {
+            return false;
+        }
+        double xpad = cellWidth * 1E-9;
+        into[0] -= xpad;
+        into[1] += xpad;
+        return true;
+    }
+
+    private static void include(double x, double[] into) {
+        into[0] = Math.min(into[0], x);
+        into[1] = Math.max(into[1], x);
+    }
+
+    private boolean coversCell(int t, int row, int col) {
+        int a = indices[t] * 2;
+        int b = indices[t + 1] * 2;
+        int c = indices[t + 2] * 2;
+        double x0 = minX + (col * cellWidth);
+        double y0 = minY + (row * cellHeight);
+        double x1 = x0 + cellWidth;
+        double y1 = y0 + cellHeight;
+        return corner(a, b, c, x0, y0) && corner(a, b, c, x1, y0)
+                && corner(a, b, c, x1, y1) && corner(a, b, c, x0, y1);
+    }
+
+    private boolean corner(int a, int b, int c, double x, double y) {
+        return triangleContains(vertices[a], vertices[a + 1], vertices[b],
+                vertices[b + 1], vertices[c], vertices[c + 1], x, y);
+    }
+}
@@ -0,0 +1,312 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import com.mastfrog.function.DoubleSextaConsumer;
+import com.mastfrog.geometry.Triangle2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * An indexed triangle mesh - a compact array of vertices, as x/y pairs, and
+ * an array of indices into it, three per triangle - suitable for handing
+ * directly to a renderer, or for repeated point-in-shape tests without
+ * walking the path of the shape it was created from. Immutable.
+ *
+ * @author Tim Boudreau
+ */
+public final class TriangleMesh {
+
+    static final TriangleMesh EMPTY = new TriangleMesh(new float[0],
+            new int[0]);
+    private final float[] vertices;
+    private final int[] indices;
+    private final float minX, minY, maxX, maxY;
+
+    TriangleMesh(float[] vertices, int[] indices) {
+        this.vertices = vertices;
+        this.indices = indices;
+        float nx = Float.MAX_VALUE;
+        float ny = Float.MAX_VALUE;
+        float xx = -Float.MAX_VALUE;
+        float xy = -Float.MAX_VALUE;
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i] * 2;
+            nx = Math.min(nx, vertices[v]);
+            ny = Math.min(ny, vertices[v + 1]);
+            xx = Math.max(xx, vertices[v]);
+            xy = Math.max(xy, vertices[v + 1]);
+        }
+        minX = nx;
+        minY = ny;
+        maxX = xx;
+        maxY = xy;
+    }
+
+    /**
+     * Determine if the mesh has no triangles.
+     *
+     * @return true if it is empty
+     */
+    public boolean isEmpty() {
+        return indices.length == 0;
+    }
+
+    /**
+     * Get the number of vertices. Not every vertex is necessarily used by a
+     * triangle - degenerate points in the source are retained, so vertex
+     * indices correspond to the points of the input.
+     *
+     * @return The vertex count
+     */
+    public int vertexCount() {
+        return vertices.length / 2;
+    }
+
+    /**
+     * Get the number of triangles.
+     *
+     * @return The triangle count
+     */
+    public int triangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Get the x coordinate of a vertex.
+     *
+     * @param vertex The vertex index
+     * @return The x coordinate
+     */
+    public float x(int vertex) {
+        return vertices[checkVertex(vertex) * 2];
+    }
+
+    /**
+     * Get the y coordinate of a vertex.
+     *
+     * @param vertex The vertex index
+     * @return The y coordinate
+     */
+    public float y(int vertex) {
+        return vertices[(checkVertex(vertex) * 2) + 1];
+    }
+
+    /**
+     * Get the index of the vertex at one corner of a triangle.
+     *
+     * @param triangle The triangle index
+     * @param corner The corner, 0, 1 or 2
+     * @return A vertex index
+     */
+    public int vertexIndex(int triangle, int corner) {
+        if (corner < 0 || corner > 2) {
+            throw new IndexOutOfBoundsException("Bad corner " + corner);
+        }
+        return indices[(checkTriangle(triangle) * 3) + corner];
+    }
+
+    /**
+     * Get a copy of the vertex array, as x/y pairs.
+     *
+     * @return An array
+     */
+    public float[] vertices() {
+        return Arrays.copyOf(vertices, vertices.length);
+    }
+
+    /**
+     * Get a copy of the index array, three indices per triangle.
+     *
+     * @return An array
+     */
+    public int[] indices() {
+        return Arrays.copyOf(indices, indices.length);
+    }
+
+    /**
+     * Copy the vertices into an existing buffer, such as a vertex buffer
+     * being assembled from several meshes.
+     *
+     * @param into The target array
+     * @param offset The offset into the target array
+     * @return The number of floats copied
+     */
+    public int copyVertices(float[] into, int offset) {
+        System.arraycopy(vertices, 0, into, offset, vertices.length);
+        return vertices.length;
+    }
+
+    /**
+     * Copy the indices into an existing buffer, adding a base value to each,
+     * so that the indices of several meshes can share one vertex buffer.
+     *
+     * @param into The target array
+     * @param offset The offset into the target array
+     * @param base The value to add to each index - typically the number of
+     * vertices already in the shared vertex buffer
+     * @return The number of indices copied
+     */
+    public int copyIndices(int[] into, int offset, int base) {
+        if (base == 0) {
+            System.arraycopy(indices, 0, into, offset, indices.length);
+        } else {
+            for (int i = 0; i < indices.length; i++) {
+                into[offset + i] = indices[i] + base;
+            }
+        }
+        return indices.length;
+    }
+
+    /**
+     * Get one triangle as a Triangle2D.
+     *
+     * @param triangle The triangle index
+     * @return A new triangle
+     */
+    public Triangle2D triangle(int triangle) {
+        int off = checkTriangle(triangle) * 3;
+        int a = indices[off] * 2;
+        int b = indices[off + 1] * 2;
+        int c = indices[off + 2] * 2;
+        return new Triangle2D(vertices[a], vertices[a + 1],
+                vertices[b], vertices[b + 1], vertices[c], vertices[c + 1]);
+    }
+
+    /**
+     * Get all of the triangles as Triangle2Ds.
+     *
+     * @return An array of triangles
+     */
+    public Triangle2D[] toTriangles() {
+        Triangle2D[] result = new Triangle2D[triangleCount()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = triangle(i);
+        }
+        return result;
+    }
+
+    /**
+     * Visit the coordinates of each triangle in turn.
+     *
+     * @param consumer A consumer
+     */
+    public void visitTriangles(DoubleSextaConsumer consumer) {
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = indices[i] * 2;
+            int b = indices[i + 1] * 2;
+            int c = indices[i + 2] * 2;
+            consumer.accept(vertices[a], vertices[a + 1], vertices[b],
+                    vertices[b + 1], vertices[c], vertices[c + 1]);
+        }
+    }
+
+    /**
+     * Get the total area of the triangles.
+     *
+     * @return The area
+     */
+    public double area() {
+        double result = 0;
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = indices[i] * 2;
+            int b = indices[i + 1] * 2;
+            int c = indices[i + 2] * 2;
+            double ax = vertices[a];
+            double ay = vertices[a + 1];
+            result += Math.abs((vertices[b] - ax) * (vertices[c + 1] - ay)
+                    - (vertices[c] - ax) * (vertices[b + 1] - ay));
+        }
+        return result / 2;
+    }
+
+    /**
+     * Determine if a point lies within (or on the edge of) any triangle.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return true if the point is covered
+     */
+    public boolean contains(double x, double y) {
+        if (indices.length == 0 || x < minX || x > maxX || y < minY
+                || y > maxY) {
+            return false;
+        }
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = indices[i] * 2;
+            int b = indices[i + 1] * 2;
+            int c = indices[i + 2] * 2;
+            if (triangleContains(vertices[a], vertices[a + 1], vertices[b],
+                    vertices[b + 1], vertices[c], vertices[c + 1], x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean triangleContains(double ax, double ay, double bx,
+            double by, double cx, double cy, double x, double y) {
+        double d1 = (x - bx) * (ay - by) - (ax - bx) * (y - by);
+        double d2 = (x - cx) * (by - cy) - (bx - cx) * (y - cy);
+        double d3 = (x - ax) * (cy - ay) - (cx - ax) * (y - ay);
+        boolean neg = d1 < 0 || d2 < 0 || d3 < 0;
+        boolean pos = d1 > 0 || d2 > 0 || d3 > 0;
+        return !(neg && pos);
+    }
+
+    /**
+     * Get the bounding box of the triangles.
+     *
+     * @return A rectangle, empty if the mesh is
+     */
+    public Rectangle2D.Float bounds() {
+        Rectangle2D.Float result = new Rectangle2D.Float();
+        if (indices.length > 0) {
+            result.setFrameFromDiagonal(minX, minY, maxX, maxY);
+        }
+        return result;
+    }
+
+    private int checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices.length / 2) {
+            throw new IndexOutOfBoundsException("No vertex " + vertex
+                    + " of " + (vertices.length / 2));
+        }
+        return vertex;
+    }
+
+    private int checkTriangle(int triangle) {
+        if (triangle < 0 || triangle >= indices.length / 3) {
+            throw new IndexOutOfBoundsException("No triangle " + triangle
+                    + " of " + (indices.length / 3));
+        }
+        return triangle;
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh(" + vertexCount() + " vertices, "
+                + triangleCount() + " triangles)";
+    }
+}
@@ -0,0 +1,67 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of triangle vertex indices shared by the triangulation
+ * algorithms, which can be rolled back if one of them gives up.
+ *
+ * @author Tim Boudreau
+ */
+final class TriangleSink {
+
+    private int[] indices;
+    private int size;
+
+    TriangleSink(int capacity) {
+        indices = new int[Math.max(12, capacity)];
+    }
+
+    void add(int a, int b, int c) {
+        if (size + 3 > indices.length) {
+            indices = Arrays.copyOf(indices, indices.length * 2);
+        }
+        indices[size++] = a;
+        indices[size++] = b;
+        indices[size++] = c;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return indices[index];
+    }
+
+    void truncate(int size) {
+        this.size = size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(indices, size);
+    }
+}
@@ -0,0 +1,258 @@
+package com.mastfrog.geometry.mesh;
+
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.clip.ClipResult;
+import com.mastfrog.geometry.clip.PolygonClipper;
+import com.mastfrog.geometry.util.GeometryUtils;
+import java.awt.Shape;
+import java.util.Arrays;
+
+/**
+ * Triangulates polygons, including polygons with holes, into compact
+ * {@link TriangleMesh}es.
+ * <p>
+ * Polygons of more than about a thousand points are split into y-monotone
+ * pieces by a sweep line, and each piece triangulated in linear time, which
+ * is O(n log n) however jagged the outline. Smaller polygons, for which ear
+ * clipping has the lower constant factor - and any input the
+ * sweep finds is not really a simple polygon with holes inside it, such as a
+ * self-intersecting <code>Polygon2D</code> - are ear-clipped, which copes
+ * with degenerate input by filtering, cutting off local self-intersections
+ * and splitting, so bad input produces a plausible mesh rather than an
+ * exception.
+ * </p><p>
+ * Arbitrary shapes (multiple subpaths, curves, either winding rule,
+ * self-intersections) are first resolved into non-crossing outer contours
+ * and holes with {@link PolygonClipper#normalize}, and each hole assigned to
+ * the smallest outer contour enclosing it.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class Triangulator {
+
+    private static final int MONOTONE_THRESHOLD = 1024;
+
+    private Triangulator() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Triangulate a shape, flattening any curves to within
+     * <code>GeometryUtils.DEFAULT_FLATNESS</code>.
+     *
+     * @param shape A shape
+     * @return A mesh
+     */
+    public static TriangleMesh triangulate(Shape shape) {
+        return triangulate(shape, GeometryUtils.DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Triangulate a shape. The points of a <code>Polygon2D</code> are
+     * triangulated directly as a simple polygon, and the vertices of the
+     * resulting mesh are its points; any other shape is first resolved into
+     * outer contours and holes, honoring its winding rule.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return A mesh
+     */
+    public static TriangleMesh triangulate(Shape shape, double flatness) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Null shape");
+        }
+        if (shape instanceof Polygon2D) {
+            return triangulate(((Polygon2D) shape).pointsArray());
+        }
+        return triangulate(PolygonClipper.normalize(shape, flatness));
+    }
+
+    /**
+     * Triangulate the result of a polygon boolean operation, assigning each
+     * hole to the smallest outer contour which encloses it.
+     *
+     * @param contours A set of non-crossing contours
+     * @return A mesh
+     */
+    public static TriangleMesh triangulate(ClipResult contours) {
+        if (contours.isEmpty()) {
+            return TriangleMesh.EMPTY;
+        }
+        TriangleSink sink = new TriangleSink(contours.pointCount() * 3);
+        double[] vertices = triangulate(contours, sink);
+        return new TriangleMesh(toFloats(vertices), sink.toArray());
+    }
+
+    /**
+     * Triangulate a set of contours into a sink, returning the coordinates
+     * the indices added to it refer to.
+     */
+    static double[] triangulate(ClipResult contours, TriangleSink sink) {
+        int count = contours.contourCount();
+        double[][] coords = new double[count][];
+        double[] areas = new double[count];
+        boolean[] holes = new boolean[count];
+        int[] parents = new int[count];
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            coords[i] = contours.coordinates(i);
+            areas[i] = Math.abs(area2(coords[i]));
+            holes[i] = contours.isHole(i);
+            total += coords[i].length;
+        }
+        for (int i = 0; i < count; i++) {
+            parents[i] = holes[i] ? findParent(coords, areas, holes, i) : -1;
+        }
+        double[] vertices = new double[total];
+        int vertexCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (holes[i]) {
+                continue;
+            }
+            // Assemble the outer contour followed by each of its holes
+            int groupSize = coords[i].length;
+            int groupHoles = 0;
+            for (int j = 0; j < count; j++) {
+                if (parents[j] == i) {
+                    groupSize += coords[j].length;
+                    groupHoles++;
+                }
+            }
+            double[] group = Arrays.copyOf(coords[i], groupSize);
+            int[] holeStarts = new int[groupHoles];
+            int cursor = coords[i].length;
+            int hole = 0;
+            for (int j = 0; j < count; j++) {
+                if (parents[j] == i) {
+                    holeStarts[hole++] = cursor / 2;
+                    System.arraycopy(coords[j], 0, group, cursor,
+                            coords[j].length);
+                    cursor += coords[j].length;
+                }
+            }
+            System.arraycopy(group, 0, vertices, vertexCount * 2, groupSize);
+            run(group, holeStarts, vertexCount, sink);
+            vertexCount += groupSize / 2;
+        }
+        return Arrays.copyOf(vertices, vertexCount * 2);
+    }
+
+    /**
+     * Triangulate a simple polygon.
+     *
+     * @param coords The points of the polygon as x/y pairs
+     * @return A mesh whose vertices are the passed points
+     */
+    public static TriangleMesh triangulate(double[] coords) {
+        return triangulate(coords, new int[0]);
+    }
+
+    /**
+     * Triangulate a simple polygon with holes. The coordinate array contains
+     * the points of the outer contour followed by the points of each hole;
+     * the orientation of each contour does not matter.
+     *
+     * @param coords The points of the polygon and its holes as x/y pairs
+     * @param holeStarts The index of the first <i>point</i> of each hole, in
+     * ascending order
+     * @return A mesh whose vertices are the passed points
+     */
+    public static TriangleMesh triangulate(double[] coords, int... holeStarts) {
+        if (coords.length % 2 != 0) {
+            throw new IllegalArgumentException("Odd number of coordinates: "
+                    + coords.length);
+        }
+        int points = coords.length / 2;
+        int last = 0;
+        for (int i = 0; i < holeStarts.length; i++) {
+            if (holeStarts[i] <= last || holeStarts[i] >= points) {
+                throw new IllegalArgumentException("Bad hole start "
+                        + holeStarts[i] + " at " + i + " for " + points
+                        + " points: " + Arrays.toString(holeStarts));
+            }
+            last = holeStarts[i];
+        }
+        TriangleSink sink = new TriangleSink(points * 3);
+        run(coords, holeStarts, 0, sink);
+        return new TriangleMesh(toFloats(coords), sink.toArray());
+    }
+
+    private static int findParent(double[][] coords, double[] areas,
+            boolean[] holes, int hole) {
+        // Find a point just to the filled side of the hole's longest
+        // edge - filled regions are on the left of every edge of the
+        // result - and pick the smallest outer contour that contains it
+        double[] pts = coords[hole];
+        double bestLength = -1;
+        double px = 0;
+        double py = 0;
+        for (int i = 0; i < pts.length; i += 2) {
+            int j = (i + 2) % pts.length;
+            double dx = pts[j] - pts[i];
+            double dy = pts[j + 1] - pts[i + 1];
+            double len = dx * dx + dy * dy;
+            if (len > bestLength) {
+                bestLength = len;
+                px = ((pts[i] + pts[j]) / 2) - (dy * 1E-7);
+                py = ((pts[i + 1] + pts[j + 1]) / 2) + (dx * 1E-7);
+            }
+        }
+        int result = -1;
+        for (int i = 0; i < coords.length; i++) {
+            if (holes[i]) {
+                continue;
+            }
+            if ((result == -1 || areas[i] < areas[result])
+                    && areas[i] >= areas[hole] && crosses(coords[i], px, py)) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    private static boolean crosses(double[] pts, double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = pts.length - 2; i < pts.length; j = i, i += 2) {
+            double yi = pts[i + 1];
+            double yj = pts[j + 1];
+            if ((yi > y) != (yj > y) && x < (pts[j] - pts[i]) * (y - yi)
+                    / (yj - yi) + pts[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static float[] toFloats(double[] coords) {
+        float[] result = new float[coords.length];
+        for (int i = 0; i < coords.length; i++) {
+            result[i] = (float) coords[i];
+        }
+        return result;
+    }
+
+    private static double area2(double[] pts) {
+        double result = 0;
+        for (int i = 0, j = pts.length - 2; i < pts.length; j = i, i += 2) {
+            result += (pts[j] - pts[i]) * (pts[i + 1] + pts[j + 1]);
+        }
+        return result;
+    }
+
+    private static void run(double[] data, int[] holeStarts, int base,
+            TriangleSink sink) {
+        int points = data.length / 2;
+        if (points > MONOTONE_THRESHOLD) {
+            int mark = sink.size();
+            if (new MonotoneTriangulator(data).triangulate(holeStarts, base,
+                    sink)) {
+                return;
+            }
+            sink.truncate(mark);
+        }
+        new EarClipper(points + (holeStarts.length * 2))
+                .triangulate(data, holeStarts, base, sink);
+    }
+}
@@ -0,0 +1,428 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.path;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+
+/**
+ * A cursor over the segments of a shape or path iterator which allocates
+ * nothing per segment: each call to <code>next()</code> reads the next
+ * segment into a single reused <code>double[6]</code> (shared with a single
+ * reused {@link FlyweightPathElement}), and the destination point, the point
+ * the segment starts from, and control points are available as primitives.
+ * A cursor can be <code>reset()</code> to traverse another shape, so one
+ * instance can walk any number of shapes; the only per-shape allocation is
+ * whatever the shape's <code>getPathIterator()</code> does.
+ * <p>
+ * Typical use:
+ * </p>
+ * <pre>
+ * PathCursor cursor = PathCursor.of(shape);
+ * while (cursor.nextPoint()) {
+ *     doSomethingWith(cursor.x(), cursor.y());
+ * }
+ * </pre>
+ * <p>
+ * Not thread-safe; the element and coordinate array returned by the cursor
+ * are overwritten by the next call to <code>next()</code>, so call
+ * <code>element().copy()</code> to keep one.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class PathCursor {
+
+    private final FlyweightPathElement element = new FlyweightPathElement();
+    private final double[] coords = element.points();
+    private PathIterator iter;
+    private int type = -1;
+    private int index = -1;
+    private int pointIndex = -1;
+    private int subpathIndex = -1;
+    private double x;
+    private double y;
+    private double startX;
+    private double startY;
+    private double moveX;
+    private double moveY;
+
+    private PathCursor() {
+
+    }
+
+    /**
+     * Create a cursor which has nothing to traverse until it is reset.
+     *
+     * @return A cursor
+     */
+    public static PathCursor create() {
+        return new PathCursor();
+    }
+
+    /**
+     * Create a cursor over the untransformed path of a shape.
+     *
+     * @param shape A shape
+     * @return A cursor
+     */
+    public static PathCursor of(Shape shape) {
+        return new PathCursor().reset(shape.getPathIterator(null));
+    }
+
+    /**
+     * Create a cursor over the transformed path of a shape.
+     *
+     * @param shape A shape
+     * @param xform A transform, or null
+     * @return A cursor
+     */
+    public static PathCursor of(Shape shape, AffineTransform xform) {
+        return new PathCursor().reset(shape.getPathIterator(xform));
+    }
+
+    /**
+     * Create a cursor over the remaining segments of a path iterator.
+     *
+     * @param iter A path iterator
+     * @return A cursor
+     */
+    public static PathCursor of(PathIterator iter) {
+        return new PathCursor().reset(iter);
+    }
+
+    /**
+     * Restart this cursor on the untransformed path of a shape.
+     *
+     * @param shape A shape
+     * @return this
+     */
+    public PathCursor reset(Shape shape) {
+        return reset(shape.getPathIterator(null));
+    }
+
+    /**
+     * Restart this cursor on the transformed path of a shape.
+     *
+     * @param shape A shape
+     * @param xform A transform, or null
+     * @return this
+     */
+    public PathCursor reset(Shape shape, AffineTransform xform) {
+        return reset(shape.getPathIterator(xform));
+    }
+
+    /**
+     * Restart this cursor on the remaining segments of a path iterator.
+     *
+     * @param iter A path iterator
+     * @return this
+     */
+    public PathCursor reset(PathIterator iter) {
+        this.iter = iter;
+        type = -1;
+        index = -1;
+        pointIndex = -1;
+        subpathIndex = -1;
+        x = y = startX = startY = moveX = moveY = 0;
+        return this;
+    }
+
+    /**
+     * Advance to the next segment.
+     *
+     * @return false if there are no more segments
+     */
+    public boolean next() {
+        if (iter == null || !element.update(iter)) {
+            iter = null;
+            type = -1;
+            return false;
+        }
+        iter.next();
+        type = element.type();
+        index++;
+        startX = x;
+        startY = y;
+        switch (type) {
+            case SEG_CLOSE:
+                x = moveX;
+                y = moveY;
+                return true;
+            case SEG_MOVETO:
+                x = startX = moveX = coords[0];
+                y = startY = moveY = coords[1];
+                subpathIndex++;
+                break;
+            case SEG_QUADTO:
+                x = coords[2];
+                y = coords[3];
+                break;
+            case SEG_CUBICTO:
+                x = coords[4];
+                y = coords[5];
+                break;
+            default:
+                x = coords[0];
+                y = coords[1];
+        }
+        pointIndex++;
+        return true;
+    }
+
+    /**
+     * Advance to the next segment which has coordinates, skipping
+     * <code>SEG_CLOSE</code> segments.
+     *
+     * @return false if there are no more such segments
+     */
+    public boolean nextPoint() {
+        while (next()) {
+            if (type != SEG_CLOSE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine whether the cursor is positioned on a segment.
+     *
+     * @return true if <code>next()</code> has been called and the last call
+     * returned true
+     */
+    public boolean isActive() {
+        return type >= 0;
+    }
+
+    /**
+     * Get the type of the current segment, one of the constants on
+     * PathIterator, or -1 if the cursor is not on a segment.
+     *
+     * @return The type
+     */
+    public int type() {
+        return type;
+    }
+
+    /**
+     * Get the kind of the current segment.
+     *
+     * @return The kind, or null if the cursor is not on a segment
+     */
+    public PathElementKind kind() {
+        return type < 0 ? null : PathElementKind.of(type);
+    }
+
+    /**
+     * Determine if the current segment has coordinates (is not a
+     * <code>SEG_CLOSE</code>).
+     *
+     * @return true if the current segment has coordinates
+     */
+    public boolean hasCoordinates() {
+        return type >= 0 && type != SEG_CLOSE;
+    }
+
+    /**
+     * Determine if the current segment is a quadratic or cubic curve.
+     *
+     * @return true if it is a curve
+     */
+    public boolean isCurve() {
+        return type == SEG_QUADTO || type == SEG_CUBICTO;
+    }
+
+    /**
+     * Get the index of the current segment among all segments traversed
+     * since the cursor was created or reset.
+     *
+     * @return The segment index, or -1 if none
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Get the index of the current segment among segments which have
+     * coordinates - the same numbering as <code>EnhancedShape.point(int)</code>.
+     * For a <code>SEG_CLOSE</code> this is the index of the preceding point.
+     *
+     * @return The point index, or -1 if none
+     */
+    public int pointIndex() {
+        return pointIndex;
+    }
+
+    /**
+     * Get the index of the subpath (the count of <code>SEG_MOVETO</code>s,
+     * less one) the current segment belongs to.
+     *
+     * @return The subpath index, or -1 if no move has been encountered
+     */
+    public int subpathIndex() {
+        return subpathIndex;
+    }
+
+    /**
+     * Get the x coordinate of the destination point of the current segment;
+     * for a <code>SEG_CLOSE</code>, the point the path closes back to.
+     *
+     * @return The x coordinate
+     */
+    public double x() {
+        return x;
+    }
+
+    /**
+     * Get the y coordinate of the destination point of the current segment;
+     * for a <code>SEG_CLOSE</code>, the point the path closes back to.
+     *
+     * @return The y coordinate
+     */
+    public double y() {
+        return y;
+    }
+
+    /**
+     * Get the x coordinate of the point the current segment starts from - the
+     * destination of the preceding segment; for a <code>SEG_MOVETO</code> it
+     * is the destination of the move.
+     *
+     * @return The x coordinate
+     */
+    public double startX() {
+        return startX;
+    }
+
+    /**
+     * Get the y coordinate of the point the current segment starts from - the
+     * destination of the preceding segment; for a <code>SEG_MOVETO</code> it
+     * is the destination of the move.
+     *
+     * @return The y coordinate
+     */
+    public double startY() {
+        return startY;
+    }
+
+    /**
+     * Get the x coordinate of the start of the current subpath.
+     *
+     * @return The x coordinate
+     */
+    public double subpathStartX() {
+        return moveX;
+    }
+
+    /**
+     * Get the y coordinate of the start of the current subpath.
+     *
+     * @return The y coordinate
+     */
+    public double subpathStartY() {
+        return moveY;
+    }
+
+    /**
+     * Get the number of control points of the current segment - 1 for
+     * quadratic and 2 for cubic curves, otherwise 0.
+     *
+     * @return The number of control points
+     */
+    public int controlPointCount() {
+        switch (type) {
+            case SEG_QUADTO:
+                return 1;
+            case SEG_CUBICTO:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Get the x coordinate of a control point of the current segment.
+     *
+     * @param controlPoint 0 or, for cubic curves, 1
+     * @return The x coordinate
+     * @throws IndexOutOfBoundsException if there is no such control point
+     */
+    public double controlX(int controlPoint) {
+        return coords[checkControlPoint(controlPoint) * 2];
+    }
+
+    /**
+     * Get the y coordinate of a control point of the current segment.
+     *
+     * @param controlPoint 0 or, for cubic curves, 1
+     * @return The y coordinate
+     * @throws IndexOutOfBoundsException if there is no such control point
+     */
+    public double controlY(int controlPoint) {
+        return coords[(checkControlPoint(controlPoint) * 2) + 1];
+    }
+
+    /**
+     * Get the raw coordinate array of the current segment, as filled in by
+     * <code>PathIterator.currentSegment()</code>. This is the live array,
+     * which is overwritten by each call to <code>next()</code> - do not
+     * modify it.
+     *
+     * @return The coordinate array
+     */
+    public double[] coordinates() {
+        return coords;
+    }
+
+    /**
+     * Get the current segment as a path element. This is a single reused
+     * flyweight instance whose contents change on each call to
+     * <code>next()</code>.
+     *
+     * @return A path element
+     */
+    public FlyweightPathElement element() {
+        return element;
+    }
+
+    private int checkControlPoint(int controlPoint) {
+        if (controlPoint < 0 || controlPoint >= controlPointCount()) {
+            throw new IndexOutOfBoundsException("No control point "
+                    + controlPoint + " in " + kind());
+        }
+        return controlPoint;
+    }
+
+    @Override
+    public String toString() {
+        return type < 0 ? "PathCursor(inactive)"
+                : "PathCursor(" + index + " " + element + ")";
+    }
+}
@@ -0,0 +1,552 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.raster;
+
+import com.mastfrog.geometry.util.DoubleList;
+import com.mastfrog.geometry.util.GeometryUtils;
+import com.mastfrog.util.sort.Sort;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_LINETO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+import static java.awt.geom.PathIterator.WIND_EVEN_ODD;
+import static java.awt.geom.PathIterator.WIND_NON_ZERO;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rasterizes a path into an 8-bit, anti-aliased coverage mask without going
+ * through Java2D - no BufferedImage or Graphics2D is involved, and the only
+ * output is the <code>byte[]</code> the caller passes in.
+ * <p>
+ * The path is flattened into line edges once, when the rasterizer is
+ * created; after that, any number of tiles can be rasterized from it,
+ * concurrently if need be. Each pixel row is sampled at
+ * <code>SUBSAMPLES</code> evenly spaced sub-scanlines; along each
+ * sub-scanline, the spans inside the path (per its winding rule) are
+ * accumulated with exact fractional coverage at their ends, so horizontal
+ * anti-aliasing is analytic and vertical anti-aliasing is sampled.
+ * </p><p>
+ * Pixel <code>(px, py)</code> of a tile at <code>(x, y)</code> covers the
+ * square from <code>(x + px, y + py)</code> to
+ * <code>(x + px + 1, y + py + 1)</code> in the (transformed) coordinate space
+ * of the path, and a coverage of 255 means fully inside.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class CoverageRasterizer {
+
+    /**
+     * The number of sub-scanlines sampled per pixel row.
+     */
+    public static final int SUBSAMPLES = 16;
+    /**
+     * The flatness, in pixels, to which curves are flattened.
+     */
+    public static final double FLATNESS = 0.1;
+    private static final int MIN_BAND_ROWS = 16;
+    // Coverage is accumulated in fixed point, in UNITs per pixel per
+    // sub-scanline
+    private static final int UNIT = 256;
+    private static final int FULL_COVERAGE = UNIT * SUBSAMPLES;
+    private static final int ROUNDING = FULL_COVERAGE / 2;
+    private final int windingRule;
+    // Edges, sorted by top y; direction is +1 for edges which went
+    // downward in the path, -1 for upward
+    private final double[] topY;
+    private final double[] bottomY;
+    private final double[] topX;
+    private final double[] slope;
+    private final byte[] direction;
+    private final int edgeCount;
+    private final double minX, minY, maxX, maxY;
+
+    private CoverageRasterizer(int windingRule, DoubleList edges) {
+        this.windingRule = windingRule;
+        int count = edges.size() / 4;
+        double[] ty = new double[count];
+        double[] by = new double[count];
+        double[] tx = new double[count];
+        double[] sl = new double[count];
+        byte[] dir = new byte[count];
+        double mnx = Double.MAX_VALUE;
+        double mny = Double.MAX_VALUE;
+        double mxx = -Double.MAX_VALUE;
+        double mxy = -Double.MAX_VALUE;
+        int ix = 0;
+        for (int i = 0; i < count; i++) {
+            double x0 = edges.getDouble(i * 4);
+            double y0 = edges.getDouble(i * 4 + 1);
+            double x1 = edges.getDouble(i * 4 + 2);
+            double y1 = edges.getDouble(i * 4 + 3);
+            mnx = Math.min(mnx, Math.min(x0, x1));
+            mxx = Math.max(mxx, Math.max(x0, x1));
+            mny = Math.min(mny, Math.min(y0, y1));
+            mxy = Math.max(mxy, Math.max(y0, y1));
+            if (y0 == y1) {
+                // Horizontal edges never cross a scanline
+                continue;
+            }
+            if (y0 < y1) {
+                ty[ix] = y0;
+                by[ix] = y1;
+                tx[ix] = x0;
+                dir[ix] = 1;
+            } else {
+                ty[ix] = y1;
+                by[ix] = y0;
+                tx[ix] = x1;
+                dir[ix] = -1;
+            }
+            sl[ix] = (x1 - x0) / (y1 - y0);
+            ix++;
+        }
+        if (count == 0) {
+            mnx = mny = mxx = mxy = 0;
+        }
+        minX = mnx;
+        minY = mny;
+        maxX = mxx;
+        maxY = mxy;
+        edgeCount = ix;
+        Sort.multiSort(ty, ix, (a, b) -> {
+            swap(by, a, b);
+            swap(tx, a, b);
+            swap(sl, a, b);
+            byte hold = dir[a];
+            dir[a] = dir[b];
+            dir[b] = hold;
+        });
+        topY = ty;
+        bottomY = by;
+        topX = tx;
+        slope = sl;
+        direction = dir;
+    }
+
+    private static void swap(double[] arr, int a, int b) {
+        double hold = arr[a];
+        arr[a] = arr[b];
+        arr[b] = hold;
+    }
+
+    /**
+     * Create a rasterizer for a shape.
+     *
+     * @param shape A shape
+     * @return A rasterizer
+     */
+    public static CoverageRasterizer of(Shape shape) {
+        return of(shape.getPathIterator(null));
+    }
+
+    /**
+     * Create a rasterizer for a shape, transforming it into pixel space.
+     *
+     * @param shape A shape
+     * @param xform A transform, or null
+     * @return A rasterizer
+     */
+    public static CoverageRasterizer of(Shape shape, AffineTransform xform) {
+        return of(shape.getPathIterator(xform));
+    }
+
+    /**
+     * Create a rasterizer for the remaining segments of a path iterator (for
+     * the shapes in this library, an ArrayPathIteratorDouble or
+     * ArrayPathIteratorFloat), using its winding rule. Each subpath is
+     * implicitly closed, as with <code>Graphics2D.fill()</code>.
+     *
+     * @param iter A path iterator
+     * @return A rasterizer
+     */
+    public static CoverageRasterizer of(PathIterator iter) {
+        return of(iter, iter.getWindingRule());
+    }
+
+    /**
+     * Create a rasterizer for the remaining segments of a path iterator,
+     * overriding its winding rule.
+     *
+     * @param iter A path iterator
+     * @param windingRule PathIterator.WIND_EVEN_ODD or
+     * PathIterator.WIND_NON_ZERO
+     * @return A rasterizer
+     */
+    public static CoverageRasterizer of(PathIterator iter, int windingRule) {
+        if (windingRule != WIND_EVEN_ODD && windingRule != WIND_NON_ZERO) {
+            throw new IllegalArgumentException("Bad winding rule " + windingRule);
+        }
+        DoubleList edges = new DoubleList(256);
+        // flattened curve points, appended to and never cleared
+        DoubleList curve = new DoubleList(64);
+        double[] data = new double[6];
+        double startX = 0;
+        double startY = 0;
+        double lastX = 0;
+        double lastY = 0;
+        while (!iter.isDone()) {
+            int type = iter.currentSegment(data);
+            switch (type) {
+                case SEG_MOVETO:
+                    addEdge(edges, lastX, lastY, startX, startY);
+                    startX = lastX = data[0];
+                    startY = lastY = data[1];
+                    break;
+                case SEG_LINETO:
+                    addEdge(edges, lastX, lastY, data[0], data[1]);
+                    lastX = data[0];
+                    lastY = data[1];
+                    break;
+                case SEG_QUADTO:
+                case SEG_CUBICTO:
+                    int curveStart = curve.size();
+                    if (type == SEG_QUADTO) {
+                        GeometryUtils.flattenQuadraticCurve(lastX, lastY,
+                                data[0], data[1], data[2], data[3], FLATNESS, curve);
+                    } else {
+                        GeometryUtils.flattenCubicCurve(lastX, lastY,
+                                data[0], data[1], data[2], data[3], data[4],
+                                data[5], FLATNESS, curve);
+                    }
+                    for (int i = curveStart; i < curve.size(); i += 2) {
+                        double x = curve.getDouble(i);
+                        double y = curve.getDouble(i + 1);
+                        addEdge(edges, lastX, lastY, x, y);
+                        lastX = x;
+                        lastY = y;
+                    }
+                    break;
+                case SEG_CLOSE:
+                    addEdge(edges, lastX, lastY, startX, startY);
+                    lastX = startX;
+                    lastY = startY;
+                    break;
+            }
+            iter.next();
+        }
+        addEdge(edges, lastX, lastY, startX, startY);
+        return new CoverageRasterizer(windingRule, edges);
+    }
+
+    private static void addEdge(DoubleList edges, double x0, double y0, double x1, double y1) {
+        if (x0 != x1 || y0 != y1) {
+            edges.add(x0);
+            edges.add(y0);
+            edges.add(x1);
+            edges.add(y1);
+        }
+    }
+
+    /**
+     * Get the winding rule used.
+     *
+     * @return The winding rule
+     */
+    public int windingRule() {
+        return windingRule;
+    }
+
+    /**
+     * Get the bounds of the flattened path.
+     *
+     * @return The bounds
+     */
+    public Rectangle2D bounds() {
+        return new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Rasterize a tile into a new array, one byte per pixel, with a scanline
+     * stride equal to the width.
+     *
+     * @param x The x coordinate of the tile's left edge
+     * @param y The y coordinate of the tile's top edge
+     * @param width The tile width in pixels
+     * @param height The tile height in pixels
+     * @return A coverage mask
+     */
+    public byte[] rasterize(int x, int y, int width, int height) {
+        byte[] result = new byte[width * height];
+        rasterize(x, y, width, height, result, 0, width);
+        return result;
+    }
+
+    /**
+     * Rasterize a tile into a caller-supplied array, overwriting every byte
+     * of the tile.
+     *
+     * @param x The x coordinate of the tile's left edge
+     * @param y The y coordinate of the tile's top edge
+     * @param width The tile width in pixels
+     * @param height The tile height in pixels
+     * @param into The array to write coverage into
+     * @param offset The array offset of the tile's top left pixel
+     * @param scanlineStride The distance in the array between rows
+     */
+    public void rasterize(int x, int y, int width, int height, byte[] into,
+            int offset, int scanlineStride) {
+        checkTile(width, height, into, offset, scanlineStride);
+        new Band(x, y, width, into, offset, scanlineStride).rows(0, height);
+    }
+
+    /**
+     * Rasterize a tile into a caller-supplied array, splitting the work into
+     * bands of rows processed in the passed pool. Produces identical output
+     * to <code>rasterize()</code>.
+     *
+     * @param pool A pool
+     * @param x The x coordinate of the tile's left edge
+     * @param y The y coordinate of the tile's top edge
+     * @param width The tile width in pixels
+     * @param height The tile height in pixels
+     * @param into The array to write coverage into
+     * @param offset The array offset of the tile's top left pixel
+     * @param scanlineStride The distance in the array between rows
+     */
+    public void rasterize(ForkJoinPool pool, int x, int y, int width, int height,
+            byte[] into, int offset, int scanlineStride) {
+        checkTile(width, height, into, offset, scanlineStride);
+        int bandRows = Math.max(MIN_BAND_ROWS,
+                height / Math.max(1, pool.getParallelism() * 4));
+        pool.invoke(new BandTask(x, y, width, into, offset, scanlineStride,
+                0, height, bandRows));
+    }
+
+    private static void checkTile(int width, int height, byte[] into, int offset, int scanlineStride) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Negative size " + width
+                    + " x " + height);
+        }
+        if (scanlineStride < width) {
+            throw new IllegalArgumentException("Scanline stride " + scanlineStride
+                    + " less than width " + width);
+        }
+        if (height > 0 && width > 0 && (offset < 0
+                || offset + ((long) (height - 1) * scanlineStride) + width > into.length)) {
+            throw new IllegalArgumentException("Tile of " + width + " x " + height
+                    + " with stride " + scanlineStride + " at " + offset
+                    + " does not fit in an array of " + into.length);
+        }
+    }
+
+    private final class BandTask extends RecursiveAction {
+
+        private final int x;
+        private final int y;
+        private final int width;
+        private final byte[] into;
+        private final int offset;
+        private final int scanlineStride;
+        private final int firstRow;
+        private final int lastRow;
+        private final int bandRows;
+
+        BandTask(int x, int y, int width, byte[] into, int offset,
+                int scanlineStride, int firstRow, int lastRow, int bandRows) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.into = into;
+            this.offset = offset;
+            this.scanlineStride = scanlineStride;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = lastRow - firstRow;
+            if (rows <= bandRows) {
+                new Band(x, y, width, into, offset, scanlineStride)
+                        .rows(firstRow, lastRow);
+                return;
+            }
+            int mid = firstRow + (rows / 2);
+            invokeAll(new BandTask(x, y, width, into, offset, scanlineStride,
+                    firstRow, mid, bandRows),
+                    new BandTask(x, y, width, into, offset, scanlineStride,
+                            mid, lastRow, bandRows));
+        }
+    }
+
+    /**
+     * Scratch state for rasterizing a run of rows of one tile.
+     */
+    private final class Band {
+
+        private final int x;
+        private final int y;
+        private final int width;
+        private final byte[] into;
+        private final int offset;
+        private final int scanlineStride;
+        // Partial coverage of pixels at span ends, and a difference array
+        // of fully covered runs, so each span costs O(1) whatever its width
+        private final int[] partial;
+        private final int[] runs;
+        private int touchedMin = Integer.MAX_VALUE;
+        private int touchedMax = -1;
+        private int[] active = new int[16];
+        private int activeCount;
+        private int nextEdge;
+        // The x coordinate at which each active edge crosses the current
+        // sub-scanline; active edges are kept sorted by it, which from one
+        // sub-scanline to the next needs few swaps
+        private double[] activeX = new double[16];
+
+        Band(int x, int y, int width, byte[] into, int offset, int scanlineStride) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.into = into;
+            this.offset = offset;
+            this.scanlineStride = scanlineStride;
+            partial = new int[width + 1];
+            runs = new int[width + 1];
+        }
+
+        void rows(int firstRow, int lastRow) {
+            double bandTop = y + firstRow;
+            // Skip edges ending above the band, and collect those which
+            // straddle its top
+            while (nextEdge < edgeCount && topY[nextEdge] < bandTop) {
+                if (bottomY[nextEdge] > bandTop) {
+                    addActive(nextEdge);
+                }
+                nextEdge++;
+            }
+            for (int row = firstRow; row < lastRow; row++) {
+                int rowOffset = offset + (row * scanlineStride);
+                double rowTop = y + row;
+                if (width == 0) {
+                    continue;
+                }
+                if (rowTop >= maxY || rowTop + 1 <= minY || x >= maxX || x + width <= minX) {
+                    Arrays.fill(into, rowOffset, rowOffset + width, (byte) 0);
+                    continue;
+                }
+                for (int sub = 0; sub < SUBSAMPLES; sub++) {
+                    sample(rowTop + ((sub + 0.5) / SUBSAMPLES));
+                }
+                emit(rowOffset);
+            }
+        }
+
+        private void addActive(int edge) {
+            if (activeCount == active.length) {
+                active = Arrays.copyOf(active, active.length * 2);
+                activeX = Arrays.copyOf(activeX, active.length);
+            }
+            active[activeCount++] = edge;
+        }
+
+        private void sample(double sy) {
+            while (nextEdge < edgeCount && topY[nextEdge] <= sy) {
+                addActive(nextEdge++);
+            }
+            // Update crossings, dropping edges which have ended, and restore
+            // the sort order with an insertion sort
+            int count = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int e = active[i];
+                if (bottomY[e] <= sy) {
+                    continue;
+                }
+                double cx = topX[e] + (sy - topY[e]) * slope[e];
+                int at = count++;
+                while (at > 0 && activeX[at - 1] > cx) {
+                    active[at] = active[at - 1];
+                    activeX[at] = activeX[at - 1];
+                    at--;
+                }
+                active[at] = e;
+                activeX[at] = cx;
+            }
+            activeCount = count;
+            int winding = 0;
+            for (int i = 0; i < count - 1; i++) {
+                winding += direction[active[i]];
+                boolean inside = windingRule == WIND_EVEN_ODD
+                        ? (winding & 1) != 0
+                        : winding != 0;
+                if (inside) {
+                    span(activeX[i] - x, activeX[i + 1] - x);
+                }
+            }
+        }
+
+        private void span(double left, double right) {
+            if (right <= 0 || left >= width || right <= left) {
+                return;
+            }
+            left = Math.max(0, left);
+            right = Math.min(width, right);
+            int first = (int) left;
+            int last = (int) right;
+            touchedMin = Math.min(touchedMin, first);
+            touchedMax = Math.max(touchedMax, Math.min(width - 1, last));
+            if (first == last) {
+                partial[first] += (int) ((right - left) * UNIT);
+                return;
+            }
+            partial[first] += (int) (((first + 1) - left) * UNIT);
+            if (last > first + 1) {
+                runs[first + 1] += UNIT;
+                runs[last] -= UNIT;
+            }
+            if (last < width) {
+                partial[last] += (int) ((right - last) * UNIT);
+            }
+        }
+
+        private void emit(int rowOffset) {
+            if (touchedMin > touchedMax) {
+                Arrays.fill(into, rowOffset, rowOffset + width, (byte) 0);
+                return;
+            }
+            Arrays.fill(into, rowOffset, rowOffset + touchedMin, (byte) 0);
+            Arrays.fill(into, rowOffset + touchedMax + 1, rowOffset + width, (byte) 0);
+            int run = 0;
+            for (int i = touchedMin; i <= touchedMax; i++) {
+                run += runs[i];
+                int coverage = ((partial[i] + run) * 255 + ROUNDING) / FULL_COVERAGE;
+                into[rowOffset + i] = (byte) Math.min(255, coverage);
+                partial[i] = 0;
+                runs[i] = 0;
+            }
+            runs[touchedMax + 1] = 0;
+            touchedMin = Integer.MAX_VALUE;
+            touchedMax = -1;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import static com.mastfrog.geometry.simplify.PolylineReducer.segmentDistanceSquared;
+import java.util.Arrays;
+
+/**
+ * Douglas-Peucker reduction: keep the point farthest from the chord between
+ * two kept points if it is farther than the tolerance, and recurse on both
+ * halves, using an explicit stack so long runs cannot overflow the call
+ * stack. Every discarded point is within the tolerance of the result.
+ *
+ * @author Tim Boudreau
+ */
+final class DouglasPeucker implements PolylineReducer {
+
+    private int[] stack = new int[32];
+
+    @Override
+    public void reduce(double[] pts, int count, boolean closed,
+            double tolerance, boolean[] keep) {
+        Arrays.fill(keep, 0, count, false);
+        keep[0] = true;
+        if (count < 3) {
+            Arrays.fill(keep, 0, count, true);
+            return;
+        }
+        double tolSquared = tolerance * tolerance;
+        if (closed) {
+            // Split the ring at the point farthest from the first, closing it
+            // by repeating the first point after the last
+            int far = 0;
+            double best = -1;
+            for (int i = 1; i < count; i++) {
+                double dx = pts[i * 2] - pts[0];
+                double dy = pts[i * 2 + 1] - pts[1];
+                double dist = (dx * dx) + (dy * dy);
+                if (dist > best) {
+                    best = dist;
+                    far = i;
+                }
+            }
+            pts[count * 2] = pts[0];
+            pts[count * 2 + 1] = pts[1];
+            keep[far] = true;
+            run(pts, 0, far, tolSquared, keep);
+            run(pts, far, count, tolSquared, keep);
+        } else {
+            keep[count - 1] = true;
+            run(pts, 0, count - 1, tolSquared, keep);
+        }
+    }
+
+    private void run(double[] pts, int first, int last, double tolSquared,
+            boolean[] keep) {
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+        while (top > 0) {
+            int b = stack[--top];
+            int a = stack[--top];
+            double ax = pts[a * 2];
+            double ay = pts[a * 2 + 1];
+            double bx = pts[b * 2];
+            double by = pts[b * 2 + 1];
+            int farthest = -1;
+            double best = tolSquared;
+            for (int i = a + 1; i < b; i++) {
+                double dist = segmentDistanceSquared(ax, ay, bx, by,
+                        pts[i * 2], pts[i * 2 + 1]);
+                if (dist > best) {
+                    best = dist;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = a;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = b;
+            }
+        }
+    }
+}
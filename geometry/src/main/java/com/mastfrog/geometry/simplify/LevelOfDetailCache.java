@@ -0,0 +1,483 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import com.mastfrog.function.ByteConsumer;
+import com.mastfrog.geometry.ArrayPathIteratorDouble;
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.util.DoubleList;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches flattened, simplified coordinates of shapes at the levels of detail
+ * they are rendered at, so shapes drawn repeatedly at various zoom levels
+ * are flattened and simplified once per level, and each subsequent render
+ * costs only copying (and transforming) an array.
+ * <p>
+ * Levels are buckets of the effective scale of the rendering transform -
+ * the most it stretches any direction, so a transform which scales one axis
+ * far more than the other gets the detail the more stretched axis needs - in
+ * steps of the square root of two. Each level is flattened and simplified so that it
+ * deviates from the true outline by no more than the pixel tolerance at the
+ * largest scale in its bucket.
+ * </p><p>
+ * Shapes are held weakly and compared by identity. The cache is bounded by
+ * the memory its arrays occupy, evicting the least recently used shapes
+ * first, and holds at most four levels per shape. Changes to a
+ * <code>Polygon2D</code> or <code>Circle</code> are detected; other mutable
+ * shapes must be {@link #invalidate(Shape) invalidated} after alteration.
+ * </p><p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class LevelOfDetailCache {
+
+    private static final int MAX_LEVELS = 4;
+    private static final double MIN_SCALE = 1E-6;
+    private static final double MAX_SCALE = 1E6;
+    private static final double LOG_STEP = Math.log(Math.sqrt(2));
+    private final LinkedHashMap<Object, Levels> levels
+            = new LinkedHashMap<>(64, 0.75F, true);
+    private final ReferenceQueue<Shape> queue = new ReferenceQueue<>();
+    private final Probe probe = new Probe();
+    private final long maxBytes;
+    private final double pixelTolerance;
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * Create a cache of up to 64Mb, which simplifies to within a quarter
+     * pixel.
+     */
+    public LevelOfDetailCache() {
+        this(64L * 1024 * 1024, 0.25);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maxBytes The maximum memory used by cached arrays
+     * @param pixelTolerance The maximum distance, in device pixels, of the
+     * cached outline from the true outline
+     */
+    public LevelOfDetailCache(long maxBytes, double pixelTolerance) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Bad max bytes " + maxBytes);
+        }
+        if (!(pixelTolerance > 0) || Double.isInfinite(pixelTolerance)) {
+            throw new IllegalArgumentException("Bad tolerance "
+                    + pixelTolerance);
+        }
+        this.maxBytes = maxBytes;
+        this.pixelTolerance = pixelTolerance;
+    }
+
+    /**
+     * Get a path iterator over the cached outline of a shape at the level of
+     * detail appropriate to a transform, computing it if necessary.
+     *
+     * @param shape A shape
+     * @param xform The transform the shape will be rendered with, or null
+     * @return An iterator over the transformed, simplified outline
+     */
+    public ArrayPathIteratorDouble getPathIterator(Shape shape,
+            AffineTransform xform) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Null shape");
+        }
+        int level = level(effectiveScale(xform));
+        Level result;
+        synchronized (this) {
+            expunge();
+            result = lookup(shape, level);
+            if (result != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (result == null) {
+            result = compute(shape, level);
+            synchronized (this) {
+                store(shape, result);
+            }
+        }
+        return new ArrayPathIteratorDouble(result.windingRule, result.types,
+                result.coords, xform);
+    }
+
+    /**
+     * Discard any cached levels for a shape.
+     *
+     * @param shape A shape
+     */
+    public synchronized void invalidate(Shape shape) {
+        Levels lvls = levels.remove(probe.of(shape));
+        probe.clear();
+        if (lvls != null) {
+            bytes -= lvls.bytes();
+        }
+    }
+
+    /**
+     * Discard all cached levels.
+     */
+    public synchronized void clear() {
+        levels.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get the number of shapes with cached levels.
+     *
+     * @return The number of shapes
+     */
+    public synchronized int size() {
+        expunge();
+        return levels.size();
+    }
+
+    /**
+     * Get the approximate memory occupied by cached arrays.
+     *
+     * @return A number of bytes
+     */
+    public synchronized long bytes() {
+        expunge();
+        return bytes;
+    }
+
+    /**
+     * Get the number of requests served from already cached levels.
+     *
+     * @return The hit count
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of requests which required a level to be flattened and
+     * simplified.
+     *
+     * @return The miss count
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Get the effective scale of a transform - the largest factor by which it
+     * stretches any distance (its larger singular value), so a uniform scale
+     * returns its scale factor, and an error of <i>e</i> in untransformed
+     * coordinates is never more than <i>e</i> times this once transformed.
+     *
+     * @param xform A transform, or null
+     * @return The scale
+     */
+    public static double effectiveScale(AffineTransform xform) {
+        if (xform == null) {
+            return 1;
+        }
+        double a = xform.getScaleX();
+        double b = xform.getShearY();
+        double c = xform.getShearX();
+        double d = xform.getScaleY();
+        // Largest eigenvalue of the transpose times the matrix, square-rooted
+        double sum = a * a + b * b + c * c + d * d;
+        double diff = a * a + b * b - c * c - d * d;
+        double dot = a * c + b * d;
+        double result = Math.sqrt((sum + Math.sqrt(diff * diff
+                + 4 * dot * dot)) / 2);
+        if (!(result >= MIN_SCALE)) {
+            // Degenerate or NaN - no detail is needed
+            return MIN_SCALE;
+        }
+        return Math.min(MAX_SCALE, result);
+    }
+
+    static int level(double scale) {
+        return (int) Math.ceil(Math.log(scale) / LOG_STEP);
+    }
+
+    static double levelScale(int level) {
+        return Math.exp(level * LOG_STEP);
+    }
+
+    private Level compute(Shape shape, int level) {
+        double tolerance = pixelTolerance / levelScale(level);
+        Signature signature = Signature.of(shape);
+        PathIterator it = shape.getPathIterator(null);
+        int windingRule = it.getWindingRule();
+        DoubleList coords = new DoubleList(64);
+        Bytes types = new Bytes();
+        PathSimplifier.douglasPeucker(tolerance).simplify(it, coords, types);
+        return new Level(level, windingRule, types.toByteArray(),
+                coords.toDoubleArray(), signature);
+    }
+
+    private Level lookup(Shape shape, int level) {
+        Levels lvls = levels.get(probe.of(shape));
+        probe.clear();
+        if (lvls == null) {
+            return null;
+        }
+        Level result = lvls.get(level);
+        if (result != null && !result.signature.matches(shape)) {
+            bytes -= lvls.bytes();
+            levels.remove(lvls.ref);
+            return null;
+        }
+        return result;
+    }
+
+    private void store(Shape shape, Level level) {
+        Levels lvls = levels.get(probe.of(shape));
+        probe.clear();
+        if (lvls == null) {
+            lvls = new Levels(new ShapeRef(shape, queue));
+            levels.put(lvls.ref, lvls);
+        }
+        bytes += lvls.put(level);
+        Iterator<Map.Entry<Object, Levels>> iter = levels.entrySet().iterator();
+        while (bytes > maxBytes && iter.hasNext()) {
+            Levels eldest = iter.next().getValue();
+            if (eldest == lvls && levels.size() > 1) {
+                continue;
+            }
+            bytes -= eldest.bytes();
+            iter.remove();
+        }
+    }
+
+    private void expunge() {
+        Reference<? extends Shape> ref;
+        while ((ref = queue.poll()) != null) {
+            Levels lvls = levels.remove(ref);
+            if (lvls != null) {
+                bytes -= lvls.bytes();
+            }
+        }
+    }
+
+    /**
+     * Weak, identity-based key for a shape.
+     */
+    private static final class ShapeRef extends WeakReference<Shape> {
+
+        private final int hash;
+
+        ShapeRef(Shape shape, ReferenceQueue<Shape> queue) {
+            super(shape, queue);
+            hash = System.identityHashCode(shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o == this;
+        }
+    }
+
+    /**
+     * Reusable lookup key, used while holding the cache's lock, which
+     * matches the ShapeRef for the same shape without allocating one.
+     */
+    private static final class Probe {
+
+        private Shape shape;
+
+        Probe of(Shape shape) {
+            this.shape = shape;
+            return this;
+        }
+
+        void clear() {
+            shape = null;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(shape);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ShapeRef && ((ShapeRef) o).get() == shape;
+        }
+    }
+
+    /**
+     * The most recently used levels of one shape.
+     */
+    private static final class Levels {
+
+        private final ShapeRef ref;
+        private final Level[] items = new Level[MAX_LEVELS];
+
+        Levels(ShapeRef ref) {
+            this.ref = ref;
+        }
+
+        Level get(int level) {
+            for (int i = 0; i < items.length && items[i] != null; i++) {
+                if (items[i].level == level) {
+                    Level result = items[i];
+                    System.arraycopy(items, 0, items, 1, i);
+                    items[0] = result;
+                    return result;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Add a level as the most recently used, returning the change in
+         * memory used.
+         */
+        long put(Level level) {
+            long delta = level.bytes();
+            int last = items.length - 1;
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] == null || items[i].level == level.level) {
+                    last = i;
+                    break;
+                }
+            }
+            if (items[last] != null) {
+                delta -= items[last].bytes();
+            }
+            System.arraycopy(items, 0, items, 1, last);
+            items[0] = level;
+            return delta;
+        }
+
+        long bytes() {
+            long result = 0;
+            for (int i = 0; i < items.length && items[i] != null; i++) {
+                result += items[i].bytes();
+            }
+            return result;
+        }
+    }
+
+    private static final class Level {
+
+        private final int level;
+        private final int windingRule;
+        private final byte[] types;
+        private final double[] coords;
+        private final Signature signature;
+
+        Level(int level, int windingRule, byte[] types, double[] coords,
+                Signature signature) {
+            this.level = level;
+            this.windingRule = windingRule;
+            this.types = types;
+            this.coords = coords;
+            this.signature = signature;
+        }
+
+        long bytes() {
+            return (coords.length * 8L) + types.length + 64;
+        }
+    }
+
+    /**
+     * Detects changes to the mutable shapes in this library whose changes
+     * can be detected.
+     */
+    private static final class Signature {
+
+        private static final Signature NONE = new Signature(0, 0, 0, 0);
+        private final double a;
+        private final double b;
+        private final double c;
+        private final double d;
+
+        Signature(double a, double b, double c, double d) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        static Signature of(Shape shape) {
+            if (shape instanceof Polygon2D) {
+                return new Signature(((Polygon2D) shape).revision(), 0, 0, 0);
+            } else if (shape instanceof Circle) {
+                Circle circ = (Circle) shape;
+                return new Signature(circ.centerX(), circ.centerY(),
+                        circ.radius(), circ.rotation());
+            }
+            return NONE;
+        }
+
+        boolean matches(Shape shape) {
+            if (shape instanceof Polygon2D) {
+                return ((Polygon2D) shape).revision() == a;
+            } else if (shape instanceof Circle) {
+                Circle circ = (Circle) shape;
+                return circ.centerX() == a && circ.centerY() == b
+                        && circ.radius() == c && circ.rotation() == d;
+            }
+            return true;
+        }
+    }
+
+    private static final class Bytes implements ByteConsumer {
+
+        private byte[] bytes = new byte[32];
+        private int size;
+
+        @Override
+        public void accept(byte value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import com.mastfrog.function.ByteConsumer;
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.util.DoubleList;
+import com.mastfrog.util.collections.IntList;
+import java.awt.Shape;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_LINETO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+import java.util.Arrays;
+
+/**
+ * Reduces the number of points in paths - such as traced bitmaps, or shapes
+ * built by <code>GeometryUtils.approximate()</code> - which contain long runs
+ * of collinear or nearly collinear points, discarding points which contribute
+ * less than a tolerance to the outline.
+ * <p>
+ * Output is streamed as segment types and coordinates into the caller's
+ * collections, one subpath at a time, with no intermediate shapes. Subpath
+ * boundaries and <code>SEG_CLOSE</code> are preserved, as is the first point
+ * of every subpath. Closed subpaths are simplified as rings, so the closing
+ * edge is treated like any other.
+ * </p><p>
+ * By default, curves are flattened before simplification; a simplifier
+ * {@link #keepingCurves() keeping curves} instead passes curve segments
+ * through intact, simplifying only the runs of straight lines between them,
+ * with the endpoints of curves fixed.
+ * </p><p>
+ * Instances are immutable and may be shared between threads.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class PathSimplifier {
+
+    private final double tolerance;
+    private final double flatness;
+    private final boolean visvalingam;
+    private final boolean keepCurves;
+
+    private PathSimplifier(double tolerance, double flatness,
+            boolean visvalingam, boolean keepCurves) {
+        this.tolerance = tolerance;
+        this.flatness = flatness;
+        this.visvalingam = visvalingam;
+        this.keepCurves = keepCurves;
+    }
+
+    /**
+     * Create a simplifier using the Douglas-Peucker algorithm, which
+     * guarantees that every discarded point lies within the tolerance of the
+     * simplified outline. Curves are flattened to within the tolerance.
+     *
+     * @param tolerance The maximum distance of discarded points from the
+     * result
+     * @return A simplifier
+     */
+    public static PathSimplifier douglasPeucker(double tolerance) {
+        checkTolerance(tolerance);
+        return new PathSimplifier(tolerance, tolerance, false, false);
+    }
+
+    /**
+     * Create a simplifier using the Visvalingam-Whyatt algorithm, which
+     * discards points by the area of the triangle each forms with its
+     * neighbours, tending to keep the overall character of noisy outlines
+     * better than Douglas-Peucker. Points are discarded while their triangle
+     * is smaller in area than the square of the tolerance. Curves are
+     * flattened to within the tolerance.
+     *
+     * @param tolerance The tolerance
+     * @return A simplifier
+     */
+    public static PathSimplifier visvalingam(double tolerance) {
+        checkTolerance(tolerance);
+        return new PathSimplifier(tolerance, tolerance, true, false);
+    }
+
+    private static void checkTolerance(double tolerance) {
+        if (!(tolerance >= 0) || Double.isInfinite(tolerance)) {
+            throw new IllegalArgumentException("Bad tolerance " + tolerance);
+        }
+    }
+
+    /**
+     * Get a copy of this simplifier which passes quadratic and cubic curves
+     * through unaltered, rather than flattening them.
+     *
+     * @return A simplifier
+     */
+    public PathSimplifier keepingCurves() {
+        return keepCurves ? this
+                : new PathSimplifier(tolerance, flatness, visvalingam, true);
+    }
+
+    /**
+     * Get a copy of this simplifier which flattens curves to a different
+     * flatness than its tolerance before simplifying them.
+     *
+     * @param flatness The maximum distance of the control points of curves
+     * from the chords which replace them
+     * @return A simplifier
+     */
+    public PathSimplifier withFlatness(double flatness) {
+        if (!(flatness > 0)) {
+            throw new IllegalArgumentException("Bad flatness " + flatness);
+        }
+        return new PathSimplifier(tolerance, flatness, visvalingam, keepCurves);
+    }
+
+    public double tolerance() {
+        return tolerance;
+    }
+
+    public boolean isKeepingCurves() {
+        return keepCurves;
+    }
+
+    /**
+     * Simplify a polygon.
+     *
+     * @param polygon A polygon
+     * @return A new polygon
+     */
+    public Polygon2D simplify(Polygon2D polygon) {
+        double[] pts = polygon.pointsArray();
+        DoubleList result = new DoubleList(Math.max(16, pts.length / 4));
+        simplify(pts, 0, pts.length / 2, true, result);
+        return new Polygon2D(result.toDoubleArray());
+    }
+
+    /**
+     * Simplify a shape.
+     *
+     * @param shape A shape
+     * @return A new shape, with the winding rule of the original
+     */
+    public MinimalAggregateShapeDouble simplify(Shape shape) {
+        PathIterator it = shape.getPathIterator(null);
+        int windingRule = it.getWindingRule();
+        DoubleList coords = new DoubleList(256);
+        IntList types = IntList.create(64);
+        simplify(it, coords, types::add);
+        return new MinimalAggregateShapeDouble(types.toIntArray(),
+                coords.toDoubleArray(), windingRule);
+    }
+
+    /**
+     * Simplify the path in a path iterator, streaming the result into the
+     * passed collections.
+     *
+     * @param iter A path iterator, which will be exhausted
+     * @param coords The list to append coordinates to
+     * @param types A consumer for the <code>PathIterator</code> segment
+     * types of the result, in order
+     * @return The number of segments written
+     */
+    public int simplify(PathIterator iter, DoubleList coords,
+            ByteConsumer types) {
+        if (!keepCurves) {
+            iter = new FlatteningPathIterator(iter, flatness);
+        }
+        return new Run(coords, types).consume(iter);
+    }
+
+    /**
+     * Simplify a single polyline or polygon in an array, appending the
+     * coordinates of the points kept to a list.
+     *
+     * @param coords Interleaved x/y coordinates
+     * @param offset The array offset of the first x coordinate
+     * @param pointCount The number of points
+     * @param closed Whether the last point connects back to the first
+     * @param into The list to append kept coordinates to
+     * @return The number of points appended
+     */
+    public int simplify(double[] coords, int offset, int pointCount,
+            boolean closed, DoubleList into) {
+        if (offset < 0 || pointCount < 0
+                || offset + (pointCount * 2L) > coords.length) {
+            throw new IllegalArgumentException("Range " + offset + " with "
+                    + pointCount + " points outside array of "
+                    + coords.length);
+        }
+        if (pointCount == 0) {
+            return 0;
+        }
+        double[] pts = Arrays.copyOfRange(coords, offset,
+                offset + (pointCount * 2) + 2);
+        boolean[] keep = new boolean[pointCount];
+        reducer().reduce(pts, pointCount, closed, tolerance, keep);
+        int result = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (keep[i]) {
+                into.add(pts[i * 2]);
+                into.add(pts[i * 2 + 1]);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private PolylineReducer reducer() {
+        return visvalingam ? new Visvalingam() : new DouglasPeucker();
+    }
+
+    @Override
+    public String toString() {
+        return (visvalingam ? "Visvalingam(" : "DouglasPeucker(") + tolerance
+                + (keepCurves ? ", keepCurves)" : ")");
+    }
+
+    /**
+     * Accumulates the current run of straight lines, flushing it through
+     * the reducer at subpath boundaries and curves.
+     */
+    private final class Run {
+
+        private final DoubleList coords;
+        private final ByteConsumer types;
+        private final PolylineReducer reducer = reducer();
+        private double[] pts = new double[64];
+        private boolean[] keep = new boolean[32];
+        private int count;
+        // Whether the first point of the run has already been written,
+        // as the endpoint of a curve or the start of a closed subpath
+        private boolean headWritten;
+        // Whether the run covers the whole subpath since its moveTo
+        private boolean wholeSubpath;
+        private double startX;
+        private double startY;
+        private int segments;
+
+        Run(DoubleList coords, ByteConsumer types) {
+            this.coords = coords;
+            this.types = types;
+        }
+
+        int consume(PathIterator iter) {
+            double[] c = new double[6];
+            while (!iter.isDone()) {
+                int type = iter.currentSegment(c);
+                switch (type) {
+                    case SEG_MOVETO:
+                        flush();
+                        count = 0;
+                        add(c[0], c[1]);
+                        startX = c[0];
+                        startY = c[1];
+                        headWritten = false;
+                        wholeSubpath = true;
+                        break;
+                    case SEG_LINETO:
+                        ensureStarted();
+                        add(c[0], c[1]);
+                        break;
+                    case SEG_QUADTO:
+                    case SEG_CUBICTO:
+                        ensureStarted();
+                        flush();
+                        int len = type == SEG_QUADTO ? 4 : 6;
+                        emit((byte) type);
+                        for (int i = 0; i < len; i++) {
+                            coords.add(c[i]);
+                        }
+                        restartAt(c[len - 2], c[len - 1]);
+                        break;
+                    case SEG_CLOSE:
+                        if (count > 0) {
+                            close();
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown segment "
+                                + "type " + type);
+                }
+                iter.next();
+            }
+            flush();
+            return segments;
+        }
+
+        private void ensureStarted() {
+            if (count == 0) {
+                // A segment with no moveTo starts at the origin
+                add(0, 0);
+                startX = startY = 0;
+                headWritten = false;
+                wholeSubpath = true;
+            }
+        }
+
+        private void add(double x, double y) {
+            if (count > 0 && pts[count * 2 - 2] == x
+                    && pts[count * 2 - 1] == y) {
+                return;
+            }
+            if ((count + 2) * 2 > pts.length) {
+                pts = Arrays.copyOf(pts, pts.length * 2);
+            }
+            pts[count * 2] = x;
+            pts[count * 2 + 1] = y;
+            count++;
+        }
+
+        private void restartAt(double x, double y) {
+            count = 0;
+            add(x, y);
+            headWritten = true;
+            wholeSubpath = false;
+        }
+
+        private void emit(byte type) {
+            types.accept(type);
+            segments++;
+        }
+
+        private void close() {
+            boolean ring = wholeSubpath && !headWritten;
+            if (ring && count > 1 && pts[count * 2 - 2] == pts[0]
+                    && pts[count * 2 - 1] == pts[1]) {
+                // The explicit closing lineTo is implied by SEG_CLOSE
+                count--;
+            }
+            write(ring);
+            emit((byte) SEG_CLOSE);
+            // After a close, the current point is the start of the subpath
+            restartAt(startX, startY);
+        }
+
+        private void flush() {
+            if (count > 0 && !(headWritten && count == 1)) {
+                write(false);
+            }
+            count = 0;
+        }
+
+        private void write(boolean closed) {
+            if (keep.length < count) {
+                keep = new boolean[Math.max(count, keep.length * 2)];
+            }
+            reducer.reduce(pts, count, closed, tolerance, keep);
+            for (int i = 0; i < count; i++) {
+                if (i == 0 && headWritten) {
+                    continue;
+                }
+                if (keep[i]) {
+                    emit((byte) (i == 0 ? SEG_MOVETO : SEG_LINETO));
+                    coords.add(pts[i * 2]);
+                    coords.add(pts[i * 2 + 1]);
+                }
+            }
+            headWritten = true;
+        }
+    }
+}
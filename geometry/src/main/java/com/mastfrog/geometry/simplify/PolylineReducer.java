@@ -0,0 +1,61 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+/**
+ * A polyline reduction algorithm, marking which points of a run of points to
+ * keep. Implementations hold scratch space, and are used by one thread at a
+ * time.
+ *
+ * @author Tim Boudreau
+ */
+interface PolylineReducer {
+
+    /**
+     * Mark the points to keep. The first point is always kept, as is the
+     * last if the polyline is open.
+     *
+     * @param pts Interleaved x/y coordinates, with room for one more point
+     * than <code>count</code>
+     * @param count The number of points
+     * @param closed If true, the last point connects back to the first, which
+     * is not repeated
+     * @param tolerance The tolerance
+     * @param keep The array to mark points to keep in
+     */
+    void reduce(double[] pts, int count, boolean closed, double tolerance,
+            boolean[] keep);
+
+    static double segmentDistanceSquared(double ax, double ay, double bx,
+            double by, double px, double py) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double len = (dx * dx) + (dy * dy);
+        double t = len == 0 ? 0
+                : Math.max(0, Math.min(1, (((px - ax) * dx) + ((py - ay) * dy)) / len));
+        double ex = px - (ax + (t * dx));
+        double ey = py - (ay + (t * dy));
+        return (ex * ex) + (ey * ey);
+    }
+}
@@ -0,0 +1,168 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import java.util.Arrays;
+
+/**
+ * Visvalingam-Whyatt reduction: repeatedly discard the point whose triangle
+ * with its neighbours has the least area, until none is smaller than the
+ * square of the tolerance. Areas are kept in a min-heap and never decrease
+ * as neighbours are removed, so the result does not depend on ties.
+ *
+ * @author Tim Boudreau
+ */
+final class Visvalingam implements PolylineReducer {
+
+    private int[] prev = new int[0];
+    private int[] next = new int[0];
+    private double[] areas = new double[0];
+    private int[] heap = new int[0];
+    private int[] heapIndex = new int[0];
+    private int heapSize;
+
+    private void ensureCapacity(int count) {
+        if (prev.length < count) {
+            int size = Math.max(count, prev.length * 2);
+            prev = new int[size];
+            next = new int[size];
+            areas = new double[size];
+            heap = new int[size];
+            heapIndex = new int[size];
+        }
+    }
+
+    @Override
+    public void reduce(double[] pts, int count, boolean closed,
+            double tolerance, boolean[] keep) {
+        Arrays.fill(keep, 0, count, true);
+        int minimum = closed ? 3 : 2;
+        if (count <= minimum) {
+            return;
+        }
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            prev[i] = i == 0 ? count - 1 : i - 1;
+            next[i] = i == count - 1 ? 0 : i + 1;
+        }
+        // The first point, and the last of an open polyline, are fixed
+        int last = closed ? count - 1 : count - 2;
+        heapSize = 0;
+        for (int i = 1; i <= last; i++) {
+            areas[i] = area(pts, i);
+            heap[heapSize] = i;
+            heapIndex[i] = heapSize++;
+            siftUp(heapIndex[i]);
+        }
+        double threshold = tolerance * tolerance;
+        int remaining = count;
+        while (heapSize > 0 && remaining > minimum) {
+            int point = heap[0];
+            double area = areas[point];
+            if (area >= threshold) {
+                break;
+            }
+            removeTop();
+            keep[point] = false;
+            remaining--;
+            int p = prev[point];
+            int n = next[point];
+            next[p] = n;
+            prev[n] = p;
+            update(pts, p, area);
+            update(pts, n, area);
+        }
+    }
+
+    private void update(double[] pts, int point, double floor) {
+        int at = heapIndex[point];
+        if (at < 0 || at >= heapSize || heap[at] != point) {
+            // A fixed endpoint
+            return;
+        }
+        double old = areas[point];
+        areas[point] = Math.max(floor, area(pts, point));
+        if (areas[point] < old) {
+            siftUp(at);
+        } else {
+            siftDown(at);
+        }
+    }
+
+    private double area(double[] pts, int point) {
+        int a = prev[point] * 2;
+        int b = point * 2;
+        int c = next[point] * 2;
+        return Math.abs(((pts[b] - pts[a]) * (pts[c + 1] - pts[a + 1]))
+                - ((pts[b + 1] - pts[a + 1]) * (pts[c] - pts[a]))) / 2;
+    }
+
+    private void removeTop() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int at) {
+        int item = heap[at];
+        while (at > 0) {
+            int parent = (at - 1) / 2;
+            if (areas[heap[parent]] <= areas[item]) {
+                break;
+            }
+            heap[at] = heap[parent];
+            heapIndex[heap[at]] = at;
+            at = parent;
+        }
+        heap[at] = item;
+        heapIndex[item] = at;
+    }
+
+    private void siftDown(int at) {
+        int item = heap[at];
+        for (;;) {
+            int child = (at * 2) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize
+                    && areas[heap[child + 1]] < areas[heap[child]]) {
+                child++;
+            }
+            if (areas[item] <= areas[heap[child]]) {
+                break;
+            }
+            heap[at] = heap[child];
+            heapIndex[heap[at]] = at;
+            at = child;
+        }
+        heap[at] = item;
+        heapIndex[item] = at;
+    }
+}
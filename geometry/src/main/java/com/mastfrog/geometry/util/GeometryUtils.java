@@ -24,8 +24,10 @@
 package com.mastfrog.geometry.util;
 
 import com.mastfrog.function.DoubleBiConsumer;
+import com.mastfrog.function.IntBiConsumer;
 import com.mastfrog.geometry.EqPointDouble;
 import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.path.PathCursor;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Line2D;
@@ -50,6 +52,14 @@ public class GeometryUtils {
     private static final double[] APPROXIMATION_POSITIONS
             = new double[]{0.125, 0.25, 0.375, 0.5, 0.625, 0.75, 0.825, 1};
 
+    /**
+     * The flatness tolerance used by <code>approximate()</code> and
+     * <code>shapeLength()</code> when none is passed.
+     */
+    public static final double DEFAULT_FLATNESS = 0.1;
+    private static final double LENGTH_FLATNESS = 0.01;
+    private static final int MAX_SUBDIVISION_DEPTH = 16;
+
     public static int curveApproximationPointCount() {
         return APPROXIMATION_POSITIONS.length;
     }
@@ -403,97 +413,92 @@ public class GeometryUtils {
 
     /**
      * Determine if an array of points contains any lines that intersect other
-     * lines within that array.
+     * lines within that array, treating it as a closed polygon, or any
+     * zero-length lines. The edges are sorted and swept from left to right,
+     * so only edges whose bounds overlap are tested against each other.
      *
      * @param points The points
      * @return True if there are intersections
      */
     public static boolean containsIntersectingLines(double[] points) {
+        return findIntersectingLines(points, null);
+    }
+
+    /**
+     * Determine if an array of points contains any lines that intersect other
+     * lines within that array, treating it as a closed polygon, or any
+     * zero-length lines, and if so, pass the indices of the offending edges -
+     * edge <i>n</i> runs from point <i>n</i> to point <i>n + 1</i>, and the
+     * last edge back to point 0 - to the passed consumer, so the polygon can
+     * be repaired without a second scan. A zero-length edge is reported as
+     * the same index twice; otherwise the lower index is passed first.
+     *
+     * @param points The points
+     * @param edgePairConsumer A consumer, which is called at most once; may be
+     * null
+     * @return True if there are intersections
+     */
+    public static boolean findIntersectingLines(double[] points, IntBiConsumer edgePairConsumer) {
         // triangular and smaller shapes cannot meaningfully self-intersect,
         // they can only contain the same point
         if (points.length < 7) {
             return false;
         }
-        for (int test = 0; test < points.length; test += 2) {
-            double tx = points[test];
-            double ty = points[test + 1];
-            int tNext = test + 2 >= points.length ? 0 : test + 2;
-            double nx = points[tNext];
-            double ny = points[tNext + 1];
-
-            if (tx == nx && ty == ny) {
-                return true;
-            }
-
-            int against = test + 4 >= points.length ? 0 : test + 4;
-            int last = test - 4;
-            if (last < 0) {
-                last = points.length - 2;
-            }
-            do {
-                double ax = points[against];
-                double ay = points[against + 1];
-
-                int aNext = against + 2 >= points.length ? 0 : against + 2;
-                double anx = points[aNext];
-                double any = points[aNext + 1];
-                // Same as above:  Line2D will return false positives for
-                // exactly matching coordinates in some corner cases
-                if (test != aNext && Line2D.linesIntersect(tx, ty, nx, ny + GeometryUtils.INTERSECTION_FUDGE_FACTOR,
-                        ax, ay - GeometryUtils.INTERSECTION_FUDGE_FACTOR, anx, any)) {
-                    return true;
-                }
-                against = (against + 2) % points.length;
-            } while (against != last);
-        }
-        return false;
+        return LineSegments.ofPolygon(points).findPolygonSelfIntersection(edgePairConsumer);
     }
 
     /**
      * Compute the (sometimes approximate) length of the perimeter of a shape;
-     * lengths for quadratic and cubic curves are approximated by sampling a
-     * series of points from <code>t=0</code> to <code>t=1</code> and taking
-     * their distance.
+     * lengths for quadratic and cubic curves are approximated by adaptively
+     * subdividing them until each piece is flat to within
+     * <code>DEFAULT_FLATNESS</code>.
      *
      * @param shape The shape
      * @return The shape length
      */
     public static double shapeLength(Shape shape) {
-        PathIterator iter = shape.getPathIterator(null);
-        double cumulativeResult = 0;
-        double current = 0;
-        double lastX = 0;
-        double lastY = 0;
-        double[] data = new double[6];
-        while (!iter.isDone()) {
-            int type = iter.currentSegment(data);
-            switch (type) {
-                case SEG_CLOSE:
-                    cumulativeResult += current;
-                    current = 0;
-                    break;
-                case SEG_MOVETO:
-                    cumulativeResult += current;
-                    current = 0;
-                    lastX = data[0];
-                    lastY = data[1];
-                    break;
+        return shapeLength(shape, DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Compute the (sometimes approximate) length of the perimeter of a shape;
+     * lengths for quadratic and cubic curves are approximated by adaptively
+     * subdividing them until no control point is further than
+     * <code>flatness</code> from the chord of its piece - larger values are
+     * faster and less precise.
+     *
+     * @param shape The shape
+     * @param flatness The maximum distance of control points from the chord
+     * of a subdivided curve segment, as with
+     * <code>Shape.getPathIterator(AffineTransform, double)</code>
+     * @return The shape length
+     */
+    public static double shapeLength(Shape shape, double flatness) {
+        checkFlatness(flatness);
+        PathCursor cursor = PathCursor.of(shape);
+        double result = 0;
+        while (cursor.next()) {
+            switch (cursor.type()) {
                 case SEG_LINETO:
-                    current += Point2D.distance(lastX, lastY, data[0], data[1]);
+                    result += Point2D.distance(cursor.startX(), cursor.startY(),
+                            cursor.x(), cursor.y());
                     break;
                 case SEG_CUBICTO:
-                    current += cubicSegmentLength(lastX, lastY, data[0], data[1],
-                            data[2], data[3], data[4], data[5]);
+                    result += cubicSegmentLengthAdaptive(cursor.startX(),
+                            cursor.startY(), cursor.controlX(0),
+                            cursor.controlY(0), cursor.controlX(1),
+                            cursor.controlY(1), cursor.x(), cursor.y(),
+                            flatness);
                     break;
                 case SEG_QUADTO:
-                    current += quadraticSegmentLength(lastX, lastY,
-                            data[0], data[1], data[2], data[3]);
+                    result += quadraticSegmentLengthAdaptive(cursor.startX(),
+                            cursor.startY(), cursor.controlX(0),
+                            cursor.controlY(0), cursor.x(), cursor.y(),
+                            flatness);
                     break;
             }
-            iter.next();
         }
-        cumulativeResult += current;
-        return cumulativeResult;
+        return result;
     }
 
     /**
@@ -520,51 +525,212 @@ public class GeometryUtils {
     }
 
     /**
-     * Approximate the shape in the passed iterator as a polygon, iterpolating
-     * some quadratic and cubic curve points.
+     * Approximate the shape as a polygon, subdividing quadratic and cubic
+     * curves until they are flat to within the passed tolerance.
+     *
+     * @param shape A shape
+     * @param flatness The maximum distance of control points from the chord
+     * of a subdivided curve segment
+     * @return A polygon
+     */
+    public static Polygon2D approximate(Shape shape, double flatness) {
+        return approximate(shape.getPathIterator(null), flatness);
+    }
+
+    /**
+     * Approximate the shape as a polygon, subdividing quadratic and cubic
+     * curves until they are flat to within the passed tolerance.
+     *
+     * @param shape A shape
+     * @param xform A transform
+     * @param flatness The maximum distance of control points from the chord
+     * of a subdivided curve segment
+     * @return A polygon
+     */
+    public static Polygon2D approximate(Shape shape, AffineTransform xform, double flatness) {
+        return approximate(shape.getPathIterator(xform), flatness);
+    }
+
+    /**
+     * Approximate the shape in the passed iterator as a polygon, subdividing
+     * quadratic and cubic curves until they are flat to within
+     * <code>DEFAULT_FLATNESS</code>.
      *
      * @param iter A path iterator
      * @return A polygon
      */
     public static Polygon2D approximate(PathIterator iter) {
+        return approximate(iter, DEFAULT_FLATNESS);
+    }
+
+    /**
+     * Approximate the shape in the passed iterator as a polygon, subdividing
+     * quadratic and cubic curves until they are flat to within the passed
+     * tolerance.
+     *
+     * @param iter A path iterator
+     * @param flatness The maximum distance of control points from the chord
+     * of a subdivided curve segment
+     * @return A polygon
+     */
+    public static Polygon2D approximate(PathIterator iter, double flatness) {
         DoubleList l = new DoubleList(100);
-        double[] data = new double[6];
-        while (!iter.isDone()) {
-            int type = iter.currentSegment(data);
-            double lastStartX = 0;
-            double lastStartY = 0;
-            switch (type) {
+        flatten(iter, flatness, l);
+        return new Polygon2D(l.toDoubleArray());
+    }
+
+    /**
+     * Append the points of the path in the passed iterator to a list as x/y
+     * pairs, subdividing quadratic and cubic curves until they are flat to
+     * within the passed tolerance; <code>SEG_CLOSE</code> segments contribute
+     * no points.
+     *
+     * @param iter A path iterator
+     * @param flatness The maximum distance of control points from the chord
+     * of a subdivided curve segment
+     * @param into The list to add coordinates to
+     */
+    public static void flatten(PathIterator iter, double flatness, DoubleList into) {
+        checkFlatness(flatness);
+        PathCursor cursor = PathCursor.of(iter);
+        while (cursor.next()) {
+            switch (cursor.type()) {
                 case SEG_MOVETO:
-                    lastStartX = data[0];
-                    lastStartY = data[1];
-                // fallthrough
                 case SEG_LINETO:
-                    l.add(data[0]);
-                    l.add(data[1]);
-                    break;
-                case SEG_CLOSE:
+                    into.add(cursor.x());
+                    into.add(cursor.y());
                     break;
                 case SEG_CUBICTO:
-                    assert l.size() > 0;
-                    double prevX = l.get(l.size() - 2);
-                    double prevY = l.get(l.size() - 1);
-                    approximateCubicCurve(prevX, prevY, data[0], data[1], data[2], data[3], data[4], data[5], (nx, ny) -> {
-                        l.add(nx);
-                        l.add(ny);
-                    });
+                    flattenCubicCurve(cursor.startX(), cursor.startY(),
+                            cursor.controlX(0), cursor.controlY(0),
+                            cursor.controlX(1), cursor.controlY(1),
+                            cursor.x(), cursor.y(), flatness, into);
                     break;
                 case SEG_QUADTO:
-                    assert l.size() > 0;
-                    double pX = l.get(l.size() - 2);
-                    double pY = l.get(l.size() - 1);
-                    approximateQuadraticCurve(pX, pY, data[0], data[1], data[2], data[3], (nx, ny) -> {
-                        l.add(nx);
-                        l.add(ny);
-                    });
+                    flattenQuadraticCurve(cursor.startX(), cursor.startY(),
+                            cursor.controlX(0), cursor.controlY(0),
+                            cursor.x(), cursor.y(), flatness, into);
+                    break;
             }
-            iter.next();
         }
-        return new Polygon2D(l.toDoubleArray());
+    }
+
+    /**
+     * Append points approximating a cubic curve to a list as x/y pairs, by
+     * recursively subdividing the curve until no control point is further
+     * than <code>flatness</code> from the chord of its piece. The initial
+     * point is not added; the destination point always is.
+     *
+     * @param ax The curve's initial point's x coordinate
+     * @param ay The curve's initial point's y coordinate
+     * @param bx The curve's first control point's x coordinate
+     * @param by The curve's first control point's y coordinate
+     * @param cx The curve's second control point's x coordinate
+     * @param cy The curve's second control point's y coordinate
+     * @param dx The curve's destination point's x coordinate
+     * @param dy The curve's destination point's y coordinate
+     * @param flatness The flatness tolerance
+     * @param into The list to add coordinates to
+     */
+    public static void flattenCubicCurve(double ax, double ay,
+            double bx, double by,
+            double cx, double cy,
+            double dx, double dy, double flatness, DoubleList into) {
+        checkFlatness(flatness);
+        flattenCubic(ax, ay, bx, by, cx, cy, dx, dy, flatness * flatness,
+                MAX_SUBDIVISION_DEPTH, into);
+    }
+
+    /**
+     * Append points approximating a quadratic curve to a list as x/y pairs,
+     * by recursively subdividing the curve until its control point is no
+     * further than <code>flatness</code> from the chord of its piece. The
+     * initial point is not added; the destination point always is.
+     *
+     * @param ax The curve's initial point's x coordinate
+     * @param ay The curve's initial point's y coordinate
+     * @param bx The curve's control point's x coordinate
+     * @param by The curve's control point's y coordinate
+     * @param cx The curve's destination point's x coordinate
+     * @param cy The curve's destination point's y coordinate
+     * @param flatness The flatness tolerance
+     * @param into The list to add coordinates to
+     */
+    public static void flattenQuadraticCurve(double ax, double ay,
+            double bx, double by,
+            double cx, double cy, double flatness, DoubleList into) {
+        checkFlatness(flatness);
+        flattenQuadratic(ax, ay, bx, by, cx, cy, flatness * flatness,
+                MAX_SUBDIVISION_DEPTH, into);
+    }
+
+    private static void flattenCubic(double ax, double ay,
+            double bx, double by,
+            double cx, double cy,
+            double dx, double dy, double flatnessSq, int depth, DoubleList into) {
+        while (depth > 0 && cubicFlatnessSq(ax, ay, bx, by, cx, cy, dx, dy) > flatnessSq) {
+            // de Casteljau split at t=0.5; recurse on the first half and
+            // loop on the second
+            double abx = (ax + bx) / 2;
+            double aby = (ay + by) / 2;
+            double bcx = (bx + cx) / 2;
+            double bcy = (by + cy) / 2;
+            double cdx = (cx + dx) / 2;
+            double cdy = (cy + dy) / 2;
+            double abcx = (abx + bcx) / 2;
+            double abcy = (aby + bcy) / 2;
+            double bcdx = (bcx + cdx) / 2;
+            double bcdy = (bcy + cdy) / 2;
+            double midX = (abcx + bcdx) / 2;
+            double midY = (abcy + bcdy) / 2;
+            depth--;
+            flattenCubic(ax, ay, abx, aby, abcx, abcy, midX, midY, flatnessSq,
+                    depth, into);
+            ax = midX;
+            ay = midY;
+            bx = bcdx;
+            by = bcdy;
+            cx = cdx;
+            cy = cdy;
+        }
+        into.add(dx);
+        into.add(dy);
+    }
+
+    private static void flattenQuadratic(double ax, double ay,
+            double bx, double by,
+            double cx, double cy, double flatnessSq, int depth, DoubleList into) {
+        while (depth > 0 && Line2D.ptSegDistSq(ax, ay, cx, cy, bx, by) > flatnessSq) {
+            double abx = (ax + bx) / 2;
+            double aby = (ay + by) / 2;
+            double bcx = (bx + cx) / 2;
+            double bcy = (by + cy) / 2;
+            double midX = (abx + bcx) / 2;
+            double midY = (aby + bcy) / 2;
+            depth--;
+            flattenQuadratic(ax, ay, abx, aby, midX, midY, flatnessSq, depth, into);
+            ax = midX;
+            ay = midY;
+            bx = bcx;
+            by = bcy;
+        }
+        into.add(cx);
+        into.add(cy);
+    }
+
+    private static double cubicFlatnessSq(double ax, double ay,
+            double bx, double by,
+            double cx, double cy,
+            double dx, double dy) {
+        return Math.max(Line2D.ptSegDistSq(ax, ay, dx, dy, bx, by),
+                Line2D.ptSegDistSq(ax, ay, dx, dy, cx, cy));
+    }
+
+    private static void checkFlatness(double flatness) {
+        if (!(flatness > 0) || Double.isInfinite(flatness)) {
+            throw new IllegalArgumentException("Flatness must be a positive "
+                    + "finite number but is " + flatness);
+        }
     }
 
     /**
@@ -734,10 +900,64 @@ public class GeometryUtils {
             double bx, double by,
             double cx, double cy,
             double dx, double dy) {
-        double base = Point2D.distance(ax, ay, dx, dy);
-        base += Point2D.distance(bx, by, cx, cy) / 2;
-        int samples = Math.max(100, (int) base) / 10;
-        return cubicSegmentLength(ax, ay, bx, by, cx, cy, dx, dy, samples);
+        return cubicSegmentLengthAdaptive(ax, ay, bx, by, cx, cy, dx, dy,
+                LENGTH_FLATNESS);
+    }
+
+    /**
+     * Get the approximate length of a cubic curve, adaptively subdividing it
+     * until no control point is further than <code>flatness</code> from the
+     * chord of its piece, and estimating the length of each piece from its
+     * chord and control polygon lengths (Gravesen's method), whose error
+     * shrinks much faster than the flatness.
+     *
+     * @param ax The curve's starting x coordinate
+     * @param ay The curve's starting y coordinate
+     * @param bx The curve's first control point's x coordinate
+     * @param by The curve's first control point's y coordinate
+     * @param cx The curve's second control point's x coordinate
+     * @param cy The curve's second control point's y coordinate
+     * @param dx The curve's destination point's x coordinate
+     * @param dy The curve's destination point's y coordinate
+     * @param flatness The flatness tolerance
+     * @return A length
+     */
+    public static double cubicSegmentLengthAdaptive(
+            double ax, double ay,
+            double bx, double by,
+            double cx, double cy,
+            double dx, double dy,
+            double flatness) {
+        checkFlatness(flatness);
+        return cubicLength(ax, ay, bx, by, cx, cy, dx, dy, flatness * flatness,
+                MAX_SUBDIVISION_DEPTH);
+    }
+
+    private static double cubicLength(double ax, double ay,
+            double bx, double by,
+            double cx, double cy,
+            double dx, double dy, double flatnessSq, int depth) {
+        if (depth == 0 || cubicFlatnessSq(ax, ay, bx, by, cx, cy, dx, dy) <= flatnessSq) {
+            double chord = Point2D.distance(ax, ay, dx, dy);
+            double poly = Point2D.distance(ax, ay, bx, by)
+                    + Point2D.distance(bx, by, cx, cy)
+                    + Point2D.distance(cx, cy, dx, dy);
+            return (chord + poly) / 2;
+        }
+        double abx = (ax + bx) / 2;
+        double aby = (ay + by) / 2;
+        double bcx = (bx + cx) / 2;
+        double bcy = (by + cy) / 2;
+        double cdx = (cx + dx) / 2;
+        double cdy = (cy + dy) / 2;
+        double abcx = (abx + bcx) / 2;
+        double abcy = (aby + bcy) / 2;
+        double bcdx = (bcx + cdx) / 2;
+        double bcdy = (bcy + cdy) / 2;
+        double midX = (abcx + bcdx) / 2;
+        double midY = (abcy + bcdy) / 2;
+        return cubicLength(ax, ay, abx, aby, abcx, abcy, midX, midY, flatnessSq, depth - 1)
+                + cubicLength(midX, midY, bcdx, bcdy, cdx, cdy, dx, dy, flatnessSq, depth - 1);
     }
 
     /**
@@ -897,6 +1117,49 @@ public class GeometryUtils {
         return (float) ((t1 * t2 - t3 * Math.log(t2 + t1) - (vv * t4 - t3 * Math.log(vv + t4))) / (8 * Math.pow(uu, 1.5)));
     }
 
+    /**
+     * Estimates the length of a quadratic segment by adaptively subdividing
+     * it until its control point is no further than <code>flatness</code>
+     * from the chord of its piece, and estimating the length of each piece
+     * from its chord and control polygon lengths. Cheaper than the closed
+     * form for coarse tolerances.
+     *
+     * @param ax Preceding point x
+     * @param ay Preceding point y
+     * @param bx Second control point x
+     * @param by Second control point y
+     * @param cx Destination point x
+     * @param cy Destination point y
+     * @param flatness The flatness tolerance
+     * @return A length
+     */
+    public static double quadraticSegmentLengthAdaptive(double ax,
+            double ay, double bx, double by, double cx, double cy,
+            double flatness) {
+        checkFlatness(flatness);
+        return quadraticLength(ax, ay, bx, by, cx, cy, flatness * flatness,
+                MAX_SUBDIVISION_DEPTH);
+    }
+
+    private static double quadraticLength(double ax, double ay,
+            double bx, double by, double cx, double cy, double flatnessSq,
+            int depth) {
+        if (depth == 0 || Line2D.ptSegDistSq(ax, ay, cx, cy, bx, by) <= flatnessSq) {
+            double chord = Point2D.distance(ax, ay, cx, cy);
+            double poly = Point2D.distance(ax, ay, bx, by)
+                    + Point2D.distance(bx, by, cx, cy);
+            return (2 * chord + poly) / 3;
+        }
+        double abx = (ax + bx) / 2;
+        double aby = (ay + by) / 2;
+        double bcx = (bx + cx) / 2;
+        double bcy = (by + cy) / 2;
+        double midX = (abx + bcx) / 2;
+        double midY = (aby + bcy) / 2;
+        return quadraticLength(ax, ay, abx, aby, midX, midY, flatnessSq, depth - 1)
+                + quadraticLength(midX, midY, bcx, bcy, cx, cy, flatnessSq, depth - 1);
+    }
+
     /**
      * Round a float to 6 decimal places.
      *
@@ -0,0 +1,250 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.function.DoubleQuadConsumer;
+import com.mastfrog.function.IntBiConsumer;
+import com.mastfrog.geometry.Intersectable;
+import java.awt.geom.Line2D;
+import java.util.Arrays;
+
+/**
+ * A packed list of line segments stored as a single array of
+ * <code>x1, y1, x2, y2</code> quadruples, which can be populated directly
+ * from <code>Intersectable.visitLines()</code>, and which can find
+ * intersections with another set of segments using a sweep over the segments
+ * sorted by their leading x coordinate, rather than testing every pair.
+ * <p>
+ * Intersection tests use exactly the same test as
+ * <code>GeometryUtils.linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4, false)</code>
+ * - segments which share an endpoint exactly are not considered to intersect
+ * - so counts are identical to those produced by testing all pairs.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+public final class LineSegments implements DoubleQuadConsumer {
+
+    private double[] coords;
+    private int size;
+
+    public LineSegments() {
+        this(16);
+    }
+
+    public LineSegments(int initialCapacity) {
+        coords = new double[Math.max(4, initialCapacity * 4)];
+    }
+
+    private LineSegments(double[] coords, int size) {
+        this.coords = coords;
+        this.size = size;
+    }
+
+    /**
+     * Collect the lines of an Intersectable.
+     *
+     * @param shape The shape
+     * @param includeClose Whether to include the closing line, as with
+     * <code>visitLines()</code>
+     * @return A list of segments
+     */
+    public static LineSegments of(Intersectable shape, boolean includeClose) {
+        LineSegments result = new LineSegments();
+        shape.visitLines(result, includeClose);
+        return result;
+    }
+
+    /**
+     * Create a list of the edges of a closed polygon represented as an array
+     * of x/y pairs - segment <i>n</i> runs from point <i>n</i> to point
+     * <i>n + 1</i>, and the last segment runs from the last point back to the
+     * first.
+     *
+     * @param points An array of x/y pairs
+     * @return A list of segments
+     */
+    public static LineSegments ofPolygon(double[] points) {
+        if (points.length % 2 != 0) {
+            throw new IllegalArgumentException("Odd number of coordinates: "
+                    + points.length);
+        }
+        int count = points.length / 2;
+        double[] coords = new double[count * 4];
+        for (int i = 0; i < count; i++) {
+            int src = i * 2;
+            int next = i == count - 1 ? 0 : src + 2;
+            int dest = i * 4;
+            coords[dest] = points[src];
+            coords[dest + 1] = points[src + 1];
+            coords[dest + 2] = points[next];
+            coords[dest + 3] = points[next + 1];
+        }
+        return new LineSegments(coords, count);
+    }
+
+    /**
+     * Add a segment.
+     *
+     * @param x1 The first x coordinate
+     * @param y1 The first y coordinate
+     * @param x2 The second x coordinate
+     * @param y2 The second y coordinate
+     */
+    @Override
+    public void accept(double x1, double y1, double x2, double y2) {
+        int off = size * 4;
+        if (off + 4 > coords.length) {
+            coords = Arrays.copyOf(coords, coords.length * 2);
+        }
+        coords[off] = x1;
+        coords[off + 1] = y1;
+        coords[off + 2] = x2;
+        coords[off + 3] = y2;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double x1(int index) {
+        return coords[check(index) * 4];
+    }
+
+    public double y1(int index) {
+        return coords[(check(index) * 4) + 1];
+    }
+
+    public double x2(int index) {
+        return coords[(check(index) * 4) + 2];
+    }
+
+    public double y2(int index) {
+        return coords[(check(index) * 4) + 3];
+    }
+
+    /**
+     * Get a segment as a Line2D.
+     *
+     * @param index The segment index
+     * @return A line
+     */
+    public Line2D.Double line(int index) {
+        int off = check(index) * 4;
+        return new Line2D.Double(coords[off], coords[off + 1],
+                coords[off + 2], coords[off + 3]);
+    }
+
+    private int check(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index + " of " + size);
+        }
+        return index;
+    }
+
+    /**
+     * Count the number of pairs of segments, one from this and one from the
+     * passed set, which intersect.
+     *
+     * @param other Another set of segments
+     * @return The number of intersecting pairs
+     */
+    public int intersectionCount(LineSegments other) {
+        return SegmentSweep.intersections(coords, size, other.coords, other.size, null);
+    }
+
+    /**
+     * Visit each intersecting pair of segments, one from this and one from the
+     * passed set, and the point at which they intersect. Pairs are visited in
+     * no particular order.
+     *
+     * @param other Another set of segments
+     * @param visitor A visitor
+     * @return The number of intersecting pairs
+     */
+    public int visitIntersections(LineSegments other, SegmentIntersectionVisitor visitor) {
+        return SegmentSweep.intersections(coords, size, other.coords, other.size,
+                notNullVisitor(visitor));
+    }
+
+    /**
+     * Treating this set of segments as the edges of a closed polygon, in
+     * order, as created by <code>ofPolygon()</code>, find a zero-length edge
+     * or a pair of non-adjacent edges which intersect, passing their indices
+     * to the passed consumer (the same index twice for a zero-length edge).
+     * If there are several, the one reported is the first encountered when
+     * sweeping from left to right.
+     *
+     * @param pairConsumer A consumer for edge indices, may be null
+     * @return true if the polygon self-intersects
+     */
+    public boolean findPolygonSelfIntersection(IntBiConsumer pairConsumer) {
+        return SegmentSweep.selfIntersection(coords, size, pairConsumer);
+    }
+
+    private static SegmentIntersectionVisitor notNullVisitor(SegmentIntersectionVisitor v) {
+        if (v == null) {
+            throw new IllegalArgumentException("Null visitor");
+        }
+        return v;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(size * 24).append("LineSegments(");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append("; ");
+            }
+            GeometryStrings.toStringCoordinates(sb, Arrays.copyOfRange(coords, i * 4, (i * 4) + 4));
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Receives intersections between two sets of line segments.
+     */
+    @FunctionalInterface
+    public interface SegmentIntersectionVisitor {
+
+        /**
+         * Called for each intersecting pair of segments.
+         *
+         * @param segmentA The index of the segment in the first set (for
+         * intersections between shapes, the index in the order the
+         * <code>visitLines()</code> of the shape the method was called on
+         * supplied it)
+         * @param segmentB The index of the segment in the second set
+         * @param x The x coordinate of the intersection (for collinear,
+         * overlapping segments, a point within the overlap)
+         * @param y The y coordinate of the intersection
+         */
+        void intersection(int segmentA, int segmentB, double x, double y);
+    }
+}
@@ -0,0 +1,213 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.function.DoubleBiConsumer;
+import com.mastfrog.function.DoubleBiPredicate;
+import com.mastfrog.geometry.EqPointDouble;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A growable list of points stored as separate arrays of x and y coordinates
+ * (structure-of-arrays) rather than interleaved x/y pairs. The bulk
+ * operations are written as simple counted loops over one array at a time,
+ * which is the shape of code HotSpot's superword optimization can
+ * auto-vectorize, and which avoids the strided access interleaved
+ * coordinates force on transforms, bounds and distance queries.
+ * <p>
+ * Implementations are not thread-safe.
+ * </p>
+ *
+ * @see PointListDouble
+ * @see PointListFloat
+ * @author Tim Boudreau
+ */
+public interface PointList {
+
+    /**
+     * Get the number of points.
+     *
+     * @return The size
+     */
+    int size();
+
+    /**
+     * Determine if there are no points.
+     *
+     * @return true if empty
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get the x coordinate of a point.
+     *
+     * @param index The point index
+     * @return The x coordinate
+     */
+    double x(int index);
+
+    /**
+     * Get the y coordinate of a point.
+     *
+     * @param index The point index
+     * @return The y coordinate
+     */
+    double y(int index);
+
+    /**
+     * Add a point.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     */
+    void add(double x, double y);
+
+    /**
+     * Replace the coordinates of a point.
+     *
+     * @param index The point index
+     * @param x The x coordinate
+     * @param y The y coordinate
+     */
+    void set(int index, double x, double y);
+
+    /**
+     * Remove all points, retaining the allocated arrays.
+     */
+    void clear();
+
+    /**
+     * Transform every point in place.
+     *
+     * @param xform A transform
+     */
+    void applyTransform(AffineTransform xform);
+
+    /**
+     * Add the bounding box of the points to a rectangle, using the same
+     * semantics as <code>AbstractShape.addToBounds()</code>.
+     *
+     * @param <T> The rectangle type
+     * @param into A rectangle
+     * @return the rectangle
+     */
+    <T extends Rectangle2D> T addToBounds(T into);
+
+    /**
+     * Get the bounding box of the points.
+     *
+     * @return A rectangle, empty if there are no points
+     */
+    default Rectangle2D.Double bounds() {
+        return addToBounds(new Rectangle2D.Double());
+    }
+
+    /**
+     * Find the index of the point closest to the passed coordinates.
+     *
+     * @param x An x coordinate
+     * @param y A y coordinate
+     * @return The index of the nearest point, or -1 if empty
+     */
+    default int nearest(double x, double y) {
+        return nearest(x, y, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the index of the point closest to the passed coordinates, within
+     * some maximum distance.
+     *
+     * @param x An x coordinate
+     * @param y A y coordinate
+     * @param maxDistance The maximum distance
+     * @return The index of the nearest point, or -1 if none is within the
+     * distance
+     */
+    int nearest(double x, double y, double maxDistance);
+
+    /**
+     * Get the mean of the points (the vertex centroid, which for a polygon
+     * is not in general the same as the centroid of its area).
+     *
+     * @return A point, or null if empty
+     */
+    EqPointDouble centroid();
+
+    /**
+     * Create a new list of those points which pass a test.
+     *
+     * @param test A test
+     * @return A new list of the same type
+     */
+    PointList filter(DoubleBiPredicate test);
+
+    /**
+     * Create a new list of those points which lie within a rectangle
+     * (inclusive of its edges).
+     *
+     * @param bounds A rectangle
+     * @return A new list of the same type
+     */
+    PointList filter(Rectangle2D bounds);
+
+    /**
+     * Visit each point in order.
+     *
+     * @param consumer A consumer
+     */
+    default void visitPoints(DoubleBiConsumer consumer) {
+        for (int i = 0; i < size(); i++) {
+            consumer.accept(x(i), y(i));
+        }
+    }
+
+    /**
+     * Copy the points into a new array of interleaved x/y pairs.
+     *
+     * @return An array
+     */
+    double[] toInterleavedArray();
+
+    /**
+     * Copy the points into a new DoubleList of interleaved x/y pairs.
+     *
+     * @return A list
+     */
+    default DoubleList toDoubleList() {
+        return new DoubleList(toInterleavedArray());
+    }
+
+    /**
+     * Create a polygon from the points.
+     *
+     * @return A polygon
+     */
+    default Polygon2D toPolygon() {
+        return new Polygon2D(toInterleavedArray());
+    }
+}
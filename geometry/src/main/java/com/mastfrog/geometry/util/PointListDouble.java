@@ -0,0 +1,368 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.function.DoubleBiPredicate;
+import com.mastfrog.geometry.EqPointDouble;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * A PointList with double precision coordinates.
+ *
+ * @author Tim Boudreau
+ */
+public final class PointListDouble implements PointList {
+
+    private double[] xs;
+    private double[] ys;
+    private int size;
+
+    public PointListDouble() {
+        this(32);
+    }
+
+    public PointListDouble(int capacity) {
+        xs = new double[Math.max(4, capacity)];
+        ys = new double[xs.length];
+    }
+
+    private PointListDouble(double[] xs, double[] ys, int size) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = size;
+    }
+
+    /**
+     * Create a list from separate coordinate arrays, which are copied.
+     *
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @return A list
+     */
+    public static PointListDouble of(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Arrays not same length: "
+                    + xs.length + ", " + ys.length);
+        }
+        return new PointListDouble(Arrays.copyOf(xs, Math.max(4, xs.length)),
+                Arrays.copyOf(ys, Math.max(4, ys.length)), xs.length);
+    }
+
+    /**
+     * Create a list from an array of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @return A list
+     */
+    public static PointListDouble ofInterleaved(double[] points) {
+        return ofInterleaved(points, 0, points.length / 2);
+    }
+
+    /**
+     * Create a list from a range of an array of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @param offset The array offset of the first x coordinate
+     * @param count The number of points
+     * @return A list
+     */
+    public static PointListDouble ofInterleaved(double[] points, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + (count * 2) > points.length) {
+            throw new IndexOutOfBoundsException("Cannot read " + count
+                    + " points at " + offset + " from an array of "
+                    + points.length);
+        }
+        PointListDouble result = new PointListDouble(count);
+        double[] xs = result.xs;
+        double[] ys = result.ys;
+        for (int i = 0; i < count; i++) {
+            xs[i] = points[offset + (i * 2)];
+            ys[i] = points[offset + (i * 2) + 1];
+        }
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Create a list from a DoubleList of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @return A list
+     */
+    public static PointListDouble of(DoubleList points) {
+        int count = points.size() / 2;
+        PointListDouble result = new PointListDouble(count);
+        for (int i = 0; i < count; i++) {
+            result.xs[i] = points.getDouble(i * 2);
+            result.ys[i] = points.getDouble((i * 2) + 1);
+        }
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Create a list from the points of a polygon.
+     *
+     * @param polygon A polygon
+     * @return A list
+     */
+    public static PointListDouble of(Polygon2D polygon) {
+        return ofInterleaved(polygon.pointsArray());
+    }
+
+    /**
+     * Copy this list.
+     *
+     * @return A new list
+     */
+    public PointListDouble copy() {
+        return new PointListDouble(Arrays.copyOf(xs, xs.length),
+                Arrays.copyOf(ys, ys.length), size);
+    }
+
+    /**
+     * Get the internal x coordinate array, which may be longer than
+     * <code>size()</code>, for passing to code that works directly on
+     * coordinate arrays. It is replaced when the list grows.
+     *
+     * @return The x array
+     */
+    public double[] xArray() {
+        return xs;
+    }
+
+    /**
+     * Get the internal y coordinate array, which may be longer than
+     * <code>size()</code>. It is replaced when the list grows.
+     *
+     * @return The y array
+     */
+    public double[] yArray() {
+        return ys;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double x(int index) {
+        return xs[checkIndex(index)];
+    }
+
+    @Override
+    public double y(int index) {
+        return ys[checkIndex(index)];
+    }
+
+    @Override
+    public void add(double x, double y) {
+        if (size == xs.length) {
+            int newLength = xs.length + Math.max(4, xs.length / 2);
+            xs = Arrays.copyOf(xs, newLength);
+            ys = Arrays.copyOf(ys, newLength);
+        }
+        xs[size] = x;
+        ys[size++] = y;
+    }
+
+    @Override
+    public void set(int index, double x, double y) {
+        xs[checkIndex(index)] = x;
+        ys[index] = y;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void applyTransform(AffineTransform xform) {
+        if (xform == null || xform.isIdentity()) {
+            return;
+        }
+        double m00 = xform.getScaleX();
+        double m01 = xform.getShearX();
+        double m02 = xform.getTranslateX();
+        double m10 = xform.getShearY();
+        double m11 = xform.getScaleY();
+        double m12 = xform.getTranslateY();
+        double[] xs = this.xs;
+        double[] ys = this.ys;
+        int size = this.size;
+        if (m01 == 0 && m10 == 0) {
+            // Scale and translate only - each axis is independent
+            for (int i = 0; i < size; i++) {
+                xs[i] = xs[i] * m00 + m02;
+            }
+            for (int i = 0; i < size; i++) {
+                ys[i] = ys[i] * m11 + m12;
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            xs[i] = x * m00 + y * m01 + m02;
+            ys[i] = x * m10 + y * m11 + m12;
+        }
+    }
+
+    @Override
+    public <T extends Rectangle2D> T addToBounds(T into) {
+        if (size == 0) {
+            return into;
+        }
+        double[] xs = this.xs;
+        double[] ys = this.ys;
+        int size = this.size;
+        double minX = xs[0];
+        double maxX = xs[0];
+        for (int i = 1; i < size; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        double minY = ys[0];
+        double maxY = ys[0];
+        for (int i = 1; i < size; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (into.isEmpty()) {
+            into.setFrameFromDiagonal(minX, minY, maxX, maxY);
+        } else {
+            into.add(minX, minY);
+            into.add(maxX, maxY);
+        }
+        return into;
+    }
+
+    @Override
+    public int nearest(double x, double y, double maxDistance) {
+        double[] xs = this.xs;
+        double[] ys = this.ys;
+        int size = this.size;
+        double best = maxDistance * maxDistance;
+        int result = -1;
+        for (int i = 0; i < size; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dist = dx * dx + dy * dy;
+            if (dist <= best) {
+                if (dist < best || result < 0) {
+                    best = dist;
+                    result = i;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public EqPointDouble centroid() {
+        if (size == 0) {
+            return null;
+        }
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < size; i++) {
+            sumX += xs[i];
+        }
+        for (int i = 0; i < size; i++) {
+            sumY += ys[i];
+        }
+        return new EqPointDouble(sumX / size, sumY / size);
+    }
+
+    @Override
+    public PointListDouble filter(DoubleBiPredicate test) {
+        PointListDouble result = new PointListDouble(size);
+        double[] rx = result.xs;
+        double[] ry = result.ys;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            if (test.test(x, y)) {
+                rx[count] = x;
+                ry[count++] = y;
+            }
+        }
+        result.size = count;
+        return result;
+    }
+
+    @Override
+    public PointListDouble filter(Rectangle2D bounds) {
+        double minX = bounds.getMinX();
+        double minY = bounds.getMinY();
+        double maxX = bounds.getMaxX();
+        double maxY = bounds.getMaxY();
+        PointListDouble result = new PointListDouble(size);
+        double[] rx = result.xs;
+        double[] ry = result.ys;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            // Write unconditionally and advance the cursor only on a match,
+            // to keep the loop free of unpredictable branches
+            rx[count] = x;
+            ry[count] = y;
+            count += (x >= minX & x <= maxX & y >= minY & y <= maxY) ? 1 : 0;
+        }
+        result.size = count;
+        return result;
+    }
+
+    @Override
+    public double[] toInterleavedArray() {
+        double[] result = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            result[i * 2] = xs[i];
+            result[(i * 2) + 1] = ys[i];
+        }
+        return result;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No point " + index
+                    + " of " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return GeometryStrings.toStringCoordinates(
+                new StringBuilder(size * 12).append("PointListDouble("),
+                toInterleavedArray()).append(')').toString();
+    }
+}
@@ -0,0 +1,419 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.function.DoubleBiPredicate;
+import com.mastfrog.geometry.EqPointDouble;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * A PointList with single precision coordinates.
+ *
+ * @author Tim Boudreau
+ */
+public final class PointListFloat implements PointList {
+
+    private float[] xs;
+    private float[] ys;
+    private int size;
+
+    public PointListFloat() {
+        this(32);
+    }
+
+    public PointListFloat(int capacity) {
+        xs = new float[Math.max(4, capacity)];
+        ys = new float[xs.length];
+    }
+
+    private PointListFloat(float[] xs, float[] ys, int size) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = size;
+    }
+
+    /**
+     * Create a list from separate coordinate arrays, which are copied.
+     *
+     * @param xs The x coordinates
+     * @param ys The y coordinates
+     * @return A list
+     */
+    public static PointListFloat of(float[] xs, float[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Arrays not same length: "
+                    + xs.length + ", " + ys.length);
+        }
+        return new PointListFloat(Arrays.copyOf(xs, Math.max(4, xs.length)),
+                Arrays.copyOf(ys, Math.max(4, ys.length)), xs.length);
+    }
+
+    /**
+     * Create a list from an array of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @return A list
+     */
+    public static PointListFloat ofInterleaved(double[] points) {
+        return ofInterleaved(points, 0, points.length / 2);
+    }
+
+    /**
+     * Create a list from a range of an array of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @param offset The array offset of the first x coordinate
+     * @param count The number of points
+     * @return A list
+     */
+    public static PointListFloat ofInterleaved(double[] points, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + (count * 2) > points.length) {
+            throw new IndexOutOfBoundsException("Cannot read " + count
+                    + " points at " + offset + " from an array of "
+                    + points.length);
+        }
+        PointListFloat result = new PointListFloat(count);
+        float[] xs = result.xs;
+        float[] ys = result.ys;
+        for (int i = 0; i < count; i++) {
+            xs[i] = (float) points[offset + (i * 2)];
+            ys[i] = (float) points[offset + (i * 2) + 1];
+        }
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Create a list from an array of interleaved single precision x/y pairs.
+     *
+     * @param points The coordinates
+     * @return A list
+     */
+    public static PointListFloat ofInterleaved(float[] points) {
+        int count = points.length / 2;
+        PointListFloat result = new PointListFloat(count);
+        float[] xs = result.xs;
+        float[] ys = result.ys;
+        for (int i = 0; i < count; i++) {
+            xs[i] = points[i * 2];
+            ys[i] = points[(i * 2) + 1];
+        }
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Create a list from a FloatList of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @return A list
+     */
+    public static PointListFloat of(FloatList points) {
+        int count = points.size() / 2;
+        PointListFloat result = new PointListFloat(count);
+        for (int i = 0; i < count; i++) {
+            result.xs[i] = points.getFloat(i * 2);
+            result.ys[i] = points.getFloat((i * 2) + 1);
+        }
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Create a list from a DoubleList of interleaved x/y pairs.
+     *
+     * @param points The coordinates
+     * @return A list
+     */
+    public static PointListFloat of(DoubleList points) {
+        int count = points.size() / 2;
+        PointListFloat result = new PointListFloat(count);
+        for (int i = 0; i < count; i++) {
+            result.xs[i] = (float) points.getDouble(i * 2);
+            result.ys[i] = (float) points.getDouble((i * 2) + 1);
+        }
+        result.size = count;
+        return result;
+    }
+
+    /**
+     * Create a list from the points of a polygon.
+     *
+     * @param polygon A polygon
+     * @return A list
+     */
+    public static PointListFloat of(Polygon2D polygon) {
+        return ofInterleaved(polygon.pointsArray());
+    }
+
+    /**
+     * Copy this list.
+     *
+     * @return A new list
+     */
+    public PointListFloat copy() {
+        return new PointListFloat(Arrays.copyOf(xs, xs.length),
+                Arrays.copyOf(ys, ys.length), size);
+    }
+
+    /**
+     * Get the internal x coordinate array, which may be longer than
+     * <code>size()</code>, for passing to code that works directly on
+     * coordinate arrays. It is replaced when the list grows.
+     *
+     * @return The x array
+     */
+    public float[] xArray() {
+        return xs;
+    }
+
+    /**
+     * Get the internal y coordinate array, which may be longer than
+     * <code>size()</code>. It is replaced when the list grows.
+     *
+     * @return The y array
+     */
+    public float[] yArray() {
+        return ys;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double x(int index) {
+        return xs[checkIndex(index)];
+    }
+
+    @Override
+    public double y(int index) {
+        return ys[checkIndex(index)];
+    }
+
+    @Override
+    public void add(double x, double y) {
+        if (size == xs.length) {
+            int newLength = xs.length + Math.max(4, xs.length / 2);
+            xs = Arrays.copyOf(xs, newLength);
+            ys = Arrays.copyOf(ys, newLength);
+        }
+        xs[size] = (float) x;
+        ys[size++] = (float) y;
+    }
+
+    @Override
+    public void set(int index, double x, double y) {
+        xs[checkIndex(index)] = (float) x;
+        ys[index] = (float) y;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void applyTransform(AffineTransform xform) {
+        if (xform == null || xform.isIdentity()) {
+            return;
+        }
+        double m00 = xform.getScaleX();
+        double m01 = xform.getShearX();
+        double m02 = xform.getTranslateX();
+        double m10 = xform.getShearY();
+        double m11 = xform.getScaleY();
+        double m12 = xform.getTranslateY();
+        float[] xs = this.xs;
+        float[] ys = this.ys;
+        int size = this.size;
+        if (m01 == 0 && m10 == 0) {
+            // Scale and translate only - each axis is independent
+            for (int i = 0; i < size; i++) {
+                xs[i] = (float) (xs[i] * m00 + m02);
+            }
+            for (int i = 0; i < size; i++) {
+                ys[i] = (float) (ys[i] * m11 + m12);
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            xs[i] = (float) (x * m00 + y * m01 + m02);
+            ys[i] = (float) (x * m10 + y * m11 + m12);
+        }
+    }
+
+    @Override
+    public <T extends Rectangle2D> T addToBounds(T into) {
+        if (size == 0) {
+            return into;
+        }
+        float[] xs = this.xs;
+        float[] ys = this.ys;
+        int size = this.size;
+        double minX = xs[0];
+        double maxX = xs[0];
+        for (int i = 1; i < size; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        double minY = ys[0];
+        double maxY = ys[0];
+        for (int i = 1; i < size; i++) {
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (into.isEmpty()) {
+            into.setFrameFromDiagonal(minX, minY, maxX, maxY);
+        } else {
+            into.add(minX, minY);
+            into.add(maxX, maxY);
+        }
+        return into;
+    }
+
+    @Override
+    public int nearest(double x, double y, double maxDistance) {
+        float[] xs = this.xs;
+        float[] ys = this.ys;
+        int size = this.size;
+        double best = maxDistance * maxDistance;
+        int result = -1;
+        for (int i = 0; i < size; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double dist = dx * dx + dy * dy;
+            if (dist <= best) {
+                if (dist < best || result < 0) {
+                    best = dist;
+                    result = i;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public EqPointDouble centroid() {
+        if (size == 0) {
+            return null;
+        }
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < size; i++) {
+            sumX += xs[i];
+        }
+        for (int i = 0; i < size; i++) {
+            sumY += ys[i];
+        }
+        return new EqPointDouble(sumX / size, sumY / size);
+    }
+
+    @Override
+    public PointListFloat filter(DoubleBiPredicate test) {
+        PointListFloat result = new PointListFloat(size);
+        float[] rx = result.xs;
+        float[] ry = result.ys;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            float x = xs[i];
+            float y = ys[i];
+            if (test.test(x, y)) {
+                rx[count] = x;
+                ry[count++] = y;
+            }
+        }
+        result.size = count;
+        return result;
+    }
+
+    @Override
+    public PointListFloat filter(Rectangle2D bounds) {
+        double minX = bounds.getMinX();
+        double minY = bounds.getMinY();
+        double maxX = bounds.getMaxX();
+        double maxY = bounds.getMaxY();
+        PointListFloat result = new PointListFloat(size);
+        float[] rx = result.xs;
+        float[] ry = result.ys;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            float x = xs[i];
+            float y = ys[i];
+            // Write unconditionally and advance the cursor only on a match,
+            // to keep the loop free of unpredictable branches
+            rx[count] = x;
+            ry[count] = y;
+            count += (x >= minX & x <= maxX & y >= minY & y <= maxY) ? 1 : 0;
+        }
+        result.size = count;
+        return result;
+    }
+
+    @Override
+    public double[] toInterleavedArray() {
+        double[] result = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            result[i * 2] = xs[i];
+            result[(i * 2) + 1] = ys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Copy the points into a new array of interleaved single precision x/y
+     * pairs.
+     *
+     * @return An array
+     */
+    public float[] toInterleavedFloatArray() {
+        float[] result = new float[size * 2];
+        for (int i = 0; i < size; i++) {
+            result[i * 2] = xs[i];
+            result[(i * 2) + 1] = ys[i];
+        }
+        return result;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("No point " + index
+                    + " of " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return GeometryStrings.toStringCoordinates(
+                new StringBuilder(size * 12).append("PointListFloat("),
+                toInterleavedArray()).append(')').toString();
+    }
+}
@@ -0,0 +1,322 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.function.IntBiConsumer;
+import com.mastfrog.geometry.util.LineSegments.SegmentIntersectionVisitor;
+import com.mastfrog.util.sort.Sort;
+import java.awt.geom.Line2D;
+import java.util.Arrays;
+
+/**
+ * Finds intersecting pairs of segments from two packed arrays of
+ * <code>x1, y1, x2, y2</code> quadruples by sweeping a vertical line across
+ * both sets of segments, sorted by their least x coordinate, and only testing
+ * pairs whose extents overlap on both axes. Only pairs whose x extents overlap
+ * are ever considered, so the cost is proportional to the number of segments
+ * and the number of candidate pairs, rather than the product of the sizes of
+ * the two sets.
+ * <p>
+ * The actual test for each candidate pair is
+ * <code>GeometryUtils.linesIntersect(..., false)</code>, including its fudge
+ * factor, so results are identical to testing every pair; the extents are
+ * padded by a margin larger than the fudge factor so no pair that test would
+ * accept is ever pruned.
+ * </p>
+ *
+ * @author Tim Boudreau
+ */
+final class SegmentSweep {
+
+    /**
+     * Below this number of pairs, sorting costs more than simply testing every
+     * pair.
+     */
+    static final int BRUTE_FORCE_PAIRS = 1_024;
+    static final double MARGIN = 1.0E-9;
+
+    private SegmentSweep() {
+        throw new AssertionError();
+    }
+
+    static int intersections(double[] a, int aSize, double[] b, int bSize,
+            SegmentIntersectionVisitor visitor) {
+        if (aSize == 0 || bSize == 0) {
+            return 0;
+        }
+        if ((long) aSize * bSize <= BRUTE_FORCE_PAIRS) {
+            return bruteForce(a, aSize, b, bSize, visitor);
+        }
+        return sweep(a, aSize, b, bSize, visitor);
+    }
+
+    static int bruteForce(double[] a, int aSize, double[] b, int bSize,
+            SegmentIntersectionVisitor visitor) {
+        int result = 0;
+        for (int i = 0; i < aSize; i++) {
+            for (int j = 0; j < bSize; j++) {
+                if (test(a, i, b, j, visitor)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    static int sweep(double[] a, int aSize, double[] b, int bSize,
+            SegmentIntersectionVisitor visitor) {
+        double[] aKeys = new double[aSize];
+        int[] aOrder = new int[aSize];
+        sortByLeastX(a, aSize, aKeys, aOrder);
+        double[] bKeys = new double[bSize];
+        int[] bOrder = new int[bSize];
+        sortByLeastX(b, bSize, bKeys, bOrder);
+
+        int[] activeA = new int[16];
+        int activeACount = 0;
+        int[] activeB = new int[16];
+        int activeBCount = 0;
+        int ia = 0;
+        int ib = 0;
+        int result = 0;
+        while (ia < aSize || ib < bSize) {
+            if (ib >= bSize && activeBCount == 0) {
+                // Nothing remaining in b that could intersect anything
+                break;
+            } else if (ia >= aSize && activeACount == 0) {
+                break;
+            }
+            if (ib >= bSize || (ia < aSize && aKeys[ia] <= bKeys[ib])) {
+                int seg = aOrder[ia];
+                double minX = aKeys[ia++];
+                int w = 0;
+                for (int k = 0; k < activeBCount; k++) {
+                    int other = activeB[k];
+                    if (maxX(b, other) + MARGIN < minX) {
+                        continue;
+                    }
+                    activeB[w++] = other;
+                    if (overlapsY(a, seg, b, other) && test(a, seg, b, other, visitor)) {
+                        result++;
+                    }
+                }
+                activeBCount = w;
+                if (ib < bSize) {
+                    if (activeACount == activeA.length) {
+                        activeA = Arrays.copyOf(activeA, activeA.length * 2);
+                    }
+                    activeA[activeACount++] = seg;
+                }
+            } else {
+                int seg = bOrder[ib];
+                double minX = bKeys[ib++];
+                int w = 0;
+                for (int k = 0; k < activeACount; k++) {
+                    int other = activeA[k];
+                    if (maxX(a, other) + MARGIN < minX) {
+                        continue;
+                    }
+                    activeA[w++] = other;
+                    if (overlapsY(a, other, b, seg) && test(a, other, b, seg, visitor)) {
+                        result++;
+                    }
+                }
+                activeACount = w;
+                if (ia < aSize) {
+                    if (activeBCount == activeB.length) {
+                        activeB = Arrays.copyOf(activeB, activeB.length * 2);
+                    }
+                    activeB[activeBCount++] = seg;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find a pair of non-adjacent edges of a closed polygon which intersect,
+     * or a zero-length edge.
+     *
+     * @param segs The edges, as produced by
+     * <code>LineSegments.ofPolygon()</code> - edge <i>n</i> is adjacent to
+     * edges <i>n - 1</i> and <i>n + 1</i>, wrapping around
+     * @param size The number of edges
+     * @param pairConsumer If non-null, is passed the indices of the offending
+     * edges (both the same index for a zero-length edge)
+     * @return true if an intersection was found
+     */
+    static boolean selfIntersection(double[] segs, int size, IntBiConsumer pairConsumer) {
+        for (int i = 0; i < size; i++) {
+            int off = i * 4;
+            if (segs[off] == segs[off + 2] && segs[off + 1] == segs[off + 3]) {
+                if (pairConsumer != null) {
+                    pairConsumer.accept(i, i);
+                }
+                return true;
+            }
+        }
+        if (size < 4) {
+            return false;
+        }
+        if (((long) size * size) / 2 <= BRUTE_FORCE_PAIRS) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 2; j < size; j++) {
+                    if (!adjacent(i, j, size) && testEdges(segs, i, j)) {
+                        if (pairConsumer != null) {
+                            pairConsumer.accept(i, j);
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        double[] keys = new double[size];
+        int[] order = new int[size];
+        sortByLeastX(segs, size, keys, order);
+        int[] active = new int[16];
+        int activeCount = 0;
+        for (int i = 0; i < size; i++) {
+            int seg = order[i];
+            double minX = keys[i];
+            int w = 0;
+            for (int k = 0; k < activeCount; k++) {
+                int other = active[k];
+                if (maxX(segs, other) + MARGIN < minX) {
+                    continue;
+                }
+                active[w++] = other;
+                if (!adjacent(seg, other, size) && overlapsY(segs, seg, segs, other)
+                        && testEdges(segs, Math.min(seg, other), Math.max(seg, other))) {
+                    if (pairConsumer != null) {
+                        pairConsumer.accept(Math.min(seg, other), Math.max(seg, other));
+                    }
+                    return true;
+                }
+            }
+            activeCount = w;
+            if (activeCount == active.length) {
+                active = Arrays.copyOf(active, active.length * 2);
+            }
+            active[activeCount++] = seg;
+        }
+        return false;
+    }
+
+    private static boolean adjacent(int a, int b, int size) {
+        int diff = Math.abs(a - b);
+        return diff <= 1 || diff == size - 1;
+    }
+
+    private static boolean testEdges(double[] segs, int a, int b) {
+        // Same test, with the same fudge factor applied in both directions,
+        // that GeometryUtils.containsIntersectingLines() historically used
+        int aOff = a * 4;
+        int bOff = b * 4;
+        return Line2D.linesIntersect(segs[aOff], segs[aOff + 1], segs[aOff + 2],
+                segs[aOff + 3] + GeometryUtils.INTERSECTION_FUDGE_FACTOR,
+                segs[bOff], segs[bOff + 1] - GeometryUtils.INTERSECTION_FUDGE_FACTOR,
+                segs[bOff + 2], segs[bOff + 3])
+                || Line2D.linesIntersect(segs[bOff], segs[bOff + 1], segs[bOff + 2],
+                        segs[bOff + 3] + GeometryUtils.INTERSECTION_FUDGE_FACTOR,
+                        segs[aOff], segs[aOff + 1] - GeometryUtils.INTERSECTION_FUDGE_FACTOR,
+                        segs[aOff + 2], segs[aOff + 3]);
+    }
+
+    static void sortByLeastX(double[] segs, int size, double[] keys, int[] order) {
+        for (int i = 0; i < size; i++) {
+            int off = i * 4;
+            keys[i] = Math.min(segs[off], segs[off + 2]);
+            order[i] = i;
+        }
+        Sort.multiSort(keys, size, (x, y) -> {
+            int hold = order[x];
+            order[x] = order[y];
+            order[y] = hold;
+        });
+    }
+
+    static double maxX(double[] segs, int index) {
+        int off = index * 4;
+        return Math.max(segs[off], segs[off + 2]);
+    }
+
+    static boolean overlapsY(double[] a, int ai, double[] b, int bi) {
+        int aOff = ai * 4;
+        int bOff = bi * 4;
+        double aMinY = Math.min(a[aOff + 1], a[aOff + 3]);
+        double aMaxY = Math.max(a[aOff + 1], a[aOff + 3]);
+        double bMinY = Math.min(b[bOff + 1], b[bOff + 3]);
+        double bMaxY = Math.max(b[bOff + 1], b[bOff + 3]);
+        return aMinY - MARGIN <= bMaxY && bMinY - MARGIN <= aMaxY;
+    }
+
+    static boolean test(double[] a, int ai, double[] b, int bi, SegmentIntersectionVisitor visitor) {
+        int aOff = ai * 4;
+        int bOff = bi * 4;
+        double x1 = a[aOff];
+        double y1 = a[aOff + 1];
+        double x2 = a[aOff + 2];
+        double y2 = a[aOff + 3];
+        double x3 = b[bOff];
+        double y3 = b[bOff + 1];
+        double x4 = b[bOff + 2];
+        double y4 = b[bOff + 3];
+        if (GeometryUtils.linesIntersect(x1, y1, x2, y2, x3, y3, x4, y4, false)) {
+            if (visitor != null) {
+                reportIntersection(ai, bi, x1, y1, x2, y2, x3, y3, x4, y4, visitor);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void reportIntersection(int ai, int bi, double x1, double y1,
+            double x2, double y2, double x3, double y3, double x4, double y4,
+            SegmentIntersectionVisitor visitor) {
+        double a1 = y2 - y1;
+        double b1 = x1 - x2;
+        double a2 = y4 - y3;
+        double b2 = x3 - x4;
+        double determinant = a1 * b2 - a2 * b1;
+        if (determinant != 0) {
+            double c1 = a1 * x1 + b1 * y1;
+            double c2 = a2 * x3 + b2 * y3;
+            visitor.intersection(ai, bi, (b2 * c1 - b1 * c2) / determinant,
+                    (a1 * c2 - a2 * c1) / determinant);
+            return;
+        }
+        // Collinear and overlapping - report whichever endpoint lies
+        // within the other segment
+        if (Line2D.ptSegDistSq(x1, y1, x2, y2, x3, y3) <= MARGIN) {
+            visitor.intersection(ai, bi, x3, y3);
+        } else if (Line2D.ptSegDistSq(x1, y1, x2, y2, x4, y4) <= MARGIN) {
+            visitor.intersection(ai, bi, x4, y4);
+        } else if (Line2D.ptSegDistSq(x3, y3, x4, y4, x1, y1) <= MARGIN) {
+            visitor.intersection(ai, bi, x1, y1);
+        } else {
+            visitor.intersection(ai, bi, x2, y2);
+        }
+    }
+}
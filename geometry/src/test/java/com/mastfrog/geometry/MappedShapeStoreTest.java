@@ -0,0 +1,170 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import static com.mastfrog.geometry.ShapeCodecTest.assertSamePath;
+import static com.mastfrog.geometry.ShapeCodecTest.sampleShape;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class MappedShapeStoreTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Shape> shapes = shapes(200, 5);
+        Path file = Files.createTempFile("MappedShapeStoreTest", ".shapes");
+        try {
+            long length = MappedShapeStore.write(file, ShapeCodec.doublePrecision(), shapes);
+            assertEquals(Files.size(file), length);
+            try (MappedShapeStore store = MappedShapeStore.open(file)) {
+                assertEquals(shapes.size(), store.size());
+                assertEquals(length, store.fileSize());
+                Rectangle2D expectedBounds = null;
+                for (int i = 0; i < shapes.size(); i++) {
+                    Shape expected = shapes.get(i);
+                    EncodedShape got = store.get(i);
+                    assertSamePath(expected, got, 0);
+                    assertSameBounds(expected.getBounds2D(), store.bounds(i));
+                    assertEquals(((MinimalAggregateShapeDouble) expected).pointCount(),
+                            got.pointCount());
+                    assertSamePath(expected, got.toDoubleShape(), 0);
+                    if (expectedBounds == null) {
+                        expectedBounds = expected.getBounds2D();
+                    } else {
+                        expectedBounds.add(expected.getBounds2D());
+                    }
+                }
+                assertSameBounds(expectedBounds, store.bounds());
+                int ix = 0;
+                for (EncodedShape shape : store) {
+                    assertSamePath(shapes.get(ix++), shape, 0);
+                }
+                assertEquals(shapes.size(), ix);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSmallWindowsAndOversizedRecords() throws IOException {
+        // A tiny window size exercises window boundaries, overlap and the
+        // fallback for records larger than a window without a huge file
+        List<Shape> shapes = shapes(300, 7);
+        Path file = Files.createTempFile("MappedShapeStoreTest", ".shapes");
+        try {
+            MappedShapeStore.write(file, ShapeCodec.floatPrecision().withDeltaEncoding(0.001), shapes);
+            try (MappedShapeStore store = MappedShapeStore.open(file, 256)) {
+                assertEquals(shapes.size(), store.size());
+                for (int i = shapes.size() - 1; i >= 0; i--) {
+                    assertSamePath(shapes.get(i), store.get(i), 0.001);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testCopyBetweenStores() throws IOException {
+        List<Shape> shapes = shapes(50, 11);
+        Path a = Files.createTempFile("MappedShapeStoreTest", ".shapes");
+        Path b = Files.createTempFile("MappedShapeStoreTest", ".shapes");
+        try {
+            MappedShapeStore.write(a, ShapeCodec.doublePrecision(), shapes);
+            try (MappedShapeStore first = MappedShapeStore.open(a)) {
+                MappedShapeStore.write(b, ShapeCodec.doublePrecision(), first.asList());
+                assertEquals(Files.size(a), Files.size(b));
+            }
+            try (MappedShapeStore second = MappedShapeStore.open(b)) {
+                for (int i = 0; i < shapes.size(); i++) {
+                    assertSamePath(shapes.get(i), second.get(i), 0);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(a);
+            Files.deleteIfExists(b);
+        }
+    }
+
+    @Test
+    public void testEmptyAndInvalid() throws IOException {
+        Path file = Files.createTempFile("MappedShapeStoreTest", ".shapes");
+        try {
+            MappedShapeStore.write(file, ShapeCodec.doublePrecision(), Collections.<Shape>emptyList());
+            try (MappedShapeStore store = MappedShapeStore.open(file)) {
+                assertTrue(store.isEmpty());
+                assertTrue(store.bounds().isEmpty());
+                assertThrows(IndexOutOfBoundsException.class, () -> store.get(0));
+            }
+            Files.write(file, ByteBuffer.allocate(64).putInt(0xCAFEBABE).array());
+            assertThrows(IOException.class, () -> MappedShapeStore.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<Shape> shapes(int count, long seed) {
+        Random rnd = new Random(seed);
+        List<Shape> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Make every tenth shape big, so some records are larger than
+            // the windows in testSmallWindowsAndOversizedRecords
+            if (i % 10 == 0) {
+                Path2D.Double path = new Path2D.Double(sampleShape(rnd));
+                for (int j = 1; j < 12; j++) {
+                    path.append(sampleShape(rnd), false);
+                }
+                result.add(new MinimalAggregateShapeDouble(path));
+            } else {
+                result.add(sampleShape(rnd));
+            }
+        }
+        return result;
+    }
+
+    private static void assertSameBounds(Rectangle2D expected, Rectangle2D got) {
+        assertEquals(expected.getMinX(), got.getMinX(), 0.0000001, "minX");
+        assertEquals(expected.getMinY(), got.getMinY(), 0.0000001, "minY");
+        assertEquals(expected.getMaxX(), got.getMaxX(), 0.0000001, "maxX");
+        assertEquals(expected.getMaxY(), got.getMaxY(), 0.0000001, "maxY");
+    }
+}
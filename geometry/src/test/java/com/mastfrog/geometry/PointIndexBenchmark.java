@@ -0,0 +1,215 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the default, path-walking implementations of EnhancedShape's point
+ * methods with those of IndexedEnhancedShape. Note the 100k-point default
+ * <code>size()</code> is quadratic and takes a long time per invocation.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointIndexBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int points;
+
+    private PathShape defaults;
+    private IndexedPathShape indexed;
+
+    @Setup
+    public void setup() {
+        Path2D.Double path = randomPath(points, new Random(points));
+        defaults = new PathShape(path);
+        indexed = new IndexedPathShape(path);
+        indexed.pointIndex();
+    }
+
+    @Benchmark
+    public void defaultPointCount(Blackhole bh) {
+        bh.consume(defaults.pointCount());
+    }
+
+    @Benchmark
+    public void indexedPointCount(Blackhole bh) {
+        bh.consume(indexed.pointCount());
+    }
+
+    @Benchmark
+    public void defaultMiddlePoint(Blackhole bh) {
+        bh.consume(defaults.point(points / 2));
+    }
+
+    @Benchmark
+    public void indexedMiddlePoint(Blackhole bh) {
+        bh.consume(indexed.point(points / 2));
+    }
+
+    @Benchmark
+    public void defaultSize(Blackhole bh) {
+        bh.consume(defaults.size());
+    }
+
+    @Benchmark
+    public void indexedSize(Blackhole bh) {
+        bh.consume(indexed.size());
+    }
+
+    @Benchmark
+    public void defaultCornerAngles(Blackhole bh) {
+        bh.consume(defaults.cornerAngles());
+    }
+
+    @Benchmark
+    public void indexedCornerAngles(Blackhole bh) {
+        bh.consume(indexed.cornerAngles());
+    }
+
+    @Benchmark
+    public void rebuildIndex(Blackhole bh) {
+        bh.consume(PointIndex.of(indexed));
+    }
+
+    static Path2D.Double randomPath(int points, Random rnd) {
+        Path2D.Double path = new Path2D.Double(PathIterator.WIND_NON_ZERO, points + 1);
+        path.moveTo(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+        for (int i = 1; i < points; i++) {
+            path.lineTo(rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+        }
+        path.closePath();
+        return path;
+    }
+
+    /**
+     * An EnhancedShape which relies entirely on the default methods.
+     */
+    static class PathShape implements EnhancedShape {
+
+        final Path2D.Double path;
+
+        PathShape(Path2D.Double path) {
+            this.path = path;
+        }
+
+        @Override
+        public Rectangle2D getBounds2D() {
+            return path.getBounds2D();
+        }
+
+        @Override
+        public java.awt.Rectangle getBounds() {
+            return path.getBounds();
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return path.contains(x, y);
+        }
+
+        @Override
+        public boolean contains(Point2D p) {
+            return path.contains(p);
+        }
+
+        @Override
+        public boolean intersects(double x, double y, double w, double h) {
+            return path.intersects(x, y, w, h);
+        }
+
+        @Override
+        public boolean intersects(Rectangle2D r) {
+            return path.intersects(r);
+        }
+
+        @Override
+        public boolean contains(double x, double y, double w, double h) {
+            return path.contains(x, y, w, h);
+        }
+
+        @Override
+        public boolean contains(Rectangle2D r) {
+            return path.contains(r);
+        }
+
+        @Override
+        public PathIterator getPathIterator(AffineTransform at) {
+            return path.getPathIterator(at);
+        }
+
+        @Override
+        public PathIterator getPathIterator(AffineTransform at, double flatness) {
+            return path.getPathIterator(at, flatness);
+        }
+    }
+
+    static final class IndexedPathShape extends PathShape implements IndexedEnhancedShape {
+
+        private final PointIndexCache index;
+
+        IndexedPathShape(Path2D.Double path) {
+            super(path);
+            index = new PointIndexCache(path);
+        }
+
+        @Override
+        public PointIndex pointIndex() {
+            return index.get();
+        }
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PointIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import com.mastfrog.geometry.PointIndexBenchmark.IndexedPathShape;
+import com.mastfrog.geometry.PointIndexBenchmark.PathShape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class PointIndexTest {
+
+    @Test
+    public void testIndexedMatchesDefaults() {
+        Random rnd = new Random(1_203_931);
+        for (int count : new int[]{1, 2, 3, 7, 50}) {
+            Path2D.Double path = PointIndexBenchmark.randomPath(count, rnd);
+            path.quadTo(3, 5, 7, 9);
+            path.curveTo(10, 11, 12, 13, 14, 15);
+            PathShape defaults = new PathShape(path);
+            IndexedPathShape indexed = new IndexedPathShape(path);
+            assertEquals(defaults.pointCount(), indexed.pointCount(), "Count differs for " + count);
+            for (int i = 0; i < defaults.pointCount(); i++) {
+                assertEquals(defaults.point(i), indexed.point(i), "Point " + i + " of " + count);
+            }
+            assertNull(indexed.point(indexed.pointCount()));
+            assertEquals(defaults.size(), indexed.size(), "Size differs for " + count);
+            assertEquals(defaults.cornerAngles(), indexed.cornerAngles(),
+                    "Corner angles differ for " + count);
+            List<EqPointDouble> a = new ArrayList<>();
+            List<EqPointDouble> b = new ArrayList<>();
+            defaults.visitPoints((x, y) -> a.add(new EqPointDouble(x, y)));
+            indexed.visitPoints((x, y) -> b.add(new EqPointDouble(x, y)));
+            assertEquals(a, b);
+        }
+    }
+
+    @Test
+    public void testPolygonIndexTracksChanges() {
+        Polygon2D poly = new Polygon2D(0, 0, 10, 0, 10, 10, 5, 15, 0, 10);
+        PointIndex first = poly.pointIndex();
+        assertSame(first, poly.pointIndex());
+        assertPolygonMatchesDefaults(poly);
+
+        poly.add(new EqPointDouble(-5, 5));
+        assertNotSame(first, poly.pointIndex());
+        assertEquals(6, poly.pointIndex().pointCount());
+        assertPolygonMatchesDefaults(poly);
+
+        PointIndex beforeReverse = poly.pointIndex();
+        poly.reverse();
+        assertNotSame(beforeReverse, poly.pointIndex());
+        assertEquals(-5, poly.pointIndex().x(0), 0.0);
+        assertPolygonMatchesDefaults(poly);
+
+        poly.applyTransform(AffineTransform.getScaleInstance(2, 3));
+        assertEquals(new DimensionDouble(30, 45), poly.size());
+        assertPolygonMatchesDefaults(poly);
+
+        poly.deletePoint(5);
+        assertEquals(5, poly.pointIndex().pointCount());
+        assertPolygonMatchesDefaults(poly);
+    }
+
+    private static void assertPolygonMatchesDefaults(Polygon2D poly) {
+        PathShape defaults = new PathShape(poly.toPath());
+        assertEquals(defaults.size(), poly.size());
+        assertEquals(defaults.cornerAngles(), poly.cornerAngles());
+        assertEquals(defaults.pointCount(), poly.pointIndex().pointCount());
+    }
+
+    @Test
+    public void testSegmentTypes() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        path.lineTo(10, 0);
+        path.quadTo(15, 5, 10, 10);
+        path.curveTo(5, 12, 3, 12, 0, 10);
+        path.closePath();
+        PointIndex idx = PointIndex.of(path);
+        assertEquals(4, idx.pointCount());
+        assertEquals(PathIterator.SEG_MOVETO, idx.segmentType(0));
+        assertEquals(PathIterator.SEG_LINETO, idx.segmentType(1));
+        assertEquals(PathIterator.SEG_QUADTO, idx.segmentType(2));
+        assertEquals(PathIterator.SEG_CUBICTO, idx.segmentType(3));
+        assertEquals(10, idx.x(2), 0.0);
+        assertEquals(10, idx.y(2), 0.0);
+        assertEquals(new DimensionDouble(10, 10), idx.size());
+    }
+}
@@ -0,0 +1,127 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares testing every pixel centre of a 512x512 raster against a polygon
+ * one point at a time with <code>contains()</code> against the batch row and
+ * point-array APIs.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Polygon2DContainsBenchmark {
+
+    private static final int SIZE = 512;
+
+    @Param({"8", "64", "1024"})
+    public int vertices;
+
+    private Polygon2D polygon;
+    private double[] pixelCentres;
+    private final boolean[] row = new boolean[SIZE];
+    private final BitSet bits = new BitSet(SIZE * SIZE);
+
+    @Setup
+    public void setup() {
+        polygon = starPolygon(vertices, SIZE, new Random(vertices));
+        pixelCentres = new double[SIZE * SIZE * 2];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int off = ((y * SIZE) + x) * 2;
+                pixelCentres[off] = x + 0.5;
+                pixelCentres[off + 1] = y + 0.5;
+            }
+        }
+    }
+
+    @Benchmark
+    public void perPointContains(Blackhole bh) {
+        int count = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                if (polygon.contains(x + 0.5, y + 0.5)) {
+                    count++;
+                }
+            }
+        }
+        bh.consume(count);
+    }
+
+    @Benchmark
+    public void containsRow(Blackhole bh) {
+        int count = 0;
+        for (int y = 0; y < SIZE; y++) {
+            count += polygon.containsRow(y + 0.5, 0.5, 1, SIZE, row, 0);
+        }
+        bh.consume(count);
+    }
+
+    @Benchmark
+    public void containsPoints(Blackhole bh) {
+        bh.consume(polygon.containsPoints(pixelCentres, 0, SIZE * SIZE, bits));
+    }
+
+    static Polygon2D starPolygon(int vertices, double size, Random rnd) {
+        double[] pts = new double[vertices * 2];
+        double c = size / 2;
+        for (int i = 0; i < vertices; i++) {
+            double angle = (Math.PI * 2 * i) / vertices;
+            double radius = c * (0.3 + 0.7 * rnd.nextDouble());
+            pts[i * 2] = c + Math.cos(angle) * radius;
+            pts[(i * 2) + 1] = c + Math.sin(angle) * radius;
+        }
+        return new Polygon2D(pts);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Polygon2DContainsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
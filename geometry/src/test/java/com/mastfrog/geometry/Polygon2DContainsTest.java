@@ -0,0 +1,107 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class Polygon2DContainsTest {
+
+    @Test
+    public void testBatchMatchesPerPoint() {
+        Random rnd = new Random(1_093_337);
+        for (int vertices : new int[]{3, 4, 9, 40, 300}) {
+            Polygon2D poly = Polygon2DContainsBenchmark.starPolygon(vertices, 64, rnd);
+            boolean[] row = new boolean[80];
+            BitSet rowBits = new BitSet();
+            double[] grid = new double[80 * 80 * 2];
+            float[] gridFloat = new float[grid.length];
+            for (int y = 0; y < 80; y++) {
+                double py = y - 8 + 0.5;
+                int expectedCount = 0;
+                for (int x = 0; x < 80; x++) {
+                    double px = x - 8 + 0.5;
+                    int off = ((y * 80) + x) * 2;
+                    grid[off] = px;
+                    grid[off + 1] = py;
+                    gridFloat[off] = (float) px;
+                    gridFloat[off + 1] = (float) py;
+                    if (poly.contains(px, py)) {
+                        expectedCount++;
+                    }
+                }
+                assertEquals(expectedCount, poly.containsRow(py, -7.5, 1, 80, row, 0));
+                assertEquals(expectedCount, poly.containsRow(py, 71.5, -1, 80, rowBits, 0));
+                for (int x = 0; x < 80; x++) {
+                    double px = x - 8 + 0.5;
+                    assertEquals(poly.contains(px, py), row[x], "Row mismatch at "
+                            + px + "," + py + " for " + poly);
+                    assertEquals(poly.contains(px, py), rowBits.get(79 - x),
+                            "Reversed row mismatch at " + px + "," + py);
+                }
+            }
+            BitSet bits = poly.containsPoints(grid);
+            BitSet floatBits = poly.containsPoints(gridFloat);
+            boolean[] bools = new boolean[80 * 80 + 3];
+            poly.containsPoints(grid, 0, 80 * 80, bools, 3);
+            // Shuffled points exercise recomputing crossings per point
+            double[] scattered = new double[2000];
+            for (int i = 0; i < scattered.length; i++) {
+                scattered[i] = rnd.nextDouble() * 80 - 8;
+            }
+            BitSet scatteredBits = poly.containsPoints(scattered);
+            for (int i = 0; i < 80 * 80; i++) {
+                boolean expect = poly.contains(grid[i * 2], grid[i * 2 + 1]);
+                assertEquals(expect, bits.get(i));
+                assertEquals(expect, bools[i + 3]);
+                assertEquals(poly.contains(gridFloat[i * 2], gridFloat[i * 2 + 1]), floatBits.get(i));
+            }
+            for (int i = 0; i < scattered.length / 2; i++) {
+                assertEquals(poly.contains(scattered[i * 2], scattered[i * 2 + 1]),
+                        scatteredBits.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBoundsAfterMutation() {
+        Polygon2D poly = new Polygon2D(-10, -10, -2, -10, -2, -2, -10, -2);
+        Rectangle2D bounds = poly.getBounds2D();
+        assertEquals(new Rectangle2D.Double(-10, -10, 8, 8), bounds);
+        poly.add(new EqPointDouble(-6, 5));
+        assertEquals(new Rectangle2D.Double(-10, -10, 8, 15), poly.getBounds2D());
+        poly.setPoint(4, -6, -3);
+        // Outside on one axis only
+        assertFalse(poly.contains(-11, -5));
+        assertFalse(poly.containsPoints(new double[]{-11, -5, -5, 1}).get(0));
+    }
+}
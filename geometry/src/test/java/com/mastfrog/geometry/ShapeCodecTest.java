@@ -0,0 +1,298 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry;
+
+import com.mastfrog.util.collections.IntMap;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class ShapeCodecTest {
+
+    @Test
+    public void testRoundTripRaw() {
+        MinimalAggregateShapeDouble shape = sampleShape(new Random(21));
+        ByteBuffer buf = ShapeCodec.doublePrecision().encode(shape);
+        assertEquals(ShapeCodec.doublePrecision().maxEncodedLength(shape), buf.remaining());
+        Shape read = ShapeCodec.read(buf);
+        assertFalse(buf.hasRemaining());
+        assertTrue(read instanceof MinimalAggregateShapeDouble);
+        assertSamePath(shape, read, 0);
+        assertEquals(shape.getBounds2D(), read.getBounds2D());
+
+        buf = ShapeCodec.floatPrecision().encode(shape);
+        MinimalAggregateShapeFloat flt = ShapeCodec.readFloat(buf);
+        assertSamePath(shape, flt, 0.0001);
+
+        MinimalAggregateShapeFloat fromFloat = new MinimalAggregateShapeFloat(shape);
+        assertSamePath(fromFloat, ShapeCodec.read(ShapeCodec.floatPrecision().encode(fromFloat)), 0);
+    }
+
+    @Test
+    public void testDeltaEncoding() {
+        MinimalAggregateShapeDouble shape = sampleShape(new Random(1301));
+        double quantum = 1D / 1024;
+        ShapeCodec codec = ShapeCodec.doublePrecision().withDeltaEncoding(quantum);
+        ByteBuffer buf = codec.encode(shape);
+        int raw = ShapeCodec.doublePrecision().encode(shape).remaining();
+        assertTrue(buf.remaining() < raw / 2, buf.remaining() + " vs " + raw);
+        EncodedShape enc = ShapeCodec.wrap(buf.duplicate());
+        assertTrue(enc.isDeltaEncoded());
+        assertSamePath(shape, enc, quantum / 2);
+        assertSamePath(shape, enc.toDoubleShape(), quantum / 2);
+        assertSamePath(shape, ShapeCodec.read(buf), quantum / 2);
+        // Re-encoding an EncodedShape in the same format copies its bytes
+        assertEquals(enc.buffer(), codec.encode(enc));
+    }
+
+    @Test
+    public void testBoundsAreOfDecodedCoordinates() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0.4, 0.4);
+        path.lineTo(10.6, 0.4);
+        path.lineTo(10.6, 3.3);
+        path.closePath();
+        EncodedShape enc = ShapeCodec.wrap(ShapeCodec.doublePrecision()
+                .withDeltaEncoding(1).encode(path));
+        assertEquals(new Rectangle2D.Double(0, 0, 11, 3), enc.getBounds2D());
+        assertEquals(enc.toDoubleShape().getBounds2D(), enc.getBounds2D());
+        assertTrue(enc.contains(10.8, 2.9));
+
+        path.reset();
+        path.moveTo(0.1, 0.1);
+        path.lineTo(1E7 + 0.3, 0.1);
+        path.lineTo(1E7 + 0.3, 1.1);
+        enc = ShapeCodec.wrap(ShapeCodec.floatPrecision().encode(path));
+        Rectangle2D bounds = enc.getBounds2D();
+        assertEquals((float) 0.1, bounds.getMinX());
+        assertEquals((float) (1E7 + 0.3), bounds.getMaxX());
+        assertEquals((float) 1.1, bounds.getMaxY());
+    }
+
+    @Test
+    public void testManyWindingRuleChanges() {
+        assertEquals(40_000, windingRuleRuns(40_000));
+        assertThrows(IllegalArgumentException.class,
+                () -> windingRuleRuns(ShapeCodec.MAX_WINDING_ENTRIES + 1));
+    }
+
+    @SuppressWarnings("UnnecessaryBoxing")
+    private static int windingRuleRuns(int segments) {
+        byte[] types = new byte[segments];
+        double[] data = new double[segments * 2];
+        IntMap<Integer> rules = IntMap.create(segments);
+        for (int i = 0; i < segments; i++) {
+            data[i * 2] = i;
+            rules.put(i, Integer.valueOf(i % 2 == 0 ? PathIterator.WIND_EVEN_ODD
+                    : PathIterator.WIND_NON_ZERO));
+        }
+        MinimalAggregateShapeDouble shape
+                = new MinimalAggregateShapeDouble(types, data, rules);
+        EncodedShape enc = ShapeCodec.wrap(ShapeCodec.doublePrecision()
+                .encode(shape));
+        PathIterator it = enc.getPathIterator(null);
+        int runs = 0;
+        int last = -1;
+        for (int i = 0; !it.isDone(); i++, it.next()) {
+            assertEquals(i % 2 == 0 ? PathIterator.WIND_EVEN_ODD
+                    : PathIterator.WIND_NON_ZERO, it.getWindingRule());
+            if (it.getWindingRule() != last) {
+                runs++;
+                last = it.getWindingRule();
+            }
+        }
+        return runs;
+    }
+
+    @Test
+    public void testWrapIsZeroCopyAndHonorsTransform() {
+        MinimalAggregateShapeDouble shape = sampleShape(new Random(77));
+        ByteBuffer buf = ByteBuffer.allocateDirect(ShapeCodec.doublePrecision()
+                .maxEncodedLength(shape) * 2).order(ByteOrder.LITTLE_ENDIAN);
+        ShapeCodec.doublePrecision().write(shape, buf);
+        ShapeCodec.floatPrecision().write(shape, buf);
+        buf.flip();
+        EncodedShape a = ShapeCodec.wrap(buf);
+        EncodedShape b = ShapeCodec.wrap(buf);
+        assertFalse(buf.hasRemaining());
+        assertTrue(a.isDoublePrecision());
+        assertFalse(b.isDoublePrecision());
+        assertTrue(a.buffer().isDirect());
+        AffineTransform xf = AffineTransform.getRotateInstance(0.7);
+        xf.scale(2, 3);
+        assertSamePath(new MinimalAggregateShapeDouble(xf, shape), a.getPathIterator(xf), 0.0000001);
+        assertEquals(shape.getBounds2D(), a.getBounds2D());
+        Ellipse2D.Double ell = new Ellipse2D.Double(10, 10, 100, 60);
+        EncodedShape encEll = ShapeCodec.wrap(ShapeCodec.doublePrecision().encode(ell));
+        assertTrue(encEll.contains(60, 40));
+        assertFalse(encEll.contains(11, 11));
+        assertTrue(encEll.intersects(100, 30, 50, 5));
+    }
+
+    @Test
+    public void testWindingRulesPreserved() {
+        Path2D.Double evenOdd = new Path2D.Double(PathIterator.WIND_EVEN_ODD);
+        evenOdd.moveTo(0, 0);
+        evenOdd.lineTo(10, 0);
+        evenOdd.lineTo(10, 10);
+        evenOdd.closePath();
+        Path2D.Double nonZero = new Path2D.Double(PathIterator.WIND_NON_ZERO);
+        nonZero.moveTo(20, 20);
+        nonZero.quadTo(30, 40, 50, 20);
+        nonZero.closePath();
+        MinimalAggregateShapeDouble agg = new MinimalAggregateShapeDouble(nonZero, evenOdd);
+        EncodedShape enc = ShapeCodec.wrap(ShapeCodec.doublePrecision().encode(agg));
+        PathIterator it = enc.getPathIterator(null);
+        assertEquals(PathIterator.WIND_NON_ZERO, it.getWindingRule());
+        for (int i = 0; i < 4; i++) {
+            it.next();
+        }
+        assertEquals(PathIterator.WIND_EVEN_ODD, it.getWindingRule());
+        assertEquals(PathIterator.WIND_NON_ZERO, ShapeCodec.readDouble(
+                ShapeCodec.floatPrecision().encode(nonZero)).getPathIterator(null).getWindingRule());
+    }
+
+    @Test
+    public void testFileChannel() throws Exception {
+        Path file = Files.createTempFile("ShapeCodecTest", ".shapes");
+        try {
+            Random rnd = new Random(5);
+            List<MinimalAggregateShapeDouble> shapes = new ArrayList<>();
+            List<Long> positions = new ArrayList<>();
+            ShapeCodec codec = ShapeCodec.floatPrecision().withDeltaEncoding(1D / 256);
+            try (FileChannel ch = FileChannel.open(file, WRITE)) {
+                for (int i = 0; i < 20; i++) {
+                    MinimalAggregateShapeDouble s = sampleShape(rnd);
+                    shapes.add(s);
+                    positions.add(ch.position());
+                    codec.write(s, ch);
+                }
+            }
+            try (FileChannel ch = FileChannel.open(file, READ)) {
+                for (int i = 0; i < shapes.size(); i++) {
+                    Shape read = ShapeCodec.read(ch);
+                    assertTrue(read instanceof MinimalAggregateShapeFloat);
+                    assertSamePath(shapes.get(i), read, 1D / 256);
+                }
+                assertEquals(ch.size(), ch.position());
+                for (int i = shapes.size() - 1; i >= 0; i--) {
+                    EncodedShape mapped = ShapeCodec.map(ch, positions.get(i));
+                    assertSamePath(shapes.get(i), mapped, 1D / 256);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testCorruptDataRejected() {
+        ByteBuffer buf = ShapeCodec.doublePrecision().encode(sampleShape(new Random(3)));
+        ByteBuffer bad = buf.duplicate();
+        bad.putInt(0, 0xCAFEBABE);
+        assertThrows(IllegalArgumentException.class, () -> ShapeCodec.wrap(bad));
+        ByteBuffer truncated = buf.duplicate();
+        truncated.limit(truncated.limit() - 8);
+        assertThrows(IllegalArgumentException.class, () -> ShapeCodec.wrap(truncated));
+        assertThrows(IllegalArgumentException.class,
+                () -> ShapeCodec.doublePrecision().withDeltaEncoding(0));
+    }
+
+    static MinimalAggregateShapeDouble sampleShape(Random rnd) {
+        Path2D.Double path = new Path2D.Double();
+        double x = rnd.nextDouble() * 1000 - 500;
+        double y = rnd.nextDouble() * 1000 - 500;
+        path.moveTo(x, y);
+        int segments = 5 + rnd.nextInt(40);
+        for (int i = 0; i < segments; i++) {
+            switch (rnd.nextInt(4)) {
+                case 0:
+                    path.quadTo(x + rnd.nextDouble() * 20, y + rnd.nextDouble() * 20,
+                            x += rnd.nextDouble() * 40 - 20, y += rnd.nextDouble() * 40 - 20);
+                    break;
+                case 1:
+                    path.curveTo(x + rnd.nextDouble() * 20, y + rnd.nextDouble() * 20,
+                            x + rnd.nextDouble() * 20, y + rnd.nextDouble() * 20,
+                            x += rnd.nextDouble() * 40 - 20, y += rnd.nextDouble() * 40 - 20);
+                    break;
+                case 2:
+                    path.closePath();
+                    path.moveTo(x += rnd.nextDouble() * 40 - 20, y += rnd.nextDouble() * 40 - 20);
+                    break;
+                default:
+                    path.lineTo(x += rnd.nextDouble() * 40 - 20, y += rnd.nextDouble() * 40 - 20);
+            }
+        }
+        path.closePath();
+        return new MinimalAggregateShapeDouble(path);
+    }
+
+    static void assertSamePath(Shape expected, Shape got, double tolerance) {
+        assertSamePath(expected, got.getPathIterator(null), tolerance);
+    }
+
+    static void assertSamePath(Shape expected, PathIterator b, double tolerance) {
+        PathIterator a = expected.getPathIterator(null);
+        double[] ac = new double[6];
+        double[] bc = new double[6];
+        int seg = 0;
+        while (!a.isDone()) {
+            assertFalse(b.isDone(), "Iterator ended early at " + seg);
+            int at = a.currentSegment(ac);
+            int bt = b.currentSegment(bc);
+            assertEquals(at, bt, "Segment type differs at " + seg);
+            for (int i = 0; i < 6 && at != PathIterator.SEG_CLOSE; i++) {
+                if (i < (at == PathIterator.SEG_CUBICTO ? 6 : at == PathIterator.SEG_QUADTO ? 4 : 2)) {
+                    assertEquals(ac[i], bc[i], tolerance, "Coordinate " + i + " of segment " + seg);
+                }
+            }
+            a.next();
+            b.next();
+            seg++;
+        }
+        assertTrue(b.isDone(), "Extra segments after " + seg);
+    }
+}
@@ -0,0 +1,99 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.analysis;
+
+import static com.mastfrog.geometry.analysis.AnglesAnalyzerConsistencyTest.starPolygon;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares AnglesAnalyzer with the Area-sampling implementation it replaced,
+ * over shapes made of several star-shaped subpaths.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnglesAnalyzerBenchmark {
+
+    @Param({"16", "128", "512"})
+    public int vertices;
+
+    private Shape shape;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(vertices);
+        Path2D.Double path = new Path2D.Double();
+        for (int i = 0; i < 4; i++) {
+            path.append(starPolygon(vertices, 500, rnd), false);
+        }
+        shape = path;
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        LegacyAnglesAnalyzer ana = new LegacyAnglesAnalyzer();
+        bh.consume(ana.analyzeShape(shape, null));
+        ana.visitAll((pointIndex, vect, subpathIndex, dir, approximate, prev, next) -> {
+            bh.consume(vect);
+        });
+    }
+
+    @Benchmark
+    public void current(Blackhole bh) {
+        AnglesAnalyzer ana = new AnglesAnalyzer();
+        bh.consume(ana.analyzeShape(shape, null));
+        ana.visitAll((pointIndex, vect, subpathIndex, dir, approximate, prev, next) -> {
+            bh.consume(vect);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AnglesAnalyzerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
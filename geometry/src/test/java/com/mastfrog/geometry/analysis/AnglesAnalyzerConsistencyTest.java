@@ -0,0 +1,153 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.analysis;
+
+import com.mastfrog.geometry.LineVector;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.RotationDirection;
+import com.mastfrog.util.collections.IntMap;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.RoundRectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class AnglesAnalyzerConsistencyTest {
+
+    @Test
+    public void testSameCornersAsLegacyForSimpleShapes() {
+        Random rnd = new Random(1234);
+        for (int i = 0; i < 40; i++) {
+            Shape shape = i % 2 == 0
+                    ? starPolygon(5 + rnd.nextInt(40), 400, rnd)
+                    : reversed(starPolygon(5 + rnd.nextInt(40), 400, rnd));
+            assertSameAsLegacy(shape);
+        }
+        assertSameAsLegacy(new RoundRectangle2D.Double(10, 10, 200, 100, 30, 30));
+        Path2D.Double twoSubpaths = new Path2D.Double(starPolygon(12, 300, rnd));
+        twoSubpaths.append(new Ellipse2D.Double(500, 500, 100, 80), false);
+        twoSubpaths.append(starPolygon(7, 200, rnd), false);
+        assertSameAsLegacy(twoSubpaths);
+    }
+
+    @Test
+    public void testCornersFaceInterior() {
+        Random rnd = new Random(99);
+        for (int i = 0; i < 40; i++) {
+            Polygon2D poly = starPolygon(5 + rnd.nextInt(60), 1000, rnd);
+            VectorVisitor.analyze(poly, (int pointIndex, LineVector vect, int subpathIndex,
+                    RotationDirection dir, Polygon2D approximate, int prev, int next) -> {
+                assertEquals(3, vect.sample(0.01, approximate::contains),
+                        "Corner at " + pointIndex + " faces outward: " + vect);
+            });
+        }
+    }
+
+    @Test
+    public void testDirectionFromArea() {
+        Polygon2D poly = new Polygon2D(10, 10, 20, 10, 20, 20, 10, 20);
+        RotationDirection a = VectorVisitor.analyze(poly, (pi, v, si, d, ap, p, n) -> {
+        });
+        RotationDirection b = VectorVisitor.analyze(poly.reverse(), (pi, v, si, d, ap, p, n) -> {
+        });
+        // Right, down, left, up is clockwise on screen, where y increases
+        // downward
+        assertEquals(RotationDirection.CLOCKWISE, a);
+        assertEquals(RotationDirection.COUNTER_CLOCKWISE, b);
+    }
+
+    @Test
+    public void testAmbiguousCornersGoToListener() {
+        // A zero-area subpath has no interior to sample
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        path.lineTo(10, 0);
+        path.lineTo(20, 0);
+        path.lineTo(10, 0);
+        path.closePath();
+        List<Integer> ambiguous = new ArrayList<>();
+        List<Integer> visited = new ArrayList<>();
+        VectorVisitor vv = (pointIndex, vect, subpathIndex, dir, approximate, prev, next) -> {
+            visited.add(pointIndex);
+        };
+        vv.analyze(path, null, (pointIndex, vect, subpathIndex, interior, exterior, approximate) -> {
+            assertTrue(interior < 3 && exterior < 3);
+            ambiguous.add(pointIndex);
+        });
+        assertFalse(ambiguous.isEmpty());
+        assertEquals(visited, ambiguous);
+    }
+
+    private static void assertSameAsLegacy(Shape shape) {
+        IntMap<LineVector> expected = IntMap.create(64);
+        IntMap<LineVector> got = IntMap.create(64);
+        // The legacy subpath direction came from a vote among corners which
+        // did not reliably agree with the orientation, so only the corners
+        // are compared
+        LegacyAnglesAnalyzer legacy = new LegacyAnglesAnalyzer();
+        legacy.analyzeShape(shape, null);
+        legacy.visitAll((pointIndex, vect, subpathIndex, dir, approximate, prev, next) -> {
+            expected.put(pointIndex, vect);
+        });
+        AnglesAnalyzer ana = new AnglesAnalyzer();
+        ana.analyzeShape(shape, null);
+        ana.visitAll((pointIndex, vect, subpathIndex, d, approximate, prev, next) -> {
+            got.put(pointIndex, vect);
+        });
+        assertEquals(expected.size(), got.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.key(i), got.key(i));
+            LineVector a = expected.valueAt(i);
+            LineVector b = got.valueAt(i);
+            assertEquals(a.trailingX(), b.trailingX(), "Different orientation at " + expected.key(i));
+            assertEquals(a.trailingY(), b.trailingY(), "Different orientation at " + expected.key(i));
+        }
+    }
+
+    private static Polygon2D reversed(Polygon2D poly) {
+        return poly.reverse();
+    }
+
+    static Polygon2D starPolygon(int vertices, double size, Random rnd) {
+        double[] pts = new double[vertices * 2];
+        double c = size / 2;
+        for (int i = 0; i < vertices; i++) {
+            double angle = (Math.PI * 2 * i) / vertices;
+            double radius = c * (0.3 + 0.7 * rnd.nextDouble());
+            pts[i * 2] = c + Math.cos(angle) * radius;
+            pts[(i * 2) + 1] = c + Math.sin(angle) * radius;
+        }
+        return new Polygon2D(pts);
+    }
+}
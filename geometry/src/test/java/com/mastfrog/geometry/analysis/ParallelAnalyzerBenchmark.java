@@ -0,0 +1,104 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.analysis;
+
+import static com.mastfrog.geometry.analysis.AnglesAnalyzerConsistencyTest.starPolygon;
+import com.mastfrog.geometry.analysis.ParallelAnalyzerTest.CountingVisitor;
+import java.awt.Shape;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares analyzing 2000 shapes one at a time on one thread with
+ * ParallelAnalyzer on the common pool - run on a multi-core machine to see
+ * scaling.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelAnalyzerBenchmark {
+
+    private final List<Shape> shapes = new ArrayList<>();
+    private final ParallelAnalyzer analyzer = ParallelAnalyzer.create();
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(2000);
+        for (int i = 0; i < 2000; i++) {
+            shapes.add(starPolygon(8 + rnd.nextInt(120), 500, rnd));
+        }
+    }
+
+    @Benchmark
+    public void sequential(Blackhole bh) {
+        for (Shape shape : shapes) {
+            CountingVisitor v = new CountingVisitor();
+            bh.consume(v.result(v.analyze(shape)));
+        }
+    }
+
+    @Benchmark
+    public void ordered(Blackhole bh) throws InterruptedException {
+        bh.consume(analyzer.analyze(shapes, (index, shape) -> new CountingVisitor()));
+    }
+
+    @Benchmark
+    public void concurrent(Blackhole bh) throws InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        analyzer.analyzeConcurrently(shapes.iterator(), (index, shape) -> new CountingVisitor(),
+                (index, shape, result) -> {
+                    count.addAndGet(result.length());
+                    return true;
+                });
+        bh.consume(count.get());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ParallelAnalyzerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,245 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.analysis;
+
+import static com.mastfrog.geometry.analysis.AnglesAnalyzerConsistencyTest.starPolygon;
+import com.mastfrog.geometry.LineVector;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.RotationDirection;
+import com.mastfrog.geometry.analysis.ParallelAnalyzer.ResultVisitor;
+import com.mastfrog.geometry.analysis.ParallelAnalyzer.VisitorFactory;
+import java.awt.Shape;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class ParallelAnalyzerTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final List<Shape> SHAPES = new ArrayList<>();
+
+    static {
+        Random rnd = new Random(5);
+        for (int i = 0; i < 300; i++) {
+            SHAPES.add(i % 3 == 0
+                    ? starPolygon(4 + rnd.nextInt(30), 300, rnd).reverse()
+                    : starPolygon(4 + rnd.nextInt(30), 300, rnd));
+        }
+    }
+
+    @AfterAll
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testOrderedResultsMatchSequential() throws InterruptedException {
+        List<String> expected = new ArrayList<>();
+        for (Shape shape : SHAPES) {
+            CountingVisitor v = new CountingVisitor();
+            expected.add(v.result(v.analyze(shape)));
+        }
+        ParallelAnalyzer ana = ParallelAnalyzer.create().withPool(POOL);
+        assertEquals(expected, ana.analyze(SHAPES, FACTORY));
+        List<String> streamed = new ArrayList<>();
+        int count = ana.withMaxInFlight(3).analyzeOrdered(SHAPES.stream(), FACTORY,
+                (index, shape, result) -> {
+                    assertEquals(streamed.size(), index);
+                    assertTrue(shape == SHAPES.get(index));
+                    streamed.add(result);
+                    return true;
+                });
+        assertEquals(SHAPES.size(), count);
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    public void testConcurrentResults() throws InterruptedException {
+        ConcurrentHashMap<Integer, String> results = new ConcurrentHashMap<>();
+        int count = ParallelAnalyzer.create().withPool(POOL).analyzeConcurrently(
+                SHAPES.iterator(), FACTORY, (index, shape, result) -> {
+                    assertTrue(results.put(index, result) == null, "Duplicate " + index);
+                    return true;
+                });
+        assertEquals(SHAPES.size(), count);
+        assertEquals(SHAPES.size(), results.size());
+        for (int i = 0; i < SHAPES.size(); i++) {
+            CountingVisitor v = new CountingVisitor();
+            assertEquals(v.result(v.analyze(SHAPES.get(i))), results.get(i));
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        CountingIterator iter = new CountingIterator();
+        AtomicInteger delivered = new AtomicInteger();
+        ParallelAnalyzer ana = ParallelAnalyzer.create().withPool(POOL).withMaxInFlight(5);
+        ana.analyzeOrdered(iter, FACTORY, (index, shape, result) -> {
+            int outstanding = iter.pulled.get() - delivered.incrementAndGet();
+            assertTrue(outstanding < 5, "Too many in flight: " + outstanding);
+            return true;
+        });
+        CountingIterator iter2 = new CountingIterator();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ana.analyzeConcurrently(iter2, (index, shape) -> {
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            return new CountingVisitor();
+        }, (index, shape, result) -> {
+            running.decrementAndGet();
+            return true;
+        });
+        assertTrue(maxRunning.get() <= 5, "Too many in flight: " + maxRunning.get());
+    }
+
+    @Test
+    public void testStopAndFailure() throws InterruptedException {
+        CountingIterator iter = new CountingIterator();
+        ParallelAnalyzer ana = ParallelAnalyzer.create().withPool(POOL).withMaxInFlight(8);
+        int count = ana.analyzeOrdered(iter, FACTORY, (index, shape, result) -> index < 9);
+        assertEquals(10, count);
+        assertTrue(iter.pulled.get() <= 18, "Pulled " + iter.pulled.get());
+
+        CountingIterator iter2 = new CountingIterator();
+        AtomicInteger seen = new AtomicInteger();
+        ana.analyzeConcurrently(iter2, FACTORY, (index, shape, result) -> seen.incrementAndGet() < 10);
+        assertTrue(iter2.hasNext());
+        assertTrue(seen.get() >= 10 && seen.get() < 10 + 8, "Saw " + seen.get());
+
+        VisitorFactory<String> failing = (index, shape) -> {
+            if (index == 17) {
+                throw new IllegalStateException("Fail " + index);
+            }
+            return new CountingVisitor();
+        };
+        assertThrows(IllegalStateException.class, () -> ana.analyze(SHAPES, failing));
+        assertThrows(IllegalStateException.class, () -> ana.analyzeConcurrently(SHAPES.iterator(),
+                failing, (index, shape, result) -> true));
+    }
+
+    @Test
+    public void testFailingIteratorAndRejectingPool() throws InterruptedException {
+        ParallelAnalyzer ana = ParallelAnalyzer.create().withPool(POOL).withMaxInFlight(8);
+        AtomicInteger delivered = new AtomicInteger();
+        Iterator<Shape> failing = new CountingIterator() {
+            @Override
+            public Shape next() {
+                if (pulled() == 3) {
+                    throw new IllegalStateException("Fourth");
+                }
+                return super.next();
+            }
+        };
+        IllegalStateException ex = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> ana.analyzeConcurrently(failing, FACTORY,
+                                (index, shape, result) -> delivered.incrementAndGet() > 0)));
+        assertEquals("Fourth", ex.getMessage());
+        assertTrue(delivered.get() <= 3, "Delivered " + delivered.get());
+
+        ForkJoinPool dead = new ForkJoinPool(2);
+        dead.shutdown();
+        ParallelAnalyzer rejected = ParallelAnalyzer.create().withPool(dead).withMaxInFlight(8);
+        assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> assertThrows(RejectedExecutionException.class,
+                        () -> rejected.analyzeConcurrently(SHAPES.iterator(), FACTORY,
+                                (index, shape, result) -> true)));
+        // Permits are back: the same analyzer still works on a live pool
+        assertEquals(SHAPES.size(), rejected.withPool(POOL).withMaxInFlight(8)
+                .analyzeConcurrently(SHAPES.iterator(), FACTORY, (index, shape, result) -> true));
+    }
+
+    @Test
+    public void testInterruption() {
+        ParallelAnalyzer ana = ParallelAnalyzer.create().withPool(POOL);
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> ana.analyze(SHAPES, FACTORY));
+        assertFalse(Thread.currentThread().isInterrupted());
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> ana.analyzeConcurrently(
+                SHAPES.iterator(), FACTORY, (index, shape, result) -> true));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    private static final VisitorFactory<String> FACTORY = (index, shape) -> new CountingVisitor();
+
+    static final class CountingVisitor implements ResultVisitor<String> {
+
+        private final BitSet points = new BitSet();
+        private int corners;
+
+        @Override
+        public void visit(int pointIndex, LineVector vect,
+                int subpathIndex, RotationDirection subpathRotationDirection,
+                Polygon2D approximate, int prevPointIndex, int nextPointIndex) {
+            corners++;
+            points.set(pointIndex);
+        }
+
+        @Override
+        public String result(RotationDirection direction) {
+            return direction + ":" + corners + ":" + points;
+        }
+    }
+
+    static class CountingIterator implements Iterator<Shape> {
+
+        private final AtomicInteger pulled = new AtomicInteger();
+        private final Iterator<Shape> delegate = SHAPES.iterator();
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Shape next() {
+            pulled.incrementAndGet();
+            return delegate.next();
+        }
+
+        int pulled() {
+            return pulled.get();
+        }
+    }
+}
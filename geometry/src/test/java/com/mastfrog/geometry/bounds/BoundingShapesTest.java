@@ -0,0 +1,359 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.bounds;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.PieWedge;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.util.DoubleList;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class BoundingShapesTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void testConvexHull() {
+        double[] square = {0, 0, 10, 10, 10, 0, 5, 5, 0, 10, 5, 0, 10, 10};
+        assertArrayEquals(new double[]{0, 0, 10, 0, 10, 10, 0, 10},
+                BoundingShapes.convexHull(square));
+        Random rnd = new Random(18_001);
+        for (int n : new int[]{1, 2, 3, 4, 10, 100, 1000}) {
+            for (int i = 0; i < 20; i++) {
+                double[] pts = randomPoints(rnd, n);
+                double[] hull = BoundingShapes.convexHull(pts);
+                assertHull(pts, hull, n + " / " + i);
+                assertEquals(bruteForceHullSize(pts), hull.length / 2,
+                        n + " / " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testDegenerate() {
+        double[] same = {3, 4, 3, 4, 3, 4};
+        assertArrayEquals(new double[]{3, 4}, BoundingShapes.convexHull(same));
+        assertArrayEquals(new double[0], BoundingShapes.convexHull(new double[0]));
+        double[] line = {0, 0, 2, 2, 1, 1, 3, 3};
+        assertArrayEquals(new double[]{0, 0, 3, 3}, BoundingShapes.convexHull(line));
+        Circle c = BoundingShapes.minimumEnclosingCircle(line);
+        assertEquals(1.5, c.centerX(), TOLERANCE);
+        assertEquals(Math.hypot(3, 3) / 2, c.radius(), TOLERANCE);
+        double[] box = BoundingShapes.orientedBoundingBox(line);
+        assertEquals(0, Math.abs(polygonArea(box)), TOLERANCE);
+        c = BoundingShapes.minimumEnclosingCircle(same);
+        assertEquals(0, c.radius(), TOLERANCE);
+        assertArrayEquals(new double[]{3, 4, 3, 4, 3, 4, 3, 4},
+                BoundingShapes.orientedBoundingBox(same));
+        assertThrows(IllegalArgumentException.class,
+                () -> BoundingShapes.minimumEnclosingCircle(new double[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> BoundingShapes.convexHull(new double[3]));
+        assertThrows(IllegalArgumentException.class,
+                () -> BoundingShapes.convexHull(new double[4], 2, 2));
+    }
+
+    @Test
+    public void testRangesAndLists() {
+        Random rnd = new Random(18_002);
+        double[] pts = randomPoints(rnd, 50);
+        double[] padded = new double[pts.length + 6];
+        System.arraycopy(pts, 0, padded, 4, pts.length);
+        assertArrayEquals(BoundingShapes.convexHull(pts),
+                BoundingShapes.convexHull(padded, 4, 50));
+        assertArrayEquals(BoundingShapes.convexHull(pts),
+                BoundingShapes.convexHull(new DoubleList(pts)));
+        assertArrayEquals(BoundingShapes.orientedBoundingBox(pts),
+                BoundingShapes.orientedBoundingBox(padded, 4, 50), TOLERANCE);
+        assertEquals(BoundingShapes.minimumEnclosingCircle(pts).radius(),
+                BoundingShapes.minimumEnclosingCircle(new DoubleList(pts))
+                        .radius(), TOLERANCE);
+    }
+
+    @Test
+    public void testMinimumEnclosingCircle() {
+        Random rnd = new Random(18_003);
+        for (int n : new int[]{1, 2, 3, 5, 12}) {
+            for (int i = 0; i < 50; i++) {
+                double[] pts = randomPoints(rnd, n);
+                Circle c = BoundingShapes.minimumEnclosingCircle(pts);
+                assertEncloses(c, pts, n + " / " + i);
+                assertEquals(bruteForceRadius(pts), c.radius(), 1e-7,
+                        n + " / " + i);
+            }
+        }
+        double[] pts = randomPoints(rnd, 100_000);
+        assertEncloses(BoundingShapes.minimumEnclosingCircle(pts), pts, "big");
+        Circle c = BoundingShapes.minimumEnclosingCircle(
+                new Ellipse2D.Double(10, 10, 40, 40), 0.001);
+        assertEquals(30, c.centerX(), 0.01);
+        assertEquals(30, c.centerY(), 0.01);
+        assertEquals(20, c.radius(), 0.01);
+    }
+
+    @Test
+    public void testShapesWhichIgnoreFlatness() {
+        // PieWedge returns curves whatever flatness is requested; its arcs
+        // are coarse cubic approximations, bulging slightly outside the
+        // true circle, which moves the exact enclosing circle's center
+        PieWedge wedge = new PieWedge(100, 100, 100, 0, 180);
+        Circle c = BoundingShapes.minimumEnclosingCircle(wedge, 0.001);
+        assertEquals(100, c.radius(), 0.05);
+        assertEquals(100, c.centerY(), 0.05);
+        Polygon2D hull = BoundingShapes.convexHull(wedge, 0.001);
+        assertTrue(hull.pointCount() > 10, hull::toString);
+        assertEquals(100, hull.getBounds2D().getWidth(), 0.2);
+        assertEquals(200, hull.getBounds2D().getHeight(), 0.05);
+
+        // As does MinimalAggregateShapeDouble
+        MinimalAggregateShapeDouble agg = new MinimalAggregateShapeDouble(
+                new Ellipse2D.Double(10, 10, 40, 40));
+        c = BoundingShapes.minimumEnclosingCircle(agg, 0.001);
+        assertEquals(30, c.centerX(), 0.01);
+        assertEquals(30, c.centerY(), 0.01);
+        assertEquals(20, c.radius(), 0.01);
+        hull = BoundingShapes.convexHull(agg, 0.001);
+        assertTrue(hull.pointCount() > 10, hull::toString);
+        assertEquals(40, hull.getBounds2D().getWidth(), 0.01);
+    }
+
+    @Test
+    public void testOrientedBoundingBox() {
+        Random rnd = new Random(18_004);
+        for (int n : new int[]{2, 3, 4, 10, 100, 1000}) {
+            for (int i = 0; i < 20; i++) {
+                double[] pts = randomPoints(rnd, n);
+                double[] box = BoundingShapes.orientedBoundingBox(pts);
+                String msg = n + " / " + i + ": " + Arrays.toString(box);
+                assertRectangle(box, msg);
+                Polygon2D poly = new Polygon2D(box);
+                double area = Math.abs(polygonArea(box));
+                for (int j = 0; j < pts.length; j += 2) {
+                    assertTrue(area < 1e-9 || poly.contains(pts[j], pts[j + 1])
+                            || distanceToOutline(box, pts[j], pts[j + 1]) < 1e-7,
+                            msg + " " + pts[j] + ", " + pts[j + 1]);
+                }
+                assertEquals(bruteForceBoxArea(BoundingShapes.convexHull(pts)),
+                        area, 1e-6, msg);
+            }
+        }
+        // A rotated rectangle should be recovered exactly
+        Polygon2D rotated = new Polygon2D(50, 0, 100, 50, 70, 80, 20, 30);
+        Polygon2D box = BoundingShapes.orientedBoundingBox(rotated);
+        assertEquals(Math.abs(polygonArea(rotated.pointsArray())),
+                Math.abs(polygonArea(box.pointsArray())), 1e-6);
+        Rectangle2D bds = rotated.getBounds2D();
+        assertTrue(Math.abs(polygonArea(box.pointsArray()))
+                < bds.getWidth() * bds.getHeight());
+    }
+
+    private static double[] randomPoints(Random rnd, int n) {
+        double[] result = new double[n * 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = rnd.nextDouble() * 100;
+        }
+        return result;
+    }
+
+    private static double cross(double ox, double oy, double ax, double ay,
+            double bx, double by) {
+        return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+    }
+
+    private static void assertHull(double[] pts, double[] hull, String msg) {
+        int h = hull.length / 2;
+        for (int i = 0; i < h && h > 2; i++) {
+            int j = (i + 1) % h;
+            int k = (i + 2) % h;
+            assertTrue(cross(hull[i * 2], hull[i * 2 + 1], hull[j * 2],
+                    hull[j * 2 + 1], hull[k * 2], hull[k * 2 + 1]) > 0,
+                    msg + " not strictly convex at " + j);
+            for (int p = 0; p < pts.length; p += 2) {
+                assertTrue(cross(hull[i * 2], hull[i * 2 + 1], hull[j * 2],
+                        hull[j * 2 + 1], pts[p], pts[p + 1]) >= -TOLERANCE,
+                        msg + " point outside hull");
+            }
+        }
+    }
+
+    private static int bruteForceHullSize(double[] pts) {
+        // Count points which are extreme: some edge to another point has all
+        // points on its left, and no point lies strictly between them
+        int n = pts.length / 2;
+        if (n < 3) {
+            return n == 2 && (pts[0] != pts[2] || pts[1] != pts[3])
+                    ? 2 : Math.min(n, 1);
+        }
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            outer:
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    continue;
+                }
+                for (int k = 0; k < n; k++) {
+                    double c = cross(pts[i * 2], pts[i * 2 + 1], pts[j * 2],
+                            pts[j * 2 + 1], pts[k * 2], pts[k * 2 + 1]);
+                    if (c < 0) {
+                        continue outer;
+                    }
+                    if (c == 0 && k != i && k != j
+                            && Math.min(pts[i * 2], pts[j * 2]) <= pts[k * 2]
+                            && pts[k * 2] <= Math.max(pts[i * 2], pts[j * 2])
+                            && Math.min(pts[i * 2 + 1], pts[j * 2 + 1]) <= pts[k * 2 + 1]
+                            && pts[k * 2 + 1] <= Math.max(pts[i * 2 + 1], pts[j * 2 + 1])) {
+                        continue outer;
+                    }
+                }
+                count++;
+                break;
+            }
+        }
+        return count;
+    }
+
+    private static void assertEncloses(Circle c, double[] pts, String msg) {
+        for (int i = 0; i < pts.length; i += 2) {
+            double d = Math.hypot(pts[i] - c.centerX(), pts[i + 1] - c.centerY());
+            assertTrue(d <= c.radius() + 1e-9, msg + " " + d + " > " + c.radius());
+        }
+    }
+
+    private static double bruteForceRadius(double[] pts) {
+        int n = pts.length / 2;
+        if (n == 1) {
+            return 0;
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double cx = (pts[i * 2] + pts[j * 2]) / 2;
+                double cy = (pts[i * 2 + 1] + pts[j * 2 + 1]) / 2;
+                best = Math.min(best, enclosingRadius(pts, cx, cy,
+                        Math.hypot(pts[i * 2] - cx, pts[i * 2 + 1] - cy)));
+                for (int k = j + 1; k < n; k++) {
+                    double ax = pts[i * 2], ay = pts[i * 2 + 1];
+                    double bx = pts[j * 2] - ax, by = pts[j * 2 + 1] - ay;
+                    double qx = pts[k * 2] - ax, qy = pts[k * 2 + 1] - ay;
+                    double d = 2 * (bx * qy - by * qx);
+                    if (d == 0) {
+                        continue;
+                    }
+                    double b2 = bx * bx + by * by;
+                    double q2 = qx * qx + qy * qy;
+                    double ux = (qy * b2 - by * q2) / d;
+                    double uy = (bx * q2 - qx * b2) / d;
+                    best = Math.min(best, enclosingRadius(pts, ax + ux, ay + uy,
+                            Math.hypot(ux, uy)));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double enclosingRadius(double[] pts, double cx, double cy,
+            double r) {
+        for (int i = 0; i < pts.length; i += 2) {
+            if (Math.hypot(pts[i] - cx, pts[i + 1] - cy) > r + 1e-9) {
+                return Double.MAX_VALUE;
+            }
+        }
+        return r;
+    }
+
+    private static void assertRectangle(double[] box, String msg) {
+        for (int i = 0; i < 4; i++) {
+            int j = (i + 1) % 4;
+            int k = (i + 2) % 4;
+            double dot = (box[j * 2] - box[i * 2]) * (box[k * 2] - box[j * 2])
+                    + (box[j * 2 + 1] - box[i * 2 + 1]) * (box[k * 2 + 1] - box[j * 2 + 1]);
+            assertEquals(0, dot, 1e-6, msg + " corner " + j);
+        }
+    }
+
+    private static double bruteForceBoxArea(double[] hull) {
+        int h = hull.length / 2;
+        if (h < 3) {
+            return 0;
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < h; i++) {
+            int j = (i + 1) % h;
+            double ux = hull[j * 2] - hull[i * 2];
+            double uy = hull[j * 2 + 1] - hull[i * 2 + 1];
+            double len = Math.hypot(ux, uy);
+            ux /= len;
+            uy /= len;
+            double minU = Double.MAX_VALUE, maxU = -Double.MAX_VALUE;
+            double minV = Double.MAX_VALUE, maxV = -Double.MAX_VALUE;
+            for (int p = 0; p < h; p++) {
+                double u = hull[p * 2] * ux + hull[p * 2 + 1] * uy;
+                double v = -hull[p * 2] * uy + hull[p * 2 + 1] * ux;
+                minU = Math.min(minU, u);
+                maxU = Math.max(maxU, u);
+                minV = Math.min(minV, v);
+                maxV = Math.max(maxV, v);
+            }
+            best = Math.min(best, (maxU - minU) * (maxV - minV));
+        }
+        return best;
+    }
+
+    private static double polygonArea(double[] pts) {
+        double sum = 0;
+        int n = pts.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            sum += pts[i * 2] * pts[j * 2 + 1] - pts[j * 2] * pts[i * 2 + 1];
+        }
+        return sum / 2;
+    }
+
+    private static double distanceToOutline(double[] box, double x, double y) {
+        // Perpendicular distance to the nearest side; Line2D.ptSegDist()
+        // loses too much precision to subtraction for this
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int j = (i + 1) % 4;
+            double len = Math.hypot(box[j * 2] - box[i * 2],
+                    box[j * 2 + 1] - box[i * 2 + 1]);
+            best = Math.min(best, Math.abs(cross(box[i * 2], box[i * 2 + 1],
+                    box[j * 2], box[j * 2 + 1], x, y)) / len);
+        }
+        return best;
+    }
+}
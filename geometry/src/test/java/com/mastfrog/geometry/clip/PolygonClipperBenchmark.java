@@ -0,0 +1,136 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares PolygonClipper with java.awt.geom.Area for unions and
+ * intersections of concave polygons, intersections of convex polygons, and
+ * clipping a convex polygon to a rectangle.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonClipperBenchmark {
+
+    @Param({"16", "128"})
+    public int vertices;
+
+    private Polygon2D starA;
+    private Polygon2D starB;
+    private Polygon2D convexA;
+    private Polygon2D convexB;
+    private Rectangle2D.Double rect;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(vertices);
+        starA = PolygonClipperTest.star(rnd, vertices);
+        starB = PolygonClipperTest.star(rnd, vertices);
+        convexA = PolygonClipperTest.convex(rnd, vertices);
+        convexB = PolygonClipperTest.convex(rnd, vertices);
+        Rectangle2D bds = convexA.getBounds2D();
+        rect = new Rectangle2D.Double(bds.getCenterX() - bds.getWidth() / 4,
+                bds.getCenterY() - bds.getHeight() / 4, bds.getWidth(),
+                bds.getHeight());
+    }
+
+    @Benchmark
+    public ClipResult concaveUnionClipper() {
+        return PolygonClipper.union(starA, starB);
+    }
+
+    @Benchmark
+    public Area concaveUnionArea() {
+        Area result = new Area(starA);
+        result.add(new Area(starB));
+        return result;
+    }
+
+    @Benchmark
+    public ClipResult concaveIntersectionClipper() {
+        return PolygonClipper.intersection(starA, starB);
+    }
+
+    @Benchmark
+    public Area concaveIntersectionArea() {
+        Area result = new Area(starA);
+        result.intersect(new Area(starB));
+        return result;
+    }
+
+    @Benchmark
+    public ClipResult convexIntersectionClipper() {
+        return PolygonClipper.intersection(convexA, convexB);
+    }
+
+    @Benchmark
+    public Area convexIntersectionArea() {
+        Area result = new Area(convexA);
+        result.intersect(new Area(convexB));
+        return result;
+    }
+
+    @Benchmark
+    public ClipResult rectangleClipClipper() {
+        return PolygonClipper.intersection(convexA, rect);
+    }
+
+    @Benchmark
+    public Area rectangleClipArea() {
+        Area result = new Area(convexA);
+        result.intersect(new Area(rect));
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PolygonClipperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
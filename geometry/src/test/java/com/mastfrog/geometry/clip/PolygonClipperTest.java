@@ -0,0 +1,334 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.clip;
+
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class PolygonClipperTest {
+
+    @Test
+    public void testConvexPolygons() {
+        Random rnd = new Random(15_001);
+        for (int i = 0; i < 40; i++) {
+            Polygon2D a = convex(rnd, 3 + rnd.nextInt(10));
+            Polygon2D b = convex(rnd, 3 + rnd.nextInt(10));
+            assertMatchesArea(a, b, "convex " + i);
+        }
+    }
+
+    @Test
+    public void testRectangles() {
+        Random rnd = new Random(15_002);
+        for (int i = 0; i < 40; i++) {
+            Rectangle2D.Double a = new Rectangle2D.Double(rnd.nextInt(50),
+                    rnd.nextInt(50), 1 + rnd.nextInt(50), 1 + rnd.nextInt(50));
+            Shape b = rnd.nextBoolean() ? convex(rnd, 3 + rnd.nextInt(8))
+                    : star(rnd, 5 + rnd.nextInt(8));
+            assertMatchesArea(a, b, "rect " + i);
+            assertMatchesArea(b, a, "rect reversed " + i);
+        }
+    }
+
+    @Test
+    public void testNestedAndDisjoint() {
+        Polygon2D outer = new Polygon2D(0, 0, 100, 0, 100, 100, 0, 100);
+        Polygon2D inner = new Polygon2D(25, 25, 75, 25, 75, 75, 25, 75);
+        Polygon2D apart = new Polygon2D(200, 200, 250, 200, 225, 240);
+        assertEquals(2500, PolygonClipper.intersection(outer, inner).area(), 1e-9);
+        assertEquals(10000, PolygonClipper.union(outer, inner).area(), 1e-9);
+        ClipResult ring = PolygonClipper.difference(outer, inner);
+        assertEquals(7500, ring.area(), 1e-9);
+        assertEquals(2, ring.contourCount());
+        assertTrue(ring.isHole(0) != ring.isHole(1));
+        Path2D.Double ringPath = new Path2D.Double(ring.toShape());
+        assertFalse(ringPath.contains(50, 50));
+        assertTrue(ringPath.contains(10, 10));
+        assertTrue(PolygonClipper.difference(inner, outer).isEmpty());
+        assertTrue(PolygonClipper.intersection(outer, apart).isEmpty());
+        assertEquals(2, PolygonClipper.union(outer, apart).contourCount());
+        assertTrue(PolygonClipper.xor(outer, new Polygon2D(outer)).isEmpty());
+        assertMatchesArea(outer, inner, "nested");
+        assertMatchesArea(outer, apart, "disjoint");
+    }
+
+    @Test
+    public void testSharedEdgesAndVertices() {
+        Polygon2D a = new Polygon2D(0, 0, 10, 0, 10, 10, 0, 10);
+        // Shares the edge x=10
+        Polygon2D b = new Polygon2D(10, 0, 20, 0, 20, 10, 10, 10);
+        // Overlaps part of the edge x=10
+        Polygon2D c = new Polygon2D(10, 5, 20, 5, 20, 15, 10, 15);
+        // Touches only at a corner
+        Polygon2D d = new Polygon2D(10, 10, 20, 10, 20, 20, 10, 20);
+        // Concave, shares edges with a
+        Polygon2D e = new Polygon2D(0, 0, 10, 0, 10, 10, 5, 5, 0, 10);
+        ClipResult union = PolygonClipper.union(a, b);
+        assertEquals(1, union.contourCount());
+        assertEquals(4, union.pointCount(), "Collinear points not removed: "
+                + union.contour(0));
+        assertEquals(200, union.area(), 1e-9);
+        assertTrue(PolygonClipper.intersection(a, b).isEmpty());
+        ClipResult corner = PolygonClipper.union(a, d);
+        assertEquals(2, corner.contourCount());
+        assertEquals(200, corner.area(), 1e-9);
+        for (Polygon2D other : new Polygon2D[]{b, c, d, e}) {
+            assertMatchesArea(a, other, "shared " + other);
+            assertMatchesArea(other, a, "shared reversed " + other);
+        }
+    }
+
+    @Test
+    public void testConcavePolygons() {
+        Random rnd = new Random(15_003);
+        for (int i = 0; i < 60; i++) {
+            Polygon2D a = star(rnd, 5 + rnd.nextInt(20));
+            Polygon2D b = star(rnd, 5 + rnd.nextInt(20));
+            assertMatchesArea(a, b, "star " + i);
+        }
+    }
+
+    @Test
+    public void testSelfIntersectingWithWindingRules() {
+        Random rnd = new Random(15_004);
+        for (int i = 0; i < 40; i++) {
+            Polygon2D evenOdd = scribble(rnd, 5 + rnd.nextInt(8));
+            Path2D.Double nonZero = new Path2D.Double(PathIterator.WIND_NON_ZERO);
+            nonZero.append(scribble(rnd, 5 + rnd.nextInt(8)), false);
+            nonZero.closePath();
+            assertMatchesArea(evenOdd, nonZero, "scribble " + i);
+        }
+    }
+
+    @Test
+    public void testMultipleContoursAndCurves() {
+        Random rnd = new Random(15_005);
+        for (int i = 0; i < 20; i++) {
+            MinimalAggregateShapeDouble a = new MinimalAggregateShapeDouble(
+                    star(rnd, 6 + rnd.nextInt(6)), star(rnd, 6 + rnd.nextInt(6)));
+            Path2D.Double withHole = new Path2D.Double(PathIterator.WIND_EVEN_ODD);
+            withHole.append(new Rectangle2D.Double(rnd.nextInt(40),
+                    rnd.nextInt(40), 30 + rnd.nextInt(30), 30 + rnd.nextInt(30)),
+                    false);
+            withHole.append(star(rnd, 6), false);
+            assertMatchesArea(a, withHole, "multi " + i);
+        }
+        Ellipse2D.Double circle = new Ellipse2D.Double(10, 10, 50, 50);
+        Polygon2D square = new Polygon2D(0, 0, 40, 0, 40, 40, 0, 40);
+        // Curves are flattened, so compare loosely
+        ClipResult result = PolygonClipper.intersection(circle, square);
+        Area area = new Area(circle);
+        area.intersect(new Area(square));
+        assertEquals(areaOf(area), result.area(), 1);
+    }
+
+    @Test
+    public void testDegenerateIntegerCoordinates() {
+        // Small integer grids produce many collinear overlaps, shared
+        // vertices and edges passing through vertices
+        Random rnd = new Random(15_006);
+        for (int i = 0; i < 200; i++) {
+            Polygon2D a = grid(rnd, 3 + rnd.nextInt(6));
+            Polygon2D b = grid(rnd, 3 + rnd.nextInt(6));
+            assertMatchesArea(a, b, "grid " + i);
+        }
+    }
+
+    private static void assertMatchesArea(Shape a, Shape b, String msg) {
+        for (BooleanOperation op : BooleanOperation.values()) {
+            ClipResult result = PolygonClipper.apply(op, a, b);
+            Area expected = new Area(a);
+            switch (op) {
+                case UNION:
+                    expected.add(new Area(b));
+                    break;
+                case INTERSECTION:
+                    expected.intersect(new Area(b));
+                    break;
+                case DIFFERENCE:
+                    expected.subtract(new Area(b));
+                    break;
+                case XOR:
+                    expected.exclusiveOr(new Area(b));
+                    break;
+            }
+            double expectedArea = areaOf(expected);
+            String m = msg + " " + op + " " + result;
+            assertEquals(expectedArea, result.area(),
+                    Math.max(1e-7, expectedArea * 1e-9), m);
+            assertEquals(expectedArea, areaOf(result.toShape()),
+                    Math.max(1e-7, expectedArea * 1e-9), m);
+            // Sample points away from any edge, using Path2D since
+            // MinimalAggregateShapeDouble.contains() only tests bounds
+            Shape resultShape = new Path2D.Double(result.toShape());
+            Random rnd = new Random(msg.hashCode());
+            Rectangle2D bounds = a.getBounds2D().createUnion(b.getBounds2D());
+            int tested = 0;
+            for (int i = 0; i < 400 && tested < 150; i++) {
+                double x = bounds.getX() + rnd.nextDouble() * bounds.getWidth();
+                double y = bounds.getY() + rnd.nextDouble() * bounds.getHeight();
+                if (nearEdge(a, x, y) || nearEdge(b, x, y)) {
+                    continue;
+                }
+                tested++;
+                assertEquals(expected.contains(x, y), resultShape.contains(x, y),
+                        m + " at " + x + ", " + y);
+            }
+        }
+    }
+
+    private static boolean nearEdge(Shape shape, double x, double y) {
+        PathIterator it = shape.getPathIterator(null, 0.01);
+        double[] d = new double[6];
+        double sx = 0;
+        double sy = 0;
+        double lx = 0;
+        double ly = 0;
+        while (!it.isDone()) {
+            int type = it.currentSegment(d);
+            switch (type) {
+                case PathIterator.SEG_MOVETO:
+                    sx = lx = d[0];
+                    sy = ly = d[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    if (Line2D.ptSegDist(lx, ly, d[0], d[1], x, y) < 0.001) {
+                        return true;
+                    }
+                    lx = d[0];
+                    ly = d[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    if (Line2D.ptSegDist(lx, ly, sx, sy, x, y) < 0.001) {
+                        return true;
+                    }
+                    lx = sx;
+                    ly = sy;
+                    break;
+            }
+            it.next();
+        }
+        return false;
+    }
+
+    /**
+     * Area of a shape whose contours do not cross and whose holes have the
+     * opposite orientation of their outer contours, as with Area's paths.
+     */
+    static double areaOf(Shape shape) {
+        PathIterator it = shape.getPathIterator(null, 0.01);
+        double[] d = new double[6];
+        double total = 0;
+        double sx = 0;
+        double sy = 0;
+        double lx = 0;
+        double ly = 0;
+        while (!it.isDone()) {
+            int type = it.currentSegment(d);
+            switch (type) {
+                case PathIterator.SEG_MOVETO:
+                    total += lx * sy - sx * ly;
+                    sx = lx = d[0];
+                    sy = ly = d[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    total += lx * d[1] - d[0] * ly;
+                    lx = d[0];
+                    ly = d[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    total += lx * sy - sx * ly;
+                    lx = sx;
+                    ly = sy;
+                    break;
+            }
+            it.next();
+        }
+        total += lx * sy - sx * ly;
+        return Math.abs(total / 2);
+    }
+
+    static Polygon2D convex(Random rnd, int vertices) {
+        double cx = rnd.nextDouble() * 60;
+        double cy = rnd.nextDouble() * 60;
+        double r = 10 + rnd.nextDouble() * 40;
+        double[] angles = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            angles[i] = rnd.nextDouble() * Math.PI * 2;
+        }
+        Arrays.sort(angles);
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < vertices; i++) {
+            pts[i * 2] = cx + Math.cos(angles[i]) * r;
+            pts[i * 2 + 1] = cy + Math.sin(angles[i]) * r;
+        }
+        return new Polygon2D(pts);
+    }
+
+    static Polygon2D star(Random rnd, int vertices) {
+        double cx = rnd.nextDouble() * 60;
+        double cy = rnd.nextDouble() * 60;
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < vertices; i++) {
+            double angle = (Math.PI * 2 * i) / vertices;
+            double radius = 40 * (0.2 + 0.8 * rnd.nextDouble());
+            pts[i * 2] = cx + Math.cos(angle) * radius;
+            pts[i * 2 + 1] = cy + Math.sin(angle) * radius;
+        }
+        return new Polygon2D(pts);
+    }
+
+    static Polygon2D grid(Random rnd, int vertices) {
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = rnd.nextInt(6) * 10;
+        }
+        return new Polygon2D(pts);
+    }
+
+    static Polygon2D scribble(Random rnd, int vertices) {
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = rnd.nextDouble() * 100;
+        }
+        return new Polygon2D(pts);
+    }
+}
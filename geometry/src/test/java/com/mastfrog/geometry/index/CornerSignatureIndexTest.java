@@ -0,0 +1,234 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.index;
+
+import com.mastfrog.geometry.CornerAngle;
+import com.mastfrog.geometry.Polygon2D;
+import static com.mastfrog.geometry.CornerAngle.ENCODING_MULTIPLIER;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class CornerSignatureIndexTest {
+
+    @Test
+    public void testEncodeNormalizedLargeAngles() {
+        for (double angle = 200; angle < 360; angle += 7.5) {
+            CornerAngle ca = new CornerAngle(angle, angle - 40);
+            double enc = ca.encodeNormalized();
+            assertTrue(enc > 0, "Overflowed encoding " + enc + " for " + ca);
+            double decoded = CornerSignatureIndex.encodedAngle(enc);
+            double extent = CornerSignatureIndex.encodedExtent(enc);
+            assertTrue(Math.abs(decoded - ca.trailingAngle()) < 0.00001
+                    || Math.abs(decoded - ca.leadingAngle()) < 0.00001,
+                    "Wrong angle " + decoded + " for " + ca);
+            assertEquals(Math.abs(ca.extent()), extent, 0.001,
+                    "Wrong extent for " + ca);
+        }
+    }
+
+    @Test
+    public void testSignatureIgnoresPositionScaleAndWinding() {
+        Polygon2D poly = star(9, new Random(9_113));
+        double[] sig = CornerSignatureIndex.signature(poly);
+        assertEquals(poly.pointCount(), sig.length);
+        for (int i = 1; i < sig.length; i++) {
+            assertTrue(sig[i - 1] <= sig[i], "Unsorted at " + i);
+        }
+        double[] moved = CornerSignatureIndex.signature(
+                moved(poly, 300, -120, 2.5));
+        assertSimilar(sig, moved);
+        assertSimilar(sig, CornerSignatureIndex.signature(reversed(poly)));
+    }
+
+    @Test
+    public void testDuplicateGroups() {
+        Random rnd = new Random(51_028);
+        List<Shape> shapes = new ArrayList<>();
+        List<Integer> groupOf = new ArrayList<>();
+        for (int g = 0; g < 12; g++) {
+            Polygon2D proto = star(5 + rnd.nextInt(12), rnd);
+            int copies = g % 3 == 0 ? 1 : 2 + rnd.nextInt(4);
+            for (int c = 0; c < copies; c++) {
+                shapes.add(moved(proto, rnd.nextDouble() * 2000,
+                        rnd.nextDouble() * 2000, 0.5 + rnd.nextDouble() * 3));
+                groupOf.add(g);
+            }
+        }
+        // Shuffle so group members are not contiguous
+        long seed = rnd.nextLong();
+        Collections.shuffle(shapes, new Random(seed));
+        Collections.shuffle(groupOf, new Random(seed));
+
+        CornerSignatureIndex index = CornerSignatureIndex.create(shapes);
+        assertEquals(shapes.size(), index.size());
+        List<int[]> groups = index.duplicateGroups(0.01, 0.01);
+        int expectedGroups = 0;
+        for (int g = 0; g < 12; g++) {
+            int group = g;
+            if (groupOf.stream().filter(x -> x == group).count() > 1) {
+                expectedGroups++;
+            }
+        }
+        assertEquals(expectedGroups, groups.size(), "Wrong group count");
+        for (int[] group : groups) {
+            int expected = groupOf.get(group[0]);
+            for (int member : group) {
+                assertEquals(expected, (int) groupOf.get(member),
+                        "Mixed group " + Arrays.toString(group));
+            }
+            assertEquals(groupOf.stream().filter(x -> x == expected).count(),
+                    group.length, "Incomplete group");
+        }
+    }
+
+    @Test
+    public void testInvalidTolerancesRejected() {
+        Random rnd = new Random(7_331);
+        CornerSignatureIndex index = CornerSignatureIndex.create(
+                Arrays.asList(star(6, rnd), star(9, rnd)));
+        double[] sig = index.signature(0);
+        double[][] bad = {{-1, 0}, {0, -1}, {Double.NaN, 0}, {0, Double.NaN}};
+        for (double[] t : bad) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> index.similar(0, t[0], t[1]), Arrays.toString(t));
+            assertThrows(IllegalArgumentException.class,
+                    () -> index.similar(sig, t[0], t[1], 1),
+                    Arrays.toString(t));
+            assertThrows(IllegalArgumentException.class,
+                    () -> index.duplicateGroups(t[0], t[1]),
+                    Arrays.toString(t));
+        }
+        assertArrayEquals(new int[]{0}, index.similar(0, 0, 0));
+    }
+
+    @Test
+    public void testSimilarMatchesExhaustiveComparison() {
+        Random rnd = new Random(3_301);
+        List<Shape> shapes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Polygon2D proto = star(6 + rnd.nextInt(6), rnd);
+            shapes.add(proto);
+            shapes.add(jittered(proto, rnd, 0.1));
+            shapes.add(jittered(proto, rnd, 3));
+        }
+        CornerSignatureIndex index = CornerSignatureIndex.create(shapes);
+        double[] tolerances = {0.01, 0.5, 3};
+        double[] fractions = {1, 0.75, 0.4};
+        for (double tol : tolerances) {
+            for (double fraction : fractions) {
+                for (int q = 0; q < shapes.size(); q += 7) {
+                    double[] query = index.signature(q);
+                    int[] found = index.similar(query, tol, tol, fraction);
+                    List<Integer> expected = new ArrayList<>();
+                    for (int i = 0; i < shapes.size(); i++) {
+                        double[] other = index.signature(i);
+                        int matches = CornerSignatureIndex.matchCount(query, 0,
+                                query.length, other, 0, other.length,
+                                tol * ENCODING_MULTIPLIER, tol);
+                        if (matches >= Math.ceil(fraction
+                                * Math.max(query.length, other.length)
+                                - 0.000001)) {
+                            expected.add(i);
+                        }
+                    }
+                    assertArrayEquals(expected.stream().mapToInt(x -> x)
+                            .toArray(), found, "Query " + q + " tol " + tol
+                            + " fraction " + fraction);
+                    assertTrue(Arrays.binarySearch(found, q) >= 0,
+                            "Shape " + q + " does not match itself");
+                }
+            }
+        }
+        int[] exact = index.similar(shapes.get(0), 0.001, 0.001);
+        assertArrayEquals(new int[]{0}, exact);
+        int[] loose = index.similar(0, 1, 1);
+        assertArrayEquals(new int[]{0, 1}, loose);
+    }
+
+    private static void assertSimilar(double[] a, double[] b) {
+        assertEquals(a.length, b.length);
+        for (int i = 0; i < a.length; i++) {
+            assertEquals(CornerSignatureIndex.encodedAngle(a[i]),
+                    CornerSignatureIndex.encodedAngle(b[i]), 0.0001,
+                    "Angle " + i);
+            assertEquals(CornerSignatureIndex.encodedExtent(a[i]),
+                    CornerSignatureIndex.encodedExtent(b[i]), 0.01,
+                    "Extent " + i);
+        }
+    }
+
+    private static Shape moved(Polygon2D poly, double dx, double dy,
+            double scale) {
+        AffineTransform xform = AffineTransform.getTranslateInstance(dx, dy);
+        xform.scale(scale, scale);
+        return new Polygon2D(poly, xform);
+    }
+
+    private static Shape reversed(Polygon2D poly) {
+        double[] pts = poly.pointsArray().clone();
+        // Keep the same starting point, so the same corners are counted
+        double[] rev = new double[pts.length];
+        rev[0] = pts[0];
+        rev[1] = pts[1];
+        for (int i = 2; i < pts.length; i += 2) {
+            rev[pts.length - i] = pts[i];
+            rev[pts.length - i + 1] = pts[i + 1];
+        }
+        return new Polygon2D(rev);
+    }
+
+    private static Polygon2D jittered(Polygon2D poly, Random rnd,
+            double amount) {
+        double[] pts = poly.pointsArray().clone();
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] += (rnd.nextDouble() - 0.5) * amount;
+        }
+        return new Polygon2D(pts);
+    }
+
+    private static Polygon2D star(int vertices, Random rnd) {
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < vertices; i++) {
+            double angle = (Math.PI * 2 * i) / vertices;
+            double radius = 50 * (0.3 + 0.7 * rnd.nextDouble());
+            pts[i * 2] = 50 + Math.cos(angle) * radius;
+            pts[(i * 2) + 1] = 50 + Math.sin(angle) * radius;
+        }
+        return new Polygon2D(pts);
+    }
+}
@@ -0,0 +1,194 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.index;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.EnhRectangle2D;
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.PieWedge;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class ShapeIndexTest {
+
+    @Test
+    public void testBulkLoadedQueriesMatchLinearScan() {
+        Random rnd = new Random(720_331);
+        List<Shape> shapes = randomShapes(rnd, 2000);
+        ShapeIndex<Shape> index = ShapeIndex.create(shapes);
+        assertEquals(shapes.size(), index.size());
+        assertTrue(index.height() > 1, index::toString);
+        assertQueriesMatch(rnd, shapes, index);
+    }
+
+    @Test
+    public void testIncrementalInsertAndRemove() {
+        Random rnd = new Random(91_553);
+        List<Shape> shapes = randomShapes(rnd, 1500);
+        ShapeIndex<Shape> index = new ShapeIndex<>(8);
+        for (Shape s : shapes) {
+            index.add(s);
+        }
+        assertEquals(shapes.size(), index.size());
+        assertQueriesMatch(rnd, shapes, index);
+        Collections.shuffle(shapes, rnd);
+        for (int i = 0; i < 1000; i++) {
+            Shape s = shapes.remove(shapes.size() - 1);
+            assertTrue(index.remove(s), "Not removed: " + s);
+            assertFalse(index.remove(s));
+        }
+        assertEquals(shapes.size(), index.size());
+        assertEquals(identitySet(shapes), identitySet(index));
+        assertQueriesMatch(rnd, shapes, index);
+        for (Shape s : new ArrayList<>(shapes)) {
+            assertTrue(index.remove(s));
+        }
+        assertTrue(index.isEmpty());
+        assertTrue(index.containing(100, 100).isEmpty());
+    }
+
+    @Test
+    public void testUpdateMovedShape() {
+        Random rnd = new Random(3_117);
+        List<Shape> shapes = randomShapes(rnd, 300);
+        ShapeIndex<Shape> index = ShapeIndex.create(8, shapes);
+        EnhRectangle2D moving = new EnhRectangle2D(10, 10, 5, 5);
+        index.add(moving);
+        shapes.add(moving);
+        moving.x = 900;
+        moving.y = 900;
+        index.update(moving);
+        assertEquals(shapes.size(), index.size());
+        assertTrue(index.containing(902, 902).contains(moving));
+        assertFalse(index.containing(12, 12).contains(moving));
+        assertQueriesMatch(rnd, shapes, index);
+    }
+
+    @Test
+    public void testDistanceToShapesWhichIgnoreFlatness() {
+        // Both return curves whatever flatness is requested
+        Shape curved = new MinimalAggregateShapeDouble(
+                new Ellipse2D.Double(0, 0, 100, 100));
+        assertEquals(10, ShapeDistance.DEFAULT.distance(curved, 110, 50), 0.01);
+        PieWedge wedge = new PieWedge(100, 100, 100, 0, 180);
+        assertEquals(Math.sqrt(200 * 200 + 100 * 100),
+                ShapeDistance.DEFAULT.distance(wedge, -100, 300), 0.01);
+
+        EnhRectangle2D rect = new EnhRectangle2D(130, 40, 10, 20);
+        ShapeIndex<Shape> index = ShapeIndex.create(Arrays.asList(rect, curved));
+        List<Shape> nearest = index.nearest(110, 50, 2);
+        assertEquals(2, nearest.size());
+        assertSame(curved, nearest.get(0));
+        assertSame(rect, nearest.get(1));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        List<Shape> shapes = randomShapes(new Random(4_410), 20);
+        ShapeIndex<Shape> index = ShapeIndex.create(shapes);
+        Iterator<Shape> it = index.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+        assertEquals(19, index.size());
+    }
+
+    private static void assertQueriesMatch(Random rnd, List<Shape> shapes, ShapeIndex<Shape> index) {
+        for (int i = 0; i < 100; i++) {
+            double x = rnd.nextDouble() * 1000;
+            double y = rnd.nextDouble() * 1000;
+            List<Shape> expected = new ArrayList<>();
+            for (Shape s : shapes) {
+                if (s.contains(x, y)) {
+                    expected.add(s);
+                }
+            }
+            assertEquals(identitySet(expected), identitySet(index.containing(x, y)));
+
+            Rectangle2D.Double rect = new Rectangle2D.Double(x, y,
+                    rnd.nextDouble() * 100, rnd.nextDouble() * 100);
+            expected.clear();
+            for (Shape s : shapes) {
+                if (s.intersects(rect)) {
+                    expected.add(s);
+                }
+            }
+            assertEquals(identitySet(expected), identitySet(index.intersecting(rect)));
+
+            List<Shape> sorted = new ArrayList<>(shapes);
+            sorted.sort(Comparator.comparingDouble(s -> ShapeDistance.DEFAULT.distance(s, x, y)));
+            List<Shape> nearest = index.nearest(x, y, 5);
+            assertEquals(Math.min(5, shapes.size()), nearest.size());
+            for (int j = 0; j < nearest.size(); j++) {
+                assertEquals(ShapeDistance.DEFAULT.distance(sorted.get(j), x, y),
+                        ShapeDistance.DEFAULT.distance(nearest.get(j), x, y), 0.0000001,
+                        "Wrong " + j + "'th nearest at " + x + "," + y);
+            }
+        }
+    }
+
+    private static Set<Shape> identitySet(Iterable<Shape> shapes) {
+        Set<Shape> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Shape s : shapes) {
+            result.add(s);
+        }
+        return result;
+    }
+
+    private static List<Shape> randomShapes(Random rnd, int count) {
+        List<Shape> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = rnd.nextDouble() * 1000;
+            double y = rnd.nextDouble() * 1000;
+            if (rnd.nextBoolean()) {
+                result.add(new Circle(x, y, 1 + rnd.nextDouble() * 20));
+            } else {
+                result.add(new EnhRectangle2D(x, y, 1 + rnd.nextDouble() * 30,
+                        1 + rnd.nextDouble() * 30));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares 1024 containment tests against a star polygon, and against the
+ * union of a star and an ellipse, made directly and through PreparedShape.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreparedShapeBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int vertices;
+
+    private Polygon2D star;
+    private PreparedShape preparedStar;
+    private Area area;
+    private PreparedShape preparedArea;
+    private double[] points;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(vertices);
+        star = TriangulatorTest.star(rnd, vertices);
+        preparedStar = PreparedShape.of(star);
+        area = new Area(star);
+        area.add(new Area(new Ellipse2D.Double(30, 60, 60, 35)));
+        preparedArea = PreparedShape.of(area);
+        points = new double[2048];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = rnd.nextDouble() * 100;
+        }
+        preparedStar.contains(0, 0);
+        preparedArea.contains(0, 0);
+    }
+
+    @Benchmark
+    public int polygonContains() {
+        int result = 0;
+        for (int i = 0; i < points.length; i += 2) {
+            if (star.contains(points[i], points[i + 1])) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int preparedPolygonContains() {
+        int result = 0;
+        for (int i = 0; i < points.length; i += 2) {
+            if (preparedStar.contains(points[i], points[i + 1])) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int areaContains() {
+        int result = 0;
+        for (int i = 0; i < points.length; i += 2) {
+            if (area.contains(points[i], points[i + 1])) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int preparedAreaContains() {
+        int result = 0;
+        for (int i = 0; i < points.length; i += 2) {
+            if (preparedArea.contains(points[i], points[i + 1])) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean prepare() {
+        return PreparedShape.of(star).contains(50, 50);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PreparedShapeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,206 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.PieWedge;
+import com.mastfrog.geometry.Polygon2D;
+import static com.mastfrog.geometry.mesh.TriangulatorTest.scribble;
+import static com.mastfrog.geometry.mesh.TriangulatorTest.star;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class PreparedShapeTest {
+
+    @Test
+    public void testPolygonAndMutation() {
+        Random rnd = new Random(17_001);
+        for (int n : new int[]{3, 7, 50, 500, 3000}) {
+            Polygon2D star = star(rnd, n);
+            PreparedShape prepared = PreparedShape.of(star);
+            assertSame(star, prepared.shape());
+            assertMatches(star, prepared, rnd, 1e-6, "Star " + n);
+            star.setPoint(0, 99, 50);
+            assertMatches(star, prepared, rnd, 1e-6, "Mutated star " + n);
+            assertTrue(prepared.contains(98.5, 50), "Not rebuilt: " + n);
+        }
+    }
+
+    @Test
+    public void testSelfIntersecting() {
+        Random rnd = new Random(17_002);
+        for (int i = 0; i < 20; i++) {
+            Polygon2D poly = scribble(rnd, 5 + rnd.nextInt(40));
+            assertMatches(poly, PreparedShape.of(poly), rnd, 1e-6,
+                    "Scribble " + i);
+        }
+    }
+
+    @Test
+    public void testAggregateWithHole() {
+        Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+        path.append(new Rectangle2D.Double(10, 10, 80, 80), false);
+        path.append(new Ellipse2D.Double(30, 30, 40, 40), false);
+        MinimalAggregateShapeDouble agg = new MinimalAggregateShapeDouble(path);
+        PreparedShape prepared = PreparedShape.of(agg);
+        assertTrue(prepared.contains(15, 15));
+        assertFalse(prepared.contains(50, 50));
+        assertFalse(prepared.contains(5, 50));
+        // Curves are flattened to within the default flatness
+        assertMatches(path, prepared, new Random(17_003), 0.2, "Aggregate");
+    }
+
+    @Test
+    public void testCircle() {
+        Circle circle = new Circle(50, 50, 20);
+        PreparedShape prepared = PreparedShape.of(circle);
+        assertTrue(prepared.contains(50, 69));
+        assertFalse(prepared.contains(50, 75));
+        circle.setRadius(30);
+        assertTrue(prepared.contains(50, 75));
+    }
+
+    @Test
+    public void testPieWedge() {
+        Random rnd = new Random(17_004);
+        for (double extent : new double[]{0, 10, 90, 180, 181, 270, 359}) {
+            for (double angle : new double[]{0, 45, 200, 350}) {
+                PieWedge wedge = new PieWedge(50, 50, 40, angle, extent);
+                PreparedShape prepared = PreparedShape.of(wedge);
+                assertWedge(wedge, prepared, rnd);
+                wedge.setAngleAndExtent(angle + 90, extent / 2);
+                assertWedge(wedge, prepared, rnd);
+            }
+        }
+    }
+
+    @Test
+    public void testCurvedShape() {
+        Ellipse2D.Double ell = new Ellipse2D.Double(10, 20, 80, 50);
+        PreparedShape prepared = PreparedShape.of(ell, 0.01);
+        Random rnd = new Random(17_005);
+        for (int i = 0; i < 10000; i++) {
+            double x = rnd.nextDouble() * 100;
+            double y = rnd.nextDouble() * 100;
+            if (nearEdge(ell, x, y, 0.05)) {
+                continue;
+            }
+            assertEquals(ell.contains(x, y), prepared.contains(x, y),
+                    x + ", " + y);
+        }
+        Path2D.Double path = new Path2D.Double(ell);
+        prepared = PreparedShape.of(path);
+        assertTrue(prepared.contains(50, 45));
+        path.reset();
+        path.append(new Rectangle2D.Double(0, 0, 5, 5), false);
+        assertTrue(prepared.contains(50, 45));
+        prepared.invalidate();
+        assertFalse(prepared.contains(50, 45));
+        assertTrue(prepared.contains(2, 2));
+    }
+
+    private static void assertWedge(PieWedge wedge, PreparedShape prepared,
+            Random rnd) {
+        for (int i = 0; i < 2000; i++) {
+            double x = rnd.nextDouble() * 100;
+            double y = rnd.nextDouble() * 100;
+            double dx = x - wedge.getCenterX();
+            double dy = y - wedge.getCenterY();
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            // Compass angle, matching Circle.positionOf()
+            double deg = Math.toDegrees(Math.atan2(dy, dx)) + 90;
+            double rel = ((deg - wedge.angle()) % 360 + 360) % 360;
+            if (Math.abs(dist - wedge.radius()) < 1e-6 || dist < 1e-6
+                    || Math.abs(rel) < 1e-6 || Math.abs(rel - wedge.extent()) < 1e-6) {
+                continue;
+            }
+            boolean expected = dist < wedge.radius() && rel < wedge.extent();
+            assertEquals(expected, prepared.contains(x, y), wedge + " at "
+                    + x + ", " + y + " rel " + rel);
+        }
+    }
+
+    private static void assertMatches(Shape reference, PreparedShape prepared,
+            Random rnd, double tolerance, String msg) {
+        Path2D.Double path = new Path2D.Double(reference);
+        Rectangle2D bds = path.getBounds2D();
+        for (int i = 0; i < 5000; i++) {
+            double x = bds.getX() - 5 + rnd.nextDouble() * (bds.getWidth() + 10);
+            double y = bds.getY() - 5 + rnd.nextDouble() * (bds.getHeight() + 10);
+            if (nearEdge(path, x, y, tolerance)) {
+                continue;
+            }
+            assertEquals(path.contains(x, y), prepared.contains(x, y),
+                    msg + " at " + x + ", " + y);
+        }
+    }
+
+    private static boolean nearEdge(Shape shape, double x, double y,
+            double tolerance) {
+        PathIterator it = shape.getPathIterator(null, 0.001);
+        double[] c = new double[6];
+        double sx = 0, sy = 0, lx = 0, ly = 0;
+        while (!it.isDone()) {
+            switch (it.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO:
+                    sx = lx = c[0];
+                    sy = ly = c[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    if (Line2D.ptSegDist(lx, ly, c[0], c[1], x, y) < tolerance) {
+                        return true;
+                    }
+                    lx = c[0];
+                    ly = c[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    if (Line2D.ptSegDist(lx, ly, sx, sy, x, y) < tolerance) {
+                        return true;
+                    }
+                    lx = sx;
+                    ly = sy;
+                    break;
+                default:
+                    break;
+            }
+            it.next();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,299 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.mesh;
+
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.Triangle2D;
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class TriangulatorTest {
+
+    @Test
+    public void testSquare() {
+        Polygon2D square = new Polygon2D(0, 0, 100, 0, 100, 100, 0, 100);
+        TriangleMesh mesh = square.triangulate();
+        assertEquals(4, mesh.vertexCount());
+        assertEquals(2, mesh.triangleCount());
+        assertEquals(10000, mesh.area(), 1e-9);
+        Triangle2D[] tris = square.tesselate();
+        assertEquals(2, tris.length);
+        assertTrue(mesh.contains(50, 50));
+        assertTrue(mesh.contains(1, 99));
+        assertFalse(mesh.contains(101, 50));
+        assertEquals(new Rectangle2D.Float(0, 0, 100, 100), mesh.bounds());
+    }
+
+    @Test
+    public void testSimplePolygons() {
+        Random rnd = new Random(16_001);
+        for (int n : new int[]{3, 5, 8, 13, 40, 79, 81, 200, 1000, 3000}) {
+            for (int i = 0; i < 10; i++) {
+                Polygon2D star = star(rnd, n);
+                TriangleMesh mesh = star.triangulate();
+                String msg = n + " / " + i + ": " + mesh;
+                assertEquals(n, mesh.vertexCount(), msg);
+                assertEquals(n - 2, mesh.triangleCount(), msg);
+                double expected = areaOf(star);
+                assertEquals(expected, mesh.area(), expected * 1e-6, msg);
+                assertSameCoverage(star, mesh, msg);
+            }
+        }
+    }
+
+    @Test
+    public void testHoles() {
+        double[] coords = {
+            0, 0, 100, 0, 100, 100, 0, 100,
+            // clockwise hole
+            10, 10, 10, 40, 40, 40, 40, 10,
+            // counter-clockwise hole
+            60, 60, 90, 60, 90, 90, 60, 90,
+            // triangular hole
+            70, 10, 90, 10, 80, 30
+        };
+        TriangleMesh mesh = Triangulator.triangulate(coords, 4, 8, 12);
+        assertEquals(15, mesh.vertexCount());
+        // At most n + 2h - 2; fewer if bridging leaves collinear points
+        assertTrue(mesh.triangleCount() <= 15 + 6 - 2, mesh.toString());
+        assertEquals(10000 - 900 - 900 - 200, mesh.area(), 1e-6);
+        assertFalse(mesh.contains(25, 25));
+        assertFalse(mesh.contains(75, 75));
+        assertFalse(mesh.contains(80, 20));
+        assertTrue(mesh.contains(50, 50));
+        assertTrue(mesh.contains(5, 95));
+        assertTrue(mesh.contains(95, 5));
+
+        int[] indices = mesh.indices();
+        float[] vertices = mesh.vertices();
+        assertEquals(mesh.triangleCount() * 3, indices.length);
+        assertEquals(30, vertices.length);
+        int[] shared = new int[indices.length + 3];
+        assertEquals(indices.length, mesh.copyIndices(shared, 3, 15));
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(indices[i] + 15, shared[i + 3]);
+        }
+    }
+
+    @Test
+    public void testMonotoneDecomposition() {
+        Random rnd = new Random(16_003);
+        for (int i = 0; i < 20; i++) {
+            double[] coords = star(rnd, 20 + rnd.nextInt(200)).pointsArray();
+            int points = coords.length / 2;
+            double[] withHoles = new double[coords.length + 16];
+            System.arraycopy(coords, 0, withHoles, 0, coords.length);
+            // Two small square holes near the center, which every star
+            // generated covers
+            System.arraycopy(new double[]{45, 45, 49, 45, 49, 49, 45, 49,
+                51, 51, 51, 55, 55, 55, 55, 51}, 0, withHoles,
+                    coords.length, 16);
+            TriangleSink sink = new TriangleSink(16);
+            assertTrue(new MonotoneTriangulator(withHoles).triangulate(
+                    new int[]{points, points + 4}, 0, sink), "star " + i);
+            TriangleMesh mesh = new TriangleMesh(toFloats(withHoles),
+                    sink.toArray());
+            double expected = areaOf(new Polygon2D(coords)) - 32;
+            assertEquals(expected, mesh.area(), expected * 1e-6);
+            assertFalse(mesh.contains(47, 47));
+            assertFalse(mesh.contains(53, 53));
+            assertTrue(mesh.contains(50, 50));
+        }
+        // Bow-ties are not simple polygons, and must be rejected
+        assertFalse(new MonotoneTriangulator(new double[]{0, 0, 10, 10,
+            10, 0, 0, 10}).triangulate(new int[0], 0, new TriangleSink(8)));
+        assertFalse(new MonotoneTriangulator(new double[]{0, 0, 10, 10,
+            10, 0, 0, 20}).triangulate(new int[0], 0, new TriangleSink(8)));
+    }
+
+    @Test
+    public void testArbitraryShapes() {
+        Path2D.Double ring = new Path2D.Double(PathIterator.WIND_EVEN_ODD);
+        ring.append(new Ellipse2D.Double(0, 0, 100, 100), false);
+        ring.append(new Ellipse2D.Double(25, 25, 50, 50), false);
+        ring.append(new Rectangle2D.Double(45, 45, 10, 10), false);
+        ring.append(new Rectangle2D.Double(200, 0, 20, 20), false);
+        assertMatchesArea(ring, "ring");
+
+        Random rnd = new Random(16_002);
+        for (int i = 0; i < 40; i++) {
+            Polygon2D scribble = scribble(rnd, 4 + rnd.nextInt(12));
+            assertMatchesArea(scribble.toPath(), "scribble " + i);
+        }
+    }
+
+    @Test
+    public void testDegenerateInput() {
+        // Collinear runs, a duplicated point and a spike back along an edge
+        Polygon2D poly = new Polygon2D(0, 0, 50, 0, 50, 0, 100, 0, 100, 50,
+                100, 100, 50, 100, 50, 120, 50, 100, 0, 100);
+        TriangleMesh mesh = poly.triangulate();
+        assertEquals(10000, mesh.area(), 1e-9);
+
+        TriangleMesh line = Triangulator.triangulate(
+                new double[]{0, 0, 10, 10, 20, 20});
+        assertTrue(line.isEmpty());
+        assertEquals(0, line.area());
+        assertTrue(Triangulator.triangulate(new double[0]).isEmpty());
+        assertTrue(Triangulator.triangulate(new Polygon2D(
+                new Polygon2D(0, 0, 10, 0, 10, 10).toPath(),
+                null)).triangleCount() == 1);
+    }
+
+    private static void assertMatchesArea(Shape shape, String msg) {
+        TriangleMesh mesh = Triangulator.triangulate(shape, 0.01);
+        Area expected = new Area(shape);
+        double expectedArea = areaOf(expected);
+        assertEquals(expectedArea, mesh.area(),
+                Math.max(1e-6, expectedArea * 1e-6), msg + ": " + mesh);
+        assertSameCoverage(expected, mesh, msg);
+    }
+
+    private static void assertSameCoverage(Shape shape, TriangleMesh mesh,
+            String msg) {
+        Random rnd = new Random(msg.hashCode());
+        Rectangle2D bounds = shape.getBounds2D();
+        int tested = 0;
+        for (int i = 0; i < 400 && tested < 150; i++) {
+            double x = bounds.getX() + rnd.nextDouble() * bounds.getWidth();
+            double y = bounds.getY() + rnd.nextDouble() * bounds.getHeight();
+            if (nearEdge(shape, x, y)) {
+                continue;
+            }
+            tested++;
+            assertEquals(shape.contains(x, y), mesh.contains(x, y),
+                    msg + " at " + x + ", " + y);
+        }
+    }
+
+    private static boolean nearEdge(Shape shape, double x, double y) {
+        PathIterator it = shape.getPathIterator(null, 0.01);
+        double[] d = new double[6];
+        double sx = 0;
+        double sy = 0;
+        double lx = 0;
+        double ly = 0;
+        while (!it.isDone()) {
+            switch (it.currentSegment(d)) {
+                case PathIterator.SEG_MOVETO:
+                    sx = lx = d[0];
+                    sy = ly = d[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    if (Line2D.ptSegDist(lx, ly, d[0], d[1], x, y) < 0.01) {
+                        return true;
+                    }
+                    lx = d[0];
+                    ly = d[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    if (Line2D.ptSegDist(lx, ly, sx, sy, x, y) < 0.01) {
+                        return true;
+                    }
+                    lx = sx;
+                    ly = sy;
+                    break;
+            }
+            it.next();
+        }
+        return Line2D.ptSegDist(lx, ly, sx, sy, x, y) < 0.01;
+    }
+
+    /**
+     * Area of a shape whose contours do not cross and whose holes have the
+     * opposite orientation of their outer contours.
+     */
+    private static double areaOf(Shape shape) {
+        PathIterator it = shape.getPathIterator(null, 0.01);
+        double[] d = new double[6];
+        double total = 0;
+        double sx = 0;
+        double sy = 0;
+        double lx = 0;
+        double ly = 0;
+        while (!it.isDone()) {
+            switch (it.currentSegment(d)) {
+                case PathIterator.SEG_MOVETO:
+                    total += lx * sy - sx * ly;
+                    sx = lx = d[0];
+                    sy = ly = d[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    total += lx * d[1] - d[0] * ly;
+                    lx = d[0];
+                    ly = d[1];
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    total += lx * sy - sx * ly;
+                    lx = sx;
+                    ly = sy;
+                    break;
+            }
+            it.next();
+        }
+        total += lx * sy - sx * ly;
+        return Math.abs(total / 2);
+    }
+
+    static Polygon2D star(Random rnd, int vertices) {
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < vertices; i++) {
+            double angle = (Math.PI * 2 * i) / vertices;
+            double radius = 40 * (0.2 + 0.8 * rnd.nextDouble());
+            pts[i * 2] = 50 + Math.cos(angle) * radius;
+            pts[i * 2 + 1] = 50 + Math.sin(angle) * radius;
+        }
+        return new Polygon2D(pts);
+    }
+
+    static Polygon2D scribble(Random rnd, int vertices) {
+        double[] pts = new double[vertices * 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = rnd.nextDouble() * 100;
+        }
+        return new Polygon2D(pts);
+    }
+
+    private static float[] toFloats(double[] coords) {
+        float[] result = new float[coords.length];
+        for (int i = 0; i < coords.length; i++) {
+            result[i] = (float) coords[i];
+        }
+        return result;
+    }
+}
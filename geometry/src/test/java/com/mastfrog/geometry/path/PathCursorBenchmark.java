@@ -0,0 +1,136 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.path;
+
+import com.mastfrog.geometry.EqPointDouble;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares traversing a path of a million segments with PathCursor against
+ * iterating PathElements and fetching their destination points. Run with
+ * the GC profiler (as <code>main()</code> does), the cursor's
+ * <code>gc.alloc.rate.norm</code> is a small constant - the path iterator -
+ * regardless of the number of segments.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathCursorBenchmark {
+
+    @Param({"1000000"})
+    public int segments;
+
+    private Shape path;
+    private final PathCursor cursor = PathCursor.create();
+
+    @Setup
+    public void setup() {
+        path = createPath(segments);
+    }
+
+    static Shape createPath(int segments) {
+        Random rnd = new Random(segments);
+        Path2D.Double result = new Path2D.Double(Path2D.WIND_NON_ZERO,
+                segments);
+        result.moveTo(0, 0);
+        for (int i = 1; i < segments; i++) {
+            switch (i % 16) {
+                case 0:
+                    result.closePath();
+                    break;
+                case 1:
+                    result.moveTo(rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000);
+                    break;
+                case 5:
+                    result.quadTo(rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000, rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000);
+                    break;
+                case 9:
+                    result.curveTo(rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000, rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000, rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000);
+                    break;
+                default:
+                    result.lineTo(rnd.nextDouble() * 1000,
+                            rnd.nextDouble() * 1000);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double pathElements() {
+        double result = 0;
+        for (PathElement el : PathElement.iterable(path)) {
+            EqPointDouble pt = el.destinationPoint();
+            if (pt != null) {
+                result += pt.x + pt.y;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double cursor() {
+        double result = 0;
+        cursor.reset(path);
+        while (cursor.nextPoint()) {
+            result += cursor.x() + cursor.y();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PathCursorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
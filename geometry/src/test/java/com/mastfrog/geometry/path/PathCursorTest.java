@@ -0,0 +1,357 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.path;
+
+import com.mastfrog.geometry.DimensionDouble;
+import com.mastfrog.geometry.EnhancedShape;
+import com.mastfrog.geometry.PointIndex;
+import com.mastfrog.geometry.Rhombus;
+import com.mastfrog.geometry.util.DoubleList;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_LINETO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import static java.awt.geom.PathIterator.SEG_QUADTO;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class PathCursorTest {
+
+    @Test
+    public void testSegments() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(10, 10);
+        path.lineTo(20, 10);
+        path.quadTo(25, 15, 20, 20);
+        path.curveTo(18, 22, 12, 22, 10, 20);
+        path.closePath();
+        path.lineTo(5, 5);
+        path.moveTo(100, 100);
+        path.lineTo(110, 100);
+
+        PathCursor cursor = PathCursor.of(path);
+        assertFalse(cursor.isActive());
+        assertTrue(cursor.next());
+        assertSegment(cursor, 0, 0, 0, SEG_MOVETO, 10, 10, 10, 10);
+
+        assertTrue(cursor.next());
+        assertSegment(cursor, 1, 1, 0, SEG_LINETO, 10, 10, 20, 10);
+        assertEquals(0, cursor.controlPointCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.controlX(0));
+
+        assertTrue(cursor.next());
+        assertSegment(cursor, 2, 2, 0, SEG_QUADTO, 20, 10, 20, 20);
+        assertTrue(cursor.isCurve());
+        assertEquals(1, cursor.controlPointCount());
+        assertEquals(25, cursor.controlX(0));
+        assertEquals(15, cursor.controlY(0));
+
+        assertTrue(cursor.next());
+        assertSegment(cursor, 3, 3, 0, SEG_CUBICTO, 20, 20, 10, 20);
+        assertEquals(2, cursor.controlPointCount());
+        assertEquals(18, cursor.controlX(0));
+        assertEquals(22, cursor.controlY(0));
+        assertEquals(12, cursor.controlX(1));
+        assertEquals(22, cursor.controlY(1));
+        assertEquals(PathElementKind.CUBIC, cursor.kind());
+        assertEquals(PathElementKind.CUBIC, cursor.element().kind());
+
+        assertTrue(cursor.next());
+        assertSegment(cursor, 4, 3, 0, SEG_CLOSE, 10, 20, 10, 10);
+        assertFalse(cursor.hasCoordinates());
+
+        // A line after a close starts from the start of the subpath
+        assertTrue(cursor.next());
+        assertSegment(cursor, 5, 4, 0, SEG_LINETO, 10, 10, 5, 5);
+
+        assertTrue(cursor.next());
+        assertSegment(cursor, 6, 5, 1, SEG_MOVETO, 100, 100, 100, 100);
+        assertTrue(cursor.next());
+        assertSegment(cursor, 7, 6, 1, SEG_LINETO, 100, 100, 110, 100);
+        assertEquals(100, cursor.subpathStartX());
+        assertEquals(100, cursor.subpathStartY());
+
+        assertFalse(cursor.next());
+        assertFalse(cursor.isActive());
+        assertNull(cursor.kind());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testNextPointAndReset() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        path.lineTo(10, 0);
+        path.lineTo(10, 10);
+        path.closePath();
+        path.moveTo(20, 20);
+        path.lineTo(30, 20);
+        path.lineTo(30, 30);
+        path.closePath();
+        PathCursor cursor = PathCursor.create();
+        assertFalse(cursor.next());
+        for (int pass = 0; pass < 2; pass++) {
+            assertSame(cursor, cursor.reset(path,
+                    AffineTransform.getTranslateInstance(pass, 0)));
+            PointIndex index = PointIndex.of(path,
+                    AffineTransform.getTranslateInstance(pass, 0));
+            int count = 0;
+            while (cursor.nextPoint()) {
+                assertTrue(cursor.hasCoordinates());
+                assertEquals(count, cursor.pointIndex());
+                assertEquals(index.x(count), cursor.x());
+                assertEquals(index.y(count), cursor.y());
+                count++;
+            }
+            assertEquals(index.pointCount(), count);
+        }
+    }
+
+    @Test
+    public void testEnhancedShapeDefaults() {
+        Random rnd = new Random(14_021);
+        for (int i = 0; i < 20; i++) {
+            Path2D.Double path = new Path2D.Double();
+            int subpaths = 1 + rnd.nextInt(3);
+            for (int s = 0; s < subpaths; s++) {
+                path.moveTo(rnd.nextDouble() * 100, rnd.nextDouble() * 100);
+                int segs = 1 + rnd.nextInt(8);
+                for (int j = 0; j < segs; j++) {
+                    switch (rnd.nextInt(3)) {
+                        case 0:
+                            path.lineTo(rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100);
+                            break;
+                        case 1:
+                            path.quadTo(rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100);
+                            break;
+                        default:
+                            path.curveTo(rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100,
+                                    rnd.nextDouble() * 100);
+                    }
+                }
+                if (rnd.nextBoolean()) {
+                    path.closePath();
+                }
+            }
+            DefaultsShape shape = new DefaultsShape(path);
+            PointIndex index = PointIndex.of(path);
+            assertEquals(index.pointCount(), shape.pointCount());
+            for (int j = 0; j < index.pointCount(); j++) {
+                assertEquals(index.point(j), shape.point(j), "Point " + j);
+            }
+            assertNull(shape.point(index.pointCount()));
+            DoubleList visited = new DoubleList();
+            shape.visitPoints((x, y) -> {
+                visited.add(x);
+                visited.add(y);
+            });
+            assertEquals(index.pointCount() * 2, visited.size());
+            for (int j = 0; j < visited.size(); j++) {
+                assertEquals(index.coordinates()[j], visited.getDouble(j));
+            }
+            DimensionDouble size = shape.size();
+            assertEquals(index.size().width, size.width);
+            assertEquals(index.size().height, size.height);
+
+            int top = 0;
+            for (int j = 1; j < index.pointCount(); j++) {
+                if (index.y(j) < index.y(top) || (index.y(j) == index.y(top)
+                        && index.x(j) < index.x(top))) {
+                    top = j;
+                }
+            }
+            assertEquals(top, shape.indexOfTopLeftmostPoint());
+            assertEquals(index.point(top), shape.topLeftPoint());
+        }
+        assertEquals(-1, new DefaultsShape(new Path2D.Double())
+                .indexOfTopLeftmostPoint());
+        assertNull(new DefaultsShape(new Path2D.Double()).topLeftPoint());
+    }
+
+    @Test
+    public void testPointOrderOfOverridesIsPreserved() {
+        // Rhombus numbers its points in a different order than its path
+        Rhombus rhom = new Rhombus(50, 50, 30, 20, 15);
+        DoubleList visited = new DoubleList();
+        rhom.visitPoints((x, y) -> {
+            visited.add(x);
+            visited.add(y);
+        });
+        assertEquals(rhom.pointCount() * 2, visited.size());
+        for (int i = 0; i < rhom.pointCount(); i++) {
+            Point2D p = rhom.point(i);
+            assertEquals(p.getX(), visited.getDouble(i * 2), "X " + i);
+            assertEquals(p.getY(), visited.getDouble(i * 2 + 1), "Y " + i);
+        }
+        assertEquals(rhom.topLeftPoint(),
+                rhom.point(rhom.indexOfTopLeftmostPoint()));
+    }
+
+    @Test
+    public void testTraversalDoesNotAllocatePerSegment() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        assumeTrue(mx instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) mx;
+        assumeTrue(threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled());
+        Shape shape = PathCursorBenchmark.createPath(100_000);
+        PathCursor cursor = PathCursor.create();
+        // warm up
+        double sum = 0;
+        for (int i = 0; i < 5; i++) {
+            sum += traverse(cursor.reset(shape));
+        }
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 10; i++) {
+            sum += traverse(cursor.reset(shape));
+        }
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+        assertTrue(sum != 0);
+        // Ten path iterators over a million segments; anything which
+        // allocated per segment would be in the tens of megabytes
+        assertTrue(allocated < 64 * 1024, "Allocated " + allocated
+                + " bytes traversing 1M segments");
+    }
+
+    private static double traverse(PathCursor cursor) {
+        double result = 0;
+        while (cursor.next()) {
+            result += cursor.x() + cursor.y();
+            if (cursor.isCurve()) {
+                result += cursor.controlX(0);
+            }
+        }
+        return result;
+    }
+
+    private static void assertSegment(PathCursor cursor, int index,
+            int pointIndex, int subpath, int type, double startX,
+            double startY, double x, double y) {
+        String msg = cursor.toString();
+        assertTrue(cursor.isActive(), msg);
+        assertEquals(index, cursor.index(), msg);
+        assertEquals(pointIndex, cursor.pointIndex(), msg);
+        assertEquals(subpath, cursor.subpathIndex(), msg);
+        assertEquals(type, cursor.type(), msg);
+        assertEquals(type, cursor.element().type(), msg);
+        assertEquals(startX, cursor.startX(), msg);
+        assertEquals(startY, cursor.startY(), msg);
+        assertEquals(x, cursor.x(), msg);
+        assertEquals(y, cursor.y(), msg);
+        assertEquals(type != SEG_CLOSE, cursor.hasCoordinates(), msg);
+    }
+
+    /**
+     * Uses the default implementations of EnhancedShape methods.
+     */
+    static final class DefaultsShape implements EnhancedShape {
+
+        private final Shape delegate;
+
+        DefaultsShape(Shape delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return delegate.getBounds();
+        }
+
+        @Override
+        public Rectangle2D getBounds2D() {
+            return delegate.getBounds2D();
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return delegate.contains(x, y);
+        }
+
+        @Override
+        public boolean contains(Point2D p) {
+            return delegate.contains(p);
+        }
+
+        @Override
+        public boolean intersects(double x, double y, double w, double h) {
+            return delegate.intersects(x, y, w, h);
+        }
+
+        @Override
+        public boolean intersects(Rectangle2D r) {
+            return delegate.intersects(r);
+        }
+
+        @Override
+        public boolean contains(double x, double y, double w, double h) {
+            return delegate.contains(x, y, w, h);
+        }
+
+        @Override
+        public boolean contains(Rectangle2D r) {
+            return delegate.contains(r);
+        }
+
+        @Override
+        public PathIterator getPathIterator(AffineTransform at) {
+            return delegate.getPathIterator(at);
+        }
+
+        @Override
+        public PathIterator getPathIterator(AffineTransform at,
+                double flatness) {
+            return delegate.getPathIterator(at, flatness);
+        }
+    }
+}
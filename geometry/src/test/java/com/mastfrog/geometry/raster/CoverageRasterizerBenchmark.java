@@ -0,0 +1,107 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.raster;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.Shape;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares producing a 1024x1024 coverage mask with CoverageRasterizer,
+ * serially and in parallel, against filling a gray BufferedImage with
+ * Graphics2D.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverageRasterizerBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"circle", "polygon"})
+    public String shapeType;
+
+    private Shape shape;
+    private final byte[] mask = new byte[SIZE * SIZE];
+
+    @Setup
+    public void setup() {
+        if ("circle".equals(shapeType)) {
+            shape = new Circle(SIZE / 2, SIZE / 2, SIZE * 0.45);
+        } else {
+            Random rnd = new Random(SIZE);
+            double[] pts = new double[256 * 2];
+            for (int i = 0; i < pts.length; i++) {
+                pts[i] = rnd.nextDouble() * SIZE;
+            }
+            shape = new Polygon2D(pts);
+        }
+    }
+
+    @Benchmark
+    public byte[] rasterizer() {
+        CoverageRasterizer.of(shape).rasterize(0, 0, SIZE, SIZE, mask, 0, SIZE);
+        return mask;
+    }
+
+    @Benchmark
+    public byte[] rasterizerParallel() {
+        CoverageRasterizer.of(shape).rasterize(ForkJoinPool.commonPool(),
+                0, 0, SIZE, SIZE, mask, 0, SIZE);
+        return mask;
+    }
+
+    @Benchmark
+    public byte[] java2D() {
+        return CoverageRasterizerTest.java2dMask(shape, SIZE, SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CoverageRasterizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
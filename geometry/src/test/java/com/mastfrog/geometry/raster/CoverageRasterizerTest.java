@@ -0,0 +1,161 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.raster;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class CoverageRasterizerTest {
+
+    @Test
+    public void testCoverageMatchesArea() {
+        Circle circle = new Circle(50.3, 47.7, 31.1);
+        byte[] mask = CoverageRasterizer.of(circle).rasterize(0, 0, 100, 100);
+        double area = Math.PI * 31.1 * 31.1;
+        assertEquals(area, coveredArea(mask), area * 0.002);
+        assertEquals(255, mask[48 * 100 + 50] & 0xFF);
+        assertEquals(0, mask[0] & 0xFF);
+
+        Polygon2D poly = new Polygon2D(10.25, 10.5, 80.75, 20, 60, 90.5, 5, 70);
+        mask = CoverageRasterizer.of(poly).rasterize(0, 0, 100, 100);
+        double polyArea = shoelace(poly.pointsArray());
+        assertEquals(polyArea, coveredArea(mask), polyArea * 0.002);
+    }
+
+    @Test
+    public void testMatchesJava2D() {
+        Shape[] shapes = new Shape[]{
+            new Circle(40, 40, 25),
+            new Polygon2D(3, 3, 70, 10, 20, 75, 60, 60),
+            new MinimalAggregateShapeDouble(new Circle(30, 30, 20),
+            new Rectangle2D.Double(40, 10, 30, 55))
+        };
+        for (Shape shape : shapes) {
+            byte[] ours = CoverageRasterizer.of(shape).rasterize(0, 0, 80, 80);
+            byte[] theirs = java2dMask(shape, 80, 80);
+            long totalDiff = 0;
+            for (int i = 0; i < ours.length; i++) {
+                int diff = Math.abs((ours[i] & 0xFF) - (theirs[i] & 0xFF));
+                assertTrue(diff < 72, "Pixel " + (i % 80) + "," + (i / 80)
+                        + " differs by " + diff + " for " + shape);
+                totalDiff += diff;
+            }
+            assertTrue(totalDiff / (double) ours.length < 2,
+                    "Mean difference " + (totalDiff / (double) ours.length));
+        }
+    }
+
+    @Test
+    public void testWindingRules() {
+        // Two overlapping squares wound the same way
+        Path2D.Double path = new Path2D.Double(PathIterator.WIND_NON_ZERO);
+        path.append(new Rectangle2D.Double(10, 10, 40, 40), false);
+        path.append(new Rectangle2D.Double(30, 30, 40, 40), false);
+        byte[] nonZero = CoverageRasterizer.of(path).rasterize(0, 0, 80, 80);
+        byte[] evenOdd = CoverageRasterizer.of(path.getPathIterator(null),
+                PathIterator.WIND_EVEN_ODD).rasterize(0, 0, 80, 80);
+        int overlap = 40 * 80 + 40;
+        assertEquals(255, nonZero[overlap] & 0xFF);
+        assertEquals(0, evenOdd[overlap] & 0xFF);
+        assertEquals(255, evenOdd[20 * 80 + 20] & 0xFF);
+        assertEquals(3200 - 400, coveredArea(nonZero), 0.5);
+        assertEquals(3200 - 800, coveredArea(evenOdd), 0.5);
+
+        // Winding rule is read from the library's own path iterators
+        MinimalAggregateShapeDouble agg = new MinimalAggregateShapeDouble(path);
+        assertEquals(PathIterator.WIND_NON_ZERO, agg.getPathIterator(null).getWindingRule());
+        assertEquals(PathIterator.WIND_NON_ZERO, CoverageRasterizer.of(agg).windingRule());
+    }
+
+    @Test
+    public void testTilesAndParallelMatchWhole() {
+        Circle circle = new Circle(200, 150, 120);
+        AffineTransform xf = AffineTransform.getRotateInstance(0.3, 200, 150);
+        xf.scale(1.2, 0.8);
+        CoverageRasterizer r = CoverageRasterizer.of(circle, xf);
+        byte[] whole = r.rasterize(0, 0, 400, 300);
+        byte[] parallel = new byte[400 * 300];
+        r.rasterize(new ForkJoinPool(4), 0, 0, 400, 300, parallel, 0, 400);
+        assertArrayEquals(whole, parallel);
+        // Four tiles written into one array at offsets
+        byte[] tiled = new byte[400 * 300];
+        for (int ty = 0; ty < 300; ty += 150) {
+            for (int tx = 0; tx < 400; tx += 200) {
+                r.rasterize(tx, ty, 200, 150, tiled, ty * 400 + tx, 400);
+            }
+        }
+        assertArrayEquals(whole, tiled);
+    }
+
+    static byte[] java2dMask(Shape shape, int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            g.setColor(java.awt.Color.WHITE);
+            g.fill(shape);
+        } finally {
+            g.dispose();
+        }
+        byte[] result = new byte[w * h];
+        img.getRaster().getDataElements(0, 0, w, h, result);
+        return result;
+    }
+
+    private static double coveredArea(byte[] mask) {
+        double result = 0;
+        for (byte b : mask) {
+            result += (b & 0xFF) / 255D;
+        }
+        return result;
+    }
+
+    private static double shoelace(double[] pts) {
+        double sum = 0;
+        for (int i = 0; i < pts.length; i += 2) {
+            int next = (i + 2) % pts.length;
+            sum += pts[i] * pts[next + 1] - pts[next] * pts[i + 1];
+        }
+        return Math.abs(sum / 2);
+    }
+}
@@ -0,0 +1,123 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import com.mastfrog.geometry.Circle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.RoundRectangle2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares iterating a scene of 1000 curved shapes flattened at a zoom
+ * level by getPathIterator() with iterating them through a
+ * LevelOfDetailCache.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelOfDetailCacheBenchmark {
+
+    @Param({"0.5", "8"})
+    public double scale;
+
+    private Shape[] shapes;
+    private AffineTransform xform;
+    private LevelOfDetailCache cache;
+    private final double[] coords = new double[6];
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(20_001);
+        shapes = new Shape[1000];
+        for (int i = 0; i < shapes.length; i++) {
+            double x = rnd.nextDouble() * 1000;
+            double y = rnd.nextDouble() * 1000;
+            double size = 5 + rnd.nextDouble() * 50;
+            shapes[i] = (i % 2) == 0 ? new Circle(x, y, size)
+                    : new RoundRectangle2D.Double(x, y, size, size * 2,
+                            size / 2, size / 2);
+        }
+        xform = AffineTransform.getScaleInstance(scale, scale);
+        cache = new LevelOfDetailCache();
+        flattened();
+        cached();
+    }
+
+    @Benchmark
+    public double flattened() {
+        double result = 0;
+        for (Shape shape : shapes) {
+            result += consume(shape.getPathIterator(xform, 0.25));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double cached() {
+        double result = 0;
+        for (Shape shape : shapes) {
+            result += consume(cache.getPathIterator(shape, xform));
+        }
+        return result;
+    }
+
+    private double consume(PathIterator it) {
+        double result = 0;
+        while (!it.isDone()) {
+            if (it.currentSegment(coords) != PathIterator.SEG_CLOSE) {
+                result += coords[0] + coords[1];
+            }
+            it.next();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LevelOfDetailCacheBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,219 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import com.mastfrog.geometry.Circle;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class LevelOfDetailCacheTest {
+
+    @Test
+    public void testLevelsAndHits() {
+        LevelOfDetailCache cache = new LevelOfDetailCache();
+        Ellipse2D.Double ell = new Ellipse2D.Double(0, 0, 100, 100);
+        int near = countPoints(cache.getPathIterator(ell,
+                AffineTransform.getScaleInstance(10, 10)));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+        // A slightly different scale falls in the same bucket
+        int nearAgain = countPoints(cache.getPathIterator(ell,
+                AffineTransform.getScaleInstance(9.5, 9.5)));
+        assertEquals(near, nearAgain);
+        assertEquals(1, cache.hits());
+        int far = countPoints(cache.getPathIterator(ell,
+                AffineTransform.getScaleInstance(0.1, 0.1)));
+        assertTrue(far < near / 4, far + " vs " + near);
+        assertEquals(1, cache.size());
+        assertTrue(cache.bytes() > 0);
+        cache.invalidate(ell);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.getPathIterator(null, null));
+    }
+
+    @Test
+    public void testTransformAndAccuracy() {
+        LevelOfDetailCache cache = new LevelOfDetailCache(1024 * 1024, 0.25);
+        Circle circle = new Circle(50, 50, 40);
+        AffineTransform xform = AffineTransform.getTranslateInstance(100, 200);
+        xform.scale(4, 4);
+        PathIterator it = cache.getPathIterator(circle, xform);
+        Shape transformed = xform.createTransformedShape(circle);
+        double[] c = new double[6];
+        while (!it.isDone()) {
+            int type = it.currentSegment(c);
+            if (type != PathIterator.SEG_CLOSE) {
+                double dist = Math.hypot(c[0] - 300, c[1] - 400);
+                // All points lie on the circle within the tolerance
+                assertEquals(160, dist, 0.25, type + " " + c[0] + ", " + c[1]);
+            }
+            it.next();
+        }
+        assertTrue(path(cache.getPathIterator(circle, xform))
+                .contains(300, 400));
+        assertTrue(transformed.getBounds2D().contains(300, 400));
+    }
+
+    @Test
+    public void testMutationDetected() {
+        LevelOfDetailCache cache = new LevelOfDetailCache();
+        Polygon2D poly = new Polygon2D(0, 0, 10, 0, 10, 10, 0, 10);
+        Rectangle2D before = path(cache.getPathIterator(poly, null))
+                .getBounds2D();
+        assertEquals(10, before.getWidth(), 1e-9);
+        poly.setPoint(1, 20, 0);
+        Rectangle2D after = path(cache.getPathIterator(poly, null))
+                .getBounds2D();
+        assertEquals(20, after.getWidth(), 1e-9);
+        Circle circle = new Circle(0, 0, 10);
+        assertEquals(20, path(cache.getPathIterator(circle, null))
+                .getBounds2D().getWidth(), 0.5);
+        circle.setRadius(20);
+        assertEquals(40, path(cache.getPathIterator(circle, null))
+                .getBounds2D().getWidth(), 0.5);
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    public void testBounded() {
+        LevelOfDetailCache cache = new LevelOfDetailCache(16 * 1024, 0.25);
+        Ellipse2D.Double[] shapes = new Ellipse2D.Double[100];
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = new Ellipse2D.Double(i, i, 100, 100);
+            cache.getPathIterator(shapes[i], AffineTransform.getScaleInstance(20, 20));
+            assertTrue(cache.bytes() <= 16 * 1024, "Exceeded bound: " + cache.bytes());
+        }
+        assertTrue(cache.size() < shapes.length);
+        assertTrue(cache.size() > 0);
+        // The most recent survive
+        long hits = cache.hits();
+        cache.getPathIterator(shapes[shapes.length - 1],
+                AffineTransform.getScaleInstance(20, 20));
+        assertEquals(hits + 1, cache.hits());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testWeaklyHeld() throws InterruptedException {
+        LevelOfDetailCache cache = new LevelOfDetailCache();
+        cache.getPathIterator(new Ellipse2D.Double(0, 0, 10, 10), null);
+        assertEquals(1, cache.size());
+        for (int i = 0; i < 50 && cache.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    @Test
+    public void testEffectiveScale() {
+        assertEquals(1, LevelOfDetailCache.effectiveScale(null));
+        assertEquals(3, LevelOfDetailCache.effectiveScale(
+                AffineTransform.getScaleInstance(3, 3)), 1e-9);
+        assertEquals(2, LevelOfDetailCache.effectiveScale(
+                AffineTransform.getRotateInstance(1, 0, 0)) * 2, 1e-9);
+        assertFalse(LevelOfDetailCache.effectiveScale(
+                AffineTransform.getScaleInstance(0, 0)) <= 0);
+        // Anisotropic transforms are bucketed by their most stretched axis
+        assertEquals(100, LevelOfDetailCache.effectiveScale(
+                AffineTransform.getScaleInstance(100, 0.01)), 1e-9);
+        assertEquals(8, LevelOfDetailCache.effectiveScale(
+                AffineTransform.getScaleInstance(-2, 8)), 1e-9);
+        AffineTransform rotatedScale = AffineTransform.getRotateInstance(0.7);
+        rotatedScale.scale(0.5, 6);
+        assertEquals(6, LevelOfDetailCache.effectiveScale(rotatedScale), 1e-9);
+        assertEquals((1 + Math.sqrt(5)) / 2, LevelOfDetailCache.effectiveScale(
+                AffineTransform.getShearInstance(1, 0)), 1e-9);
+        for (double s = 0.01; s < 100; s *= 1.1) {
+            assertTrue(LevelOfDetailCache.levelScale(LevelOfDetailCache.level(s))
+                    >= s * (1 - 1e-9), "Level scale too low for " + s);
+        }
+    }
+
+    @Test
+    public void testAnisotropicScaleStaysWithinTolerance() {
+        LevelOfDetailCache cache = new LevelOfDetailCache(1024 * 1024, 1);
+        AffineTransform xform = AffineTransform.getScaleInstance(100, 0.01);
+        PathIterator it = cache.getPathIterator(
+                new Ellipse2D.Double(-10, -10, 20, 20), xform);
+        double[] c = new double[6];
+        double worst = 0;
+        double lastX = 0;
+        double lastY = 0;
+        while (!it.isDone()) {
+            int type = it.currentSegment(c);
+            if (type != PathIterator.SEG_CLOSE) {
+                double x = c[0] / 100;
+                double y = c[1] / 0.01;
+                if (type == PathIterator.SEG_LINETO) {
+                    // The midpoint of a chord is near where it strays
+                    // furthest inside the curve; measure that in pixels,
+                    // as stretched by the x scale
+                    double mx = (lastX + x) / 2;
+                    double my = (lastY + y) / 2;
+                    worst = Math.max(worst,
+                            (10 - Math.sqrt(mx * mx + my * my)) * 100);
+                }
+                lastX = x;
+                lastY = y;
+            }
+            it.next();
+        }
+        // Ellipse2D's own cubic approximation contributes about 0.3 pixels
+        assertTrue(worst <= 1.5, "Off by " + worst + "px");
+    }
+
+    private static Path2D path(PathIterator it) {
+        Path2D.Double result = new Path2D.Double();
+        result.append(it, false);
+        return result;
+    }
+
+    private static int countPoints(PathIterator it) {
+        int result = 0;
+        while (!it.isDone()) {
+            result++;
+            it.next();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,258 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.simplify;
+
+import com.mastfrog.geometry.MinimalAggregateShapeDouble;
+import com.mastfrog.geometry.Polygon2D;
+import com.mastfrog.geometry.util.DoubleList;
+import com.mastfrog.util.collections.IntList;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import static java.awt.geom.PathIterator.SEG_CLOSE;
+import static java.awt.geom.PathIterator.SEG_CUBICTO;
+import static java.awt.geom.PathIterator.SEG_LINETO;
+import static java.awt.geom.PathIterator.SEG_MOVETO;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class PathSimplifierTest {
+
+    @Test
+    public void testCollinearRunsCollapse() {
+        for (PathSimplifier simp : new PathSimplifier[]{
+            PathSimplifier.douglasPeucker(0.01), PathSimplifier.visvalingam(0.01)}) {
+            Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+            ring(path, 0, 0, 100, 100);
+            ring(path, 20, 20, 60, 60);
+            MinimalAggregateShapeDouble result = simp.simplify(path);
+            IntList types = IntList.create();
+            DoubleList coords = new DoubleList();
+            int segments = simp.simplify(path.getPathIterator(null), coords,
+                    types::add);
+            assertEquals(10, segments, simp.toString());
+            int[] expected = {SEG_MOVETO, SEG_LINETO, SEG_LINETO, SEG_LINETO,
+                SEG_CLOSE, SEG_MOVETO, SEG_LINETO, SEG_LINETO, SEG_LINETO,
+                SEG_CLOSE};
+            assertArrayEquals(expected, types.toIntArray(), simp.toString());
+            assertArrayEquals(new double[]{0, 0, 100, 0, 100, 100, 0, 100,
+                20, 20, 80, 20, 80, 80, 20, 80}, coords.toDoubleArray(),
+                    simp.toString());
+            assertEquals(Path2D.WIND_EVEN_ODD,
+                    result.getPathIterator(null).getWindingRule());
+            // MinimalAggregateShapeDouble.contains() tests only bounds
+            Path2D.Double resultPath = new Path2D.Double(result);
+            assertTrue(resultPath.contains(10, 10));
+            assertTrue(!resultPath.contains(50, 50));
+        }
+    }
+
+    @Test
+    public void testDouglasPeuckerTolerance() {
+        Random rnd = new Random(19_001);
+        double[] pts = noisyLine(rnd, 10_000, 0.2);
+        for (double tol : new double[]{0.1, 0.5, 2}) {
+            DoubleList out = new DoubleList();
+            int kept = PathSimplifier.douglasPeucker(tol)
+                    .simplify(pts, 0, 10_000, false, out);
+            double[] result = out.toDoubleArray();
+            assertEquals(kept * 2, result.length);
+            assertEquals(pts[0], result[0]);
+            assertEquals(pts[pts.length - 1], result[result.length - 1]);
+            for (int i = 0; i < pts.length; i += 2) {
+                assertTrue(distance(result, false, pts[i], pts[i + 1]) <= tol + 1e-9,
+                        "Point " + i / 2 + " too far at tolerance " + tol);
+            }
+            if (tol >= 0.5) {
+                assertTrue(kept * 10 < 10_000, "Only reduced to " + kept);
+            }
+        }
+    }
+
+    @Test
+    public void testClosedRings() {
+        Random rnd = new Random(19_002);
+        Polygon2D noisy = new Polygon2D(noisyCircle(rnd, 5000, 0.05));
+        for (PathSimplifier simp : new PathSimplifier[]{
+            PathSimplifier.douglasPeucker(0.25), PathSimplifier.visvalingam(0.25)}) {
+            Polygon2D result = simp.simplify(noisy);
+            assertTrue(result.pointCount() * 10 < noisy.pointCount(),
+                    simp + " only reduced to " + result.pointCount());
+            assertTrue(result.pointCount() >= 8, simp + ": " + result);
+            assertEquals(noisy.pointsArray()[0], result.pointsArray()[0]);
+            double[] pts = noisy.pointsArray();
+            double maxDist = 0;
+            for (int i = 0; i < pts.length; i += 2) {
+                maxDist = Math.max(maxDist, distance(result.pointsArray(), true,
+                        pts[i], pts[i + 1]));
+            }
+            assertTrue(maxDist < 1, simp + " strayed " + maxDist);
+            if (simp.toString().startsWith("Douglas")) {
+                assertTrue(maxDist <= 0.25 + 1e-9, "Strayed " + maxDist);
+            }
+        }
+    }
+
+    @Test
+    public void testKeepingCurves() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        for (int i = 1; i <= 50; i++) {
+            path.lineTo(i, 0);
+        }
+        path.curveTo(60, 10, 70, 10, 80, 0);
+        for (int i = 81; i <= 120; i++) {
+            path.lineTo(i, 0);
+        }
+        path.closePath();
+        PathSimplifier simp = PathSimplifier.douglasPeucker(0.1).keepingCurves();
+        IntList types = IntList.create();
+        DoubleList coords = new DoubleList();
+        simp.simplify(path.getPathIterator(null), coords, types::add);
+        assertArrayEquals(new int[]{SEG_MOVETO, SEG_LINETO, SEG_CUBICTO,
+            SEG_LINETO, SEG_CLOSE}, types.toIntArray());
+        assertArrayEquals(new double[]{0, 0, 50, 0, 60, 10, 70, 10, 80, 0,
+            120, 0}, coords.toDoubleArray());
+
+        types = IntList.create();
+        coords = new DoubleList();
+        PathSimplifier.douglasPeucker(0.1).simplify(path.getPathIterator(null),
+                coords, types::add);
+        assertEquals(SEG_MOVETO, types.toIntArray()[0]);
+        assertEquals(SEG_CLOSE, types.toIntArray()[types.size() - 1]);
+        for (int t : types.toIntArray()) {
+            assertTrue(t != SEG_CUBICTO);
+        }
+        assertTrue(types.size() > 5 && types.size() < 40, types.toString());
+    }
+
+    @Test
+    public void testTracedStaircase() {
+        // A diagonal traced from a bitmap, one pixel step at a time
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        for (int i = 0; i < 2000; i++) {
+            path.lineTo(i + 1, i);
+            path.lineTo(i + 1, i + 1);
+        }
+        path.lineTo(0, 2000);
+        path.closePath();
+        MinimalAggregateShapeDouble simplified
+                = PathSimplifier.douglasPeucker(1).simplify(path);
+        int before = countSegments(path.getPathIterator(null));
+        int after = countSegments(simplified.getPathIterator(null));
+        assertTrue(after * 10 < before, before + " -> " + after);
+        Path2D.Double simplifiedPath = new Path2D.Double(simplified);
+        assertTrue(simplifiedPath.contains(10, 1000));
+        assertTrue(!simplifiedPath.contains(1000, 10));
+    }
+
+    @Test
+    public void testOffsetsAndDegenerate() {
+        double[] pts = {9, 9, 0, 0, 1, 0, 2, 0, 3, 0, 9, 9};
+        DoubleList out = new DoubleList();
+        assertEquals(2, PathSimplifier.douglasPeucker(0.1)
+                .simplify(pts, 2, 4, false, out));
+        assertArrayEquals(new double[]{0, 0, 3, 0}, out.toDoubleArray());
+        out = new DoubleList();
+        assertEquals(2, PathSimplifier.visvalingam(0.1)
+                .simplify(pts, 2, 4, false, out));
+        assertEquals(0, PathSimplifier.visvalingam(0.1)
+                .simplify(pts, 0, 0, false, out));
+        Path2D.Double single = new Path2D.Double();
+        single.moveTo(5, 5);
+        single.lineTo(5, 5);
+        IntList types = IntList.create();
+        out = new DoubleList();
+        PathSimplifier.douglasPeucker(1).simplify(single.getPathIterator(null),
+                out, types::add);
+        assertArrayEquals(new int[]{SEG_MOVETO}, types.toIntArray());
+    }
+
+    private static void ring(Path2D path, double x, double y, double w, double h) {
+        // Squares with a point every unit along each side
+        path.moveTo(x, y);
+        for (int i = 1; i <= w; i++) {
+            path.lineTo(x + i, y);
+        }
+        for (int i = 1; i <= h; i++) {
+            path.lineTo(x + w, y + i);
+        }
+        for (int i = 1; i <= w; i++) {
+            path.lineTo(x + w - i, y + h);
+        }
+        for (int i = 1; i < h; i++) {
+            path.lineTo(x, y + h - i);
+        }
+        path.closePath();
+    }
+
+    private static double[] noisyLine(Random rnd, int count, double noise) {
+        double[] result = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            result[i * 2] = i * 0.1;
+            result[i * 2 + 1] = Math.sin(i * 0.01) * 20 + rnd.nextGaussian() * noise;
+        }
+        return result;
+    }
+
+    private static double[] noisyCircle(Random rnd, int count, double noise) {
+        double[] result = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            double angle = Math.PI * 2 * i / count;
+            double r = 50 + rnd.nextGaussian() * noise;
+            result[i * 2] = 50 + Math.cos(angle) * r;
+            result[i * 2 + 1] = 50 + Math.sin(angle) * r;
+        }
+        return result;
+    }
+
+    private static double distance(double[] poly, boolean closed, double x, double y) {
+        double best = Double.MAX_VALUE;
+        int n = poly.length / 2;
+        int edges = closed ? n : n - 1;
+        for (int i = 0; i < edges; i++) {
+            int j = (i + 1) % n;
+            best = Math.min(best, Line2D.ptSegDist(poly[i * 2], poly[i * 2 + 1],
+                    poly[j * 2], poly[j * 2 + 1], x, y));
+        }
+        return best;
+    }
+
+    private static int countSegments(PathIterator it) {
+        int result = 0;
+        while (!it.isDone()) {
+            result++;
+            it.next();
+        }
+        return result;
+    }
+}
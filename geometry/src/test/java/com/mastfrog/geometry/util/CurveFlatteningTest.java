@@ -0,0 +1,121 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.Shape;
+import java.awt.geom.CubicCurve2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.FlatteningPathIterator;
+import java.awt.geom.PathIterator;
+import java.awt.geom.QuadCurve2D;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class CurveFlatteningTest {
+
+    @Test
+    public void testLengthsMatchFineFlattening() {
+        Shape[] shapes = new Shape[]{
+            new Ellipse2D.Double(10, 10, 300, 120),
+            new CubicCurve2D.Double(0, 0, 500, -200, -300, 400, 200, 200),
+            new QuadCurve2D.Double(5, 5, 80, 400, 300, 10),
+            new CubicCurve2D.Double(0, 0, 0.5, 0.25, 0.75, 0.5, 1, 0)
+        };
+        for (Shape shape : shapes) {
+            double expected = referenceLength(shape);
+            assertEquals(expected, GeometryUtils.shapeLength(shape),
+                    Math.max(0.005, expected * 0.0001),
+                    "Wrong length for " + shape);
+            assertEquals(expected, GeometryUtils.shapeLength(shape, 1),
+                    Math.max(0.1, expected * 0.01),
+                    "Coarse length too far off for " + shape);
+        }
+        double quadExact = GeometryUtils.quadraticSegmentLength(5, 5, 80, 400, 300, 10);
+        assertEquals(quadExact, GeometryUtils.quadraticSegmentLengthAdaptive(5, 5, 80, 400, 300, 10, 0.01),
+                quadExact * 0.0001);
+    }
+
+    @Test
+    public void testPointCountFollowsTolerance() {
+        CubicCurve2D.Double big = new CubicCurve2D.Double(0, 0, 5000, -2000, -3000, 4000, 2000, 2000);
+        CubicCurve2D.Double tiny = new CubicCurve2D.Double(0, 0, 0.5, 0.25, 0.75, 0.5, 1, 0);
+        DoubleList fine = new DoubleList();
+        DoubleList coarse = new DoubleList();
+        DoubleList small = new DoubleList();
+        GeometryUtils.flattenCubicCurve(big.x1, big.y1, big.ctrlx1, big.ctrly1,
+                big.ctrlx2, big.ctrly2, big.x2, big.y2, 0.1, fine);
+        GeometryUtils.flattenCubicCurve(big.x1, big.y1, big.ctrlx1, big.ctrly1,
+                big.ctrlx2, big.ctrly2, big.x2, big.y2, 10, coarse);
+        GeometryUtils.flattenCubicCurve(tiny.x1, tiny.y1, tiny.ctrlx1, tiny.ctrly1,
+                tiny.ctrlx2, tiny.ctrly2, tiny.x2, tiny.y2, 1, small);
+        assertEquals(2, small.size(), small::toString);
+        assertTrue(fine.size() > coarse.size() * 4, fine.size() + " vs " + coarse.size());
+        assertEquals(big.x2, fine.getDouble(fine.size() - 2));
+        assertEquals(big.y2, fine.getDouble(fine.size() - 1));
+        // Every generated vertex lies on the curve
+        Polygon2D poly = GeometryUtils.approximate(big, 0.5);
+        double[] pts = poly.pointsArray();
+        for (int i = 0; i < pts.length; i += 2) {
+            assertTrue(distanceToCurve(big, pts[i], pts[i + 1]) < 0.1,
+                    "Point " + (i / 2) + " is off the curve");
+        }
+    }
+
+    private static double distanceToCurve(CubicCurve2D c, double x, double y) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i <= 100_000; i++) {
+            double t = i / 100_000D;
+            double cx = GeometryUtils.cubicPosition(t, c.getX1(), c.getCtrlX1(), c.getCtrlX2(), c.getX2());
+            double cy = GeometryUtils.cubicPosition(t, c.getY1(), c.getCtrlY1(), c.getCtrlY2(), c.getY2());
+            best = Math.min(best, Math.hypot(cx - x, cy - y));
+        }
+        return best;
+    }
+
+    private static double referenceLength(Shape shape) {
+        PathIterator it = new FlatteningPathIterator(shape.getPathIterator(null), 0.00001, 20);
+        double[] d = new double[6];
+        double result = 0;
+        double lx = 0;
+        double ly = 0;
+        while (!it.isDone()) {
+            int type = it.currentSegment(d);
+            if (type == PathIterator.SEG_LINETO) {
+                result += Math.hypot(d[0] - lx, d[1] - ly);
+            }
+            if (type != PathIterator.SEG_CLOSE) {
+                lx = d[0];
+                ly = d[1];
+            }
+            it.next();
+        }
+        return result;
+    }
+}
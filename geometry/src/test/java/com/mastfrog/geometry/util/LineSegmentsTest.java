@@ -0,0 +1,182 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.function.state.Int;
+import com.mastfrog.geometry.Polygon2D;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class LineSegmentsTest {
+
+    @Test
+    public void testSweepMatchesAllPairs() {
+        Random rnd = new Random(5_329_017);
+        for (int round = 0; round < 20; round++) {
+            LineSegments a = randomSegments(rnd, 50 + rnd.nextInt(150));
+            LineSegments b = randomSegments(rnd, 50 + rnd.nextInt(150));
+            int expected = allPairs(a, b);
+            assertEquals(expected, a.intersectionCount(b), "Round " + round);
+            Int visited = Int.create();
+            a.visitIntersections(b, (ia, ib, x, y) -> {
+                visited.increment();
+                assertTrue(GeometryUtils.linesIntersect(a.x1(ia), a.y1(ia), a.x2(ia), a.y2(ia),
+                        b.x1(ib), b.y1(ib), b.x2(ib), b.y2(ib), false));
+                assertTrue(a.line(ia).ptSegDist(x, y) < 0.000001, "Point not on " + a.line(ia));
+                assertTrue(b.line(ib).ptSegDist(x, y) < 0.000001, "Point not on " + b.line(ib));
+            });
+            assertEquals(expected, visited.getAsInt());
+        }
+    }
+
+    @Test
+    public void testPolygonsMatchPreviousImplementation() {
+        Random rnd = new Random(73_108);
+        for (int round = 0; round < 10; round++) {
+            Polygon2D a = randomPolygon(rnd, 40 + rnd.nextInt(60));
+            Polygon2D b = randomPolygon(rnd, 40 + rnd.nextInt(60));
+            for (boolean includeClose : new boolean[]{true, false}) {
+                Int expected = Int.create();
+                a.visitLines((ax, ay, bx, by) -> {
+                    b.visitLines((cx, cy, dx, dy) -> {
+                        if (GeometryUtils.linesIntersect(ax, ay, bx, by, cx, cy, dx, dy, false)) {
+                            expected.increment();
+                        }
+                    }, includeClose);
+                }, includeClose);
+                assertEquals(expected.getAsInt(), a.intersectionCount(b, includeClose));
+            }
+        }
+    }
+
+    @Test
+    public void testAbuttingSegmentsAreNotCounted() {
+        LineSegments a = new LineSegments();
+        LineSegments b = new LineSegments();
+        for (int i = 0; i < 100; i++) {
+            a.accept(i, 0, i + 1, 10);
+            b.accept(i + 1, 10, i + 2, 0);
+        }
+        assertEquals(allPairs(a, b), a.intersectionCount(b));
+    }
+
+    @Test
+    public void testPolygonSelfIntersection() {
+        assertFalse(GeometryUtils.containsIntersectingLines(new double[]{0, 0, 10, 0, 10, 10, 0, 10}));
+        assertTrue(GeometryUtils.containsIntersectingLines(new double[]{0, 0, 10, 10, 10, 0, 0, 10}));
+        int[] pair = new int[2];
+        assertTrue(GeometryUtils.findIntersectingLines(new double[]{0, 0, 10, 0, 10, 10, 10, 10, 0, 10},
+                (a, b) -> {
+                    pair[0] = a;
+                    pair[1] = b;
+                }));
+        assertArrayEquals(new int[]{2, 2}, pair);
+        Random rnd = new Random(40_221);
+        for (int round = 0; round < 200; round++) {
+            int count = 4 + rnd.nextInt(round < 100 ? 20 : 600);
+            boolean convex = rnd.nextBoolean();
+            double[] pts = new double[count * 2];
+            for (int i = 0; i < count; i++) {
+                double angle = (Math.PI * 2 * i) / count;
+                double radius = convex ? 100 : 20 + rnd.nextDouble() * 80;
+                pts[i * 2] = 200 + Math.cos(angle) * radius;
+                pts[i * 2 + 1] = 200 + Math.sin(angle) * radius;
+                if (!convex && rnd.nextInt(count) == 0) {
+                    pts[i * 2] = rnd.nextDouble() * 400;
+                }
+            }
+            int[] found = new int[]{-1, -1};
+            boolean result = GeometryUtils.findIntersectingLines(pts, (a, b) -> {
+                found[0] = a;
+                found[1] = b;
+            });
+            assertEquals(bruteForceSelfIntersects(pts), result, "Round " + round + " with " + count);
+            if (convex) {
+                assertFalse(result, "Convex polygon should not self-intersect");
+            }
+            if (result) {
+                LineSegments edges = LineSegments.ofPolygon(pts);
+                assertTrue(edges.line(found[0]).intersectsLine(edges.line(found[1])),
+                        "Reported non-intersecting edges " + found[0] + ", " + found[1]);
+            }
+        }
+    }
+
+    private static boolean bruteForceSelfIntersects(double[] pts) {
+        LineSegments edges = LineSegments.ofPolygon(pts);
+        int n = edges.size();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 2; j < n; j++) {
+                if (i == 0 && j == n - 1) {
+                    continue;
+                }
+                if (edges.line(i).intersectsLine(edges.line(j))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int allPairs(LineSegments a, LineSegments b) {
+        int result = 0;
+        for (int i = 0; i < a.size(); i++) {
+            for (int j = 0; j < b.size(); j++) {
+                if (GeometryUtils.linesIntersect(a.x1(i), a.y1(i), a.x2(i), a.y2(i),
+                        b.x1(j), b.y1(j), b.x2(j), b.y2(j), false)) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static LineSegments randomSegments(Random rnd, int count) {
+        LineSegments result = new LineSegments(count);
+        for (int i = 0; i < count; i++) {
+            double x = rnd.nextInt(500);
+            double y = rnd.nextInt(500);
+            // integer coordinates so some endpoints coincide and some
+            // segments are collinear
+            result.accept(x, y, x + rnd.nextInt(60) - 30, y + rnd.nextInt(60) - 30);
+        }
+        return result;
+    }
+
+    private static Polygon2D randomPolygon(Random rnd, int count) {
+        double[] pts = new double[count * 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = rnd.nextInt(200);
+        }
+        return new Polygon2D(pts);
+    }
+}
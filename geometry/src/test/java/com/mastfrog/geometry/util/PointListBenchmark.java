@@ -0,0 +1,136 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import java.awt.geom.AffineTransform;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares bulk transforms, bounds and nearest-point queries over a
+ * PointListDouble with the same operations on an interleaved coordinate
+ * array.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointListBenchmark {
+
+    @Param({"1024", "65536"})
+    public int points;
+
+    private final AffineTransform xform
+            = AffineTransform.getRotateInstance(0.001, 500, 500);
+    private double[] interleaved;
+    private PointListDouble list;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(points);
+        interleaved = new double[points * 2];
+        for (int i = 0; i < interleaved.length; i++) {
+            interleaved[i] = rnd.nextDouble() * 1000;
+        }
+        list = PointListDouble.ofInterleaved(interleaved);
+    }
+
+    @Benchmark
+    public void transformInterleaved(Blackhole bh) {
+        xform.transform(interleaved, 0, interleaved, 0, points);
+        bh.consume(interleaved);
+    }
+
+    @Benchmark
+    public void transformPointList(Blackhole bh) {
+        list.applyTransform(xform);
+        bh.consume(list);
+    }
+
+    @Benchmark
+    public void boundsInterleaved(Blackhole bh) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < interleaved.length; i += 2) {
+            minX = Math.min(minX, interleaved[i]);
+            maxX = Math.max(maxX, interleaved[i]);
+            minY = Math.min(minY, interleaved[i + 1]);
+            maxY = Math.max(maxY, interleaved[i + 1]);
+        }
+        bh.consume(minX + minY + maxX + maxY);
+    }
+
+    @Benchmark
+    public void boundsPointList(Blackhole bh) {
+        bh.consume(list.bounds());
+    }
+
+    @Benchmark
+    public void nearestInterleaved(Blackhole bh) {
+        double best = Double.MAX_VALUE;
+        int result = -1;
+        for (int i = 0; i < interleaved.length; i += 2) {
+            double dx = interleaved[i] - 500;
+            double dy = interleaved[i + 1] - 500;
+            double dist = dx * dx + dy * dy;
+            if (dist < best) {
+                best = dist;
+                result = i / 2;
+            }
+        }
+        bh.consume(result);
+    }
+
+    @Benchmark
+    public void nearestPointList(Blackhole bh) {
+        bh.consume(list.nearest(500, 500));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PointListBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,177 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Mastfrog Technologies.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.geometry.util;
+
+import com.mastfrog.geometry.EqPointDouble;
+import com.mastfrog.geometry.Polygon2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+public class PointListTest {
+
+    @Test
+    public void testTransformMatchesAffineTransform() {
+        double[] pts = randomPoints(1000, new Random(3));
+        AffineTransform[] xforms = {
+            AffineTransform.getTranslateInstance(10, -20),
+            AffineTransform.getScaleInstance(2, 0.5),
+            AffineTransform.getRotateInstance(0.7, 100, 100),
+            AffineTransform.getShearInstance(0.3, -0.2)
+        };
+        for (AffineTransform xform : xforms) {
+            double[] expected = new double[pts.length];
+            xform.transform(pts, 0, expected, 0, pts.length / 2);
+            PointListDouble dbl = PointListDouble.ofInterleaved(pts);
+            dbl.applyTransform(xform);
+            assertArrayEquals(expected, dbl.toInterleavedArray(), 0.0000001, xform.toString());
+            PointListFloat flt = PointListFloat.ofInterleaved(pts);
+            flt.applyTransform(xform);
+            assertArrayEquals(expected, flt.toInterleavedArray(), 0.01, xform.toString());
+        }
+    }
+
+    @Test
+    public void testBoundsNearestAndCentroid() {
+        double[] pts = randomPoints(500, new Random(7));
+        PointList[] lists = {PointListDouble.ofInterleaved(pts), PointListFloat.ofInterleaved(pts)};
+        Polygon2D poly = new Polygon2D(pts);
+        for (PointList list : lists) {
+            assertEquals(500, list.size());
+            Rectangle2D expected = poly.getBounds2D();
+            Rectangle2D got = list.bounds();
+            assertEquals(expected.getMinX(), got.getMinX(), 0.001);
+            assertEquals(expected.getMinY(), got.getMinY(), 0.001);
+            assertEquals(expected.getMaxX(), got.getMaxX(), 0.001);
+            assertEquals(expected.getMaxY(), got.getMaxY(), 0.001);
+
+            Random rnd = new Random(11);
+            for (int i = 0; i < 100; i++) {
+                double x = rnd.nextDouble() * 1000;
+                double y = rnd.nextDouble() * 1000;
+                int nearest = list.nearest(x, y);
+                double best = Double.MAX_VALUE;
+                for (int j = 0; j < pts.length; j += 2) {
+                    best = Math.min(best, Point2D.distance(x, y, pts[j], pts[j + 1]));
+                }
+                assertEquals(best, Point2D.distance(x, y, list.x(nearest), list.y(nearest)), 0.001);
+                assertEquals(-1, list.nearest(x, y, best * 0.99 - 0.01));
+            }
+            double sumX = 0;
+            double sumY = 0;
+            for (int j = 0; j < pts.length; j += 2) {
+                sumX += pts[j];
+                sumY += pts[j + 1];
+            }
+            EqPointDouble centroid = list.centroid();
+            assertEquals(sumX / 500, centroid.x, 0.001);
+            assertEquals(sumY / 500, centroid.y, 0.001);
+        }
+        assertNull(new PointListDouble().centroid());
+        assertEquals(-1, new PointListFloat().nearest(0, 0));
+        assertTrue(new PointListDouble().bounds().isEmpty());
+    }
+
+    @Test
+    public void testFilter() {
+        double[] pts = randomPoints(400, new Random(13));
+        Rectangle2D rect = new Rectangle2D.Double(200, 300, 400, 250);
+        PointListDouble list = PointListDouble.ofInterleaved(pts);
+        PointListDouble byRect = list.filter(rect);
+        PointListDouble byPredicate = list.filter((x, y) -> x >= 200 && x <= 600 && y >= 300 && y <= 550);
+        assertTrue(byRect.size() > 0);
+        assertTrue(byRect.size() < list.size());
+        assertArrayEquals(byPredicate.toInterleavedArray(), byRect.toInterleavedArray());
+        for (int i = 0; i < byRect.size(); i++) {
+            assertTrue(rect.contains(byRect.x(i), byRect.y(i)));
+        }
+        PointListFloat flt = PointListFloat.ofInterleaved(pts).filter(rect);
+        assertEquals(byRect.size(), flt.size());
+    }
+
+    @Test
+    public void testConversions() {
+        double[] pts = randomPoints(50, new Random(17));
+        Polygon2D poly = new Polygon2D(pts.clone());
+        PointListDouble fromPoly = PointListDouble.of(poly);
+        assertArrayEquals(pts, fromPoly.toInterleavedArray());
+        assertArrayEquals(pts, fromPoly.toPolygon().pointsArray());
+
+        DoubleList dl = new DoubleList(pts);
+        PointListDouble fromList = PointListDouble.of(dl);
+        assertArrayEquals(pts, fromList.toDoubleList().toDoubleArray());
+
+        double[] xs = new double[50];
+        double[] ys = new double[50];
+        for (int i = 0; i < 50; i++) {
+            xs[i] = pts[i * 2];
+            ys[i] = pts[(i * 2) + 1];
+        }
+        assertArrayEquals(pts, PointListDouble.of(xs, ys).toInterleavedArray());
+
+        PointListFloat flt = PointListFloat.of(poly);
+        float[] asFloats = flt.toInterleavedFloatArray();
+        assertArrayEquals(asFloats, PointListFloat.ofInterleaved(asFloats).toInterleavedFloatArray());
+        assertArrayEquals(pts, flt.toPolygon().pointsArray(), 0.001);
+    }
+
+    @Test
+    public void testGrowthAndMutation() {
+        PointListDouble list = new PointListDouble(2);
+        for (int i = 0; i < 100; i++) {
+            list.add(i, i * 2);
+        }
+        assertEquals(100, list.size());
+        assertEquals(99, list.x(99));
+        assertEquals(198, list.y(99));
+        list.set(5, -1, -2);
+        assertEquals(-1, list.x(5));
+        assertEquals(-2, list.y(5));
+        PointListDouble copy = list.copy();
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(100, copy.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.x(0));
+        assertThrows(IllegalArgumentException.class, () -> PointListDouble.of(new double[2], new double[3]));
+    }
+
+    private static double[] randomPoints(int count, Random rnd) {
+        double[] result = new double[count * 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = rnd.nextDouble() * 1000;
+        }
+        return result;
+    }
+}